@@ -40,39 +40,61 @@ import java.awt.Graphics2D;
 import java.awt.Font;
 import java.awt.Paint;
 import java.awt.RenderingHints;
+import java.awt.Rectangle;
 import java.awt.Shape;
+import java.awt.font.FontRenderContext;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import javax.swing.event.EventListenerList;
 
 import com.orsoncharts.ChartBox3D.ChartBoxFace;
 import com.orsoncharts.axis.Axis3D;
+import com.orsoncharts.axis.CategoryAxis3D;
 import com.orsoncharts.axis.TickData;
 import com.orsoncharts.axis.ValueAxis3D;
 import com.orsoncharts.data.ItemKey;
+import com.orsoncharts.graphics3d.BSPFaceSorter;
+import com.orsoncharts.graphics3d.CoherentFaceSorter;
+import com.orsoncharts.graphics3d.DepthKeyFaceSorter;
 import com.orsoncharts.graphics3d.Dimension3D;
 import com.orsoncharts.graphics3d.DoubleSidedFace;
-import com.orsoncharts.graphics3d.Drawable3D;
 import com.orsoncharts.graphics3d.Face;
 import com.orsoncharts.graphics3d.FaceSorter;
 import com.orsoncharts.graphics3d.LabelFace;
 import com.orsoncharts.graphics3d.Object3D;
-import com.orsoncharts.graphics3d.Point3D;
+import com.orsoncharts.graphics3d.PreparableDrawable3D;
+import com.orsoncharts.graphics3d.PreparedFrame;
+import com.orsoncharts.graphics3d.ProjectionBuffer;
+import com.orsoncharts.graphics3d.ProjectionFaceSorter;
+import com.orsoncharts.graphics3d.RenderMode;
+import com.orsoncharts.graphics3d.SceneCapture;
+import com.orsoncharts.graphics3d.SceneSnapshot;
+import com.orsoncharts.graphics3d.ShadedColorCache;
 import com.orsoncharts.graphics3d.Utils2D;
 import com.orsoncharts.graphics3d.ViewPoint3D;
 import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.graphics3d.ZBufferRasterizer;
 import com.orsoncharts.legend.LegendAnchor;
 import com.orsoncharts.plot.CategoryPlot3D;
 import com.orsoncharts.plot.PiePlot3D;
@@ -82,13 +104,14 @@ import com.orsoncharts.plot.Plot3D;
 import com.orsoncharts.plot.XYZPlot;
 import com.orsoncharts.graphics3d.Offset2D;
 import com.orsoncharts.graphics3d.RenderingInfo;
-import com.orsoncharts.graphics3d.StandardFaceSorter;
 import com.orsoncharts.graphics3d.RenderedElement;
 import com.orsoncharts.interaction.InteractiveElementType;
 import com.orsoncharts.legend.LegendBuilder;
 import com.orsoncharts.legend.StandardLegendBuilder;
 import com.orsoncharts.marker.Marker;
 import com.orsoncharts.marker.MarkerData;
+import com.orsoncharts.marker.MarkerDataType;
+import com.orsoncharts.marker.MarkerLine;
 import com.orsoncharts.style.ChartStyle;
 import com.orsoncharts.style.ChartStyleChangeEvent;
 import com.orsoncharts.style.ChartStyleChangeListener;
@@ -146,7 +169,7 @@ import com.orsoncharts.util.TextAnchor;
  * @see Chart3DPanel
  */
 @SuppressWarnings("serial")
-public class Chart3D implements Drawable3D, ChartElement, 
+public class Chart3D implements PreparableDrawable3D, ChartElement, 
         Plot3DChangeListener, ChartStyleChangeListener, Serializable {
     
     /** 
@@ -156,6 +179,27 @@ public class Chart3D implements Drawable3D, ChartElement,
      */
     public static final double DEFAULT_PROJ_DIST = 1500.0;
     
+    /**
+     * The default minimum number of vertices per task for parallel 
+     * projection (see {@link #setRenderingExecutor(ExecutorService)}).
+     * 
+     * @since 1.7
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 20000;
+    
+    /** 
+     * The margin added around the drawing bounds when culling faces (this 
+     * allows for the width of the outline stroke).
+     */
+    private static final double CULLING_MARGIN = 4.0;
+    
+    /** 
+     * A sorter for the chart box faces, and for the rasterized faces in 
+     * z-buffer mode when they are used for item lookups.
+     */
+    private static final DepthKeyFaceSorter DEPTH_SORTER 
+            = new DepthKeyFaceSorter();
+    
     /**
      * The key for a property that stores the interactive element type.
      * 
@@ -241,9 +285,90 @@ public class Chart3D implements Drawable3D, ChartElement,
     
     /** A 3D model of the world (represents the chart). */
     private transient World world;
+    
+    /** 
+     * A reduced 3D model of the chart, used for draft frames (see 
+     * {@link #prepareFrame(Graphics2D, Rectangle2D, double)}).
+     */
+    private transient World draftWorld;
+    
+    /** 
+     * The tick units selected for the most recent frame (see 
+     * {@link #findAxisTickUnits(Graphics2D, double, double, double)}).
+     */
+    private transient double[] tickUnits;
+    
+    /** 
+     * The view point, projection distance and plot dimensions for which the
+     * cached tick units were selected.
+     */
+    private transient double[] tickUnitsKey;
+    
+    /** The font render context for which the tick units were selected. */
+    private transient FontRenderContext tickUnitsFRC;
+    
+    /** 
+     * The legend and title layout for the most recent frame (discarded 
+     * whenever the chart changes).
+     */
+    private transient volatile Layout layout;
+    
+    /** 
+     * A counter that is incremented whenever the layout is discarded, so 
+     * that a layout built from an earlier state of the chart (on another 
+     * thread) is not stored.
+     */
+    private transient int layoutVersion;
+    
+    /** A lock for updates to the layout and the layout version. */
+    private transient Object layoutLock;
+    
+    /** 
+     * The keys for series that have changed since the world was composed,
+     * and need to be composed again before the next draw (created on 
+     * demand).
+     */
+    private transient Set<Comparable<?>> staleSeries;
+    
+    /** 
+     * The chart box for the world, reused while the tick units are unchanged
+     * (discarded whenever the chart changes).
+     */
+    private transient CachedChartBox chartBox;
+    
+    /** The chart box for the draft world. */
+    private transient CachedChartBox draftChartBox;
+    
+    /** 
+     * A buffer for the eye and screen coordinates of the world's vertices, 
+     * reused from one frame to the next.
+     */
+    private transient ProjectionBuffer projection;
+    
+    /** 
+     * The frame that scene captures are made from, with a world that 
+     * belongs to the captures (created on demand, and kept until the chart
+     * changes).
+     */
+    private transient ChartFrame captureBase;
+    
+    /** The frame that draft scene captures are made from. */
+    private transient ChartFrame draftCaptureBase;
+    
+    /** A cache of shaded colors for the faces (created on demand). */
+    private transient ShadedColorCache shadedColors;
 
     /** An object that sorts faces for rendering (painter's algorithm). */
     private FaceSorter faceSorter;
+    
+    /** 
+     * An executor used to project the vertices in parallel ({@code null} 
+     * for sequential projection, the default).
+     */
+    private transient ExecutorService renderingExecutor;
+    
+    /** The minimum number of vertices per task for parallel projection. */
+    private int parallelThreshold;
 
     /**
      * A flag that controls whether or not element hints are added to the
@@ -251,6 +376,21 @@ public class Chart3D implements Drawable3D, ChartElement,
      */
     private boolean elementHinting;
     
+    /** 
+     * A flag that controls whether or not faces that cannot be visible are
+     * removed before the faces are sorted.
+     */
+    private boolean faceCulling;
+    
+    /** The method used to render the faces of the 3D model. */
+    private RenderMode renderMode;
+    
+    /** 
+     * The rasterizer used in {@link RenderMode#Z_BUFFER} mode (created on 
+     * demand, and reused while the drawing size does not change).
+     */
+    private transient ZBufferRasterizer rasterizer;
+    
     /**
      * Creates a 3D chart for the specified plot using the default chart
      * style.  Note that a plot instance must be used in one chart instance
@@ -297,15 +437,19 @@ public class Chart3D implements Drawable3D, ChartElement,
         this.projDist = DEFAULT_PROJ_DIST;
         this.chartBoxColor = new Color(255, 255, 255, 100);
         this.translate2D = new Offset2D();
-        this.faceSorter = new StandardFaceSorter();
+        this.faceSorter = new DepthKeyFaceSorter();
+        this.parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
         this.renderingHints = new RenderingHints(
                 RenderingHints.KEY_ANTIALIASING,
                 RenderingHints.VALUE_ANTIALIAS_ON);
         this.renderingHints.put(RenderingHints.KEY_TEXT_ANTIALIASING,
                 RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         this.elementHinting = false;
+        this.faceCulling = true;
+        this.renderMode = RenderMode.PAINTER;
         this.notify = true;
         this.listenerList = new EventListenerList();
+        this.layoutLock = new Object();
         this.style = style;
         this.style.addChangeListener(this);
         receive(new ChartStyler(this.style));
@@ -367,7 +511,9 @@ public class Chart3D implements Drawable3D, ChartElement,
     /**
      * Returns the chart title.  A {@link TableElement} is used for the title,
      * since it allows a lot of flexibility in the types of title that can
-     * be displayed.
+     * be displayed.  The size of the title is measured once and reused until
+     * the chart changes, so after modifying the title element directly you
+     * should pass it to {@link #setTitle(TableElement)} again.
      * 
      * @return The chart title (possibly {@code null}). 
      */
@@ -580,7 +726,10 @@ public class Chart3D implements Drawable3D, ChartElement,
     /**
      * Returns the legend builder.  The default value is an instance of
      * {@link StandardLegendBuilder}.  If the legend builder is {@code null}, 
-     * no legend will be displayed for the chart.
+     * no legend will be displayed for the chart.  The legend is built once 
+     * and reused until the chart changes, so after modifying the legend 
+     * builder directly you should pass it to 
+     * {@link #setLegendBuilder(LegendBuilder)} again.
      * 
      * @return The legend builder (possibly {@code null}).
      * 
@@ -771,6 +920,160 @@ public class Chart3D implements Drawable3D, ChartElement,
         fireChangeEvent();
     }
     
+    /**
+     * Returns the flag that controls whether or not faces that cannot be 
+     * visible (back faces, and faces that lie entirely outside the drawing 
+     * bounds) are removed before the faces are sorted into painting order.
+     * The default value is {@code true}.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean getFaceCulling() {
+        return this.faceCulling;
+    }
+    
+    /**
+     * Sets the flag that controls whether or not faces that cannot be 
+     * visible are removed before the faces are sorted into painting order,
+     * and sends a change event to all registered listeners.  Culling does 
+     * not change the rendered output, it only reduces the number of faces 
+     * to be sorted and painted.
+     * 
+     * @param culling  the new flag value.
+     * 
+     * @since 1.7
+     */
+    public void setFaceCulling(boolean culling) {
+        this.faceCulling = culling;
+        fireChangeEvent();
+    }
+    
+    /**
+     * Returns the method used to render the faces of the 3D model.  The 
+     * default is {@link RenderMode#PAINTER}.
+     * 
+     * @return The render mode (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public RenderMode getRenderMode() {
+        return this.renderMode;
+    }
+    
+    /**
+     * Sets the method used to render the faces of the 3D model and sends a 
+     * change event to all registered listeners.  In 
+     * {@link RenderMode#Z_BUFFER} mode the faces of the data items are 
+     * scan-converted into an image with a z-buffer instead of being sorted 
+     * and filled one by one, which is much faster for charts with a large 
+     * number of faces (dense surfaces and scatter plots, for example).  The 
+     * chart box, gridlines, lines and labels are still drawn via the 
+     * {@code Graphics2D} API.  The lines (for example, in line charts) and
+     * labels are drawn after the rasterized faces without a depth test, so
+     * they are not hidden by data items in front of them.  The z-buffer mode
+     * is intended for bitmap output (such as PNG and JPEG exports): the data
+     * items are not anti-aliased, element hints are not generated for them,
+     * and they are embedded as an image in vector output formats.  The 
+     * rendering info for a frame lists the rasterized faces in depth order 
+     * (sorted when the info is first used to look up an item), so lookups
+     * give the same result as in painter mode.
+     * 
+     * @param mode  the render mode ({@code null} not permitted).
+     * 
+     * @since 1.7
+     */
+    public void setRenderMode(RenderMode mode) {
+        ArgChecks.nullNotPermitted(mode, "mode");
+        this.renderMode = mode;
+        fireChangeEvent();
+    }
+    
+    /**
+     * Returns the object that sorts the faces of the 3D model into painting
+     * order.  The default is a {@link DepthKeyFaceSorter}.
+     * 
+     * @return The face sorter (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public FaceSorter getFaceSorter() {
+        return this.faceSorter;
+    }
+    
+    /**
+     * Sets the object that sorts the faces of the 3D model into painting 
+     * order and sends a change event to all registered listeners.  Use a
+     * {@link com.orsoncharts.graphics3d.StandardFaceSorter} to restore the
+     * comparator based sorting used in earlier releases.
+     * 
+     * @param faceSorter  the face sorter ({@code null} not permitted).
+     * 
+     * @since 1.7
+     */
+    public void setFaceSorter(FaceSorter faceSorter) {
+        ArgChecks.nullNotPermitted(faceSorter, "faceSorter");
+        this.faceSorter = faceSorter;
+        fireChangeEvent();
+    }
+    
+    /**
+     * Returns the executor used to project the vertices of the 3D model in
+     * parallel.  The default is {@code null} (the vertices are projected on 
+     * the thread that draws the chart).
+     * 
+     * @return The executor (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public ExecutorService getRenderingExecutor() {
+        return this.renderingExecutor;
+    }
+    
+    /**
+     * Sets the executor used to project the vertices of the 3D model in 
+     * parallel.  Parallel projection is only used when the model contains at
+     * least twice the parallel threshold number of vertices (see 
+     * {@link #setParallelThreshold(int)}), and the results are identical to 
+     * sequential projection.  The executor is not shut down by the chart and
+     * is not serialized.  The thread that draws the chart also takes part in
+     * the work, so the chart can be drawn from a task running in the same 
+     * executor.  To sort the faces in parallel as well, use a 
+     * {@link com.orsoncharts.graphics3d.ParallelFaceSorter} (see {@link #setFaceSorter(FaceSorter)}).
+     * 
+     * @param executor  the executor ({@code null} permitted).
+     * 
+     * @since 1.7
+     */
+    public void setRenderingExecutor(ExecutorService executor) {
+        this.renderingExecutor = executor;
+    }
+    
+    /**
+     * Returns the minimum number of vertices per task for parallel 
+     * projection.  The default value is {@link #DEFAULT_PARALLEL_THRESHOLD}.
+     * 
+     * @return The threshold.
+     * 
+     * @since 1.7
+     */
+    public int getParallelThreshold() {
+        return this.parallelThreshold;
+    }
+    
+    /**
+     * Sets the minimum number of vertices per task for parallel projection.
+     * 
+     * @param threshold  the threshold (must be positive).
+     * 
+     * @since 1.7
+     */
+    public void setParallelThreshold(int threshold) {
+        ArgChecks.positiveRequired(threshold, "threshold");
+        this.parallelThreshold = threshold;
+    }
+    
     /**
      * Returns the chart style.
      * 
@@ -802,23 +1105,58 @@ public class Chart3D implements Drawable3D, ChartElement,
     /**
      * Creates a world containing the chart and the supplied chart box.
      * 
-     * @param chartBox  the chart box ({@code null} permitted).
+     * @param chartBox  the 3D object for the chart box ({@code null} 
+     *     permitted).
+     * @param detail  the level of detail.
      */
-    private World createWorld(ChartBox3D chartBox) {
-        World result = new World();      
+    private World createWorld(Object3D chartBox, double detail) {
+        World result = new World();
+        result.setDetail(detail);
         Dimension3D dim = this.plot.getDimensions();
         double w = dim.getWidth();
         double h = dim.getHeight();
         double d = dim.getDepth();
         if (chartBox != null) {
-            result.add("chartbox", chartBox.createObject3D());
+            result.add("chartbox", chartBox);
         }
         this.plot.compose(result, -w / 2, -h / 2, -d / 2);
         return result;
     }
     
     /**
-     * Draws the chart to the specified output target.
+     * Composes the objects for the series that have changed since the world
+     * was composed (replacing the existing objects for those series).  If 
+     * the plot cannot update a series on its own, the world is discarded so
+     * that it will be recreated in full.
+     */
+    private void recomposeStaleSeries() {
+        Dimension3D dim = this.plot.getDimensions();
+        double w = dim.getWidth();
+        double h = dim.getHeight();
+        double d = dim.getDepth();
+        for (Comparable<?> key : this.staleSeries) {
+            boolean updated = false;
+            if (this.plot instanceof XYZPlot) {
+                updated = ((XYZPlot) this.plot).composeSeries(this.world, key,
+                        -w / 2, -h / 2, -d / 2);
+            } else if (this.plot instanceof CategoryPlot3D) {
+                updated = ((CategoryPlot3D) this.plot).composeSeries(
+                        this.world, key, -w / 2, -h / 2, -d / 2);
+            }
+            if (!updated) {
+                this.world = null;
+                break;
+            }
+        }
+        this.staleSeries.clear();
+    }
+    
+    /**
+     * Draws the chart to the specified output target.  The chart reuses the
+     * coordinate arrays of one projection buffer for every call to this 
+     * method, but the projected points in the returned 
+     * {@link RenderingInfo} are created for each call, so the info is not 
+     * changed when the chart is drawn again.
      * 
      * @param g2  the output target ({@code null} not permitted).
      * 
@@ -826,160 +1164,835 @@ public class Chart3D implements Drawable3D, ChartElement,
      */
     @Override
     public RenderingInfo draw(Graphics2D g2, Rectangle2D bounds) {
-        beginElement(g2, this.id, "ORSON_CHART_TOP_LEVEL");
-        Shape savedClip = g2.getClip();
-        g2.clip(bounds);
+        ChartFrame frame = prepareFrame(g2, bounds, this.projection, 1.0, false);
+        this.projection = frame.projection;
+        if (this.shadedColors == null) {
+            this.shadedColors = new ShadedColorCache();
+        }
+        return drawFrame(g2, frame, this.shadedColors, true);
+    }
+    
+    /**
+     * Prepares a frame for drawing the chart within the specified bounds.  
+     * The 3D model is built (or updated) and projected, and the faces are 
+     * sorted into painting order, then the returned frame can be painted 
+     * any number of times (concurrently, if required) to targets that are
+     * clipped to parts of the bounds.  The frame holds everything that it 
+     * draws from the chart's data (including the legend and the section 
+     * labels), so the data can be changed while the frame is being painted
+     * (on another thread), and the frame still shows the data as it was 
+     * when the frame was prepared.  The appearance attributes (such as the 
+     * fonts and colors of the axes) are read when the frame is painted.  
+     * The 3D model is shared with the chart, so no other frame should be 
+     * prepared (or drawn) from the chart while the frame is being painted.
+     * 
+     * @param g2  the graphics target used to measure the axis tick labels
+     *     ({@code null} not permitted).
+     * @param bounds  the bounds ({@code null} not permitted).
+     * 
+     * @return The prepared frame (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    @Override
+    public PreparedFrame prepareFrame(Graphics2D g2, Rectangle2D bounds) {
+        ArgChecks.nullNotPermitted(g2, "g2");
+        ArgChecks.nullNotPermitted(bounds, "bounds");
+        // the frame has its own projection buffer, since it can be painted
+        // while the chart is drawn elsewhere
+        return prepareFrame(g2, bounds, null, 1.0, false);
+    }
+    
+    /**
+     * Prepares a frame for drawing the chart within the specified bounds,
+     * with a reduced level of detail.  When {@code detail} is less than 
+     * {@code 1.0} the frame is prepared from a separate 3D model of the 
+     * chart in which the plot and renderers compose fewer objects (for 
+     * example, fewer pie segments, a coarser surface or a subset of the 
+     * points in a scatter chart), and it is painted without antialiasing.  
+     * The reduced model is kept until the chart changes, so that draft 
+     * frames and full frames can be alternated without recomposing either 
+     * model.
+     * 
+     * @param g2  the graphics target used to measure the axis tick labels
+     *     ({@code null} not permitted).
+     * @param bounds  the bounds ({@code null} not permitted).
+     * @param detail  the level of detail (greater than {@code 0.0} and not
+     *     greater than {@code 1.0}, full detail).
+     * 
+     * @return The prepared frame (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    @Override
+    public PreparedFrame prepareFrame(Graphics2D g2, Rectangle2D bounds, 
+            double detail) {
+        ArgChecks.nullNotPermitted(g2, "g2");
+        ArgChecks.nullNotPermitted(bounds, "bounds");
+        if (!(detail > 0.0 && detail <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 'detail' in the range (0.0, 1.0].");
+        }
+        return prepareFrame(g2, bounds, null, detail, false);
+    }
+    
+    /**
+     * Captures the current state of the chart so that frames can be 
+     * prepared and painted on another thread while the chart is changed 
+     * (this is used for asynchronous rendering in a 
+     * {@link com.orsoncharts.graphics3d.swing.Panel3D}).  The capture holds
+     * its own 3D model, along with the axes, legend and title, copied as 
+     * for {@link #createSnapshot()}, and a copy of the view point.  The 
+     * model is composed when the first capture is made, and shared by later
+     * captures until the chart changes or the axis tick units selected for
+     * the view point change, so a capture after the view point alone has 
+     * changed does little more than copy the view point.  The projection and
+     * sorting are done when a frame is prepared from the capture.
+     * <br><br>
+     * This method must be called on the thread that modifies the chart.
+     * 
+     * @param g2  the graphics target used to measure the axis tick labels
+     *     ({@code null} not permitted).
+     * @param detail  the level of detail (greater than {@code 0.0} and not
+     *     greater than {@code 1.0}, full detail).
+     * 
+     * @return The capture (never {@code null}).
+     * 
+     * @throws IllegalStateException if the axes or the title cannot be 
+     *     serialized.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public SceneCapture captureScene(Graphics2D g2, double detail) {
+        ArgChecks.nullNotPermitted(g2, "g2");
+        if (!(detail > 0.0 && detail <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 'detail' in the range (0.0, 1.0].");
+        }
+        g2.addRenderingHints(this.renderingHints);
+        ChartFrame base = detail < 1.0 ? this.draftCaptureBase 
+                : this.captureBase;
+        if (base != null && (base.detail != detail 
+                || (base.tickUnits != null && !Arrays.equals(base.tickUnits,
+                findAxisTickUnits(g2, base.w, base.h, base.depth))))) {
+            base = null;
+        }
+        if (base == null) {
+            base = composeFrame(g2, detail, true);
+            base.world.getFaces();
+            base.sorter = createSnapshotSorter();
+            if (detail < 1.0) {
+                this.draftCaptureBase = base;
+            } else {
+                this.captureBase = base;
+            }
+        }
+        ChartFrame frame = base.copy(null);
+        frame.viewPoint = new ViewPoint3D(this.viewPoint);
+        frame.projDist = this.projDist;
+        frame.translate2D = this.translate2D;
+        return new ChartCapture(frame, this.faceCulling, 
+                this.renderingExecutor, this.parallelThreshold);
+    }
+    
+    /**
+     * Creates a snapshot of the chart's 3D scene that can be drawn by any 
+     * number of threads at once, at any size.  The snapshot holds its own
+     * 3D model, composed from the current state of the chart, along with a 
+     * copy of the view point, and the model is projected and sorted once 
+     * only, here.  Drawing the snapshot does not modify it (or the chart), 
+     * and each draw uses its own working storage.
+     * <br><br>
+     * The axes (with their markers) and the title are copied by 
+     * serialization, and the legend is built here, so the snapshot is not 
+     * affected by later changes to the chart (the legend and title are 
+     * measured again for each size that the snapshot is drawn at).  Face 
+     * culling is not applied to snapshots, since they are not tied to a 
+     * size.
+     * 
+     * @return A new snapshot (never {@code null}).
+     * 
+     * @throws IllegalStateException if the axes or the title cannot be 
+     *     serialized.
+     * 
+     * @since 1.7
+     */
+    public SceneSnapshot createSnapshot() {
+        // the tick labels are measured with a scratch graphics target 
+        BufferedImage image = new BufferedImage(1, 1, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            return new ChartSnapshot(prepareFrame(g2, null, null, 1.0, true));
+        } finally {
+            g2.dispose();
+        }
+    }
+    
+    /**
+     * Creates snapshots of the chart's 3D scene from a sequence of view 
+     * points (for example, for the frames of an animation).  The 3D model 
+     * is composed once only, and shared by the snapshots, then it is 
+     * projected and sorted for each view point.  The axis tick units are 
+     * selected for the chart's current view point, and used for all the 
+     * snapshots, along with the axes, legend and title captured here (see 
+     * {@link #createSnapshot()}).  The view points are projected and sorted one 
+     * after another, here; to spread that work over several threads, use 
+     * {@link #createSnapshot(SceneSnapshot, ViewPoint3D)} instead.
+     * 
+     * @param viewPoints  the view points ({@code null} not permitted).
+     * 
+     * @return The snapshots, one for each view point.
+     * 
+     * @throws IllegalStateException if the axes or the title cannot be 
+     *     serialized.
+     * 
+     * @since 1.7
+     */
+    public List<SceneSnapshot> createSnapshots(List<ViewPoint3D> viewPoints) {
+        ArgChecks.nullNotPermitted(viewPoints, "viewPoints");
+        BufferedImage image = new BufferedImage(1, 1, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        ChartFrame base;
+        try {
+            base = prepareFrame(g2, null, null, 1.0, true);
+        } finally {
+            g2.dispose();
+        }
+        List<Face> faces = base.world.getFaces();
+        List<SceneSnapshot> result = new ArrayList<SceneSnapshot>(
+                viewPoints.size());
+        FaceSorter sorter = createSnapshotSorter();
+        for (ViewPoint3D vp : viewPoints) {
+            result.add(new ChartSnapshot(prepareView(base, faces, vp, 
+                    sorter)));
+        }
+        return result;
+    }
+    
+    /**
+     * Creates a snapshot of the chart's 3D scene from a different view 
+     * point, sharing the 3D model (and the axis tick units) of an existing
+     * snapshot.  The model is only projected and sorted here, and the base
+     * snapshot is not modified, so several threads can create snapshots
+     * from the same base at once (for example, to prepare the frames of an
+     * animation in parallel, after composing the model once with 
+     * {@link #createSnapshot()}).  The axes, legend and title of the base
+     * snapshot are shared too.
+     * 
+     * @param base  a snapshot created by this chart ({@code null} not 
+     *     permitted).
+     * @param viewPoint  the view point ({@code null} not permitted).
+     * 
+     * @return A new snapshot (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public SceneSnapshot createSnapshot(SceneSnapshot base, 
+            ViewPoint3D viewPoint) {
+        ArgChecks.nullNotPermitted(base, "base");
+        ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
+        if (!(base instanceof ChartSnapshot) 
+                || ((ChartSnapshot) base).getChart() != this) {
+            throw new IllegalArgumentException(
+                    "The 'base' snapshot was not created by this chart.");
+        }
+        ChartFrame frame = ((ChartSnapshot) base).frame;
+        return new ChartSnapshot(prepareView(frame, frame.world.getFaces(), 
+                viewPoint, createSnapshotSorter()));
+    }
+    
+    /**
+     * Prepares a frame that shares the 3D model of a snapshot frame, for a 
+     * different view point.
+     * 
+     * @param base  the snapshot frame.
+     * @param faces  the faces of the base frame's world.
+     * @param viewPoint  the view point.
+     * @param sorter  the face sorter.
+     * 
+     * @return The frame.
+     */
+    private ChartFrame prepareView(ChartFrame base, List<Face> faces, 
+            ViewPoint3D viewPoint, FaceSorter sorter) {
+        ChartFrame frame = base.copy(null);
+        frame.viewPoint = new ViewPoint3D(viewPoint);
+        frame.projection = base.world.project(frame.viewPoint, 
+                frame.projDist, null, this.renderingExecutor, 
+                this.parallelThreshold);
+        sortFaces(frame, faces, null, sorter);
+        frame.pieLabels = preparePieLabels(frame);
+        return frame;
+    }
+    
+    /**
+     * Prepares a frame for drawing the chart.
+     * 
+     * @param g2  the graphics target.
+     * @param bounds  the bounds.
+     * @param buffer  a projection buffer to reuse ({@code null} permitted).
+     * @param detail  the level of detail.
+     * @param snapshot  if {@code true}, the frame is prepared from a newly
+     *     composed world, so that it does not share any state with the 
+     *     chart, and no faces are culled (the bounds are ignored and can be 
+     *     {@code null}).
+     * 
+     * @return The prepared frame.
+     */
+    private ChartFrame prepareFrame(Graphics2D g2, Rectangle2D bounds, 
+            ProjectionBuffer buffer, double detail, boolean snapshot) {
+        ChartFrame frame = composeFrame(g2, detail, snapshot);
+        if (bounds != null) {
+            frame.setBounds(bounds);
+        }
+        frame.projection = frame.world.project(frame.viewPoint, 
+                frame.projDist, buffer, this.renderingExecutor, 
+                this.parallelThreshold);
+        
+        // sort faces by z-order
+        Rectangle2D visible = null;
+        if (this.faceCulling && !snapshot) {
+            visible = cullingArea(frame);
+        }
+        sortFaces(frame, frame.world.getFaces(), visible, snapshot 
+                ? createSnapshotSorter() : this.faceSorter);
+        frame.pieLabels = preparePieLabels(frame);
+        if (bounds != null) {
+            frame.layout = findLayout(g2, bounds);
+        }
+        return frame;
+    }
+    
+    /**
+     * Returns the area outside which faces are culled for a frame (the 
+     * bounds of the frame, in the coordinates of the projection, with a 
+     * margin).
+     * 
+     * @param frame  the frame (with the bounds set).
+     * 
+     * @return The area. 
+     */
+    private static Rectangle2D cullingArea(ChartFrame frame) {
+        Rectangle2D bounds = frame.bounds;
+        return new Rectangle2D.Double(
+                bounds.getX() - frame.dx - CULLING_MARGIN, 
+                bounds.getY() - frame.dy - CULLING_MARGIN, 
+                bounds.getWidth() + 2 * CULLING_MARGIN, 
+                bounds.getHeight() + 2 * CULLING_MARGIN);
+    }
+    
+    /**
+     * Composes (or updates) the 3D model for a frame, and captures the 
+     * current view point and the other state of the chart that is read when
+     * the frame is drawn.  The frame is not projected.
+     * 
+     * @param g2  the graphics target (used to select the axis tick units).
+     * @param detail  the level of detail.
+     * @param snapshot  if {@code true}, the frame is composed in a new world,
+     *     so that it does not share any state with the chart.
+     * 
+     * @return The frame.
+     */
+    private ChartFrame composeFrame(Graphics2D g2, double detail, 
+            boolean snapshot) {
         g2.addRenderingHints(this.renderingHints);
-        g2.setStroke(new BasicStroke(1.5f, BasicStroke.CAP_ROUND, 
-                BasicStroke.JOIN_ROUND, 1f));
         Dimension3D dim3D = this.plot.getDimensions();
         double w = dim3D.getWidth();
         double h = dim3D.getHeight();
         double depth = dim3D.getDepth();
-        ChartBox3D chartBox = null;
+        CachedChartBox box = null;
         if (this.plot instanceof XYZPlot 
                 || this.plot instanceof CategoryPlot3D) {
             double[] tickUnits = findAxisTickUnits(g2, w, h, depth);
-            chartBox = new ChartBox3D(w, h, depth, -w / 2, -h / 2, -depth / 2, 
-                    this.chartBoxColor);
-            chartBox.setXTicks(fetchXTickData(this.plot, tickUnits[0]));
-            chartBox.setYTicks(fetchYTickData(this.plot, tickUnits[1]));
-            chartBox.setZTicks(fetchZTickData(this.plot, tickUnits[2]));
-            chartBox.setXMarkers(fetchXMarkerData(this.plot));
-            chartBox.setYMarkers(fetchYMarkerData(this.plot));
-            chartBox.setZMarkers(fetchZMarkerData(this.plot));
-        }
-        if (this.world == null) {
-            this.world = createWorld(chartBox);
-        } else if (chartBox != null) {
-            this.world.clear("chartbox");
-            this.world.add("chartbox", chartBox.createObject3D());
-        }
-        if (this.background != null) {
-            this.background.fill(g2, bounds);
+            if (snapshot) {
+                box = createChartBox(w, h, depth, tickUnits);
+            } else if (detail < 1.0) {
+                if (this.draftChartBox == null 
+                        || !Arrays.equals(tickUnits, 
+                        this.draftChartBox.tickUnits)) {
+                    this.draftChartBox = createChartBox(w, h, depth, 
+                            tickUnits);
+                }
+                box = this.draftChartBox;
+            } else {
+                if (this.chartBox == null 
+                        || !Arrays.equals(tickUnits, this.chartBox.tickUnits)) {
+                    this.chartBox = createChartBox(w, h, depth, tickUnits);
+                }
+                box = this.chartBox;
+            }
+        }
+        Object3D boxObject = box != null ? box.object : null;
+        World world;
+        if (snapshot) {
+            world = createWorld(boxObject, detail);
+        } else if (detail < 1.0) {
+            if (this.draftWorld == null 
+                    || this.draftWorld.getDetail() != detail) {
+                this.draftWorld = createWorld(boxObject, detail);
+            } else if (box != null && box.world != this.draftWorld) {
+                this.draftWorld.clear("chartbox");
+                this.draftWorld.add("chartbox", boxObject);
+            }
+            world = this.draftWorld;
+        } else {
+            if (this.world != null && this.staleSeries != null 
+                    && !this.staleSeries.isEmpty()) {
+                recomposeStaleSeries();
+            }
+            if (this.world == null) {
+                this.world = createWorld(boxObject, 1.0);
+                if (this.staleSeries != null) {
+                    this.staleSeries.clear();
+                }
+            } else if (box != null && box.world != this.world) {
+                this.world.clear("chartbox");
+                this.world.add("chartbox", boxObject);
+            }
+            world = this.world;
+        }
+        if (box != null) {
+            box.world = world;
+        }
+        ChartFrame frame = new ChartFrame();
+        frame.decorations = createDecorations(snapshot);
+        frame.detail = detail;
+        frame.w = w;
+        frame.h = h;
+        frame.depth = depth;
+        frame.tickUnits = box != null ? box.tickUnits : null;
+        frame.chartBox = box != null ? box.chartBox : null;
+        frame.world = world;
+        frame.viewPoint = new ViewPoint3D(this.viewPoint);
+        frame.projDist = this.projDist;
+        frame.translate2D = this.translate2D;
+        frame.renderMode = this.renderMode;
+        createPieLabelSource(frame);
+        return frame;
+    }
+    
+    /**
+     * Creates a chart box for the current plot, with the specified tick 
+     * units, along with the 3D object for the box.
+     * 
+     * @param w  the plot width.
+     * @param h  the plot height.
+     * @param depth  the plot depth.
+     * @param tickUnits  the tick units for the axes.
+     * 
+     * @return The chart box. 
+     */
+    private CachedChartBox createChartBox(double w, double h, double depth,
+            double[] tickUnits) {
+        ChartBox3D chartBox = new ChartBox3D(w, h, depth, -w / 2, -h / 2, 
+                -depth / 2, this.chartBoxColor);
+        chartBox.setXTicks(fetchXTickData(this.plot, tickUnits[0]));
+        chartBox.setYTicks(fetchYTickData(this.plot, tickUnits[1]));
+        chartBox.setZTicks(fetchZTickData(this.plot, tickUnits[2]));
+        chartBox.setXMarkers(fetchXMarkerData(this.plot));
+        chartBox.setYMarkers(fetchYMarkerData(this.plot));
+        chartBox.setZMarkers(fetchZMarkerData(this.plot));
+        CachedChartBox result = new CachedChartBox();
+        result.tickUnits = tickUnits;
+        result.chartBox = chartBox;
+        result.object = chartBox.createObject3D();
+        return result;
+    }
+    
+    /**
+     * Returns {@code true} if the face sorter keeps state from one frame to
+     * the next, which is only reused while it is passed the same faces (a
+     * {@link CoherentFaceSorter} or a {@link BSPFaceSorter}).  For such a sorter, all the faces of the
+     * world are sorted and then culled, rather than culled first, since the
+     * faces that are culled change whenever the view point moves.
+     * 
+     * @param sorter  the sorter.
+     * 
+     * @return A boolean. 
+     */
+    private static boolean isFrameCoherent(FaceSorter sorter) {
+        return sorter instanceof CoherentFaceSorter 
+                || sorter instanceof BSPFaceSorter;
+    }
+    
+    /**
+     * Returns the face sorter for snapshots.  A sorter that keeps state 
+     * between frames is not shared with snapshots (which can be created on
+     * other threads, and would discard the state for the chart's frames), 
+     * a new instance is used instead.
+     * 
+     * @return The face sorter. 
+     */
+    private FaceSorter createSnapshotSorter() {
+        if (this.faceSorter instanceof CoherentFaceSorter) {
+            return new CoherentFaceSorter();
+        }
+        if (this.faceSorter instanceof BSPFaceSorter) {
+            return new BSPFaceSorter();
+        }
+        return this.faceSorter;
+    }
+    
+    /**
+     * Sorts the faces for a frame into painting order.  The chart box faces
+     * always lie behind the plot items, so they are sorted separately and
+     * painted first (this keeps the item faces the same from one frame to 
+     * the next, for sorters that exploit frame coherence).  In z-buffer 
+     * mode, the faces that are rasterized are separated out, and not 
+     * sorted.
+     * 
+     * @param frame  the frame (with the projection set).
+     * @param faces  all the faces in the world.
+     * @param visible  the visible area, used to cull faces ({@code null} if
+     *     faces are not culled).
+     * @param sorter  the face sorter.
+     */
+    private void sortFaces(ChartFrame frame, List<Face> faces, 
+            Rectangle2D visible, FaceSorter sorter) {
+        List<Face> boxFaces = new ArrayList<Face>();
+        List<Face> itemFaces = new ArrayList<Face>(faces.size());
+        for (Face f : faces) {
+            if (f instanceof ChartBoxFace) {
+                boxFaces.add(f);
+            } else {
+                itemFaces.add(f);
+            }
+        }
+        if (visible != null) {
+            boxFaces = cullFaces(boxFaces, frame.projection, visible);
+        }
+        frame.faces = DEPTH_SORTER.sort(boxFaces, frame.projection);
+        if (frame.renderMode == RenderMode.Z_BUFFER) {
+            // only the faces that are drawn via the Graphics2D API need to 
+            // be sorted, the others are rasterized in any order
+            List<Face> rasterFaces = new ArrayList<Face>();
+            List<Face> overlayFaces = new ArrayList<Face>();
+            for (Face f : itemFaces) {
+                if (f instanceof LabelFace || f.getVertexCount() < 3) {
+                    overlayFaces.add(f);
+                } else {
+                    rasterFaces.add(f);
+                }
+            }
+            if (visible != null) {
+                rasterFaces = cullFaces(rasterFaces, frame.projection, 
+                        visible);
+            }
+            frame.rasterFaces = rasterFaces;
+            frame.overlayFaces = sortAndCull(overlayFaces, frame.projection, 
+                    visible, sorter);
+            frame.facesInPaintOrder = new ZBufferFaceList(frame.faces, 
+                    rasterFaces, frame.overlayFaces, frame.projection);
+        } else {
+            frame.faces.addAll(sortAndCull(itemFaces, frame.projection, 
+                    visible, sorter));
+            frame.facesInPaintOrder = frame.faces;
+        }
+    }
+    
+    /**
+     * Culls (if {@code visible} is not {@code null}) and sorts faces into
+     * painting order.
+     * 
+     * @param faces  the faces.
+     * @param projection  the projection.
+     * @param visible  the visible area ({@code null} permitted).
+     * @param sorter  the face sorter.
+     * 
+     * @return The visible faces in painting order.
+     */
+    private List<Face> sortAndCull(List<Face> faces, 
+            ProjectionBuffer projection, Rectangle2D visible, 
+            FaceSorter sorter) {
+        if (visible == null) {
+            return sortFaces(faces, projection, sorter);
+        }
+        if (isFrameCoherent(sorter)) {
+            return cullFaces(sortFaces(faces, projection, sorter), 
+                    projection, visible);
+        }
+        return sortFaces(cullFaces(faces, projection, visible), projection, 
+                sorter);
+    }
+    
+    /**
+     * Sorts faces into painting order.  A sorter that does not implement 
+     * {@link ProjectionFaceSorter} is passed the eye coordinates as 
+     * {@code Point3D} instances.
+     * 
+     * @param faces  the faces.
+     * @param projection  the projection.
+     * @param sorter  the face sorter.
+     * 
+     * @return The faces in painting order.
+     */
+    private static List<Face> sortFaces(List<Face> faces, 
+            ProjectionBuffer projection, FaceSorter sorter) {
+        if (sorter instanceof ProjectionFaceSorter) {
+            return ((ProjectionFaceSorter) sorter).sort(faces, projection);
+        }
+        return sorter.sort(faces, projection.getEyePoints());
+    }
+    
+    /**
+     * Draws a prepared frame to the specified output target.
+     * 
+     * @param g2  the output target.
+     * @param frame  the frame.
+     * @param colors  the shaded color cache to use.
+     * @param reuseRasterizer  reuse the chart's rasterizer (in z-buffer 
+     *     mode), this must only be {@code true} on the thread that draws 
+     *     the chart.
+     * 
+     * @return Information about the items rendered.
+     */
+    private RenderingInfo drawFrame(Graphics2D g2, ChartFrame frame, 
+            ShadedColorCache colors, boolean reuseRasterizer) {
+        Rectangle2D bounds = frame.bounds;
+        Decorations decorations = frame.decorations;
+        boolean hinting = decorations.elementHinting;
+        beginElement(g2, decorations.id, "ORSON_CHART_TOP_LEVEL", hinting);
+        Shape savedClip = g2.getClip();
+        g2.clip(bounds);
+        g2.addRenderingHints(decorations.renderingHints);
+        if (frame.detail < 1.0) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, 
+                    RenderingHints.VALUE_ANTIALIAS_OFF);
+        }
+        g2.setStroke(new BasicStroke(1.5f, BasicStroke.CAP_ROUND, 
+                BasicStroke.JOIN_ROUND, 1f));
+        if (decorations.background != null) {
+            decorations.background.fill(g2, bounds);
         }
         AffineTransform saved = g2.getTransform();
-        double dx = bounds.getX() + bounds.getWidth() / 2.0 
-                + this.translate2D.getDX();
-        double dy = bounds.getY() + bounds.getHeight() / 2.0 
-                + this.translate2D.getDY();
+        double dx = frame.dx;
+        double dy = frame.dy;
         g2.translate(dx, dy);
-        Point3D[] eyePts = this.world.calculateEyeCoordinates(this.viewPoint);
-        Point2D[] pts = this.world.calculateProjectedPoints(this.viewPoint, 
-                this.projDist);
-        
-        // sort faces by z-order
-        List<Face> facesInPaintOrder = new ArrayList<Face>(world.getFaces());
-        facesInPaintOrder = this.faceSorter.sort(facesInPaintOrder, eyePts);
-        Line2D line = null;
+        Point2D[] pts = frame.projection.getScreenPoints();
+        RenderingInfo info = new RenderingInfo(frame.facesInPaintOrder, pts, 
+                dx, dy);
+        double[] plane = new double[3];
+        Line2D line = new Line2D.Float();
         Stroke stroke = new BasicStroke(1.0f);
-        for (Face f : facesInPaintOrder) {
-            // check for the special case where the face is just a line
-            if (f.getVertexCount() == 2) {
-                g2.setPaint(f.getColor());
-                if (line == null) {
-                    line = new Line2D.Float();
-                }
-                int v0 = f.getVertexIndex(0);
-                int v1 = f.getVertexIndex(1);
-                line.setLine(pts[v0].getX(), pts[v0].getY(), pts[v1].getX(), 
-                        pts[v1].getY());
-                g2.setStroke(stroke);
-                g2.draw(line);
-                continue;
+        for (Face f : frame.faces) {
+            drawFace(g2, f, frame, colors, plane, line, stroke, info);
+        }
+        if (frame.rasterFaces != null) {
+            rasterizeFaces(g2, frame, colors, plane, reuseRasterizer);
+            for (Face f : frame.overlayFaces) {
+                drawFace(g2, f, frame, colors, plane, line, stroke, info);
             }
-            boolean drawOutline = f.getOutline();
-            double[] plane = f.calculateNormal(eyePts);
-            double inprod = plane[0] * world.getSunX() + plane[1]
-                    * world.getSunY() + plane[2] * world.getSunZ();
-            double shade = (inprod + 1) / 2.0;
-            if (f instanceof DoubleSidedFace 
-                    || Utils2D.area2(pts[f.getVertexIndex(0)],
-                    pts[f.getVertexIndex(1)], pts[f.getVertexIndex(2)]) > 0.0) {
-                Color c = f.getColor();
-                Path2D p = f.createPath(pts);
-                g2.setPaint(new Color((int) (c.getRed() * shade),
-                        (int) (c.getGreen() * shade),
-                        (int) (c.getBlue() * shade), c.getAlpha()));
-                if (this.elementHinting) {
-                    beginElementGroup(f, g2);
-                }
-                g2.fill(p);
-                if (drawOutline) {
-                    g2.draw(p);
-                }
-                if (this.elementHinting) {
-                    endElementGroup(f, g2);
-                }
-                
-                if (f instanceof ChartBoxFace 
-                        && (this.plot instanceof CategoryPlot3D 
-                        || this.plot instanceof XYZPlot)) {
-                    Stroke savedStroke = g2.getStroke();
-                    ChartBoxFace cbf = (ChartBoxFace) f;
-                    drawGridlines(g2, cbf, pts);
-                    drawMarkers(g2, cbf, pts);
-                    g2.setStroke(savedStroke);
-                }
-            } else if (f instanceof LabelFace) {
-                LabelFace lf = (LabelFace) f;
-                Path2D p = lf.createPath(pts);
-                Rectangle2D lb = p.getBounds2D();
-                g2.setFont(lf.getFont());
-                g2.setColor(lf.getBackgroundColor());
-                Rectangle2D bb = TextUtils.calcAlignedStringBounds(
-                        lf.getLabel(), g2, 
-                        (float) lb.getCenterX(), (float) lb.getCenterY(), 
-                        TextAnchor.CENTER);
-                g2.fill(bb);
-                g2.setColor(lf.getTextColor());
-                Rectangle2D r = TextUtils.drawAlignedString(lf.getLabel(), g2, 
-                        (float) lb.getCenterX(), (float) lb.getCenterY(), 
-                        TextAnchor.CENTER);
-                lf.getOwner().setProperty("labelBounds", r);
-            } 
-        }
-        RenderingInfo info = new RenderingInfo(facesInPaintOrder, pts, dx, dy);
-        OnDrawHandler onDrawHandler = new OnDrawHandler(info, 
-                this.elementHinting);
+        }
+        OnDrawHandler onDrawHandler = new OnDrawHandler(info, hinting);
    
         // handle labels on pie plots...
-        if (this.plot instanceof PiePlot3D) {
-            drawPieLabels(g2, w, h, depth, info);
+        if (frame.pieLabels != null) {
+            drawPieLabels(g2, frame.pieLabels, info, hinting);
         }
 
         // handle axis labelling on non-pie plots...
-        if (this.plot instanceof XYZPlot || this.plot instanceof 
-                CategoryPlot3D) {
-            drawAxes(g2, chartBox, pts, info);
+        if (decorations.hasAxes()) {
+            drawAxes(g2, frame.chartBox, pts, info, decorations);
         }    
 
         g2.setTransform(saved);
         
-        // generate and draw the legend...
-        if (this.legendBuilder != null) {
-            TableElement legend = this.legendBuilder.createLegend(this.plot,
-                    this.legendAnchor, this.legendOrientation, this.style);
-            if (legend != null) {
-                Dimension2D legendSize = legend.preferredSize(g2, bounds);
-                Rectangle2D legendArea = calculateDrawArea(legendSize, 
-                        this.legendAnchor, bounds);
-                legend.draw(g2, legendArea, onDrawHandler);
+        // draw the legend...
+        Layout lo = frame.layout;
+        if (lo == null || !lo.bounds.equals(bounds) 
+                || !lo.frc.equals(g2.getFontRenderContext())) {
+            if (decorations.snapshot) {
+                lo = createLayout(g2, bounds, decorations.legend, 
+                        decorations.title);
+            } else {
+                lo = findLayout(g2, bounds);
             }
         }
+        if (lo.legend != null) {
+            Rectangle2D legendArea = calculateDrawArea(lo.legendSize, 
+                    decorations.legendAnchor, bounds);
+            lo.legend.draw(g2, legendArea, onDrawHandler);
+        }
 
         // draw the title...
-        if (this.title != null) {
-            Dimension2D titleSize = this.title.preferredSize(g2, bounds);
-            Rectangle2D titleArea = calculateDrawArea(titleSize, 
-                    this.titleAnchor, bounds);
-            this.title.draw(g2, titleArea, onDrawHandler);
+        if (lo.title != null) {
+            Rectangle2D titleArea = calculateDrawArea(lo.titleSize, 
+                    decorations.titleAnchor, bounds);
+            lo.title.draw(g2, titleArea, onDrawHandler);
         }
         g2.setClip(savedClip);
-        endElement(g2);
+        endElement(g2, hinting);
         return info;
     }
     
+    /**
+     * Returns the legend and title, with their preferred sizes, for drawing
+     * within the specified bounds.  The legend is built and the elements are
+     * measured once, then reused for later frames until the chart changes 
+     * (the legend is only rebuilt if the chart changes, and the elements are
+     * measured again if the bounds or the font render context change).
+     * 
+     * @param g2  the graphics target.
+     * @param bounds  the chart bounds.
+     * 
+     * @return The layout (never {@code null}).
+     */
+    private Layout findLayout(Graphics2D g2, Rectangle2D bounds) {
+        FontRenderContext frc = g2.getFontRenderContext();
+        int version;
+        Layout current;
+        synchronized (this.layoutLock) {
+            version = this.layoutVersion;
+            current = this.layout;
+        }
+        if (current != null && current.bounds.equals(bounds) 
+                && current.frc.equals(frc)) {
+            return current;
+        }
+        TableElement legend;
+        if (current != null) {
+            legend = current.legend;
+        } else {
+            legend = createLegend();
+        }
+        Layout result = createLayout(g2, bounds, legend, this.title);
+        synchronized (this.layoutLock) {
+            // the chart may have changed while the layout was built
+            if (version == this.layoutVersion) {
+                this.layout = result;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Measures a legend and title for drawing within the specified bounds.
+     * 
+     * @param g2  the graphics target.
+     * @param bounds  the chart bounds.
+     * @param legend  the legend ({@code null} permitted).
+     * @param title  the title ({@code null} permitted).
+     * 
+     * @return The layout (never {@code null}).
+     */
+    private static Layout createLayout(Graphics2D g2, Rectangle2D bounds, 
+            TableElement legend, TableElement title) {
+        Layout result = new Layout();
+        result.bounds = (Rectangle2D) bounds.clone();
+        result.frc = g2.getFontRenderContext();
+        result.legend = legend;
+        if (legend != null) {
+            result.legendSize = legend.preferredSize(g2, bounds);
+        }
+        result.title = title;
+        if (title != null) {
+            result.titleSize = title.preferredSize(g2, bounds);
+        }
+        return result;
+    }
+    
+    /**
+     * Builds the legend for the chart in its current state.
+     * 
+     * @return The legend ({@code null} if there is no legend builder).
+     */
+    private TableElement createLegend() {
+        if (this.legendBuilder == null) {
+            return null;
+        }
+        return this.legendBuilder.createLegend(this.plot, this.legendAnchor, 
+                this.legendOrientation, this.style);
+    }
+    
+    /**
+     * Returns the chart state, other than the 3D scene, that is read when
+     * a frame is drawn.  For a frame drawn by the chart, the state is 
+     * referenced rather than copied (and the legend and title come from the
+     * chart's layout cache).  For a snapshot, the axes and title are copied 
+     * by serialization, and the legend is built here, so that later changes 
+     * to the chart do not alter the snapshot.
+     * 
+     * @param snapshot  copy the state for a snapshot?
+     * 
+     * @return The decorations (never {@code null}).
+     * 
+     * @throws IllegalStateException if {@code snapshot} is {@code true} and
+     *     the axes or title cannot be serialized.
+     */
+    private Decorations createDecorations(boolean snapshot) {
+        Decorations result = new Decorations();
+        result.snapshot = snapshot;
+        result.id = this.id;
+        result.background = this.background;
+        result.elementHinting = this.elementHinting;
+        result.legendAnchor = this.legendAnchor;
+        result.titleAnchor = this.titleAnchor;
+        result.renderingHints = snapshot 
+                ? (RenderingHints) this.renderingHints.clone() 
+                : this.renderingHints;
+        Axis3D[] axes = null;
+        if (this.plot instanceof XYZPlot) {
+            XYZPlot xyz = (XYZPlot) this.plot;
+            axes = new Axis3D[] { xyz.getXAxis(), xyz.getYAxis(), 
+                xyz.getZAxis() };
+        } else if (this.plot instanceof CategoryPlot3D) {
+            CategoryPlot3D cp = (CategoryPlot3D) this.plot;
+            axes = new Axis3D[] { cp.getColumnAxis(), cp.getValueAxis(), 
+                cp.getRowAxis() };
+        }
+        if (axes != null) {
+            result.axes = snapshot ? serialCopy(axes) : axes;
+            result.gridlinesVisible = new boolean[] { 
+                isGridlinesVisibleForX(this.plot), 
+                isGridlinesVisibleForY(this.plot), 
+                isGridlinesVisibleForZ(this.plot) };
+            result.gridlinePaint = new Paint[] { 
+                fetchGridlinePaintX(this.plot), 
+                fetchGridlinePaintY(this.plot),
+                fetchGridlinePaintZ(this.plot) };
+            result.gridlineStroke = new Stroke[] { 
+                fetchGridlineStrokeX(this.plot), 
+                fetchGridlineStrokeY(this.plot), 
+                fetchGridlineStrokeZ(this.plot) };
+        }
+        if (snapshot) {
+            result.legend = createLegend();
+            result.title = this.title != null ? serialCopy(this.title) : null;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a deep copy of an object, made by serializing it.
+     * 
+     * @param <T>  the type of the object.
+     * @param obj  the object ({@code null} not permitted).
+     * 
+     * @return The copy.
+     * 
+     * @throws IllegalStateException if the object cannot be serialized.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T serialCopy(T obj) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(obj);
+            out.close();
+            ObjectInputStream in = new ObjectInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray()));
+            return (T) in.readObject();
+        } catch (IOException ex) {
+            throw new IllegalStateException(
+                    "The chart could not be copied for a snapshot.", ex);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException(
+                    "The chart could not be copied for a snapshot.", ex);
+        }
+    }
+    
     private void beginElementGroup(Face face, Graphics2D g2) {
         Object3D owner = face.getOwner();
         ItemKey itemKey = (ItemKey) owner.getProperty(Object3D.ITEM_KEY);
@@ -1100,28 +2113,214 @@ public class Chart3D implements Drawable3D, ChartElement,
         if (plot instanceof CategoryPlot3D) {
             return ((CategoryPlot3D) plot).getValueAxis().generateMarkerData();
         }
-        if (plot instanceof XYZPlot) {
-             return ((XYZPlot) plot).getYAxis().generateMarkerData();
+        if (plot instanceof XYZPlot) {
+             return ((XYZPlot) plot).getYAxis().generateMarkerData();
+        }
+        return new ArrayList<MarkerData>(0);    
+    }
+    
+    /**
+     * Fetches marker data for the plot's x-axis.
+     * 
+     * @param plot  the plot ({@code null} not permitted).
+     * 
+     * @return A list of marker data items (possibly empty but never 
+     *         {@code null}).
+     */
+    private List<MarkerData> fetchZMarkerData(Plot3D plot) {
+        if (plot instanceof CategoryPlot3D) {
+            return ((CategoryPlot3D) plot).getRowAxis().generateMarkerData();
+        }
+        if (plot instanceof XYZPlot) {
+             return ((XYZPlot) plot).getZAxis().generateMarkerData();
+        }
+        return new ArrayList<MarkerData>(0);    
+    }
+    
+    /**
+     * Draws one face of the 3D model via the {@code Graphics2D} API.
+     * 
+     * @param g2  the graphics target.
+     * @param f  the face.
+     * @param frame  the frame being drawn.
+     * @param colors  the shaded color cache.
+     * @param plane  an array to hold the face's normal vector.
+     * @param line  a line to reuse for faces with two vertices.
+     * @param stroke  the stroke for faces with two vertices.
+     * @param info  the rendering info, used to record the bounds of the
+     *     labels for label faces.
+     */
+    private void drawFace(Graphics2D g2, Face f, ChartFrame frame, 
+            ShadedColorCache colors, double[] plane, Line2D line, 
+            Stroke stroke, RenderingInfo info) {
+        Point2D[] pts = frame.projection.getScreenPoints();
+        // check for the special case where the face is just a line
+        if (f.getVertexCount() == 2) {
+            g2.setPaint(f.getColor());
+            int v0 = f.getVertexIndex(0);
+            int v1 = f.getVertexIndex(1);
+            line.setLine(pts[v0].getX(), pts[v0].getY(), pts[v1].getX(), 
+                    pts[v1].getY());
+            g2.setStroke(stroke);
+            g2.draw(line);
+            return;
+        }
+        boolean drawOutline = f.getOutline();
+        f.calculateNormal(frame.projection, plane);
+        double inprod = plane[0] * frame.world.getSunX() + plane[1]
+                * frame.world.getSunY() + plane[2] * frame.world.getSunZ();
+        double shade = (inprod + 1) / 2.0;
+        if (f instanceof DoubleSidedFace 
+                || f.isFrontFacing(frame.projection)) {
+            Color c = f.getColor();
+            Path2D p = f.createPath(pts);
+            g2.setPaint(colors.getShadedColor(c, shade));
+            Decorations decorations = frame.decorations;
+            if (decorations.elementHinting) {
+                beginElementGroup(f, g2);
+            }
+            g2.fill(p);
+            if (drawOutline) {
+                g2.draw(p);
+            }
+            if (decorations.elementHinting) {
+                endElementGroup(f, g2);
+            }
+            
+            if (f instanceof ChartBoxFace && decorations.hasAxes()) {
+                Stroke savedStroke = g2.getStroke();
+                ChartBoxFace cbf = (ChartBoxFace) f;
+                drawGridlines(g2, cbf, pts, decorations);
+                drawMarkers(g2, cbf, pts, decorations);
+                g2.setStroke(savedStroke);
+            }
+        } else if (f instanceof LabelFace) {
+            LabelFace lf = (LabelFace) f;
+            Path2D p = lf.createPath(pts);
+            Rectangle2D lb = p.getBounds2D();
+            g2.setFont(lf.getFont());
+            g2.setColor(lf.getBackgroundColor());
+            Rectangle2D bb = TextUtils.calcAlignedStringBounds(
+                    lf.getLabel(), g2, 
+                    (float) lb.getCenterX(), (float) lb.getCenterY(), 
+                    TextAnchor.CENTER);
+            g2.fill(bb);
+            g2.setColor(lf.getTextColor());
+            Rectangle2D r = TextUtils.drawAlignedString(lf.getLabel(), g2, 
+                    (float) lb.getCenterX(), (float) lb.getCenterY(), 
+                    TextAnchor.CENTER);
+            // the bounds are recorded per frame rather than on the owner, 
+            // since frames can be painted concurrently
+            info.setLabelBounds(lf.getOwner(), r);
+        }
+    }
+    
+    /**
+     * Scan-converts the faces of the data items in a frame into an image 
+     * using a z-buffer, then draws the image.  Only the part of the frame 
+     * that is inside the current clip is rasterized.  The faces are shaded 
+     * in the same way as in {@link #drawFace(Graphics2D, Face, ChartFrame,
+     * ShadedColorCache, double[], Line2D, Stroke, RenderingInfo)}.
+     * 
+     * @param g2  the graphics target (translated to the center of the 
+     *     frame).
+     * @param frame  the frame.
+     * @param colors  the shaded color cache.
+     * @param plane  an array to hold each face's normal vector.
+     * @param reuse  reuse the chart's rasterizer?
+     */
+    private void rasterizeFaces(Graphics2D g2, ChartFrame frame, 
+            ShadedColorCache colors, double[] plane, boolean reuse) {
+        Rectangle2D area = new Rectangle2D.Double(
+                frame.bounds.getX() - frame.dx, 
+                frame.bounds.getY() - frame.dy, frame.bounds.getWidth(), 
+                frame.bounds.getHeight());
+        Rectangle clip = g2.getClipBounds();
+        if (clip != null) {
+            Rectangle2D.intersect(area, clip, area);
+        }
+        
+        // match the device resolution when the target is scaled (but not 
+        // rotated or sheared)
+        AffineTransform t = g2.getTransform();
+        double scaleX = 1.0;
+        double scaleY = 1.0;
+        if (t.getShearX() == 0.0 && t.getShearY() == 0.0 
+                && t.getScaleX() > 0.0 && t.getScaleY() > 0.0) {
+            scaleX = t.getScaleX();
+            scaleY = t.getScaleY();
+        }
+        int iw = (int) Math.ceil(area.getWidth() * scaleX);
+        int ih = (int) Math.ceil(area.getHeight() * scaleY);
+        if (frame.rasterFaces.isEmpty() || iw <= 0 || ih <= 0) {
+            return;
         }
-        return new ArrayList<MarkerData>(0);    
+        ZBufferRasterizer r = reuse ? this.rasterizer : null;
+        if (r == null || r.getWidth() != iw || r.getHeight() != ih) {
+            r = new ZBufferRasterizer(iw, ih);
+            if (reuse) {
+                this.rasterizer = r;
+            }
+        } else {
+            r.clear();
+        }
+        ProjectionBuffer projection = frame.projection;
+        World world = frame.world;
+        double x = area.getX();
+        double y = area.getY();
+        for (Face f : frame.rasterFaces) {
+            if (!(f instanceof DoubleSidedFace 
+                    || f.isFrontFacing(projection))) {
+                continue;
+            }
+            f.calculateNormal(projection, plane);
+            double inprod = plane[0] * world.getSunX() + plane[1]
+                    * world.getSunY() + plane[2] * world.getSunZ();
+            double shade = (inprod + 1) / 2.0;
+            Color c = colors.getShadedColor(f.getColor(), shade);
+            r.fillFace(f, projection, c.getRGB(), x, y, scaleX, scaleY);
+        }
+        AffineTransform saved = g2.getTransform();
+        g2.translate(x, y);
+        g2.scale(1.0 / scaleX, 1.0 / scaleY);
+        g2.drawImage(r.getImage(), 0, 0, null);
+        g2.setTransform(saved);
     }
     
     /**
-     * Fetches marker data for the plot's x-axis.
+     * Returns a new list containing the faces that could be visible in the
+     * specified projection, in the same order as the supplied list.  A face
+     * is dropped if it would not be painted because it is back-facing (lines,
+     * double-sided faces and label faces are always kept, since they are 
+     * painted either way), or if its projected bounds do not intersect the
+     * visible area.  Chart box faces are never dropped for being outside 
+     * the visible area, since their marker labels can extend beyond the
+     * face.
      * 
-     * @param plot  the plot ({@code null} not permitted).
+     * @param faces  the faces.
+     * @param projection  the projection.
+     * @param visible  the visible area (in projected coordinates).
      * 
-     * @return A list of marker data items (possibly empty but never 
-     *         {@code null}).
+     * @return The faces that could be visible. 
      */
-    private List<MarkerData> fetchZMarkerData(Plot3D plot) {
-        if (plot instanceof CategoryPlot3D) {
-            return ((CategoryPlot3D) plot).getRowAxis().generateMarkerData();
-        }
-        if (plot instanceof XYZPlot) {
-             return ((XYZPlot) plot).getZAxis().generateMarkerData();
+    private List<Face> cullFaces(List<Face> faces, 
+            ProjectionBuffer projection, Rectangle2D visible) {
+        List<Face> result = new ArrayList<Face>(faces.size());
+        for (Face f : faces) {
+            if (f instanceof LabelFace) {
+                result.add(f);
+                continue;
+            }
+            if (f.getVertexCount() != 2 && !(f instanceof DoubleSidedFace) 
+                    && !f.isFrontFacing(projection)) {
+                continue;
+            }
+            if (f instanceof ChartBoxFace 
+                    || f.intersects(projection, visible)) {
+                result.add(f);
+            }
         }
-        return new ArrayList<MarkerData>(0);    
+        return result;
     }
     
     /**
@@ -1130,12 +2329,13 @@ public class Chart3D implements Drawable3D, ChartElement,
      * @param g2  the graphics target.
      * @param face  the face.
      * @param pts  the projection points.
+     * @param decorations  the gridline settings.
      */
     private void drawGridlines(Graphics2D g2, ChartBoxFace face, 
-            Point2D[] pts) {
-        if (isGridlinesVisibleForX(this.plot)) {
-            g2.setPaint(fetchGridlinePaintX(this.plot));
-            g2.setStroke(fetchGridlineStrokeX(this.plot));
+            Point2D[] pts, Decorations decorations) {
+        if (decorations.gridlinesVisible[0]) {
+            g2.setPaint(decorations.gridlinePaint[0]);
+            g2.setStroke(decorations.gridlineStroke[0]);
             List<TickData> xA = face.getXTicksA();
             List<TickData> xB = face.getXTicksB();
             for (int i = 0; i < xA.size(); i++) {
@@ -1146,9 +2346,9 @@ public class Chart3D implements Drawable3D, ChartElement,
             }
         }
                     
-        if (isGridlinesVisibleForY(this.plot)) {
-            g2.setPaint(fetchGridlinePaintY(this.plot));
-            g2.setStroke(fetchGridlineStrokeY(this.plot));
+        if (decorations.gridlinesVisible[1]) {
+            g2.setPaint(decorations.gridlinePaint[1]);
+            g2.setStroke(decorations.gridlineStroke[1]);
             List<TickData> yA = face.getYTicksA();
             List<TickData> yB = face.getYTicksB();
             for (int i = 0; i < yA.size(); i++) {
@@ -1159,9 +2359,9 @@ public class Chart3D implements Drawable3D, ChartElement,
             }
         }
                     
-        if (isGridlinesVisibleForZ(this.plot)) {
-            g2.setPaint(fetchGridlinePaintZ(this.plot));
-            g2.setStroke(fetchGridlineStrokeZ(this.plot));
+        if (decorations.gridlinesVisible[2]) {
+            g2.setPaint(decorations.gridlinePaint[2]);
+            g2.setStroke(decorations.gridlineStroke[2]);
             List<TickData> zA = face.getZTicksA();
             List<TickData> zB = face.getZTicksB();
             for (int i = 0; i < zA.size(); i++) {
@@ -1358,67 +2558,115 @@ public class Chart3D implements Drawable3D, ChartElement,
     }
     
     /**
-     * Draws the pie labels for a {@link PiePlot3D} in 2D-space by creating a 
-     * temporary world with vertices at anchor points for the labels, then 
-     * projecting the points to 2D-space.
+     * Creates the section labels for a {@link PiePlot3D} (if that is the 
+     * plot type), along with the 3D faces that position them, and stores 
+     * them in the frame.  The labels are positioned for a view point by 
+     * {@link #preparePieLabels(ChartFrame)}, which does not read the plot.
      * 
-     * @param g2  the graphics target.
-     * @param w  the width.
-     * @param h  the height.
-     * @param depth  the depth.
-     * @param info  the rendering info ({@code null} permitted).
+     * @param frame  the frame (with the dimensions set).
      */
     @SuppressWarnings("unchecked")
-    private void drawPieLabels(Graphics2D g2, double w, double h, 
-            double depth, RenderingInfo info) {
+    private void createPieLabelSource(ChartFrame frame) {
+        if (!(this.plot instanceof PiePlot3D)) {
+            return;
+        }
         PiePlot3D p = (PiePlot3D) this.plot;
         World labelOverlay = new World();
-        List<Object3D> objs = p.getLabelFaces(-w / 2, -h / 2, -depth / 2);
+        List<Object3D> objs = p.getLabelFaces(-frame.w / 2, -frame.h / 2, 
+                -frame.depth / 2);
         for (Object3D obj : objs) {
             labelOverlay.add(obj);
         }
-        Point2D[] ppts = labelOverlay.calculateProjectedPoints(
-                this.viewPoint, this.projDist);
+        List<PieLabel> labels = new ArrayList<PieLabel>();
         for (int i = 0; i < p.getDataset().getItemCount() * 2; i++) {
             if (p.getDataset().getValue(i / 2) == null) {
                 continue;
             }
-            Face f = labelOverlay.getFaces().get(i);
+            PieLabel label = new PieLabel();
+            label.face = labelOverlay.getFaces().get(i);
+            label.key = p.getDataset().getKey(i / 2);
+            label.color = p.getSectionLabelColorSource().getColor(label.key);
+            label.font = p.getSectionLabelFontSource().getFont(label.key);
+            label.text = p.getSectionLabelGenerator().generateLabel(
+                    p.getDataset(), label.key);
+            labels.add(label);
+        }
+        frame.pieLabelWorld = labelOverlay;
+        frame.pieLabelSource = labels;
+    }
+    
+    /**
+     * Positions the section labels of a frame for its view point, and 
+     * returns the labels that face the viewer.
+     * 
+     * @param frame  the frame (see {@link #createPieLabelSource(ChartFrame)}).
+     * 
+     * @return The labels ({@code null} if the plot is not a pie plot).
+     */
+    private static List<PieLabel> preparePieLabels(ChartFrame frame) {
+        if (frame.pieLabelSource == null) {
+            return null;
+        }
+        Point2D[] ppts = frame.pieLabelWorld.calculateProjectedPoints(
+                frame.viewPoint, frame.projDist);
+        List<PieLabel> result = new ArrayList<PieLabel>();
+        for (PieLabel source : frame.pieLabelSource) {
+            Face f = source.face;
             if (Utils2D.area2(ppts[f.getVertexIndex(0)], 
                     ppts[f.getVertexIndex(1)], 
                     ppts[f.getVertexIndex(2)]) > 0) {
-                Comparable<?> key = p.getDataset().getKey(i / 2);
-                g2.setColor(p.getSectionLabelColorSource().getColor(key));
-                g2.setFont(p.getSectionLabelFontSource().getFont(key));
-                Point2D pt = Utils2D.centerPoint(ppts[f.getVertexIndex(0)], 
+                PieLabel label = new PieLabel();
+                label.key = source.key;
+                label.color = source.color;
+                label.font = source.font;
+                label.text = source.text;
+                label.point = Utils2D.centerPoint(ppts[f.getVertexIndex(0)], 
                         ppts[f.getVertexIndex(1)], ppts[f.getVertexIndex(2)],
                         ppts[f.getVertexIndex(3)]);
-                String label = p.getSectionLabelGenerator().generateLabel(
-                        p.getDataset(), key);
-                String ref = "{\"type\": \"sectionLabel\", \"key\": \"" 
-                        + key.toString() + "\"}";
-                beginElementWithRef(g2, ref);
-                Rectangle2D bounds = TextUtils.drawAlignedString(label, g2, 
-                        (float) pt.getX(), (float) pt.getY(), 
-                        TextAnchor.CENTER);
-                endElement(g2);
-                
-                if (info != null) {
-                    RenderedElement pieLabelRE = new RenderedElement(
-                            InteractiveElementType.SECTION_LABEL, bounds);
-                    pieLabelRE.setProperty("key", key);
-                    info.addOffsetElement(pieLabelRE);
-                }
+                result.add(label);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Draws the pie labels for a {@link PiePlot3D}.
+     * 
+     * @param g2  the graphics target.
+     * @param labels  the labels (see {@link #preparePieLabels(ChartFrame)}).
+     * @param info  the rendering info ({@code null} permitted).
+     * @param hinting  add element hints?
+     */
+    private void drawPieLabels(Graphics2D g2, List<PieLabel> labels, 
+            RenderingInfo info, boolean hinting) {
+        for (PieLabel label : labels) {
+            g2.setColor(label.color);
+            g2.setFont(label.font);
+            String ref = "{\"type\": \"sectionLabel\", \"key\": \"" 
+                    + label.key.toString() + "\"}";
+            beginElementWithRef(g2, ref, hinting);
+            Rectangle2D bounds = TextUtils.drawAlignedString(label.text, g2, 
+                    (float) label.point.getX(), (float) label.point.getY(), 
+                    TextAnchor.CENTER);
+            endElement(g2, hinting);
+
+            if (info != null) {
+                RenderedElement pieLabelRE = new RenderedElement(
+                        InteractiveElementType.SECTION_LABEL, bounds);
+                pieLabelRE.setProperty("key", label.key);
+                info.addOffsetElement(pieLabelRE);
             }
         }
     }
     
-    private void beginElementWithRef(Graphics2D g2, String ref) {
-        beginElement(g2, null, ref);    
+    private void beginElementWithRef(Graphics2D g2, String ref, 
+            boolean hinting) {
+        beginElement(g2, null, ref, hinting);    
     }
     
-    private void beginElement(Graphics2D g2, String id, String ref) {
-        if (this.elementHinting) {
+    private void beginElement(Graphics2D g2, String id, String ref, 
+            boolean hinting) {
+        if (hinting) {
             Map<String, String> m = new HashMap<String, String>();
             if (id != null) {
                 m.put("id", id);
@@ -1428,14 +2676,19 @@ public class Chart3D implements Drawable3D, ChartElement,
         }    
     }
 
-    private void endElement(Graphics2D g2) {
-        if (this.elementHinting) {
+    private void endElement(Graphics2D g2, boolean hinting) {
+        if (hinting) {
             g2.setRenderingHint(Chart3DHints.KEY_END_ELEMENT, Boolean.TRUE);
         }
     }
     
     /**
-     * Determines appropriate tick units for the axes in the chart.
+     * Returns appropriate tick units for the axes in the chart.  The 
+     * selection depends only on the view point, the projection distance, the
+     * plot dimensions, the axes and the font measurements, so the units 
+     * selected for the previous frame are reused while these are unchanged 
+     * (changes to the axes arrive as plot change events, which clear the
+     * cached units).
      * 
      * @param g2  the graphics target.
      * @param w  the width.
@@ -1446,6 +2699,31 @@ public class Chart3D implements Drawable3D, ChartElement,
      */
     private double[] findAxisTickUnits(Graphics2D g2, double w, double h, 
             double depth) {
+        double[] key = new double[] { this.viewPoint.getTheta(), 
+                this.viewPoint.getPhi(), this.viewPoint.getRho(), 
+                this.viewPoint.calcRollAngle(), this.projDist, w, h, depth };
+        FontRenderContext frc = g2.getFontRenderContext();
+        if (this.tickUnits == null || !Arrays.equals(key, this.tickUnitsKey)
+                || !frc.equals(this.tickUnitsFRC)) {
+            this.tickUnits = selectAxisTickUnits(g2, w, h, depth);
+            this.tickUnitsKey = key;
+            this.tickUnitsFRC = frc;
+        }
+        return this.tickUnits.clone();
+    }
+    
+    /**
+     * Selects appropriate tick units for the axes in the chart.
+     * 
+     * @param g2  the graphics target.
+     * @param w  the width.
+     * @param h  the height.
+     * @param depth  the depth.
+     * 
+     * @return The tick sizes. 
+     */
+    private double[] selectAxisTickUnits(Graphics2D g2, double w, double h, 
+            double depth) {
         World tempWorld = new World();
         ChartBox3D chartBox = new ChartBox3D(w, h, depth, -w / 2.0, -h / 2.0, 
                 -depth / 2.0, Color.WHITE);
@@ -1559,10 +2837,26 @@ public class Chart3D implements Drawable3D, ChartElement,
         return new double[] { xtick, ytick, ztick };
     }
     
-    private void populateAnchorPoints(List<TickData> tickData, Point2D[] pts) {
+    /**
+     * Returns copies of the tick data with the anchor points set from the 
+     * projected points.  The chart box's own tick data is not modified, 
+     * since frames with different projections of the same chart box can be
+     * drawn concurrently.
+     * 
+     * @param tickData  the tick data.
+     * @param pts  the projected points.
+     * 
+     * @return The tick data with anchor points.
+     */
+    private List<TickData> anchoredTicks(List<TickData> tickData, 
+            Point2D[] pts) {
+        List<TickData> result = new ArrayList<TickData>(tickData.size());
         for (TickData t : tickData) {
-            t.setAnchorPt(pts[t.getVertexIndex()]);
-        }    
+            TickData copy = new TickData(t, t.getVertexIndex());
+            copy.setAnchorPt(pts[t.getVertexIndex()]);
+            result.add(copy);
+        }
+        return result;
     }
     
     /**
@@ -1574,9 +2868,10 @@ public class Chart3D implements Drawable3D, ChartElement,
      * @param pts  the projected points.
      * @param info  an object to be populated with rendering info, if it is
      *     non-{@code null}.
+     * @param decorations  the axes and element hinting flag.
      */
     private void drawAxes(Graphics2D g2, ChartBox3D chartBox, Point2D[] pts,
-            RenderingInfo info) {
+            RenderingInfo info, Decorations decorations) {
 
         // vertices
         Point2D v0 = pts[0];
@@ -1596,18 +2891,10 @@ public class Chart3D implements Drawable3D, ChartElement,
         boolean e = chartBox.faceE().isFrontFacing(pts);
         boolean f = chartBox.faceF().isFrontFacing(pts);
 
-        Axis3D xAxis = null, yAxis = null, zAxis = null;
-        if (this.plot instanceof XYZPlot) {
-            XYZPlot pp = (XYZPlot) this.plot;
-            xAxis = pp.getXAxis();
-            yAxis = pp.getYAxis();
-            zAxis = pp.getZAxis();
-        } else if (this.plot instanceof CategoryPlot3D) {
-            CategoryPlot3D pp = (CategoryPlot3D) this.plot;
-            xAxis = pp.getColumnAxis();
-            yAxis = pp.getValueAxis();
-            zAxis = pp.getRowAxis();
-        }
+        Axis3D xAxis = decorations.axes[0];
+        Axis3D yAxis = decorations.axes[1];
+        Axis3D zAxis = decorations.axes[2];
+        boolean hinting = decorations.elementHinting;
             
         if (xAxis != null && yAxis != null && zAxis != null) {
             double ab = (count(a, b) == 1 ? v0.distance(v1) : 0.0);
@@ -1625,66 +2912,54 @@ public class Chart3D implements Drawable3D, ChartElement,
 
             List<TickData> ticks; 
             if (count(a, b) == 1 && longest(ab, bc, cd, da)) {
-                ticks = chartBox.faceA().getXTicksA();
-                populateAnchorPoints(ticks, pts);
-                xAxis.draw(g2, v0, v1, v7, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceA().getXTicksA(), pts);
+                xAxis.draw(g2, v0, v1, v7, ticks, info, hinting);
             }
             if (count(b, c) == 1 && longest(bc, ab, cd, da)) {
-                ticks = chartBox.faceB().getXTicksB();
-                populateAnchorPoints(ticks, pts);
-                xAxis.draw(g2, v3, v2, v6, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceB().getXTicksB(), pts);
+                xAxis.draw(g2, v3, v2, v6, ticks, info, hinting);
             }
             if (count(c, d) == 1 && longest(cd, ab, bc, da)) {
-                ticks = chartBox.faceC().getXTicksB();
-                populateAnchorPoints(ticks, pts);
-                xAxis.draw(g2, v4, v7, v1, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceC().getXTicksB(), pts);
+                xAxis.draw(g2, v4, v7, v1, ticks, info, hinting);
             }
             if (count(d, a) == 1 && longest(da, ab, bc, cd)) {
-                ticks = chartBox.faceA().getXTicksB();
-                populateAnchorPoints(ticks, pts);
-                xAxis.draw(g2, v5, v6, v3, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceA().getXTicksB(), pts);
+                xAxis.draw(g2, v5, v6, v3, ticks, info, hinting);
             }
 
             if (count(b, e) == 1 && longest(be, bf, df, de)) {
-                ticks = chartBox.faceB().getYTicksA();
-                populateAnchorPoints(ticks, pts);
-                yAxis.draw(g2, v0, v3, v7, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceB().getYTicksA(), pts);
+                yAxis.draw(g2, v0, v3, v7, ticks, info, hinting);
             }
             if (count(b, f) == 1 && longest(bf, be, df, de)) {
-                ticks = chartBox.faceB().getYTicksB();
-                populateAnchorPoints(ticks, pts);
-                yAxis.draw(g2, v1, v2, v4, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceB().getYTicksB(), pts);
+                yAxis.draw(g2, v1, v2, v4, ticks, info, hinting);
             }
             if (count(d, f) == 1 && longest(df, be, bf, de)) {
-                ticks = chartBox.faceD().getYTicksA();
-                populateAnchorPoints(ticks, pts);
-                yAxis.draw(g2, v6, v7, v0, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceD().getYTicksA(), pts);
+                yAxis.draw(g2, v6, v7, v0, ticks, info, hinting);
             }
             if (count(d, e) == 1 && longest(de, be, bf, df)) {
-                ticks = chartBox.faceD().getYTicksB();
-                populateAnchorPoints(ticks, pts);
-                yAxis.draw(g2, v5, v4, v1, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceD().getYTicksB(), pts);
+                yAxis.draw(g2, v5, v4, v1, ticks, info, hinting);
             }
 
             if (count(a, e) == 1 && longest(ae, af, cf, ce)) {
-                ticks = chartBox.faceA().getZTicksA();
-                populateAnchorPoints(ticks, pts);
-                zAxis.draw(g2, v0, v5, v2, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceA().getZTicksA(), pts);
+                zAxis.draw(g2, v0, v5, v2, ticks, info, hinting);
             }
             if (count(a, f) == 1 && longest(af, ae, cf, ce)) {
-                ticks = chartBox.faceA().getZTicksB();
-                populateAnchorPoints(ticks, pts);
-                zAxis.draw(g2, v1, v6, v3, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceA().getZTicksB(), pts);
+                zAxis.draw(g2, v1, v6, v3, ticks, info, hinting);
             }
             if (count(c, f) == 1 && longest(cf, ae, af, ce)) {
-                ticks = chartBox.faceC().getZTicksB();
-                populateAnchorPoints(ticks, pts);
-                zAxis.draw(g2, v2, v7, v5, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceC().getZTicksB(), pts);
+                zAxis.draw(g2, v2, v7, v5, ticks, info, hinting);
             }
             if (count(c, e) == 1 && longest(ce, ae, af, cf)) {
-                ticks = chartBox.faceC().getZTicksA();
-                populateAnchorPoints(ticks, pts);
-                zAxis.draw(g2, v3, v4, v6, ticks, info, this.elementHinting);
+                ticks = anchoredTicks(chartBox.faceC().getZTicksA(), pts);
+                zAxis.draw(g2, v3, v4, v6, ticks, info, hinting);
             }
         }
     }
@@ -1693,96 +2968,94 @@ public class Chart3D implements Drawable3D, ChartElement,
      * Draws the markers for one face on a chart box.  The {@code pts}
      * array contains all the projected points for all the vertices in the
      * world...the chart box face references the required points by index.
+     * The marker data is copied before the projected points are assigned,
+     * since the chart box can be shared by frames that are drawn 
+     * concurrently.
      * 
      * @param g2  the graphics target ({@code null} not permitted).
      * @param face  the face of the chart box ({@code null} not permitted).
      * @param pts  the projected points for the whole world.
+     * @param decorations  the axes that the markers belong to.
      */
-    private void drawMarkers(Graphics2D g2, ChartBoxFace face, Point2D[] pts) {
+    private void drawMarkers(Graphics2D g2, ChartBoxFace face, Point2D[] pts,
+            Decorations decorations) {
+        boolean hinting = decorations.elementHinting;
+        
         // x markers
         List<MarkerData> xmarkers = face.getXMarkers();
         for (MarkerData m : xmarkers) {
-            m.updateProjection(pts);
-            Marker marker = fetchXMarker(this.plot, m.getMarkerKey());
+            MarkerData md = projectedMarkerData(m, pts);
+            Marker marker = fetchMarker(decorations.axes[0], 
+                    m.getMarkerKey());
             beginElementWithRef(g2, "{\"type\": \"xMarker\", \"key\": \"" 
-                    + m.getMarkerKey() + "\"}");
-            marker.draw(g2, m, true);
-            endElement(g2);
+                    + m.getMarkerKey() + "\"}", hinting);
+            marker.draw(g2, md, true);
+            endElement(g2, hinting);
         }
         
         // y markers
         List<MarkerData> ymarkers = face.getYMarkers();
         for (MarkerData m : ymarkers) {
-            m.updateProjection(pts);
-            Marker marker = fetchYMarker(this.plot, m.getMarkerKey());
+            MarkerData md = projectedMarkerData(m, pts);
+            Marker marker = fetchMarker(decorations.axes[1], 
+                    m.getMarkerKey());
             beginElementWithRef(g2, "{\"type\": \"yMarker\", \"key\": \"" 
-                    + m.getMarkerKey() + "\"}");
-            marker.draw(g2, m, false);                
-            endElement(g2);
+                    + m.getMarkerKey() + "\"}", hinting);
+            marker.draw(g2, md, false);                
+            endElement(g2, hinting);
         }
         
         // z markers
         List<MarkerData> zmarkers = face.getZMarkers();
         for (MarkerData m : zmarkers) {
-            m.updateProjection(pts);
+            MarkerData md = projectedMarkerData(m, pts);
             beginElementWithRef(g2, "{\"type\": \"zMarker\", \"key\": \"" 
-                    + m.getMarkerKey() + "\"}");
-            Marker marker = fetchZMarker(this.plot, m.getMarkerKey());
-            marker.draw(g2, m, false);
-            endElement(g2);
+                    + m.getMarkerKey() + "\"}", hinting);
+            Marker marker = fetchMarker(decorations.axes[2], 
+                    m.getMarkerKey());
+            marker.draw(g2, md, false);
+            endElement(g2, hinting);
         }
     }
     
     /**
-     * Returns the marker from the plot's x-axis that has the specified key,
-     * or {@code null} if there is no marker with that key.
+     * Returns a copy of the marker data with the projected points assigned.
      * 
-     * @param plot  the plot ({@code null} not permitted).
-     * @param key  the marker key ({@code null} not permitted).
+     * @param m  the marker data ({@code null} not permitted).
+     * @param pts  the projected points for the whole world.
      * 
-     * @return The marker (possibly {@code null}). 
+     * @return The projected marker data. 
      */
-    private Marker fetchXMarker(Plot3D plot, String key) {
-        if (plot instanceof CategoryPlot3D) {
-            return ((CategoryPlot3D) plot).getColumnAxis().getMarker(key);
-        } else if (plot instanceof XYZPlot) {
-            return ((XYZPlot) plot).getXAxis().getMarker(key);
+    private static MarkerData projectedMarkerData(MarkerData m, 
+            Point2D[] pts) {
+        MarkerData result;
+        if (m.getType().equals(MarkerDataType.VALUE)) {
+            MarkerLine line = m.getValueLine();
+            result = new MarkerData(m, line.getV0(), line.getV1());
+        } else {
+            MarkerLine start = m.getStartLine();
+            MarkerLine end = m.getEndLine();
+            result = new MarkerData(m, start.getV0(), start.getV1(), 
+                    end.getV0(), end.getV1());
         }
-        return null;
+        result.updateProjection(pts);
+        return result;
     }
     
     /**
-     * Returns the marker from the plot's y-axis that has the specified key,
-     * or {@code null} if there is no marker with that key.
-     * 
-     * @param plot  the plot ({@code null} not permitted).
-     * @param key  the marker key ({@code null} not permitted).
-     * 
-     * @return The marker (possibly {@code null}). 
-     */
-    private Marker fetchYMarker(Plot3D plot, String key) {
-        if (plot instanceof CategoryPlot3D) {
-            return ((CategoryPlot3D) plot).getValueAxis().getMarker(key);
-        } else if (plot instanceof XYZPlot) {
-            return ((XYZPlot) plot).getYAxis().getMarker(key);
-        }
-        return null;
-    }
-
-    /**
-     * Returns the marker from the plot's z-axis that has the specified key,
-     * or {@code null} if there is no marker with that key.
+     * Returns the marker from an axis that has the specified key, or 
+     * {@code null} if there is no marker with that key.
      * 
-     * @param plot  the plot ({@code null} not permitted).
+     * @param axis  the axis ({@code null} not permitted).
      * @param key  the marker key ({@code null} not permitted).
      * 
      * @return The marker (possibly {@code null}). 
      */
-    private Marker fetchZMarker(Plot3D plot, String key) {
-        if (plot instanceof CategoryPlot3D) {
-            return ((CategoryPlot3D) plot).getRowAxis().getMarker(key);
-        } else if (plot instanceof XYZPlot) {
-            return ((XYZPlot) plot).getZAxis().getMarker(key);
+    private static Marker fetchMarker(Axis3D axis, String key) {
+        if (axis instanceof CategoryAxis3D) {
+            return ((CategoryAxis3D) axis).getMarker(key);
+        } else if (axis instanceof ValueAxis3D) {
+            return ((ValueAxis3D) axis).getMarker(key);
         }
         return null;
     }
@@ -1946,14 +3219,29 @@ public class Chart3D implements Drawable3D, ChartElement,
      */
     @Override
     public void plotChanged(Plot3DChangeEvent event) {
+        this.tickUnits = null;
         if (event.requiresWorldUpdate()) {
-            this.world = null;
+            if (event.getSeriesKey() != null && this.world != null) {
+                // just the objects for one series need to be updated
+                if (this.staleSeries == null) {
+                    this.staleSeries = new HashSet<Comparable<?>>();
+                }
+                this.staleSeries.add(event.getSeriesKey());
+                this.draftWorld = null;
+            } else {
+                this.world = null;
+                this.draftWorld = null;
+                if (this.staleSeries != null) {
+                    this.staleSeries.clear();
+                }
+            }
         }
         notifyListeners(new Chart3DChangeEvent(event, this));
     }
 
     @Override
     public void styleChanged(ChartStyleChangeEvent event) {
+        this.tickUnits = null;
         ChartStyler styler = new ChartStyler(event.getChartStyle());
         receive(styler);
         // create a visitor that will visit all chart components and apply the
@@ -1986,6 +3274,16 @@ public class Chart3D implements Drawable3D, ChartElement,
      * @param event  information about the change event.
      */
     public void notifyListeners(Chart3DChangeEvent event) {
+        // the legend and title (and the chart box) are built again for the 
+        // next frame, even if the listeners are not notified
+        synchronized (this.layoutLock) {
+            this.layout = null;
+            this.layoutVersion++;
+        }
+        this.chartBox = null;
+        this.draftChartBox = null;
+        this.captureBase = null;
+        this.draftCaptureBase = null;
         // if the 'notify' flag has been switched to false, we don't notify
         // the listeners
         if (!this.notify) {
@@ -2024,6 +3322,8 @@ public class Chart3D implements Drawable3D, ChartElement,
         // if the flag is being set to true, there may be queued up changes...
         if (notify) {
             this.world = null;
+            this.draftWorld = null;
+            this.tickUnits = null;
             fireChangeEvent();
         }
     }
@@ -2048,6 +3348,7 @@ public class Chart3D implements Drawable3D, ChartElement,
         stream.defaultReadObject();
         // recreate an empty listener list
         this.listenerList = new EventListenerList();
+        this.layoutLock = new Object();
         this.plot.addChangeListener(this);
         // RenderingHints is not easily serialized, so we just put back the
         // defaults...
@@ -2116,4 +3417,454 @@ public class Chart3D implements Drawable3D, ChartElement,
         }
     }
 
+    /**
+     * The legend and title for the chart, with their preferred sizes.  The
+     * fields are not modified after the instance is published.
+     */
+    private static final class Layout {
+        
+        /** The bounds used to measure the elements. */
+        Rectangle2D bounds;
+        
+        /** The font render context used to measure the elements. */
+        FontRenderContext frc;
+        
+        /** The legend ({@code null} if there is no legend). */
+        TableElement legend;
+        
+        /** The preferred size of the legend. */
+        Dimension2D legendSize;
+        
+        /** The title ({@code null} if there is no title). */
+        TableElement title;
+        
+        /** The preferred size of the title. */
+        Dimension2D titleSize;
+        
+    }
+    
+    /**
+     * The state of the chart, other than the 3D scene, that is read when a
+     * frame is drawn (see {@link Chart3D#createDecorations(boolean)}).  The
+     * fields are not modified after the instance is created.
+     */
+    private static final class Decorations {
+        
+        /** 
+         * Is the state copied for a snapshot?  If {@code false}, the legend 
+         * and title are taken from the chart's layout cache.
+         */
+        boolean snapshot;
+        
+        /** The chart id. */
+        String id;
+        
+        /** The rendering hints. */
+        RenderingHints renderingHints;
+        
+        /** The background painter ({@code null} permitted). */
+        RectanglePainter background;
+        
+        /** Add element hints to the output? */
+        boolean elementHinting;
+        
+        /** The legend anchor. */
+        Anchor2D legendAnchor;
+        
+        /** The title anchor. */
+        Anchor2D titleAnchor;
+        
+        /** 
+         * The x, y and z axes ({@code null} if the plot does not have a 
+         * chart box). 
+         */
+        Axis3D[] axes;
+        
+        /** The gridline visibility for the x, y and z axes. */
+        boolean[] gridlinesVisible;
+        
+        /** The gridline paints for the x, y and z axes. */
+        Paint[] gridlinePaint;
+        
+        /** The gridline strokes for the x, y and z axes. */
+        Stroke[] gridlineStroke;
+        
+        /** The legend for a snapshot ({@code null} permitted). */
+        TableElement legend;
+        
+        /** The title for a snapshot ({@code null} permitted). */
+        TableElement title;
+        
+        /**
+         * Returns {@code true} if the plot has axes (and a chart box).
+         * 
+         * @return A boolean. 
+         */
+        boolean hasAxes() {
+            return this.axes != null;
+        }
+        
+    }
+    
+    /**
+     * A section label for a pie chart, positioned for a frame.
+     */
+    private static final class PieLabel {
+        
+        /** The section key. */
+        Comparable<?> key;
+        
+        /** The label text. */
+        String text;
+        
+        /** The label color. */
+        Color color;
+        
+        /** The label font. */
+        Font font;
+        
+        /** 
+         * The anchor point for the label (in 2D-space, {@code null} until 
+         * the label is positioned for a view point). 
+         */
+        Point2D point;
+        
+        /** The face that positions the label (in the label world). */
+        Face face;
+        
+    }
+    
+    /**
+     * The faces for a frame in z-buffer mode, in the order used for item 
+     * lookups (the last face containing a point is the topmost).  The 
+     * rasterized faces are not painted in depth order, so they are sorted 
+     * by depth here, on first access, since the rendering info for most 
+     * frames is never used.
+     */
+    private static final class ZBufferFaceList extends AbstractList<Face> {
+        
+        /** The faces drawn before the rasterized faces. */
+        private final List<Face> boxFaces;
+        
+        /** The rasterized faces (in any order). */
+        private final List<Face> rasterFaces;
+        
+        /** The faces drawn after the rasterized faces. */
+        private final List<Face> overlayFaces;
+        
+        /** The projection for the frame. */
+        private final ProjectionBuffer projection;
+        
+        /** The rasterized faces in depth order (created on demand). */
+        private List<Face> sortedRasterFaces;
+        
+        /**
+         * Creates a new list.
+         * 
+         * @param boxFaces  the faces drawn first.
+         * @param rasterFaces  the rasterized faces.
+         * @param overlayFaces  the faces drawn last.
+         * @param projection  the projection.
+         */
+        ZBufferFaceList(List<Face> boxFaces, List<Face> rasterFaces, 
+                List<Face> overlayFaces, ProjectionBuffer projection) {
+            this.boxFaces = boxFaces;
+            this.rasterFaces = rasterFaces;
+            this.overlayFaces = overlayFaces;
+            this.projection = projection;
+        }
+        
+        /**
+         * Returns the rasterized faces in depth order.
+         * 
+         * @return The faces. 
+         */
+        private synchronized List<Face> sortedRasterFaces() {
+            if (this.sortedRasterFaces == null) {
+                this.sortedRasterFaces = DEPTH_SORTER.sort(
+                        this.rasterFaces, this.projection);
+            }
+            return this.sortedRasterFaces;
+        }
+
+        @Override
+        public Face get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("index: " + index);
+            }
+            if (index < this.boxFaces.size()) {
+                return this.boxFaces.get(index);
+            }
+            index -= this.boxFaces.size();
+            if (index < this.rasterFaces.size()) {
+                return sortedRasterFaces().get(index);
+            }
+            return this.overlayFaces.get(index - this.rasterFaces.size());
+        }
+
+        @Override
+        public int size() {
+            return this.boxFaces.size() + this.rasterFaces.size() 
+                    + this.overlayFaces.size();
+        }
+        
+    }
+    
+    /**
+     * A chart box with the 3D object created for it.
+     */
+    private static final class CachedChartBox {
+        
+        /** The tick units that the chart box was created for. */
+        double[] tickUnits;
+        
+        /** The chart box. */
+        ChartBox3D chartBox;
+        
+        /** The 3D object for the chart box. */
+        Object3D object;
+        
+        /** The world that the object was last added to. */
+        World world;
+        
+    }
+    
+    /**
+     * A frame of the chart that has been prepared for drawing (see 
+     * {@link Chart3D#prepareFrame(Graphics2D, Rectangle2D)}).
+     */
+    private final class ChartFrame implements PreparedFrame {
+        
+        /** The bounds for the chart. */
+        Rectangle2D bounds;
+        
+        /** The level of detail (1.0 for full detail). */
+        double detail;
+        
+        /** The plot dimensions. */
+        double w, h, depth;
+        
+        /** The axis tick units ({@code null} for pie charts). */
+        double[] tickUnits;
+        
+        /** The render mode. */
+        RenderMode renderMode;
+        
+        /** The chart box ({@code null} for pie charts). */
+        ChartBox3D chartBox;
+        
+        /** The world for the chart. */
+        World world;
+        
+        /** The view point that the world was projected from. */
+        ViewPoint3D viewPoint;
+        
+        /** The projection distance. */
+        double projDist;
+        
+        /** The 2D translation of the projection. */
+        Offset2D translate2D;
+        
+        /** The projection of the world's vertices. */
+        ProjectionBuffer projection;
+        
+        /** The translation to the center of the projection. */
+        double dx, dy;
+        
+        /** The faces to draw first, in painting order. */
+        List<Face> faces;
+        
+        /** 
+         * The faces to rasterize in z-buffer mode ({@code null} in painter 
+         * mode). 
+         */
+        List<Face> rasterFaces;
+        
+        /** The faces to draw last in z-buffer mode, in painting order. */
+        List<Face> overlayFaces;
+        
+        /** All the faces, in the order that they are painted. */
+        List<Face> facesInPaintOrder;
+        
+        /** 
+         * The world containing the faces that position the section labels 
+         * ({@code null} if the plot is not a pie plot).
+         */
+        World pieLabelWorld;
+        
+        /** 
+         * The section labels before they are positioned ({@code null} if the
+         * plot is not a pie plot).
+         */
+        List<PieLabel> pieLabelSource;
+        
+        /** The section labels ({@code null} if the plot is not a pie plot). */
+        List<PieLabel> pieLabels;
+        
+        /** The layout for the bounds ({@code null} if not yet known). */
+        Layout layout;
+        
+        /** 
+         * The face sorter for frames prepared from a scene capture 
+         * ({@code null} for other frames). 
+         */
+        FaceSorter sorter;
+        
+        /** The axes, legend, title and other state drawn with the scene. */
+        Decorations decorations;
+        
+        /**
+         * Sets the bounds for the frame, and the translation to the center 
+         * of the projection within those bounds.
+         * 
+         * @param bounds  the bounds.
+         */
+        void setBounds(Rectangle2D bounds) {
+            this.bounds = (Rectangle2D) bounds.clone();
+            this.dx = bounds.getX() + bounds.getWidth() / 2.0 
+                    + this.translate2D.getDX();
+            this.dy = bounds.getY() + bounds.getHeight() / 2.0 
+                    + this.translate2D.getDY();
+        }
+        
+        /**
+         * Returns a copy of this frame, for drawing within different bounds.
+         * The 3D model, projection and face lists are shared (they are not 
+         * modified when a frame is drawn).
+         * 
+         * @param bounds  the bounds ({@code null} permitted).
+         * 
+         * @return A new frame. 
+         */
+        ChartFrame copy(Rectangle2D bounds) {
+            ChartFrame result = new ChartFrame();
+            result.detail = this.detail;
+            result.w = this.w;
+            result.h = this.h;
+            result.depth = this.depth;
+            result.tickUnits = this.tickUnits;
+            result.renderMode = this.renderMode;
+            result.chartBox = this.chartBox;
+            result.world = this.world;
+            result.viewPoint = this.viewPoint;
+            result.projDist = this.projDist;
+            result.translate2D = this.translate2D;
+            result.projection = this.projection;
+            result.faces = this.faces;
+            result.rasterFaces = this.rasterFaces;
+            result.overlayFaces = this.overlayFaces;
+            result.facesInPaintOrder = this.facesInPaintOrder;
+            result.pieLabelWorld = this.pieLabelWorld;
+            result.pieLabelSource = this.pieLabelSource;
+            result.pieLabels = this.pieLabels;
+            result.layout = this.layout;
+            result.sorter = this.sorter;
+            result.decorations = this.decorations;
+            if (bounds != null) {
+                result.setBounds(bounds);
+            }
+            return result;
+        }
+        
+        @Override
+        public RenderingInfo draw(Graphics2D g2) {
+            ArgChecks.nullNotPermitted(g2, "g2");
+            return drawFrame(g2, this, new ShadedColorCache(), false);
+        }
+        
+    }
+    
+    /**
+     * A capture of the chart's state (see 
+     * {@link Chart3D#captureScene(Graphics2D, double)}).
+     */
+    private final class ChartCapture implements SceneCapture {
+        
+        /** The captured frame (not projected, and with no bounds). */
+        private final ChartFrame frame;
+        
+        /** Cull the faces that lie outside the bounds? */
+        private final boolean faceCulling;
+        
+        /** The executor for parallel projection ({@code null} permitted). */
+        private final ExecutorService executor;
+        
+        /** The minimum number of vertices per projection task. */
+        private final int threshold;
+        
+        /**
+         * Creates a new capture.
+         * 
+         * @param frame  the captured frame.
+         * @param faceCulling  cull the faces that lie outside the bounds?
+         * @param executor  the executor for parallel projection 
+         *     ({@code null} permitted).
+         * @param threshold  the minimum number of vertices per projection
+         *     task.
+         */
+        ChartCapture(ChartFrame frame, boolean faceCulling, 
+                ExecutorService executor, int threshold) {
+            this.frame = frame;
+            this.faceCulling = faceCulling;
+            this.executor = executor;
+            this.threshold = threshold;
+        }
+        
+        @Override
+        public PreparedFrame prepareFrame(Graphics2D g2, Rectangle2D bounds) {
+            ArgChecks.nullNotPermitted(g2, "g2");
+            ArgChecks.nullNotPermitted(bounds, "bounds");
+            ChartFrame result = this.frame.copy(bounds);
+            Decorations decorations = result.decorations;
+            g2.addRenderingHints(decorations.renderingHints);
+            result.projection = result.world.project(result.viewPoint, 
+                    result.projDist, null, this.executor, this.threshold);
+            sortFaces(result, result.world.getFaces(), 
+                    this.faceCulling ? cullingArea(result) : null, 
+                    result.sorter);
+            result.pieLabels = preparePieLabels(result);
+            result.layout = createLayout(g2, bounds, decorations.legend, 
+                    decorations.title);
+            return result;
+        }
+        
+    }
+    
+    /**
+     * A snapshot of the chart's 3D scene (see {@link #createSnapshot()}).
+     */
+    private final class ChartSnapshot implements SceneSnapshot {
+        
+        /** The frame prepared for the snapshot (with no bounds). */
+        private final ChartFrame frame;
+        
+        /**
+         * Creates a new snapshot.
+         * 
+         * @param frame  the frame, prepared from a world that belongs to the
+         *     snapshot alone.
+         */
+        ChartSnapshot(ChartFrame frame) {
+            this.frame = frame;
+        }
+        
+        /**
+         * Returns the chart that created the snapshot.
+         * 
+         * @return The chart. 
+         */
+        Chart3D getChart() {
+            return Chart3D.this;
+        }
+        
+        @Override
+        public RenderingInfo draw(Graphics2D g2, Rectangle2D bounds) {
+            ArgChecks.nullNotPermitted(g2, "g2");
+            ArgChecks.nullNotPermitted(bounds, "bounds");
+            return drawFrame(g2, this.frame.copy(bounds), 
+                    new ShadedColorCache(), false);
+        }
+        
+    }
+
 }
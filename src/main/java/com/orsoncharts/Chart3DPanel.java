@@ -32,12 +32,17 @@
 
 package com.orsoncharts;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.EventListener;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.event.EventListenerList;
 
 import com.orsoncharts.data.ItemKey;
@@ -78,6 +83,24 @@ public class Chart3DPanel extends Panel3D implements Chart3DChangeListener,
     
     /** Storage for registered (chart) mouse listeners. */
     private transient EventListenerList chartMouseListeners;
+    
+    /** 
+     * The maximum number of times per second that the panel is repainted in
+     * response to chart change events (zero or negative for no limit).
+     */
+    private int maxRefreshRate;
+    
+    /** 
+     * A flag that is set while a refresh request from a thread other than
+     * the event dispatch thread is waiting to be handled. 
+     */
+    private transient AtomicBoolean refreshQueued;
+    
+    /** The time of the last refresh (from {@link #nanoTime()}). */
+    private transient long lastRefreshTime;
+    
+    /** The timer for a deferred refresh (created on demand). */
+    private transient Timer refreshTimer;
 
     /**
      * Creates a new chart panel to display the specified chart.
@@ -91,6 +114,8 @@ public class Chart3DPanel extends Panel3D implements Chart3DChangeListener,
         this.chart.addChangeListener(this);
         addComponentListener(this);
         this.autoFitOnPanelResize = false;
+        this.maxRefreshRate = 0;
+        this.refreshQueued = new AtomicBoolean();
         registerForTooltips();
     }
 
@@ -105,16 +130,136 @@ public class Chart3DPanel extends Panel3D implements Chart3DChangeListener,
         return this.chart;
     }
     
+    /**
+     * Returns the maximum number of times per second that the panel is 
+     * repainted in response to chart change events.  The default value is
+     * {@code 0} (no limit).
+     * 
+     * @return The maximum refresh rate.
+     * 
+     * @since 1.7
+     */
+    public int getMaxRefreshRate() {
+        return this.maxRefreshRate;
+    }
+    
+    /**
+     * Sets the maximum number of times per second that the panel is 
+     * repainted in response to chart change events.  When a limit is set, 
+     * bursts of change events (for example, from a dataset that is updated
+     * with streaming data) are collapsed so that the chart is recomposed and 
+     * repainted at most {@code rate} times per second, and the last change
+     * in a burst is always displayed.  Other repaints (for example, when 
+     * the view is rotated) are not affected.
+     * 
+     * @param rate  the maximum refresh rate (zero or negative for no limit).
+     * 
+     * @since 1.7
+     */
+    public void setMaxRefreshRate(int rate) {
+        this.maxRefreshRate = rate;
+    }
+    
     /**
      * Receives notification when the chart has been modified, and responds
-     * by completely repainting the panel and chart.
+     * by completely repainting the panel and chart (subject to the maximum 
+     * refresh rate, see {@link #setMaxRefreshRate(int)}).  This method can
+     * be called on any thread.
      * 
      * @param event  the event. 
      */
     @Override
     public void chartChanged(Chart3DChangeEvent event) {
+        if (this.maxRefreshRate <= 0) {
+            repaint();
+        } else if (SwingUtilities.isEventDispatchThread()) {
+            scheduleRefresh();
+        } else if (this.refreshQueued.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    refreshQueued.set(false);
+                    scheduleRefresh();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Repaints the panel now if the minimum interval since the last refresh
+     * has passed, otherwise makes sure that a refresh is scheduled for the
+     * end of the interval.  This method is called on the event dispatch 
+     * thread.
+     */
+    private void scheduleRefresh() {
+        if (isRefreshPending()) {
+            return;  // the pending refresh will include this change
+        }
+        int rate = this.maxRefreshRate;
+        if (rate <= 0) {
+            refresh();
+            return;
+        }
+        long interval = 1000000000L / rate;
+        long wait = this.lastRefreshTime + interval - nanoTime();
+        if (this.lastRefreshTime == 0L || wait <= 0L) {
+            refresh();
+        } else {
+            if (this.refreshTimer == null) {
+                this.refreshTimer = createRefreshTimer(new ActionListener() {
+                    @Override
+                    public void actionPerformed(ActionEvent e) {
+                        refresh();
+                    }
+                });
+            }
+            this.refreshTimer.setInitialDelay((int) Math.max(1L, 
+                    wait / 1000000L));
+            this.refreshTimer.restart();
+        }
+    }
+    
+    /**
+     * Records the refresh time and repaints the panel.
+     */
+    private void refresh() {
+        this.lastRefreshTime = nanoTime();
         repaint();
     }
+    
+    /**
+     * Returns {@code true} if a refresh has been deferred until the end of 
+     * the minimum interval (see {@link #setMaxRefreshRate(int)}), and 
+     * {@code false} otherwise.
+     * 
+     * @return A boolean.
+     */
+    boolean isRefreshPending() {
+        return this.refreshTimer != null && this.refreshTimer.isRunning();
+    }
+    
+    /**
+     * Creates the (non-repeating) timer for a deferred refresh.  Tests can
+     * override this method, and {@link #nanoTime()}, to control the timing.
+     * 
+     * @param listener  the listener that performs the refresh.
+     * 
+     * @return The timer. 
+     */
+    Timer createRefreshTimer(ActionListener listener) {
+        Timer timer = new Timer(0, listener);
+        timer.setRepeats(false);
+        return timer;
+    }
+    
+    /**
+     * Returns the current time for the refresh rate limit, in nanoseconds.
+     * 
+     * @return The time (see {@code System.nanoTime()}).
+     */
+    long nanoTime() {
+        return System.nanoTime();
+    }
 
     @Override
     public void componentResized(ComponentEvent e) {
@@ -138,9 +283,25 @@ public class Chart3DPanel extends Panel3D implements Chart3DChangeListener,
         // do nothing
     }
 
+    /**
+     * Returns the rendering info for the most recent drawing of the chart,
+     * with a pick buffer requested for the size of the panel (the buffer is
+     * only filled when an item is looked up, so it costs nothing unless 
+     * tooltips or chart mouse listeners are in use).
+     * 
+     * @return The rendering info (possibly {@code null}). 
+     */
+    private RenderingInfo getPickingInfo() {
+        RenderingInfo info = getRenderingInfo();
+        if (info != null) {
+            info.setPickBufferSize(getWidth(), getHeight());
+        }
+        return info;
+    }
+    
     @Override
     public String getToolTipText(MouseEvent e) {
-        RenderingInfo info = getRenderingInfo();
+        RenderingInfo info = getPickingInfo();
         if (info == null) {
             return null;
         }
@@ -169,7 +330,7 @@ public class Chart3DPanel extends Panel3D implements Chart3DChangeListener,
             return;
         }
         RenderedElement element = null;
-        RenderingInfo info = getRenderingInfo();
+        RenderingInfo info = getPickingInfo();
         if (info != null) {
             element = info.findElementAt(e.getX(), e.getY());
         }
@@ -196,7 +357,7 @@ public class Chart3DPanel extends Panel3D implements Chart3DChangeListener,
             return;
         }
         RenderedElement element = null;
-        RenderingInfo info = getRenderingInfo();
+        RenderingInfo info = getPickingInfo();
         if (info != null) {
             element = info.findElementAt(e.getX(), e.getY());
         }
@@ -265,6 +426,7 @@ public class Chart3DPanel extends Panel3D implements Chart3DChangeListener,
         stream.defaultReadObject();
         // we create a new but empty chartMouseListeners list
         this.chartMouseListeners = new EventListenerList();
+        this.refreshQueued = new AtomicBoolean();
         // register as a listener with sub-components...
         if (this.chart != null) {
             this.chart.addChangeListener(this);
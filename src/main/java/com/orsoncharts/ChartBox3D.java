@@ -41,6 +41,7 @@ import java.util.List;
 import com.orsoncharts.graphics3d.Face;
 import com.orsoncharts.graphics3d.Object3D;
 import com.orsoncharts.graphics3d.Point3D;
+import com.orsoncharts.graphics3d.ProjectionBuffer;
 import com.orsoncharts.axis.TickData;
 import com.orsoncharts.marker.MarkerData;
 import com.orsoncharts.marker.MarkerDataType;
@@ -1190,6 +1191,21 @@ public class ChartBox3D {
         public float calculateAverageZValue(Point3D[] points) {
             return -123456f;
         }
+
+        /**
+         * Returns {@code -123456f} which ensures that the chart box face 
+         * is always drawn first (before any data items).
+         * 
+         * @param projection  the projection buffer (ignored here).
+         * 
+         * @return {@code -123456f}. 
+         * 
+         * @since 1.7
+         */
+        @Override
+        public float calculateAverageZValue(ProjectionBuffer projection) {
+            return -123456f;
+        }
     }
 
 }
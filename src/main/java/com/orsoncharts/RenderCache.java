@@ -0,0 +1,547 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.imageio.ImageIO;
+
+import com.orsoncharts.graphics3d.ExportUtils;
+import com.orsoncharts.graphics3d.RenderingInfo;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A cache of encoded chart images, for applications that export the same
+ * charts repeatedly (for example, a reporting service that calls 
+ * {@link ExportUtils#writeAsPNG(com.orsoncharts.graphics3d.Drawable3D, int, 
+ * int, File)} for identical charts many times).  Entries are keyed by a 
+ * digest of the serialized state of the chart (which includes the dataset,
+ * plot, renderer, style and view point), the chart's rendering hints, and 
+ * the width, height and format of the image, so a request for a chart with
+ * the same content as a cached one returns the encoded bytes and the 
+ * rendering info without drawing the chart.
+ * <br><br>
+ * The least recently used entries are evicted when the total size of the 
+ * encoded images exceeds the maximum size, or the number of entries exceeds
+ * the maximum count.  The cache registers with each chart that it holds 
+ * entries for, and removes those entries when the chart changes.  The 
+ * digest is calculated for every request, which is much faster than drawing
+ * and encoding the image but not free, since the whole chart is serialized.
+ * Two charts with equal content can occasionally serialize differently (for
+ * example, where a hash set of objects without their own hash codes is 
+ * involved), in which case they are cached separately.
+ * <br><br>
+ * The methods in this class can be called from several threads, but (as 
+ * usual) each chart should be drawn by one thread at a time.  The 
+ * {@link RenderingInfo} in an entry is shared by every request that returns
+ * that entry.
+ * 
+ * @since 1.7
+ */
+public class RenderCache implements Chart3DChangeListener {
+    
+    /** The maximum total size (in bytes) of the encoded images. */
+    private final long maxBytes;
+    
+    /** The maximum number of entries. */
+    private final int maxEntries;
+    
+    /** The entries, in order from least to most recently used. */
+    private final LinkedHashMap<Key, Entry> entries;
+    
+    /** The keys for the entries created for each chart. */
+    private final Map<Chart3D, Set<Key>> chartKeys;
+    
+    /** The total size of the encoded images. */
+    private long size;
+    
+    /** The number of requests returned from the cache. */
+    private long hitCount;
+    
+    /** The number of requests that required the chart to be drawn. */
+    private long missCount;
+    
+    /**
+     * Creates a new cache.
+     * 
+     * @param maxBytes  the maximum total size of the encoded images, in bytes
+     *     (must be positive).
+     * @param maxEntries  the maximum number of entries (must be positive).
+     */
+    public RenderCache(long maxBytes, int maxEntries) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Requires 'maxBytes' > 0.");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Requires 'maxEntries' > 0.");
+        }
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+        this.chartKeys = new IdentityHashMap<Chart3D, Set<Key>>();
+    }
+    
+    /**
+     * Returns the maximum total size of the encoded images.
+     * 
+     * @return The maximum size (in bytes). 
+     */
+    public long getMaxBytes() {
+        return this.maxBytes;
+    }
+    
+    /**
+     * Returns the maximum number of entries.
+     * 
+     * @return The maximum number of entries. 
+     */
+    public int getMaxEntries() {
+        return this.maxEntries;
+    }
+    
+    /**
+     * Returns the total size of the encoded images in the cache.
+     * 
+     * @return The size (in bytes). 
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+    
+    /**
+     * Returns the number of entries in the cache.
+     * 
+     * @return The number of entries. 
+     */
+    public synchronized int getEntryCount() {
+        return this.entries.size();
+    }
+    
+    /**
+     * Returns the number of requests that were returned from the cache.
+     * 
+     * @return The hit count. 
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+    
+    /**
+     * Returns the number of requests for which the chart was drawn.
+     * 
+     * @return The miss count. 
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+    
+    /**
+     * Returns the cached image for a chart, drawing and encoding the chart
+     * (and adding the result to the cache) if there is no cached image with
+     * the same content.
+     * 
+     * @param chart  the chart ({@code null} not permitted).
+     * @param w  the width (must be positive).
+     * @param h  the height (must be positive).
+     * @param format  the image format, a format name supported by 
+     *     {@code ImageIO} such as {@code "png"} or {@code "jpg"} 
+     *     ({@code null} not permitted).
+     * 
+     * @return The cached image (never {@code null}). 
+     */
+    public Entry render(Chart3D chart, int w, int h, String format) {
+        ArgChecks.nullNotPermitted(chart, "chart");
+        ArgChecks.nullNotPermitted(format, "format");
+        if (w <= 0 || h <= 0) {
+            throw new IllegalArgumentException(
+                    "Requires 'w' and 'h' to be positive.");
+        }
+        Key key = new Key(digest(chart), chart.getRenderingHints(), w, h, 
+                format.toLowerCase());
+        synchronized (this) {
+            Entry entry = this.entries.get(key);
+            if (entry != null) {
+                this.hitCount++;
+                return entry;
+            }
+            this.missCount++;
+        }
+        BufferedImage image = new BufferedImage(w, h, key.format.equals("png")
+                ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        RenderingInfo info;
+        try {
+            // a prepared frame has its own projection, so the cached info 
+            // is not changed when the chart is drawn again
+            info = chart.prepareFrame(g2, new Rectangle(w, h)).draw(g2);
+        } finally {
+            g2.dispose();
+        }
+        Entry entry = new Entry(encode(image, key.format), info, w, h, 
+                key.format);
+        put(chart, key, entry);
+        return entry;
+    }
+    
+    /**
+     * Writes a chart to a file in PNG format, using the cached image if 
+     * there is one.
+     * 
+     * @param chart  the chart ({@code null} not permitted).
+     * @param w  the width.
+     * @param h  the height.
+     * @param file  the output file ({@code null} not permitted).
+     * 
+     * @return The rendering info.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    public RenderingInfo writeAsPNG(Chart3D chart, int w, int h, File file) 
+            throws IOException {
+        ArgChecks.nullNotPermitted(file, "file");
+        Entry entry = render(chart, w, h, "png");
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(entry.bytes);
+        } finally {
+            out.close();
+        }
+        return entry.getRenderingInfo();
+    }
+    
+    /**
+     * Encodes an image in the specified format.  Subclasses can override 
+     * this method to support other formats or encoder settings.
+     * 
+     * @param image  the image.
+     * @param format  the format (in lower case).
+     * 
+     * @return The encoded bytes.
+     */
+    protected byte[] encode(BufferedImage image, String format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if (!ImageIO.write(image, format, out)) {
+                throw new IllegalArgumentException(
+                        "No image writer for the format '" + format + "'.");
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Removes all the entries from the cache.
+     */
+    public synchronized void clear() {
+        for (Chart3D chart : this.chartKeys.keySet()) {
+            chart.removeChangeListener(this);
+        }
+        this.chartKeys.clear();
+        this.entries.clear();
+        this.size = 0;
+    }
+    
+    /**
+     * Removes the entries created for a chart when the chart changes.
+     * 
+     * @param event  the event. 
+     */
+    @Override
+    public void chartChanged(Chart3DChangeEvent event) {
+        Chart3D chart = event.getChart();
+        synchronized (this) {
+            Set<Key> keys = this.chartKeys.remove(chart);
+            if (keys == null) {
+                return;
+            }
+            for (Key key : keys) {
+                Entry entry = this.entries.remove(key);
+                if (entry != null) {
+                    this.size -= entry.bytes.length;
+                }
+            }
+        }
+        chart.removeChangeListener(this);
+    }
+    
+    /**
+     * Adds an entry to the cache, then evicts the least recently used 
+     * entries until the cache is within its limits.
+     * 
+     * @param chart  the chart that the entry was created for.
+     * @param key  the key.
+     * @param entry  the entry.
+     */
+    private synchronized void put(Chart3D chart, Key key, Entry entry) {
+        if (entry.bytes.length > this.maxBytes 
+                || this.entries.containsKey(key)) {
+            return;
+        }
+        this.entries.put(key, entry);
+        this.size += entry.bytes.length;
+        Set<Key> keys = this.chartKeys.get(chart);
+        if (keys == null) {
+            keys = new HashSet<Key>();
+            this.chartKeys.put(chart, keys);
+            chart.addChangeListener(this);
+        }
+        keys.add(key);
+        Iterator<Map.Entry<Key, Entry>> iterator 
+                = this.entries.entrySet().iterator();
+        while (this.size > this.maxBytes 
+                || this.entries.size() > this.maxEntries) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            iterator.remove();
+            this.size -= eldest.getValue().bytes.length;
+            forget(eldest.getKey());
+        }
+    }
+    
+    /**
+     * Removes an evicted key from the keys held for the charts, and 
+     * deregisters from any chart that no longer has entries in the cache.
+     * 
+     * @param key  the key.
+     */
+    private void forget(Key key) {
+        Iterator<Map.Entry<Chart3D, Set<Key>>> iterator 
+                = this.chartKeys.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Chart3D, Set<Key>> e = iterator.next();
+            if (e.getValue().remove(key) && e.getValue().isEmpty()) {
+                iterator.remove();
+                e.getKey().removeChangeListener(this);
+            }
+        }
+    }
+    
+    /**
+     * Returns a digest of the serialized state of a chart.
+     * 
+     * @param chart  the chart.
+     * 
+     * @return The digest (as a hex string).
+     */
+    private static String digest(Chart3D chart) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            OutputStream discard = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    // the bytes are only needed for the digest
+                }
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    // the bytes are only needed for the digest
+                }
+            };
+            ObjectOutputStream out = new ObjectOutputStream(
+                    new DigestOutputStream(discard, md));
+            out.writeObject(chart);
+            out.close();
+            StringBuilder sb = new StringBuilder();
+            for (byte b : md.digest()) {
+                sb.append(String.format("%02x", b & 0xFF));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+    
+    /**
+     * A cached image: the encoded bytes and the rendering info from drawing
+     * the chart.
+     */
+    public static final class Entry {
+        
+        /** The encoded image. */
+        private final byte[] bytes;
+        
+        /** The rendering info. */
+        private final RenderingInfo info;
+        
+        /** The width. */
+        private final int width;
+        
+        /** The height. */
+        private final int height;
+        
+        /** The format. */
+        private final String format;
+        
+        Entry(byte[] bytes, RenderingInfo info, int width, int height, 
+                String format) {
+            this.bytes = bytes;
+            this.info = info;
+            this.width = width;
+            this.height = height;
+            this.format = format;
+        }
+        
+        /**
+         * Returns a copy of the encoded image.
+         * 
+         * @return The encoded image (never {@code null}). 
+         */
+        public byte[] getBytes() {
+            return this.bytes.clone();
+        }
+        
+        /**
+         * Returns the size of the encoded image.
+         * 
+         * @return The size (in bytes). 
+         */
+        public int getByteCount() {
+            return this.bytes.length;
+        }
+        
+        /**
+         * Returns the rendering info from drawing the chart.
+         * 
+         * @return The rendering info (never {@code null}). 
+         */
+        public RenderingInfo getRenderingInfo() {
+            return this.info;
+        }
+        
+        /**
+         * Returns the width of the image.
+         * 
+         * @return The width. 
+         */
+        public int getWidth() {
+            return this.width;
+        }
+        
+        /**
+         * Returns the height of the image.
+         * 
+         * @return The height. 
+         */
+        public int getHeight() {
+            return this.height;
+        }
+        
+        /**
+         * Returns the format of the image (in lower case).
+         * 
+         * @return The format (never {@code null}). 
+         */
+        public String getFormat() {
+            return this.format;
+        }
+        
+    }
+    
+    /**
+     * The key for an entry.
+     */
+    private static final class Key {
+        
+        /** The digest of the serialized chart. */
+        final String digest;
+        
+        /** The chart's rendering hints. */
+        final RenderingHints hints;
+        
+        /** The width. */
+        final int width;
+        
+        /** The height. */
+        final int height;
+        
+        /** The format (in lower case). */
+        final String format;
+        
+        Key(String digest, RenderingHints hints, int width, int height, 
+                String format) {
+            this.digest = digest;
+            // the hints are not serialized with the chart
+            this.hints = (RenderingHints) hints.clone();
+            this.width = width;
+            this.height = height;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return this.width == that.width && this.height == that.height
+                    && this.digest.equals(that.digest) 
+                    && this.format.equals(that.format)
+                    && this.hints.equals(that.hints);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 41 * hash + this.digest.hashCode();
+            hash = 41 * hash + this.width;
+            hash = 41 * hash + this.height;
+            hash = 41 * hash + this.format.hashCode();
+            return hash;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,447 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import com.orsoncharts.graphics3d.SceneSnapshot;
+import com.orsoncharts.graphics3d.ViewPoint3D;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * Exports a "turntable" animation of a chart: a sequence of frames in which
+ * the view point moves along a path, starting from the chart's current view 
+ * point and applying {@link ViewPoint3D#panLeftRight(double)} and 
+ * {@link ViewPoint3D#moveUpDown(double)} steps for each frame.  The frames 
+ * can be written as numbered PNG images or as an animated GIF.
+ * <br><br>
+ * The chart's 3D model is composed once and shared by all the frames (see
+ * {@link Chart3D#createSnapshot(SceneSnapshot, ViewPoint3D)}), and the axis
+ * tick units and the legend and title layout are worked out once, so each
+ * frame only projects the model, sorts the faces and paints.  Each frame is
+ * projected, sorted and painted (and, for PNG images, encoded) by one task
+ * on an executor supplied by the caller, so the frames are prepared in 
+ * parallel.  The chart should not be modified while the frames are being 
+ * exported.
+ * 
+ * @since 1.7
+ */
+public class TurntableExporter {
+    
+    /** 
+     * The maximum number of frames (per processor) painted ahead of those 
+     * written.
+     */
+    private static final int WINDOW_PER_PROCESSOR = 2;
+    
+    /** The chart. */
+    private final Chart3D chart;
+    
+    /** The number of frames. */
+    private int frameCount;
+    
+    /** The pan angle for each frame (in radians). */
+    private double panStep;
+    
+    /** The vertical angle for each frame (in radians). */
+    private double tiltStep;
+    
+    /**
+     * Creates a new exporter for the specified chart, with 36 frames that 
+     * turn the chart through one full revolution.
+     * 
+     * @param chart  the chart ({@code null} not permitted).
+     */
+    public TurntableExporter(Chart3D chart) {
+        ArgChecks.nullNotPermitted(chart, "chart");
+        this.chart = chart;
+        this.frameCount = 36;
+        this.panStep = 2 * Math.PI / 36;
+        this.tiltStep = 0.0;
+    }
+    
+    /**
+     * Returns the chart.
+     * 
+     * @return The chart (never {@code null}). 
+     */
+    public Chart3D getChart() {
+        return this.chart;
+    }
+    
+    /**
+     * Returns the number of frames.  The default value is {@code 36}.
+     * 
+     * @return The number of frames. 
+     */
+    public int getFrameCount() {
+        return this.frameCount;
+    }
+    
+    /**
+     * Sets the number of frames.
+     * 
+     * @param count  the number of frames (must be positive).
+     */
+    public void setFrameCount(int count) {
+        ArgChecks.positiveRequired(count, "count");
+        this.frameCount = count;
+    }
+    
+    /**
+     * Returns the angle that the view point is panned by for each frame.
+     * The default value is one thirty-sixth of a full turn.
+     * 
+     * @return The angle (in radians). 
+     */
+    public double getPanStep() {
+        return this.panStep;
+    }
+    
+    /**
+     * Sets the angle that the view point is panned by for each frame.
+     * 
+     * @param step  the angle (in radians).
+     */
+    public void setPanStep(double step) {
+        ArgChecks.finiteRequired(step, "step");
+        this.panStep = step;
+    }
+    
+    /**
+     * Returns the angle that the view point is moved up (or down, for a 
+     * negative value) by for each frame.  The default value is {@code 0.0}.
+     * 
+     * @return The angle (in radians). 
+     */
+    public double getTiltStep() {
+        return this.tiltStep;
+    }
+    
+    /**
+     * Sets the angle that the view point is moved up (or down, for a 
+     * negative value) by for each frame.
+     * 
+     * @param step  the angle (in radians).
+     */
+    public void setTiltStep(double step) {
+        ArgChecks.finiteRequired(step, "step");
+        this.tiltStep = step;
+    }
+    
+    /**
+     * Returns the view points for the frames, starting with (a copy of) the
+     * chart's current view point.
+     * 
+     * @return The view points (never {@code null}). 
+     */
+    public List<ViewPoint3D> createViewPoints() {
+        List<ViewPoint3D> result = new ArrayList<ViewPoint3D>(
+                this.frameCount);
+        ViewPoint3D vp = new ViewPoint3D(this.chart.getViewPoint());
+        for (int i = 0; i < this.frameCount; i++) {
+            result.add(new ViewPoint3D(vp));
+            vp.panLeftRight(this.panStep);
+            vp.moveUpDown(this.tiltStep);
+        }
+        return result;
+    }
+    
+    /**
+     * Writes the frames to numbered PNG files ({@code prefix0000.png}, 
+     * {@code prefix0001.png} and so on) in the specified directory.
+     * 
+     * @param directory  the directory ({@code null} not permitted).
+     * @param prefix  the file name prefix ({@code null} not permitted).
+     * @param w  the width (must be positive).
+     * @param h  the height (must be positive).
+     * @param executor  the executor used to paint and encode the frames 
+     *     ({@code null} not permitted).
+     * 
+     * @return The files written, in frame order.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    public List<File> writeFrames(File directory, String prefix, 
+            final int w, final int h, ExecutorService executor) 
+            throws IOException {
+        ArgChecks.nullNotPermitted(directory, "directory");
+        ArgChecks.nullNotPermitted(prefix, "prefix");
+        ArgChecks.nullNotPermitted(executor, "executor");
+        ArgChecks.positiveRequired(w, "w");
+        ArgChecks.positiveRequired(h, "h");
+        List<ViewPoint3D> viewPoints = createViewPoints();
+        List<File> result = new ArrayList<File>(viewPoints.size());
+        final SceneSnapshot base = this.chart.createSnapshot();
+        int window = windowSize();
+        for (int start = 0; start < viewPoints.size(); start += window) {
+            int end = Math.min(start + window, viewPoints.size());
+            List<Future<File>> futures = new ArrayList<Future<File>>();
+            for (int i = start; i < end; i++) {
+                final ViewPoint3D viewPoint = viewPoints.get(i);
+                final File file = new File(directory, 
+                        prefix + String.format("%04d", i) + ".png");
+                futures.add(executor.submit(new Callable<File>() {
+                    @Override
+                    public File call() throws IOException {
+                        BufferedImage image = drawFrame(base, viewPoint, w, 
+                                h, BufferedImage.TYPE_INT_ARGB);
+                        OutputStream out = new BufferedOutputStream(
+                                new FileOutputStream(file));
+                        try {
+                            ImageIO.write(image, "png", out);
+                        } finally {
+                            out.close();
+                        }
+                        return file;
+                    }
+                }));
+            }
+            for (Future<File> future : futures) {
+                result.add(get(future));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Writes the frames to a file as an animated GIF.  The frames are 
+     * painted in parallel and encoded in order.
+     * 
+     * @param file  the file ({@code null} not permitted).
+     * @param w  the width (must be positive).
+     * @param h  the height (must be positive).
+     * @param delay  the delay between frames in milliseconds (GIF files 
+     *     store the delay in hundredths of a second).
+     * @param loop  loop the animation forever?
+     * @param executor  the executor used to paint the frames 
+     *     ({@code null} not permitted).
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    public void writeAnimatedGIF(File file, final int w, final int h, 
+            int delay, boolean loop, ExecutorService executor) 
+            throws IOException {
+        ArgChecks.nullNotPermitted(file, "file");
+        ArgChecks.nullNotPermitted(executor, "executor");
+        ArgChecks.positiveRequired(w, "w");
+        ArgChecks.positiveRequired(h, "h");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif")
+                .next();
+        ImageOutputStream out = ImageIO.createImageOutputStream(file);
+        try {
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            List<ViewPoint3D> viewPoints = createViewPoints();
+            final SceneSnapshot base = this.chart.createSnapshot();
+            int window = windowSize();
+            for (int start = 0; start < viewPoints.size(); start += window) {
+                int end = Math.min(start + window, viewPoints.size());
+                List<Future<BufferedImage>> futures 
+                        = new ArrayList<Future<BufferedImage>>();
+                for (int i = start; i < end; i++) {
+                    final ViewPoint3D viewPoint = viewPoints.get(i);
+                    futures.add(executor.submit(
+                            new Callable<BufferedImage>() {
+                        @Override
+                        public BufferedImage call() {
+                            return drawFrame(base, viewPoint, w, h, 
+                                    BufferedImage.TYPE_INT_RGB);
+                        }
+                    }));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    BufferedImage image = get(futures.get(i));
+                    IIOMetadata metadata = createGIFMetadata(writer, image, 
+                            delay, loop && start + i == 0);
+                    writer.writeToSequence(new IIOImage(image, null, 
+                            metadata), null);
+                }
+            }
+            writer.endWriteSequence();
+        } finally {
+            out.close();
+            writer.dispose();
+        }
+    }
+    
+    /**
+     * Returns the number of frames to paint at a time.
+     * 
+     * @return The number of frames. 
+     */
+    private int windowSize() {
+        return WINDOW_PER_PROCESSOR 
+                * Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * Projects and sorts the 3D model for a frame, then draws the frame to a
+     * new image.  This method is called by the executor's threads.
+     * 
+     * @param base  the snapshot with the 3D model.
+     * @param viewPoint  the view point for the frame.
+     * @param w  the width.
+     * @param h  the height.
+     * @param type  the image type.
+     * 
+     * @return The image.
+     */
+    private BufferedImage drawFrame(SceneSnapshot base, ViewPoint3D viewPoint,
+            int w, int h, int type) {
+        SceneSnapshot snapshot = this.chart.createSnapshot(base, viewPoint);
+        BufferedImage image = new BufferedImage(w, h, type);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            snapshot.draw(g2, new Rectangle(w, h));
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+    
+    /**
+     * Returns the result of a task, rethrowing any exception that the task
+     * threw.
+     * 
+     * @param future  the future for the task.
+     * 
+     * @return The result.
+     * 
+     * @throws IOException if the task threw an {@code IOException}.
+     */
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+    
+    /**
+     * Creates the metadata for a frame of an animated GIF.
+     * 
+     * @param writer  the GIF writer.
+     * @param image  the image for the frame.
+     * @param delay  the delay after the frame (in milliseconds).
+     * @param loop  include the extension that makes the animation loop 
+     *     forever (this is only required for the first frame).
+     * 
+     * @return The metadata.
+     * 
+     * @throws IOException if the metadata cannot be created.
+     */
+    private static IIOMetadata createGIFMetadata(ImageWriter writer, 
+            BufferedImage image, int delay, boolean loop) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(
+                ImageTypeSpecifier.createFromRenderedImage(image), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("transparentColorIndex", "0");
+        control.setAttribute("delayTime", 
+                Integer.toString(Math.max(0, delay / 10)));
+        if (loop) {
+            IIOMetadataNode extensions = child(root, 
+                    "ApplicationExtensions");
+            IIOMetadataNode extension = new IIOMetadataNode(
+                    "ApplicationExtension");
+            extension.setAttribute("applicationID", "NETSCAPE");
+            extension.setAttribute("authenticationCode", "2.0");
+            // sub-block 1, loop count 0 (forever)
+            extension.setUserObject(new byte[] { 1, 0, 0 });
+            extensions.appendChild(extension);
+        }
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+    
+    /**
+     * Returns the child node with the specified name, adding it if there is
+     * no such child.
+     * 
+     * @param parent  the parent node.
+     * @param name  the name.
+     * 
+     * @return The child node. 
+     */
+    private static IIOMetadataNode child(IIOMetadataNode parent, 
+            String name) {
+        for (int i = 0; i < parent.getLength(); i++) {
+            if (parent.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode) parent.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        parent.appendChild(node);
+        return node;
+    }
+    
+}
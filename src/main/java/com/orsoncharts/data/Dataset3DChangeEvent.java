@@ -48,6 +48,12 @@ import java.util.EventObject;
 public class Dataset3DChangeEvent extends EventObject {
 
     private Object dataset;
+    
+    /** 
+     * The key for the series that changed, or {@code null} if the change
+     * is not limited to the data for a single series. 
+     */
+    private Comparable<?> seriesKey;
   
     /**
      * Creates a new dataset change event.  The source can be the same as the
@@ -57,8 +63,27 @@ public class Dataset3DChangeEvent extends EventObject {
      * @param dataset  the dataset.
      */
     public Dataset3DChangeEvent(Object source, Object dataset) {
+        this(source, dataset, null);
+    }
+    
+    /**
+     * Creates a new dataset change event for a change that is limited to 
+     * the data values for one series.  Such a change must not add or remove
+     * series (or, for category datasets, rows or columns), so that the 
+     * indices for all the other series are unchanged.
+     * 
+     * @param source  the source.
+     * @param dataset  the dataset.
+     * @param seriesKey  the key for the series that changed ({@code null}
+     *     permitted, meaning the change might affect the whole dataset).
+     * 
+     * @since 1.7
+     */
+    public Dataset3DChangeEvent(Object source, Object dataset, 
+            Comparable<?> seriesKey) {
         super(source);
         this.dataset = dataset;
+        this.seriesKey = seriesKey;
     }
   
     /**
@@ -72,4 +97,17 @@ public class Dataset3DChangeEvent extends EventObject {
     public Object getDataset() {
         return this.dataset;
     }
+    
+    /**
+     * Returns the key for the series that changed, if the change is limited
+     * to the data values for a single series, or {@code null} if the change
+     * might affect the whole dataset.
+     * 
+     * @return The series key (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Comparable<?> getSeriesKey() {
+        return this.seriesKey;
+    }
 }
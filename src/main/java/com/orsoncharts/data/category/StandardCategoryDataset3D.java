@@ -36,6 +36,7 @@ import java.util.List;
 import java.io.Serializable;
 
 import com.orsoncharts.data.AbstractDataset3D;
+import com.orsoncharts.data.Dataset3DChangeEvent;
 import com.orsoncharts.data.DefaultKeyedValues3D;
 import com.orsoncharts.data.JSONUtils;
 import com.orsoncharts.data.KeyedValues;
@@ -250,8 +251,13 @@ public final class StandardCategoryDataset3D
      * @param columnKey  the column key ({@code null} not permitted).
      */
     public void setValue(Number n, S seriesKey, R rowKey, C columnKey) {
+        // if the keys already exist, the change is limited to one series
+        boolean existing = this.data.getSeriesIndex(seriesKey) >= 0 
+                && this.data.getRowIndex(rowKey) >= 0 
+                && this.data.getColumnIndex(columnKey) >= 0;
         this.data.setValue(n, seriesKey, rowKey, columnKey);
-        fireDatasetChanged();
+        notifyListeners(new Dataset3DChangeEvent(this, this, 
+                existing ? seriesKey : null));
     }
     
     /**
@@ -286,7 +286,11 @@ public class XYZSeriesCollection<S extends Comparable<S>>
      */
     @Override
     public void seriesChanged(Series3DChangeEvent event) {
-        fireDatasetChanged();
+        Comparable<?> seriesKey = null;
+        if (event.getSource() instanceof XYZSeries) {
+            seriesKey = ((XYZSeries) event.getSource()).getKey();
+        }
+        notifyListeners(new Dataset3DChangeEvent(this, this, seriesKey));
     }
 
     /**
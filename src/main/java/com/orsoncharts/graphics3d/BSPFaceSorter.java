@@ -0,0 +1,736 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A face sorter that orders faces by traversing a binary space partitioning 
+ * (BSP) tree.  The tree is built from the faces the first time they are 
+ * sorted, and rebuilt only when the faces change (that is, when the world is
+ * recomposed).  For each frame, the tree is traversed once in back-to-front 
+ * order for the current view point, so the per-frame cost is linear in the 
+ * number of faces in the tree.
+ * <br><br>
+ * The tree is built in eye coordinates.  The transformation from world to 
+ * eye coordinates is a rigid one (a rotation and a translation), so the 
+ * side of each splitting plane that a face lies on does not depend on the 
+ * view point, and only the location of the eye (always the origin in eye 
+ * coordinates) relative to each splitting plane needs to be recalculated 
+ * per frame.
+ * <br><br>
+ * A face that straddles a splitting plane is split into two fragments, one
+ * on each side of the plane.  The fragments are new {@link Face} instances 
+ * with the same owner (and tag, or double-sidedness) as the original face, 
+ * and they refer to new vertices that are appended to the projection buffer
+ * for each frame (each new vertex is stored as a fixed point on the segment
+ * between two other vertices, so it can be recalculated from the current
+ * eye coordinates).  The list returned by 
+ * {@link #sort(List, ProjectionBuffer)} contains the fragments in place of
+ * the faces that were split, so it can be longer than the input list, and 
+ * it must be drawn using the screen points of the same projection buffer.
+ * With the splitting, the ordering is exact for planar faces.  The 
+ * exceptions are faces that are not split: faces with fewer than three 
+ * vertices, {@link LabelFace} instances and instances of other 
+ * {@code Face} subclasses (these are kept at the node for the plane they 
+ * straddle, and ordered with the coplanar faces by average z-value), and 
+ * calls to {@link #sort(List, Point3D[])}, where the caller has no 
+ * coordinates for the new vertices so each split face is returned once, at
+ * the position of its first fragment.
+ * <br><br>
+ * An instance keeps state between calls, so it should be used by one chart
+ * only (the chart sorts the faces for its plot items with this sorter, apart
+ * from the chart box faces and before culling, so the tree is built once 
+ * each time the chart's 3D model is composed).  Calls are synchronized, so
+ * an instance can be used from more than one thread.
+ * 
+ * @since 1.7
+ */
+@SuppressWarnings("serial")
+public class BSPFaceSorter implements ProjectionFaceSorter, Serializable {
+    
+    /** Classification of a face that lies on the splitting plane. */
+    private static final int COPLANAR = 0;
+    
+    /** Classification of a face that lies in front of the plane. */
+    private static final int FRONT = 1;
+    
+    /** Classification of a face that lies behind the plane. */
+    private static final int BACK = 2;
+    
+    /** Classification of a face that straddles the plane. */
+    private static final int SPANNING = 3;
+    
+    /** The number of candidate splitters evaluated for each node. */
+    private static final int CANDIDATES = 5;
+    
+    /** The faces the tree was built for (in input order). */
+    private transient Face[] treeFaces;
+
+    /** The number of vertices in the projection the tree was built for. */
+    private transient int baseVertexCount;
+    
+    /** 
+     * The faces in the tree: the input faces followed by the fragments 
+     * created by splitting.
+     */
+    private transient List<Face> treeSlots;
+    
+    /** The input index of the face that each slot was derived from. */
+    private transient int[] slotSource;
+    
+    /** 
+     * The number of vertices created by splitting faces (these follow the
+     * vertices of the projection the tree was built for).
+     */
+    private transient int splitCount;
+    
+    /** The first vertex of the segment for each split vertex. */
+    private transient int[] splitFrom;
+    
+    /** The second vertex of the segment for each split vertex. */
+    private transient int[] splitTo;
+    
+    /** The position on the segment for each split vertex. */
+    private transient double[] splitT;
+    
+    /** 
+     * The eye coordinates used while building the tree (including the split
+     * vertices), {@code null} at other times. 
+     */
+    private transient double[] xs, ys, zs;
+
+    /** The number of nodes in the tree. */
+    private transient int nodeCount;
+    
+    /** The splitting face for each node (a slot index). */
+    private transient int[] splitter;
+    
+    /** The front child for each node ({@code -1} for none). */
+    private transient int[] front;
+    
+    /** The back child for each node ({@code -1} for none). */
+    private transient int[] back;
+    
+    /** The start of the faces for each node in {@code nodeFaces}. */
+    private transient int[] nodeFacesStart;
+    
+    /** The number of faces for each node. */
+    private transient int[] nodeFacesCount;
+    
+    /** The faces (slot indices) held at each node, grouped by node. */
+    private transient int[] nodeFaces;
+    
+    /** The slot indices in painting order (filled by each traversal). */
+    private transient int[] order;
+    
+    /** Workspace for sorting the faces at each node. */
+    private transient int[] keys, indices, tempKeys, tempIndices;
+    
+    /** The number of times the tree has been built (for testing). */
+    private transient int buildCount;
+    
+    /**
+     * Creates a new instance.
+     */
+    public BSPFaceSorter() {
+        // nothing to do
+    }
+    
+    /**
+     * Returns the number of times that the tree has been built.
+     * 
+     * @return The count. 
+     */
+    public synchronized int getBuildCount() {
+        return this.buildCount;
+    }
+
+    /**
+     * Sorts the faces using the supplied eye coordinates.  Faces that are
+     * split in the tree are returned once each (at the position of their 
+     * first fragment) since the caller has no coordinates for the vertices
+     * of the fragments, so the ordering is not exact when faces straddle 
+     * each other's planes.
+     * 
+     * @param faces  the faces.
+     * @param eyePts  the eye coordinates.
+     * 
+     * @return The faces in painting order. 
+     */
+    @Override
+    public synchronized List<Face> sort(List<Face> faces, Point3D[] eyePts) {
+        ProjectionBuffer p = ProjectionBuffer.fromEyePoints(eyePts);
+        int count = prepareAndTraverse(faces, p);
+        List<Face> result = new ArrayList<Face>(faces.size());
+        boolean[] added = new boolean[faces.size()];
+        for (int i = 0; i < count; i++) {
+            int source = this.slotSource[this.order[i]];
+            if (!added[source]) {
+                added[source] = true;
+                result.add(faces.get(source));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the faces for the supplied projection.  Faces that straddle a
+     * splitting plane are replaced by their fragments, and the vertices of
+     * the fragments are appended to {@code projection}.
+     * 
+     * @param faces  the faces.
+     * @param projection  the projection.
+     * 
+     * @return The faces (and fragments) in painting order. 
+     */
+    @Override
+    public synchronized List<Face> sort(List<Face> faces, 
+            ProjectionBuffer projection) {
+        int count = prepareAndTraverse(faces, projection);
+        List<Face> result = new ArrayList<Face>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(this.treeSlots.get(this.order[i]));
+        }
+        return result;
+    }
+    
+    /**
+     * Builds the tree if necessary, adds the split vertices to the 
+     * projection and traverses the tree, leaving the slot indices in 
+     * painting order in {@code order}.
+     * 
+     * @param faces  the faces.
+     * @param p  the projection buffer.
+     * 
+     * @return The number of slots in {@code order}. 
+     */
+    private int prepareAndTraverse(List<Face> faces, ProjectionBuffer p) {
+        if (!sameFaces(faces) || (p.vertexCount != this.baseVertexCount 
+                && p.vertexCount != this.baseVertexCount + this.splitCount)) {
+            build(faces, p);
+            this.treeFaces = faces.toArray(new Face[faces.size()]);
+            this.buildCount++;
+        }
+        if (this.splitCount > 0 && p.vertexCount == this.baseVertexCount) {
+            p.addInterpolatedVertices(this.splitFrom, this.splitTo, 
+                    this.splitT, this.splitCount);
+        }
+        return traverse(p);
+    }
+    
+    /**
+     * Returns {@code true} if {@code faces} contains the same face 
+     * instances, in the same order, as the list that the tree was built for.
+     * 
+     * @param faces  the faces.
+     * 
+     * @return A boolean. 
+     */
+    private boolean sameFaces(List<Face> faces) {
+        if (this.treeFaces == null || this.treeFaces.length != faces.size()) {
+            return false;
+        }
+        for (int i = 0; i < this.treeFaces.length; i++) {
+            if (this.treeFaces[i] != faces.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the plane for a face (a unit normal and a distance, 
+     * {@code [a, b, c, d]} such that {@code ax + by + cz + d = 0}), 
+     * or returns {@code false} if the face does not define a plane (it 
+     * has fewer than three vertices, or the first three are collinear).
+     * 
+     * @param f  the face.
+     * @param xs  the x-coordinates of the vertices (in eye space).
+     * @param ys  the y-coordinates of the vertices.
+     * @param zs  the z-coordinates of the vertices.
+     * @param plane  an array to hold the result.
+     * 
+     * @return A boolean.
+     */
+    private static boolean calculatePlane(Face f, double[] xs, double[] ys, 
+            double[] zs, double[] plane) {
+        if (f.getVertexCount() < 3) {
+            return false;
+        }
+        int iA = f.getVertexIndex(0);
+        int iB = f.getVertexIndex(1);
+        int iC = f.getVertexIndex(2);
+        double ax = xs[iA], ay = ys[iA], az = zs[iA];
+        double u1 = xs[iB] - ax, u2 = ys[iB] - ay, u3 = zs[iB] - az;
+        double v1 = xs[iC] - ax, v2 = ys[iC] - ay, v3 = zs[iC] - az;
+        double a = u2 * v3 - u3 * v2;
+        double b = u3 * v1 - u1 * v3;
+        double c = u1 * v2 - u2 * v1;
+        double len = Math.sqrt(a * a + b * b + c * c);
+        if (!(len > 0.0)) {
+            return false;
+        }
+        a /= len; b /= len; c /= len;
+        plane[0] = a;
+        plane[1] = b;
+        plane[2] = c;
+        plane[3] = -(a * ax + b * ay + c * az);
+        return true;
+    }
+    
+    /**
+     * Returns the signed distance of a vertex (in the build coordinates) 
+     * from a plane.
+     * 
+     * @param i  the vertex index.
+     * @param plane  the plane.
+     * 
+     * @return The distance. 
+     */
+    private double distance(int i, double[] plane) {
+        return plane[0] * this.xs[i] + plane[1] * this.ys[i] 
+                + plane[2] * this.zs[i] + plane[3];
+    }
+    
+    /**
+     * Classifies a face relative to a plane (using the build coordinates).
+     * 
+     * @param f  the face.
+     * @param plane  the plane.
+     * @param eps  the tolerance for a vertex to be considered on the plane.
+     * 
+     * @return One of {@code COPLANAR}, {@code FRONT}, {@code BACK} or 
+     *     {@code SPANNING}.
+     */
+    private int classify(Face f, double[] plane, double eps) {
+        boolean inFront = false;
+        boolean behind = false;
+        for (int v = 0; v < f.getVertexCount(); v++) {
+            double dist = distance(f.getVertexIndex(v), plane);
+            if (dist > eps) {
+                inFront = true;
+            } else if (dist < -eps) {
+                behind = true;
+            }
+        }
+        if (inFront) {
+            return behind ? SPANNING : FRONT;
+        }
+        return behind ? BACK : COPLANAR;
+    }
+    
+    /**
+     * Returns {@code true} if a face can be split.  Only polygons of the
+     * basic face types are split, since a fragment must be drawn the same
+     * way as the face it comes from.
+     * 
+     * @param f  the face.
+     * 
+     * @return A boolean. 
+     */
+    private static boolean isSplittable(Face f) {
+        Class<?> c = f.getClass();
+        return f.getVertexCount() >= 3 && (c == Face.class 
+                || c == TaggedFace.class || c == DoubleSidedFace.class);
+    }
+    
+    /**
+     * Creates a fragment of a face, with the same owner and type.
+     * 
+     * @param f  the face.
+     * @param vertices  the vertex indices for the fragment.
+     * 
+     * @return The fragment. 
+     */
+    private static Face createFragment(Face f, int[] vertices) {
+        if (f instanceof DoubleSidedFace) {
+            return new DoubleSidedFace(f.getOwner(), vertices);
+        }
+        if (f instanceof TaggedFace) {
+            return new TaggedFace(f.getOwner(), vertices, f.getTag());
+        }
+        return new Face(f.getOwner(), vertices);
+    }
+    
+    /**
+     * Builds the tree for the specified faces.
+     * 
+     * @param faces  the faces.
+     * @param p  the projection buffer (for the eye coordinates).
+     */
+    private void build(List<Face> faces, ProjectionBuffer p) {
+        int n = faces.size();
+        double extent = 1.0;
+        for (int i = 0; i < p.vertexCount; i++) {
+            extent = Math.max(extent, Math.abs(p.eyeX[i]));
+            extent = Math.max(extent, Math.abs(p.eyeY[i]));
+            extent = Math.max(extent, Math.abs(p.eyeZ[i]));
+        }
+        double eps = extent * 1e-9;
+        
+        this.baseVertexCount = p.vertexCount;
+        int vertexCapacity = Math.max(16, p.vertexCount * 2);
+        this.xs = Arrays.copyOf(p.eyeX, vertexCapacity);
+        this.ys = Arrays.copyOf(p.eyeY, vertexCapacity);
+        this.zs = Arrays.copyOf(p.eyeZ, vertexCapacity);
+        this.splitCount = 0;
+        this.splitFrom = new int[16];
+        this.splitTo = new int[16];
+        this.splitT = new double[16];
+        this.treeSlots = new ArrayList<Face>(faces);
+        this.slotSource = new int[Math.max(16, n * 2)];
+        for (int i = 0; i < n; i++) {
+            this.slotSource[i] = i;
+        }
+        
+        int capacity = Math.max(16, n);
+        this.splitter = new int[capacity];
+        this.front = new int[capacity];
+        this.back = new int[capacity];
+        this.nodeFacesStart = new int[capacity];
+        this.nodeFacesCount = new int[capacity];
+        this.nodeFaces = new int[capacity];
+        this.nodeCount = 0;
+        int nodeFacesUsed = 0;
+        
+        // each pending item is a node index with the list of faces that 
+        // belong in the subtree rooted at that node
+        List<int[]> pendingFaces = new ArrayList<int[]>();
+        List<Integer> pendingNodes = new ArrayList<Integer>();
+        int[] all = new int[n];
+        for (int i = 0; i < n; i++) {
+            all[i] = i;
+        }
+        if (n > 0) {
+            pendingNodes.add(newNode());
+            pendingFaces.add(all);
+        }
+        double[] plane = new double[4];
+        double[] best = new double[4];
+        while (!pendingNodes.isEmpty()) {
+            int last = pendingNodes.size() - 1;
+            int node = pendingNodes.remove(last);
+            int[] items = pendingFaces.remove(last);
+            int count = items.length;
+            
+            // choose a splitter from a few candidates spread through the 
+            // list, minimising the number of spanning faces (each one adds
+            // a fragment) and imbalance
+            int bestFace = -1;
+            long bestScore = Long.MAX_VALUE;
+            int step = Math.max(1, count / CANDIDATES);
+            for (int c = 0; c < count; c += step) {
+                Face candidate = this.treeSlots.get(items[c]);
+                if (!calculatePlane(candidate, this.xs, this.ys, this.zs, 
+                        plane)) {
+                    continue;
+                }
+                int frontCount = 0, backCount = 0, spanCount = 0;
+                for (int i = 0; i < count; i++) {
+                    int cl = classify(this.treeSlots.get(items[i]), plane, 
+                            eps);
+                    if (cl == FRONT) {
+                        frontCount++;
+                    } else if (cl == BACK) {
+                        backCount++;
+                    } else if (cl == SPANNING) {
+                        spanCount++;
+                    }
+                }
+                long score = 8L * spanCount 
+                        + Math.abs(frontCount - backCount);
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestFace = items[c];
+                    System.arraycopy(plane, 0, best, 0, 4);
+                }
+            }
+            if (bestFace < 0 && step > 1) {
+                // none of the candidates defines a plane, take the first 
+                // face that does
+                for (int c = 0; c < count; c++) {
+                    if (calculatePlane(this.treeSlots.get(items[c]), this.xs,
+                            this.ys, this.zs, best)) {
+                        bestFace = items[c];
+                        break;
+                    }
+                }
+            }
+            
+            this.nodeFacesStart[node] = nodeFacesUsed;
+            if (bestFace < 0) {
+                // no face defines a plane, this is a leaf holding all faces
+                this.splitter[node] = -1;
+                ensureNodeFacesCapacity(nodeFacesUsed + count);
+                System.arraycopy(items, 0, this.nodeFaces, nodeFacesUsed, 
+                        count);
+                nodeFacesUsed += count;
+                this.nodeFacesCount[node] = count;
+                continue;
+            }
+            this.splitter[node] = bestFace;
+            // a spanning face contributes a fragment to each side
+            int[] frontItems = new int[count];
+            int[] backItems = new int[count];
+            int frontCount = 0, backCount = 0;
+            for (int i = 0; i < count; i++) {
+                Face f = this.treeSlots.get(items[i]);
+                int cl = (items[i] == bestFace) ? COPLANAR 
+                        : classify(f, best, eps);
+                if (cl == FRONT) {
+                    frontItems[frontCount++] = items[i];
+                } else if (cl == BACK) {
+                    backItems[backCount++] = items[i];
+                } else if (cl == SPANNING && isSplittable(f)) {
+                    int fragment = split(items[i], best, eps);
+                    frontItems[frontCount++] = fragment;
+                    backItems[backCount++] = fragment + 1;
+                } else {
+                    ensureNodeFacesCapacity(nodeFacesUsed + 1);
+                    this.nodeFaces[nodeFacesUsed++] = items[i];
+                }
+            }
+            this.nodeFacesCount[node] = nodeFacesUsed 
+                    - this.nodeFacesStart[node];
+            if (frontCount > 0) {
+                int child = newNode();
+                this.front[node] = child;
+                pendingNodes.add(child);
+                pendingFaces.add(Arrays.copyOf(frontItems, frontCount));
+            }
+            if (backCount > 0) {
+                int child = newNode();
+                this.back[node] = child;
+                pendingNodes.add(child);
+                pendingFaces.add(Arrays.copyOf(backItems, backCount));
+            }
+        }
+        this.xs = null;
+        this.ys = null;
+        this.zs = null;
+    }
+    
+    /**
+     * Splits the face in the specified slot by a plane, adding the front 
+     * fragment and then the back fragment as new slots.
+     * 
+     * @param slot  the slot index for the face.
+     * @param plane  the plane.
+     * @param eps  the tolerance for a vertex to be considered on the plane.
+     * 
+     * @return The slot index for the front fragment (the back fragment is
+     *     in the following slot).
+     */
+    private int split(int slot, double[] plane, double eps) {
+        Face f = this.treeSlots.get(slot);
+        int vertexCount = f.getVertexCount();
+        int[] frontVertices = new int[vertexCount * 2];
+        int[] backVertices = new int[vertexCount * 2];
+        int frontCount = 0, backCount = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int a = f.getVertexIndex(v);
+            int b = f.getVertexIndex((v + 1) % vertexCount);
+            double da = distance(a, plane);
+            double db = distance(b, plane);
+            if (da >= -eps) {
+                frontVertices[frontCount++] = a;
+            }
+            if (da <= eps) {
+                backVertices[backCount++] = a;
+            }
+            if ((da > eps && db < -eps) || (da < -eps && db > eps)) {
+                int s = addSplitVertex(a, b, da / (da - db));
+                frontVertices[frontCount++] = s;
+                backVertices[backCount++] = s;
+            }
+        }
+        int result = this.treeSlots.size();
+        if (this.slotSource.length < result + 2) {
+            this.slotSource = Arrays.copyOf(this.slotSource, 
+                    this.slotSource.length * 2);
+        }
+        this.treeSlots.add(createFragment(f, 
+                Arrays.copyOf(frontVertices, frontCount)));
+        this.treeSlots.add(createFragment(f, 
+                Arrays.copyOf(backVertices, backCount)));
+        this.slotSource[result] = this.slotSource[slot];
+        this.slotSource[result + 1] = this.slotSource[slot];
+        return result;
+    }
+    
+    /**
+     * Adds a vertex at the fraction {@code t} of the way from vertex 
+     * {@code a} to vertex {@code b}, and returns its index.
+     * 
+     * @param a  the first vertex index.
+     * @param b  the second vertex index.
+     * @param t  the fraction.
+     * 
+     * @return The vertex index. 
+     */
+    private int addSplitVertex(int a, int b, double t) {
+        int k = this.splitCount++;
+        if (k == this.splitFrom.length) {
+            this.splitFrom = Arrays.copyOf(this.splitFrom, k * 2);
+            this.splitTo = Arrays.copyOf(this.splitTo, k * 2);
+            this.splitT = Arrays.copyOf(this.splitT, k * 2);
+        }
+        this.splitFrom[k] = a;
+        this.splitTo[k] = b;
+        this.splitT[k] = t;
+        int i = this.baseVertexCount + k;
+        if (i == this.xs.length) {
+            this.xs = Arrays.copyOf(this.xs, i * 2);
+            this.ys = Arrays.copyOf(this.ys, i * 2);
+            this.zs = Arrays.copyOf(this.zs, i * 2);
+        }
+        this.xs[i] = this.xs[a] + t * (this.xs[b] - this.xs[a]);
+        this.ys[i] = this.ys[a] + t * (this.ys[b] - this.ys[a]);
+        this.zs[i] = this.zs[a] + t * (this.zs[b] - this.zs[a]);
+        return i;
+    }
+    
+    /**
+     * Ensures that {@code nodeFaces} can hold at least {@code count} 
+     * entries.
+     * 
+     * @param count  the required capacity.
+     */
+    private void ensureNodeFacesCapacity(int count) {
+        if (this.nodeFaces.length < count) {
+            this.nodeFaces = Arrays.copyOf(this.nodeFaces, 
+                    Math.max(count, this.nodeFaces.length * 2));
+        }
+    }
+    
+    /**
+     * Adds a new node (with no children) to the tree, and returns its index.
+     * 
+     * @return The node index. 
+     */
+    private int newNode() {
+        if (this.nodeCount == this.splitter.length) {
+            int capacity = this.nodeCount * 2;
+            this.splitter = Arrays.copyOf(this.splitter, capacity);
+            this.front = Arrays.copyOf(this.front, capacity);
+            this.back = Arrays.copyOf(this.back, capacity);
+            this.nodeFacesStart = Arrays.copyOf(this.nodeFacesStart, 
+                    capacity);
+            this.nodeFacesCount = Arrays.copyOf(this.nodeFacesCount, 
+                    capacity);
+        }
+        int node = this.nodeCount++;
+        this.front[node] = -1;
+        this.back[node] = -1;
+        return node;
+    }
+    
+    /**
+     * Traverses the tree in back-to-front order for the current eye 
+     * coordinates, leaving the slot indices in painting order in 
+     * {@code order}.
+     * 
+     * @param p  the projection buffer (for the eye coordinates, including 
+     *     the split vertices).
+     * 
+     * @return The number of slots in painting order.
+     */
+    private int traverse(ProjectionBuffer p) {
+        int n = this.treeSlots.size();
+        if (this.order == null || this.order.length < n) {
+            this.order = new int[n];
+            this.keys = new int[n];
+            this.indices = new int[n];
+            this.tempKeys = new int[n];
+            this.tempIndices = new int[n];
+        }
+        if (this.nodeCount == 0) {
+            return 0;
+        }
+        int[] keys = this.keys;
+        int[] indices = this.indices;
+        int used = 0;
+        double[] plane = new double[4];
+        // a negative entry -(node + 1) means "emit the faces for the node"
+        int[] stack = new int[Math.max(16, this.nodeCount * 3)];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int item = stack[--top];
+            if (item < 0) {
+                int node = -(item + 1);
+                int start = this.nodeFacesStart[node];
+                int count = this.nodeFacesCount[node];
+                for (int i = 0; i < count; i++) {
+                    int slot = this.nodeFaces[start + i];
+                    indices[i] = slot;
+                    keys[i] = DepthKeyFaceSorter.sortableKey(
+                            this.treeSlots.get(slot).calculateAverageZValue(
+                            p));
+                }
+                DepthKeyFaceSorter.sortIndices(keys, indices, count, 
+                        this.tempKeys, this.tempIndices);
+                System.arraycopy(indices, 0, this.order, used, count);
+                used += count;
+                continue;
+            }
+            int node = item;
+            int near = this.front[node];
+            int far = this.back[node];
+            if (this.splitter[node] >= 0 && calculatePlane(
+                    this.treeSlots.get(this.splitter[node]), p.eyeX, p.eyeY,
+                    p.eyeZ, plane)) {
+                // the eye is at the origin, so its distance from the plane is
+                // the constant term
+                if (plane[3] < 0.0) {
+                    near = this.back[node];
+                    far = this.front[node];
+                }
+            }
+            // push in reverse order: far side first, then node, then near
+            if (near >= 0) {
+                stack[top++] = near;
+            }
+            stack[top++] = -(node + 1);
+            if (far >= 0) {
+                stack[top++] = far;
+            }
+        }
+        return used;
+    }
+
+}
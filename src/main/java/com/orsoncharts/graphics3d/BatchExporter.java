@@ -0,0 +1,412 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * Exports many drawables (for example, charts for a set of reports) to 
+ * image files or output streams, using a fixed number of worker threads.  
+ * Each worker keeps the images that it draws to and reuses them for later
+ * jobs that are not larger, so a long batch does not allocate an image per
+ * job.  The number of jobs that are waiting or running is limited, and 
+ * {@code submit()} blocks until there is room for another job, so a 
+ * producer that submits jobs faster than they can be exported is held back
+ * rather than filling the memory with pending jobs.  The result of each 
+ * job includes the time that the job waited and the time taken to draw 
+ * and encode the image.
+ * <br><br>
+ * Jobs run concurrently, so a drawable must not be submitted again (or 
+ * modified) until its earlier jobs have completed.  The supported formats 
+ * are those that {@code ImageIO} can write, such as {@code "png"} and 
+ * {@code "jpg"}.
+ * 
+ * @since 1.7
+ */
+public class BatchExporter {
+    
+    /** The thread number for the next exporter's threads. */
+    private static final AtomicInteger EXPORTER_NUMBER = new AtomicInteger();
+    
+    /** The executor for the jobs. */
+    private final ThreadPoolExecutor executor;
+    
+    /** A permit for each job that can be waiting or running. */
+    private final Semaphore permits;
+    
+    /** The maximum number of jobs that can be waiting or running. */
+    private final int capacity;
+    
+    /** The images kept by each worker thread, by image type. */
+    private final ThreadLocal<BufferedImage[]> images;
+    
+    /**
+     * Creates a new exporter.
+     * 
+     * @param threadCount  the number of worker threads (must be positive).
+     * @param queueCapacity  the number of jobs that can wait for a worker
+     *     before {@code submit()} blocks (zero or more).
+     */
+    public BatchExporter(int threadCount, int queueCapacity) {
+        ArgChecks.positiveRequired(threadCount, "threadCount");
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "Requires 'queueCapacity' >= 0.");
+        }
+        final String prefix = "BatchExporter-" 
+                + EXPORTER_NUMBER.incrementAndGet() + "-";
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0L,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), 
+                new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, prefix + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        this.capacity = threadCount + queueCapacity;
+        this.permits = new Semaphore(this.capacity);
+        this.images = new ThreadLocal<BufferedImage[]>() {
+            @Override
+            protected BufferedImage[] initialValue() {
+                return new BufferedImage[2];
+            }
+        };
+    }
+    
+    /**
+     * Returns the number of jobs that are waiting or running.
+     * 
+     * @return The number of jobs. 
+     */
+    public int getPendingCount() {
+        return this.capacity - this.permits.availablePermits();
+    }
+    
+    /**
+     * Submits a job to export a drawable to a file, blocking until there is
+     * room for the job.
+     * 
+     * @param drawable  the drawable ({@code null} not permitted).
+     * @param w  the width (must be positive).
+     * @param h  the height (must be positive).
+     * @param format  the image format, for example {@code "png"} 
+     *     ({@code null} not permitted).
+     * @param file  the output file ({@code null} not permitted).
+     * 
+     * @return A future for the result of the job.
+     * 
+     * @throws InterruptedException if the thread is interrupted while 
+     *     waiting for room for the job.
+     */
+    public Future<Result> submit(Drawable3D drawable, int w, int h, 
+            String format, File file) throws InterruptedException {
+        ArgChecks.nullNotPermitted(file, "file");
+        return submit(drawable, w, h, format, file, null);
+    }
+    
+    /**
+     * Submits a job to export a drawable to an output stream, blocking until
+     * there is room for the job.  The stream is not closed by the job.
+     * 
+     * @param drawable  the drawable ({@code null} not permitted).
+     * @param w  the width (must be positive).
+     * @param h  the height (must be positive).
+     * @param format  the image format, for example {@code "png"} 
+     *     ({@code null} not permitted).
+     * @param out  the output stream ({@code null} not permitted).
+     * 
+     * @return A future for the result of the job.
+     * 
+     * @throws InterruptedException if the thread is interrupted while 
+     *     waiting for room for the job.
+     */
+    public Future<Result> submit(Drawable3D drawable, int w, int h, 
+            String format, OutputStream out) throws InterruptedException {
+        ArgChecks.nullNotPermitted(out, "out");
+        return submit(drawable, w, h, format, null, out);
+    }
+    
+    /**
+     * Submits a job to export a drawable to a file or an output stream.
+     * 
+     * @param drawable  the drawable.
+     * @param w  the width.
+     * @param h  the height.
+     * @param format  the format.
+     * @param file  the output file ({@code null} if {@code out} is used).
+     * @param out  the output stream ({@code null} if {@code file} is used).
+     * 
+     * @return A future for the result of the job.
+     * 
+     * @throws InterruptedException if the thread is interrupted while 
+     *     waiting for room for the job.
+     */
+    private Future<Result> submit(final Drawable3D drawable, final int w, 
+            final int h, String format, final File file, 
+            final OutputStream out) throws InterruptedException {
+        ArgChecks.nullNotPermitted(drawable, "drawable");
+        ArgChecks.nullNotPermitted(format, "format");
+        ArgChecks.positiveRequired(w, "w");
+        ArgChecks.positiveRequired(h, "h");
+        final String formatName = format.toLowerCase();
+        if (!ImageIO.getImageWritersByFormatName(formatName).hasNext()) {
+            throw new IllegalArgumentException(
+                    "No image writer for the format '" + format + "'.");
+        }
+        this.permits.acquire();
+        final long submitted = System.nanoTime();
+        FutureTask<Result> job = new FutureTask<Result>(new Callable<Result>() {
+            @Override
+            public Result call() throws IOException {
+                return export(drawable, w, h, formatName, file, out, 
+                        submitted);
+            }
+        }) {
+            @Override
+            protected void done() {
+                // called when the job completes or fails, and also when it
+                // is cancelled before it starts (when call() never runs)
+                permits.release();
+            }
+        };
+        try {
+            this.executor.execute(job);
+            return job;
+        } catch (RuntimeException ex) {
+            // the job was rejected (the exporter has been shut down)
+            this.permits.release();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Runs a job (on a worker thread).
+     * 
+     * @param drawable  the drawable.
+     * @param w  the width.
+     * @param h  the height.
+     * @param format  the format (in lower case).
+     * @param file  the output file ({@code null} if {@code out} is used).
+     * @param out  the output stream ({@code null} if {@code file} is used).
+     * @param submitted  the time that the job was submitted (from 
+     *     {@code System.nanoTime()}).
+     * 
+     * @return The result.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    private Result export(Drawable3D drawable, int w, int h, String format,
+            File file, OutputStream out, long submitted) throws IOException {
+        long start = System.nanoTime();
+        BufferedImage image = fetchImage(w, h, format.equals("png") 
+                || format.equals("gif") ? BufferedImage.TYPE_INT_ARGB 
+                : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        RenderingInfo info;
+        try {
+            // clear the part of the image that is reused
+            g2.setComposite(AlphaComposite.Clear);
+            g2.fillRect(0, 0, w, h);
+            g2.setComposite(AlphaComposite.SrcOver);
+            Rectangle bounds = new Rectangle(w, h);
+            if (drawable instanceof PreparableDrawable3D) {
+                // a prepared frame has its own projection, so the info in
+                // the result is not changed when the drawable is drawn again
+                info = ((PreparableDrawable3D) drawable).prepareFrame(g2, 
+                        bounds).draw(g2);
+            } else {
+                info = drawable.draw(g2, bounds);
+            }
+        } finally {
+            g2.dispose();
+        }
+        long drawn = System.nanoTime();
+        if (file != null) {
+            OutputStream fileOut = new BufferedOutputStream(
+                    new FileOutputStream(file));
+            try {
+                ImageIO.write(image, format, fileOut);
+            } finally {
+                fileOut.close();
+            }
+        } else {
+            ImageIO.write(image, format, out);
+        }
+        long encoded = System.nanoTime();
+        return new Result(info, start - submitted, drawn - start, 
+                encoded - drawn);
+    }
+    
+    /**
+     * Returns an image of the specified size for the current worker thread,
+     * reusing the thread's image for the type if it is large enough (in 
+     * which case a subimage is returned).
+     * 
+     * @param w  the width.
+     * @param h  the height.
+     * @param type  the image type.
+     * 
+     * @return The image. 
+     */
+    private BufferedImage fetchImage(int w, int h, int type) {
+        BufferedImage[] kept = this.images.get();
+        int slot = type == BufferedImage.TYPE_INT_ARGB ? 0 : 1;
+        BufferedImage image = kept[slot];
+        if (image == null || image.getWidth() < w || image.getHeight() < h) {
+            int width = image == null ? w : Math.max(w, image.getWidth());
+            int height = image == null ? h : Math.max(h, image.getHeight());
+            image = new BufferedImage(width, height, type);
+            kept[slot] = image;
+        }
+        if (image.getWidth() == w && image.getHeight() == h) {
+            return image;
+        }
+        return image.getSubimage(0, 0, w, h);
+    }
+    
+    /**
+     * Shuts down the exporter.  Jobs that have been submitted are 
+     * completed, but no new jobs are accepted.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+    
+    /**
+     * Waits for the submitted jobs to complete after a call to 
+     * {@link #shutdown()}.
+     * 
+     * @param timeout  the maximum time to wait.
+     * @param unit  the time unit ({@code null} not permitted).
+     * 
+     * @return {@code true} if the jobs completed, and {@code false} if the 
+     *     timeout elapsed first.
+     * 
+     * @throws InterruptedException if the thread is interrupted while 
+     *     waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) 
+            throws InterruptedException {
+        ArgChecks.nullNotPermitted(unit, "unit");
+        return this.executor.awaitTermination(timeout, unit);
+    }
+    
+    /**
+     * The result of an export job.
+     */
+    public static final class Result {
+        
+        /** The rendering info. */
+        private final RenderingInfo info;
+        
+        /** The time that the job waited for a worker (in nanoseconds). */
+        private final long waitTime;
+        
+        /** The time taken to draw the image (in nanoseconds). */
+        private final long drawTime;
+        
+        /** The time taken to encode and write the image (in nanoseconds). */
+        private final long encodeTime;
+        
+        Result(RenderingInfo info, long waitTime, long drawTime, 
+                long encodeTime) {
+            this.info = info;
+            this.waitTime = waitTime;
+            this.drawTime = drawTime;
+            this.encodeTime = encodeTime;
+        }
+        
+        /**
+         * Returns the rendering info from drawing the image.
+         * 
+         * @return The rendering info. 
+         */
+        public RenderingInfo getRenderingInfo() {
+            return this.info;
+        }
+        
+        /**
+         * Returns the time that the job waited for a worker thread.
+         * 
+         * @return The time (in nanoseconds). 
+         */
+        public long getWaitTime() {
+            return this.waitTime;
+        }
+        
+        /**
+         * Returns the time taken to draw the image.
+         * 
+         * @return The time (in nanoseconds). 
+         */
+        public long getDrawTime() {
+            return this.drawTime;
+        }
+        
+        /**
+         * Returns the time taken to encode the image and write it to the 
+         * file or output stream.
+         * 
+         * @return The time (in nanoseconds). 
+         */
+        public long getEncodeTime() {
+            return this.encodeTime;
+        }
+        
+    }
+    
+}
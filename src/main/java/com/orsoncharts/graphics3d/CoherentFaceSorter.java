@@ -0,0 +1,264 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A face sorter that exploits the frame-to-frame coherence of interactive
+ * rotation.  When the view point moves by a small amount, the painting order
+ * of the faces changes very little, so instead of sorting from scratch this
+ * sorter starts from the order calculated for the previous frame and repairs
+ * it with an insertion sort (which runs in close to linear time on nearly 
+ * sorted input).  If the faces differ from those in the previous call (for 
+ * example, because the world has been recomposed) or the previous order 
+ * turns out to be a poor starting point, the sorter falls back to a full 
+ * radix sort (see {@link DepthKeyFaceSorter}).
+ * <br><br>
+ * Faces with equal depth are ordered by their position in the input list, 
+ * so the result is always the same as for {@link StandardFaceSorter}.  To 
+ * use this sorter, call 
+ * {@link com.orsoncharts.Chart3D#setFaceSorter(FaceSorter)}.  An instance 
+ * keeps state between calls, so it should be used by one chart only (the 
+ * chart sorts the faces for its plot items with this sorter, apart from the
+ * chart box faces and before culling, so that the input is the same from 
+ * one frame to the next until the chart changes).  Calls are synchronized,
+ * so an instance can be used from more than one thread, but the state is 
+ * only useful for a single sequence of frames.
+ * 
+ * @since 1.7
+ */
+@SuppressWarnings("serial")
+public class CoherentFaceSorter implements ProjectionFaceSorter, Serializable {
+
+    /** 
+     * The maximum number of element moves per face that the insertion sort 
+     * is allowed before falling back to a full sort.
+     */
+    private static final int MOVES_PER_FACE = 8;
+    
+    /** The faces passed to the previous call, in input order. */
+    private transient Face[] previousFaces;
+    
+    /** The face order from the previous call (indices into the input). */
+    private transient int[] order;
+    
+    /** The depth keys for the faces, by input index. */
+    private transient int[] keys;
+    
+    /** The depth keys in the current order. */
+    private transient int[] orderedKeys;
+    
+    /** Workspace for the radix sort. */
+    private transient int[] tempKeys;
+    
+    /** Workspace for the radix sort. */
+    private transient int[] tempIndices;
+    
+    /** The number of full sorts performed (for testing). */
+    private transient int fullSortCount;
+    
+    /**
+     * Creates a new instance.
+     */
+    public CoherentFaceSorter() {
+        // nothing to do
+    }
+    
+    /**
+     * Returns the number of times that this sorter has had to perform a full
+     * sort (rather than repairing the order from the previous call).
+     * 
+     * @return The count. 
+     */
+    public synchronized int getFullSortCount() {
+        return this.fullSortCount;
+    }
+    
+    /**
+     * Discards the order from the previous call, so that the next call to
+     * {@code sort()} performs a full sort.
+     */
+    public synchronized void reset() {
+        this.previousFaces = null;
+    }
+
+    @Override
+    public synchronized List<Face> sort(List<Face> faces, Point3D[] eyePts) {
+        int n = faces.size();
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            this.keys[i] = DepthKeyFaceSorter.sortableKey(
+                    faces.get(i).calculateAverageZValue(eyePts));
+        }
+        return sortByKeys(faces);
+    }
+
+    @Override
+    public synchronized List<Face> sort(List<Face> faces, 
+            ProjectionBuffer projection) {
+        int n = faces.size();
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            this.keys[i] = DepthKeyFaceSorter.sortableKey(
+                    faces.get(i).calculateAverageZValue(projection));
+        }
+        return sortByKeys(faces);
+    }
+    
+    /**
+     * Sorts the faces using the keys that have already been calculated.
+     * 
+     * @param faces  the faces.
+     * 
+     * @return A new list containing the faces in sorted order.
+     */
+    private List<Face> sortByKeys(List<Face> faces) {
+        int n = faces.size();
+        if (!sameFaces(faces) || !repairOrder(n)) {
+            fullSort(n);
+            this.fullSortCount++;
+            this.previousFaces = faces.toArray(new Face[n]);
+        }
+        List<Face> result = new ArrayList<Face>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(faces.get(this.order[i]));
+        }
+        return result;
+    }
+    
+    /**
+     * Returns {@code true} if {@code faces} contains the same face 
+     * instances, in the same order, as the list passed in the previous call.
+     * 
+     * @param faces  the faces.
+     * 
+     * @return A boolean. 
+     */
+    private boolean sameFaces(List<Face> faces) {
+        if (this.previousFaces == null 
+                || this.previousFaces.length != faces.size()) {
+            return false;
+        }
+        for (int i = 0; i < this.previousFaces.length; i++) {
+            if (this.previousFaces[i] != faces.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Sorts the faces from scratch.
+     * 
+     * @param n  the number of faces.
+     */
+    private void fullSort(int n) {
+        for (int i = 0; i < n; i++) {
+            this.order[i] = i;
+            this.orderedKeys[i] = this.keys[i];
+        }
+        DepthKeyFaceSorter.sortIndices(this.orderedKeys, this.order, n, 
+                this.tempKeys, this.tempIndices);
+    }
+    
+    /**
+     * Repairs the order from the previous call using an insertion sort 
+     * with the new keys, giving up if the number of moves exceeds a 
+     * budget that is proportional to the number of faces.  Ties are broken
+     * using the input index so that the result matches a stable sort.
+     * 
+     * @param n  the number of faces.
+     * 
+     * @return A boolean indicating whether or not the repair succeeded. 
+     */
+    private boolean repairOrder(int n) {
+        int[] ord = this.order;
+        int[] ok = this.orderedKeys;
+        for (int i = 0; i < n; i++) {
+            ok[i] = this.keys[ord[i]];
+        }
+        long budget = (long) n * MOVES_PER_FACE;
+        for (int i = 1; i < n; i++) {
+            int k = ok[i];
+            int index = ord[i];
+            int j = i - 1;
+            while (j >= 0 && greater(ok[j], ord[j], k, index)) {
+                ok[j + 1] = ok[j];
+                ord[j + 1] = ord[j];
+                j--;
+                if (--budget < 0) {
+                    return false;
+                }
+            }
+            ok[j + 1] = k;
+            ord[j + 1] = index;
+        }
+        return true;
+    }
+    
+    /**
+     * Returns {@code true} if the item {@code (k1, i1)} should be 
+     * painted after the item {@code (k2, i2)}.
+     * 
+     * @param k1  the key for the first item.
+     * @param i1  the input index for the first item.
+     * @param k2  the key for the second item.
+     * @param i2  the input index for the second item.
+     * 
+     * @return A boolean.
+     */
+    private static boolean greater(int k1, int i1, int k2, int i2) {
+        int c = DepthKeyFaceSorter.compareUnsigned(k1, k2);
+        return c > 0 || (c == 0 && i1 > i2);
+    }
+    
+    /**
+     * Ensures the workspace arrays can hold at least {@code n} items.
+     * 
+     * @param n  the number of faces.
+     */
+    private void ensureCapacity(int n) {
+        if (this.keys == null || this.keys.length < n) {
+            this.keys = new int[n];
+            this.orderedKeys = new int[n];
+            this.tempKeys = new int[n];
+            this.tempIndices = new int[n];
+            this.order = new int[n];
+            this.previousFaces = null;
+        }
+    }
+
+}
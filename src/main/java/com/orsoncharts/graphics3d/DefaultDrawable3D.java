@@ -72,6 +72,9 @@ public class DefaultDrawable3D implements Drawable3D {
     private World world;
 
     private Offset2D offset;
+    
+    /** A cache of shaded colors for the faces. */
+    private ShadedColorCache shadedColors;
 
     /**
      * Creates a new instance to display the content of the specified
@@ -178,23 +181,22 @@ public class DefaultDrawable3D implements Drawable3D {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
                 RenderingHints.VALUE_ANTIALIAS_ON);
 
-        Point3D[] eyePts = this.world.calculateEyeCoordinates(this.viewPoint);
-
-        Point2D[] pts = this.world.calculateProjectedPoints(this.viewPoint,
-                    this.projDist);
+        ProjectionBuffer projection = this.world.project(this.viewPoint, 
+                this.projDist, null);
+        Point2D[] pts = projection.getScreenPoints();
         List<Face> facesInPaintOrder = new ArrayList<Face>(
                 this.world.getFaces());
 
         // sort faces by z-order
-        Collections.sort(facesInPaintOrder, new ZOrderComparator(eyePts));
+        Collections.sort(facesInPaintOrder, new ZOrderComparator(projection));
 
+        double[] plane = new double[3];
         for (Face f : facesInPaintOrder) {
-            double[] plane = f.calculateNormal(eyePts);
+            f.calculateNormal(projection, plane);
             double inprod = plane[0] * this.world.getSunX() + plane[1]
                     * this.world.getSunY() + plane[2] * this.world.getSunZ();
             double shade = (inprod + 1) / 2.0;
-            if (Utils2D.area2(pts[f.getVertexIndex(0)],
-                    pts[f.getVertexIndex(1)], pts[f.getVertexIndex(2)]) > 0) {
+            if (f.isFrontFacing(projection)) {
                 Color c = f.getColor();
                 if (c != null) {
                     GeneralPath p = new GeneralPath();
@@ -209,9 +211,10 @@ public class DefaultDrawable3D implements Drawable3D {
                         }
                     }
                     p.closePath();
-                    g2.setPaint(new Color((int) (c.getRed() * shade),
-                        (int) (c.getGreen() * shade),
-                        (int) (c.getBlue() * shade), c.getAlpha()));
+                    if (this.shadedColors == null) {
+                        this.shadedColors = new ShadedColorCache();
+                    }
+                    g2.setPaint(this.shadedColors.getShadedColor(c, shade));
                     g2.fill(p);
                     g2.draw(p);
                 }
@@ -0,0 +1,227 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A face sorter that orders the faces by z-value, like 
+ * {@link StandardFaceSorter}, but calculates the depth key for each face 
+ * once only (rather than twice per comparison) and then sorts the face 
+ * indices with a stable radix sort on the primitive keys.  The resulting 
+ * order is the same as for {@link StandardFaceSorter}.  This is the default
+ * face sorter for {@link com.orsoncharts.Chart3D}.
+ * <br><br>
+ * The workspace for the sort is allocated for each call, so an instance 
+ * holds no state and can be shared by several threads (for example, when 
+ * a chart is drawn on one thread while snapshots of it are created on 
+ * another).
+ * 
+ * @since 1.7
+ */
+@SuppressWarnings("serial")
+public class DepthKeyFaceSorter implements ProjectionFaceSorter, Serializable {
+
+    /** Below this size an insertion sort is faster than a radix sort. */
+    private static final int INSERTION_SORT_THRESHOLD = 48;
+    
+    /**
+     * Creates a new instance.
+     */
+    public DepthKeyFaceSorter() {
+        // nothing to do
+    }
+
+    @Override
+    public List<Face> sort(List<Face> faces, Point3D[] eyePts) {
+        int n = faces.size();
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = sortableKey(faces.get(i).calculateAverageZValue(eyePts));
+        }
+        return sortByKeys(faces, keys);
+    }
+
+    @Override
+    public List<Face> sort(List<Face> faces, ProjectionBuffer projection) {
+        int n = faces.size();
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = sortableKey(
+                    faces.get(i).calculateAverageZValue(projection));
+        }
+        return sortByKeys(faces, keys);
+    }
+
+    /**
+     * Sorts the faces using the keys that have already been calculated.
+     * 
+     * @param faces  the faces.
+     * @param keys  the depth keys for the faces (overwritten).
+     * 
+     * @return A new list containing the faces in sorted order.
+     */
+    private static List<Face> sortByKeys(List<Face> faces, int[] keys) {
+        int n = faces.size();
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        sortIndices(keys, indices, n, new int[n], new int[n]);
+        List<Face> result = new ArrayList<Face>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(faces.get(indices[i]));
+        }
+        return result;
+    }
+    
+    /**
+     * Converts a depth value to an {@code int} such that the ordering of 
+     * the ints (as unsigned values, which is what the radix sort uses) 
+     * matches the ordering of the floats.  Positive and negative zero map 
+     * to the same key, since they compare as equal in 
+     * {@link ZOrderComparator}.
+     * 
+     * @param z  the depth value.
+     * 
+     * @return The sortable key. 
+     */
+    static int sortableKey(float z) {
+        if (z == 0.0f) {
+            z = 0.0f;  // normalise -0.0f
+        }
+        int bits = Float.floatToIntBits(z);
+        return bits ^ ((bits >> 31) | 0x80000000);
+    }
+    
+    /**
+     * Sorts the first {@code n} items in {@code indices} by the 
+     * corresponding items in {@code keys} (ascending, comparing the keys as 
+     * unsigned values).  The sort is stable and sorts both arrays, the two 
+     * workspace arrays must have a length of at least {@code n}.
+     * 
+     * @param keys  the keys.
+     * @param indices  the indices.
+     * @param n  the number of items to sort.
+     * @param tempKeys  workspace.
+     * @param tempIndices  workspace.
+     */
+    static void sortIndices(int[] keys, int[] indices, int n, 
+            int[] tempKeys, int[] tempIndices) {
+        if (n < INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, indices, 0, n);
+            return;
+        }
+        int[] srcKeys = keys;
+        int[] srcIndices = indices;
+        int[] dstKeys = tempKeys;
+        int[] dstIndices = tempIndices;
+        int[] counts = new int[256];
+        for (int shift = 0; shift < 32; shift += 8) {
+            for (int b = 0; b < 256; b++) {
+                counts[b] = 0;
+            }
+            for (int i = 0; i < n; i++) {
+                counts[(srcKeys[i] >>> shift) & 0xFF]++;
+            }
+            // skip the pass if all keys have the same value for this byte
+            if (counts[(srcKeys[0] >>> shift) & 0xFF] == n) {
+                continue;
+            }
+            int total = 0;
+            for (int b = 0; b < 256; b++) {
+                int c = counts[b];
+                counts[b] = total;
+                total += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int k = srcKeys[i];
+                int pos = counts[(k >>> shift) & 0xFF]++;
+                dstKeys[pos] = k;
+                dstIndices[pos] = srcIndices[i];
+            }
+            int[] t = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = t;
+            t = srcIndices;
+            srcIndices = dstIndices;
+            dstIndices = t;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, n);
+            System.arraycopy(srcIndices, 0, indices, 0, n);
+        }
+    }
+    
+    /**
+     * A stable insertion sort for a range of items in the arrays.
+     * 
+     * @param keys  the keys.
+     * @param indices  the indices.
+     * @param start  the index of the first item.
+     * @param end  the index after the last item.
+     */
+    static void insertionSort(int[] keys, int[] indices, int start, 
+            int end) {
+        for (int i = start + 1; i < end; i++) {
+            int k = keys[i];
+            int index = indices[i];
+            int j = i - 1;
+            while (j >= start && compareUnsigned(keys[j], k) > 0) {
+                keys[j + 1] = keys[j];
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            indices[j + 1] = index;
+        }
+    }
+    
+    /**
+     * Compares two ints as unsigned values (Integer.compareUnsigned() 
+     * requires JDK 1.8).
+     * 
+     * @param a  the first value.
+     * @param b  the second value.
+     * 
+     * @return A negative, zero or positive result.
+     */
+    static int compareUnsigned(int a, int b) {
+        int x = a + Integer.MIN_VALUE;
+        int y = b + Integer.MIN_VALUE;
+        return (x < y) ? -1 : ((x == y) ? 0 : 1);
+    }
+    
+}
@@ -36,15 +36,23 @@ import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
 import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import javax.imageio.ImageIO;
 import com.orsoncharts.util.ArgChecks;
 import com.orsoncharts.util.ExportFormats;
@@ -57,11 +65,14 @@ import com.orsoncharts.util.ExportFormats;
 public class ExportUtils {
     
     /**
-     * Writes the current content to the specified file in SVG format.  This 
-     * will only work when the JFreeSVG library is found on the classpath.
-     * Reflection is used to ensure there is no compile-time dependency on
-     * JFreeSVG.  Any exceptions that occur while writing the file are
-     * caught and wrapped in a {@code RuntimeException} that is then thrown.
+     * Writes the current content to the specified file in SVG format.  The
+     * file is written by {@link #writeAsSVG(Drawable3D, int, int, Writer)},
+     * so the SVG elements are streamed to the file as the drawable is drawn
+     * (JFreeSVG is not required, and is not used even if it is on the 
+     * classpath, see 
+     * {@link #writeAsSVGWithJFreeSVG(Drawable3D, int, int, File)}).  Any 
+     * exceptions that occur while writing the file are caught and wrapped 
+     * in a {@code RuntimeException} that is then thrown.
      * 
      * @param drawable  the drawable ({@code null} not permitted).
      * @param w  the chart width.
@@ -72,6 +83,42 @@ public class ExportUtils {
      */
     public static RenderingInfo writeAsSVG(Drawable3D drawable, int w, int h, 
             File file) {
+        ArgChecks.nullNotPermitted(drawable, "drawable");
+        ArgChecks.nullNotPermitted(file, "file");
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(file), "UTF-8"));
+            try {
+                return writeAsSVG(drawable, w, h, writer);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+    
+    /**
+     * Writes the current content to the specified file in SVG format using
+     * the JFreeSVG library, which builds the whole document in memory 
+     * before it is written (so this is only suitable for charts of modest
+     * size, see {@link #writeAsSVG(Drawable3D, int, int, File)}).  This 
+     * will only work when JFreeSVG is found on the classpath.  Reflection 
+     * is used to ensure there is no compile-time dependency on JFreeSVG.  
+     * Any exceptions that occur while writing the file are caught and 
+     * wrapped in a {@code RuntimeException} that is then thrown.
+     * 
+     * @param drawable  the drawable ({@code null} not permitted).
+     * @param w  the chart width.
+     * @param h  the chart height.
+     * @param file  the output file ({@code null} not permitted).
+     * 
+     * @return The rendering info.
+     * 
+     * @since 1.7
+     */
+    public static RenderingInfo writeAsSVGWithJFreeSVG(Drawable3D drawable, 
+            int w, int h, File file) {
         if (!ExportFormats.isJFreeSVGAvailable()) {
             throw new IllegalStateException(
                     "JFreeSVG is not present on the classpath.");
@@ -110,6 +157,37 @@ public class ExportUtils {
         }
     }
 
+    /**
+     * Writes the current content to the specified writer in SVG format, 
+     * using a {@link StreamingSVGGraphics2D} (so JFreeSVG is not required).  
+     * The SVG elements are written as the drawable is drawn, rather than 
+     * being collected in memory first.  The element hints from 
+     * {@link com.orsoncharts.Chart3DHints} are written as groups in the same
+     * way as JFreeSVG, so the output can be used with the Orson Charts 
+     * JavaScript utilities.  The writer is flushed but not closed.
+     * 
+     * @param drawable  the drawable ({@code null} not permitted).
+     * @param w  the chart width.
+     * @param h  the chart height.
+     * @param writer  the writer ({@code null} not permitted).
+     * 
+     * @return The rendering info.
+     * 
+     * @throws IOException if there is an I/O problem.
+     * 
+     * @since 1.7
+     */
+    public static RenderingInfo writeAsSVG(Drawable3D drawable, int w, int h, 
+            Writer writer) throws IOException {
+        ArgChecks.nullNotPermitted(drawable, "drawable");
+        ArgChecks.nullNotPermitted(writer, "writer");
+        StreamingSVGGraphics2D g2 = new StreamingSVGGraphics2D(writer, w, h);
+        Rectangle2D drawArea = new Rectangle2D.Double(0, 0, w, h);
+        RenderingInfo info = drawable.draw(g2, drawArea);
+        g2.endDocument();
+        return info;
+    }
+
     /**
      * Writes a {@link Drawable3D} to the specified file in PDF format.  This 
      * will only work when the OrsonPDF library is found on the classpath.
@@ -191,6 +269,140 @@ public class ExportUtils {
         return result;
     }
 
+    /**
+     * Writes the current content to the specified file in PNG format, 
+     * painting the image in tiles in parallel.  See 
+     * {@link #drawInTiles(Drawable3D, BufferedImage, ExecutorService, int)}
+     * for details.
+     * 
+     * @param drawable  the drawable ({@code null} not permitted).
+     * @param w  the chart width.
+     * @param h  the chart height.
+     * @param file  the output file ({@code null} not permitted).
+     * @param executor  the executor for the tiles ({@code null} not 
+     *     permitted).
+     * @param tileSize  the tile width and height in pixels (must be 
+     *     positive).
+     * 
+     * @return The rendering info.
+     * 
+     * @throws FileNotFoundException if the file is not found.
+     * @throws IOException if there is an I/O problem.
+     * 
+     * @since 1.7
+     */
+    public static RenderingInfo writeAsPNG(Drawable3D drawable, int w, int h, 
+            File file, ExecutorService executor, int tileSize) 
+            throws FileNotFoundException, IOException {
+        ArgChecks.nullNotPermitted(file, "file");
+        BufferedImage image = new BufferedImage(w, h, 
+                BufferedImage.TYPE_INT_ARGB);
+        RenderingInfo result = drawInTiles(drawable, image, executor, 
+                tileSize);
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            ImageIO.write(image, "png", out);
+        }
+        finally {
+            out.close();
+        }
+        return result;
+    }
+
+    /**
+     * Draws a {@link Drawable3D} to fill the specified image, painting the
+     * image in tiles in parallel.  When the drawable is a 
+     * {@link PreparableDrawable3D} (such as a chart), the 3D model is 
+     * projected and sorted once only, then each tile is painted (via its own 
+     * {@code Graphics2D}, clipped to the tile) to a separate image by a task
+     * submitted to the executor, and the tiles are copied into the target 
+     * image.  Other drawables are drawn to the image directly, on the 
+     * calling thread.
+     * 
+     * @param drawable  the drawable ({@code null} not permitted).
+     * @param image  the target image ({@code null} not permitted).
+     * @param executor  the executor for the tiles ({@code null} not 
+     *     permitted).
+     * @param tileSize  the tile width and height in pixels (must be 
+     *     positive).
+     * 
+     * @return The rendering info.
+     * 
+     * @since 1.7
+     */
+    public static RenderingInfo drawInTiles(Drawable3D drawable, 
+            final BufferedImage image, ExecutorService executor, 
+            int tileSize) {
+        ArgChecks.nullNotPermitted(drawable, "drawable");
+        ArgChecks.nullNotPermitted(image, "image");
+        ArgChecks.nullNotPermitted(executor, "executor");
+        ArgChecks.positiveRequired(tileSize, "tileSize");
+        int w = image.getWidth();
+        int h = image.getHeight();
+        Rectangle bounds = new Rectangle(w, h);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            if (!(drawable instanceof PreparableDrawable3D)) {
+                return drawable.draw(g2, bounds);
+            }
+            final PreparedFrame frame 
+                    = ((PreparableDrawable3D) drawable).prepareFrame(g2, 
+                    bounds);
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            for (int y = 0; y < h; y += tileSize) {
+                for (int x = 0; x < w; x += tileSize) {
+                    final Rectangle tile = new Rectangle(x, y, 
+                            Math.min(tileSize, w - x), 
+                            Math.min(tileSize, h - y));
+                    tasks.add(new Callable<Object>() {
+                        @Override
+                        public Object call() {
+                            BufferedImage tileImage = createTileImage(image, 
+                                    tile.width, tile.height);
+                            Graphics2D tg2 = tileImage.createGraphics();
+                            RenderingInfo info;
+                            try {
+                                tg2.translate(-tile.x, -tile.y);
+                                tg2.clip(tile);
+                                info = frame.draw(tg2);
+                            } finally {
+                                tg2.dispose();
+                            }
+                            // the tiles don't overlap, so they can be copied
+                            // into the target concurrently
+                            image.getRaster().setRect(tile.x, tile.y, 
+                                    tileImage.getRaster());
+                            return info;
+                        }
+                    });
+                }
+            }
+            List<Object> results = ParallelTasks.invokeAll(executor, tasks);
+            return (RenderingInfo) results.get(0);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    /**
+     * Creates an image for a tile with the same color model as the target
+     * image, so that the tile can be copied into the target (this works for
+     * any image, including images of type 
+     * {@code BufferedImage.TYPE_CUSTOM}).
+     * 
+     * @param image  the target image.
+     * @param w  the tile width.
+     * @param h  the tile height.
+     * 
+     * @return The tile image. 
+     */
+    private static BufferedImage createTileImage(BufferedImage image, int w, 
+            int h) {
+        ColorModel cm = image.getColorModel();
+        return new BufferedImage(cm, cm.createCompatibleWritableRaster(w, h),
+                cm.isAlphaPremultiplied(), null);
+    }
+    
     /**
      * Writes the current content to the specified file in JPEG format.
      * 
@@ -35,6 +35,7 @@ package com.orsoncharts.graphics3d;
 import java.awt.Color;
 import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 
 import com.orsoncharts.util.ArgChecks;
 
@@ -201,6 +202,57 @@ public class Face {
         return new double[] {a, b, c};
     }
 
+    /**
+     * Calculates the normal vector for this face using the eye coordinates
+     * in the supplied projection buffer.
+     * 
+     * @param projection  the projection buffer ({@code null} not permitted).
+     * 
+     * @return The normal vector.
+     * 
+     * @since 1.7
+     */
+    public double[] calculateNormal(ProjectionBuffer projection) {
+        return calculateNormal(projection, new double[3]);
+    }
+    
+    /**
+     * Calculates the normal vector for this face using the eye coordinates
+     * in the supplied projection buffer, and stores it in the supplied 
+     * array (this avoids allocating a new array for every face in every 
+     * frame).
+     * 
+     * @param projection  the projection buffer ({@code null} not permitted).
+     * @param result  an array with length at least 3, to hold the result 
+     *     ({@code null} not permitted).
+     * 
+     * @return The {@code result} array. 
+     * 
+     * @since 1.7
+     */
+    public double[] calculateNormal(ProjectionBuffer projection, 
+            double[] result) {
+        int iA = this.vertices[0] + this.offset;
+        int iB = this.vertices[1] + this.offset;
+        int iC = this.vertices[2] + this.offset;
+        double[] ex = projection.eyeX;
+        double[] ey = projection.eyeY;
+        double[] ez = projection.eyeZ;
+        double u1 = ex[iB] - ex[iA], u2 = ey[iB] - ey[iA], 
+                u3 = ez[iB] - ez[iA];
+        double v1 = ex[iC] - ex[iA], v2 = ey[iC] - ey[iA], 
+                v3 = ez[iC] - ez[iA];
+        double a = u2 * v3 - u3 * v2,
+               b = u3 * v1 - u1 * v3,
+               c = u1 * v2 - u2 * v1,
+               len = Math.sqrt(a * a + b * b + c * c);
+               a /= len; b /= len; c /= len;
+        result[0] = a;
+        result[1] = b;
+        result[2] = c;
+        return result;
+    }
+
     /**
      * Returns the average z-value.
      *
@@ -216,6 +268,25 @@ public class Face {
         return total / this.vertices.length;
     }
 
+    /**
+     * Returns the average z-value using the eye coordinates in the supplied
+     * projection buffer.
+     * 
+     * @param projection  the projection buffer ({@code null} not permitted).
+     * 
+     * @return The average z-value.
+     * 
+     * @since 1.7
+     */
+    public float calculateAverageZValue(ProjectionBuffer projection) {
+        double[] ez = projection.eyeZ;
+        float total = 0.0f;
+        for (int i = 0; i < this.vertices.length; i++) {
+            total = total + (float) ez[this.vertices[i] + this.offset];
+        }
+        return total / this.vertices.length;
+    }
+
     /**
      * Returns {@code true} if this face is front facing, and 
      * {@code false} otherwise.
@@ -229,6 +300,62 @@ public class Face {
                 projPts[getVertexIndex(1)], projPts[getVertexIndex(2)]) > 0;  
     }
 
+    /**
+     * Returns {@code true} if this face is front facing, and 
+     * {@code false} otherwise.  Faces with fewer than three vertices (lines)
+     * are never front facing.
+     * 
+     * @param projection  the projection buffer ({@code null} not permitted).
+     * 
+     * @return A boolean. 
+     * 
+     * @since 1.7
+     */
+    public boolean isFrontFacing(ProjectionBuffer projection) {
+        if (this.vertices.length < 3) {
+            return false;
+        }
+        double[] sx = projection.screenX;
+        double[] sy = projection.screenY;
+        int a = this.vertices[0] + this.offset;
+        int b = this.vertices[1] + this.offset;
+        int c = this.vertices[2] + this.offset;
+        return (sx[a] - sx[c]) * (sy[b] - sy[c]) 
+                - (sy[a] - sy[c]) * (sx[b] - sx[c]) > 0;
+    }
+    
+    /**
+     * Returns {@code true} if the bounding box of the projected vertices of 
+     * this face intersects the specified rectangle, and {@code false} 
+     * otherwise.  A face that returns {@code false} cannot be visible within
+     * the rectangle (if it is not painted with a stroke wider than the
+     * rectangle's margin).
+     * 
+     * @param projection  the projection buffer ({@code null} not permitted).
+     * @param rect  the rectangle ({@code null} not permitted).
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean intersects(ProjectionBuffer projection, Rectangle2D rect) {
+        double[] sx = projection.screenX;
+        double[] sy = projection.screenY;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int v : this.vertices) {
+            int i = v + this.offset;
+            minX = Math.min(minX, sx[i]);
+            maxX = Math.max(maxX, sx[i]);
+            minY = Math.min(minY, sy[i]);
+            maxY = Math.max(maxY, sy[i]);
+        }
+        return maxX >= rect.getMinX() && minX <= rect.getMaxX() 
+                && maxY >= rect.getMinY() && minY <= rect.getMaxY();
+    }
+    
     /**
      * Creates and returns a path for the outline of this face.
      * 
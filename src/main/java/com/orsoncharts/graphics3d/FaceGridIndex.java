@@ -0,0 +1,331 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+/**
+ * A uniform grid over the projected bounds of a list of faces, used by 
+ * {@link RenderingInfo} to find the face at a point without testing every 
+ * face.  Each cell records the indices (in painting order) of the faces 
+ * whose bounds overlap the cell.  Label faces are tested against their 
+ * label bounds (which can extend beyond the face) so they are kept in a 
+ * separate list and always tested, along with any faces that have vertices
+ * without finite projected coordinates.
+ * <br><br>
+ * The containment test for a face gives the same result as 
+ * {@code Face.createPath(pts).contains(x, y)} without creating the path.
+ */
+final class FaceGridIndex {
+    
+    /** The maximum number of cells along each axis. */
+    private static final int MAX_CELLS = 256;
+    
+    /** The faces in painting order. */
+    private final List<Face> faces;
+    
+    /** The projected points. */
+    private final Point2D[] pts;
+    
+    /** The rendering info (for the label bounds). */
+    private final RenderingInfo info;
+    
+    /** The origin of the grid. */
+    private double minX, minY;
+    
+    /** The cell size. */
+    private double cellWidth, cellHeight;
+    
+    /** The number of columns and rows. */
+    private int cols, rows;
+    
+    /** 
+     * The start of the face indices for each cell in {@code cellFaces}
+     * (with an extra entry for the end of the last cell).
+     */
+    private int[] cellStart;
+    
+    /** The face indices for all cells, in ascending order in each cell. */
+    private int[] cellFaces;
+    
+    /** 
+     * The indices of the faces that are tested at every point, in 
+     * ascending order. 
+     */
+    private int[] alwaysTested;
+    
+    /**
+     * Creates a new index.
+     * 
+     * @param faces  the faces in painting order ({@code null} not permitted).
+     * @param pts  the projected points ({@code null} not permitted).
+     * @param info  the rendering info that holds the label bounds 
+     *     ({@code null} not permitted).
+     */
+    FaceGridIndex(List<Face> faces, Point2D[] pts, RenderingInfo info) {
+        this.faces = faces;
+        this.pts = pts;
+        this.info = info;
+        int n = faces.size();
+        
+        // find the bounds of each face, lines are skipped since a path with
+        // no area contains no points
+        double[] bounds = new double[n * 4];
+        boolean[] indexed = new boolean[n];
+        boolean[] always = new boolean[n];
+        int alwaysCount = 0;
+        double gMinX = Double.POSITIVE_INFINITY;
+        double gMinY = Double.POSITIVE_INFINITY;
+        double gMaxX = Double.NEGATIVE_INFINITY;
+        double gMaxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            Face f = faces.get(i);
+            if (f instanceof LabelFace) {
+                always[i] = true;
+                alwaysCount++;
+                continue;
+            }
+            if (f.getVertexCount() < 3) {
+                continue;
+            }
+            double fMinX = Double.POSITIVE_INFINITY;
+            double fMinY = Double.POSITIVE_INFINITY;
+            double fMaxX = Double.NEGATIVE_INFINITY;
+            double fMaxY = Double.NEGATIVE_INFINITY;
+            for (int v = 0; v < f.getVertexCount(); v++) {
+                Point2D pt = pts[f.getVertexIndex(v)];
+                double x = (float) pt.getX();
+                double y = (float) pt.getY();
+                fMinX = Math.min(fMinX, x);
+                fMinY = Math.min(fMinY, y);
+                fMaxX = Math.max(fMaxX, x);
+                fMaxY = Math.max(fMaxY, y);
+            }
+            if (Double.isInfinite(fMinX) || Double.isInfinite(fMinY) 
+                    || Double.isInfinite(fMaxX) || Double.isInfinite(fMaxY)
+                    || Double.isNaN(fMinX + fMinY + fMaxX + fMaxY)) {
+                always[i] = true;
+                alwaysCount++;
+                continue;
+            }
+            bounds[i * 4] = fMinX;
+            bounds[i * 4 + 1] = fMinY;
+            bounds[i * 4 + 2] = fMaxX;
+            bounds[i * 4 + 3] = fMaxY;
+            indexed[i] = true;
+            gMinX = Math.min(gMinX, fMinX);
+            gMinY = Math.min(gMinY, fMinY);
+            gMaxX = Math.max(gMaxX, fMaxX);
+            gMaxY = Math.max(gMaxY, fMaxY);
+        }
+        this.alwaysTested = new int[alwaysCount];
+        int a = 0;
+        for (int i = 0; i < n; i++) {
+            if (always[i]) {
+                this.alwaysTested[a++] = i;
+            }
+        }
+        if (gMinX > gMaxX) {
+            // nothing to index
+            this.cols = 0;
+            this.rows = 0;
+            this.cellStart = new int[1];
+            this.cellFaces = new int[0];
+            return;
+        }
+        int side = (int) Math.max(1, Math.min(MAX_CELLS, Math.sqrt(n)));
+        this.cols = side;
+        this.rows = side;
+        this.minX = gMinX;
+        this.minY = gMinY;
+        this.cellWidth = Math.max((gMaxX - gMinX) / side, Double.MIN_NORMAL);
+        this.cellHeight = Math.max((gMaxY - gMinY) / side, 
+                Double.MIN_NORMAL);
+        
+        // two passes: count the entries for each cell, then fill them in
+        this.cellStart = new int[this.cols * this.rows + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            int[] next = null;
+            if (pass == 1) {
+                for (int c = 1; c < this.cellStart.length; c++) {
+                    this.cellStart[c] += this.cellStart[c - 1];
+                }
+                this.cellFaces = new int[this.cellStart[
+                        this.cellStart.length - 1]];
+                next = new int[this.cols * this.rows];
+                System.arraycopy(this.cellStart, 0, next, 0, next.length);
+            }
+            for (int i = 0; i < n; i++) {
+                if (!indexed[i]) {
+                    continue;
+                }
+                int c0 = column(bounds[i * 4]);
+                int r0 = row(bounds[i * 4 + 1]);
+                int c1 = column(bounds[i * 4 + 2]);
+                int r1 = row(bounds[i * 4 + 3]);
+                for (int r = r0; r <= r1; r++) {
+                    for (int c = c0; c <= c1; c++) {
+                        int cell = r * this.cols + c;
+                        if (pass == 0) {
+                            this.cellStart[cell + 1]++;
+                        } else {
+                            this.cellFaces[next[cell]++] = i;
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    private int column(double x) {
+        int c = (int) Math.floor((x - this.minX) / this.cellWidth);
+        return Math.max(0, Math.min(this.cols - 1, c));
+    }
+    
+    private int row(double y) {
+        int r = (int) Math.floor((y - this.minY) / this.cellHeight);
+        return Math.max(0, Math.min(this.rows - 1, r));
+    }
+    
+    /**
+     * Returns the index of the last face in painting order that contains 
+     * the point {@code (x, y)} (in projected coordinates), or {@code -1}.
+     * 
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * 
+     * @return The face index, or {@code -1}.
+     */
+    int findFaceAt(double x, double y) {
+        if (Double.isNaN(x) || Double.isNaN(y) || Double.isInfinite(x) 
+                || Double.isInfinite(y)) {
+            return -1;
+        }
+        int start = 0;
+        int end = 0;
+        if (this.cols > 0) {
+            double gx = (x - this.minX) / this.cellWidth;
+            double gy = (y - this.minY) / this.cellHeight;
+            // the cells are closed on the far edges of the grid
+            if (gx >= 0.0 && gy >= 0.0 && gx <= this.cols 
+                    && gy <= this.rows) {
+                int cell = row(y) * this.cols + column(x);
+                start = this.cellStart[cell];
+                end = this.cellStart[cell + 1];
+            }
+        }
+        
+        // merge the cell's faces with the label faces, from the top down
+        int i = end - 1;
+        int j = this.alwaysTested.length - 1;
+        while (i >= start || j >= 0) {
+            if (j < 0 || (i >= start 
+                    && this.cellFaces[i] > this.alwaysTested[j])) {
+                int index = this.cellFaces[i--];
+                if (contains(this.faces.get(index), x, y)) {
+                    return index;
+                }
+            } else {
+                int index = this.alwaysTested[j--];
+                Face f = this.faces.get(index);
+                if (f instanceof LabelFace) {
+                    Rectangle2D bounds = this.info.getLabelBounds(
+                            f.getOwner());
+                    if (bounds != null && bounds.contains(x, y)) {
+                        return index;
+                    }
+                } else if (contains(f, x, y)) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Returns {@code true} if the projection of the face contains the point, 
+     * using the same (non-zero winding) rule and single precision 
+     * coordinates as {@code Path2D.Float}.
+     * 
+     * @param f  the face.
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * 
+     * @return A boolean. 
+     */
+    private boolean contains(Face f, double x, double y) {
+        int n = f.getVertexCount();
+        int crossings = 0;
+        Point2D last = this.pts[f.getVertexIndex(n - 1)];
+        double x0 = (float) last.getX();
+        double y0 = (float) last.getY();
+        for (int v = 0; v < n; v++) {
+            Point2D pt = this.pts[f.getVertexIndex(v)];
+            double x1 = (float) pt.getX();
+            double y1 = (float) pt.getY();
+            crossings += pointCrossingsForLine(x, y, x0, y0, x1, y1);
+            x0 = x1;
+            y0 = y1;
+        }
+        return crossings != 0;
+    }
+    
+    /**
+     * Returns the number of times a ray from {@code (px, py)} in the 
+     * direction of increasing x crosses the line segment (with a sign for 
+     * the direction of the crossing).
+     */
+    private static int pointCrossingsForLine(double px, double py, 
+            double x0, double y0, double x1, double y1) {
+        if (py < y0 && py < y1) {
+            return 0;
+        }
+        if (py >= y0 && py >= y1) {
+            return 0;
+        }
+        if (px >= x0 && px >= x1) {
+            return 0;
+        }
+        if (px < x0 && px < x1) {
+            return (y0 < y1) ? 1 : -1;
+        }
+        double xIntercept = x0 + (py - y0) * (x1 - x0) / (y1 - y0);
+        if (px >= xIntercept) {
+            return 0;
+        }
+        return (y0 < y1) ? 1 : -1;
+    }
+
+}
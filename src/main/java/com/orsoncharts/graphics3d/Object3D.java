@@ -36,6 +36,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -73,8 +74,18 @@ public class Object3D {
      */
     public static final String COLOR_PREFIX = "color/";
     
-    /** World coordinates. */
-    private List<Point3D> vertices;
+    /** The initial capacity of the vertex arrays. */
+    private static final int INITIAL_VERTEX_CAPACITY = 8;
+
+    /** 
+     * World coordinates, stored as one array per axis to avoid creating a
+     * {@code Point3D} instance per vertex.  Only the first 
+     * {@code vertexCount} items in each array are used.
+     */
+    private double[] xs, ys, zs;
+    
+    /** The number of vertices for this object. */
+    private int vertexCount;
 
     /** Faces for the object, specified by indices to the world coords. */
     private List<Face> faces;
@@ -120,7 +131,10 @@ public class Object3D {
         ArgChecks.nullNotPermitted(color, "color");
         this.color = color;
         this.outline = outline;
-        this.vertices = new java.util.ArrayList<Point3D>();
+        this.xs = new double[INITIAL_VERTEX_CAPACITY];
+        this.ys = new double[INITIAL_VERTEX_CAPACITY];
+        this.zs = new double[INITIAL_VERTEX_CAPACITY];
+        this.vertexCount = 0;
         this.faces = new java.util.ArrayList<Face>();
     }
 
@@ -239,7 +253,7 @@ public class Object3D {
      * @return The number of vertices.
      */
     public int getVertexCount() {
-        return this.vertices.size();
+        return this.vertexCount;
     }
 
     /**
@@ -250,7 +264,16 @@ public class Object3D {
      * @param z  the z-coordinate.
      */
     public void addVertex(double x, double y, double z) {
-        addVertex(new Point3D(x, y, z));    
+        if (this.vertexCount == this.xs.length) {
+            int capacity = this.xs.length * 2;
+            this.xs = Arrays.copyOf(this.xs, capacity);
+            this.ys = Arrays.copyOf(this.ys, capacity);
+            this.zs = Arrays.copyOf(this.zs, capacity);
+        }
+        this.xs[this.vertexCount] = x;
+        this.ys[this.vertexCount] = y;
+        this.zs[this.vertexCount] = z;
+        this.vertexCount++;
     }
     
     /**
@@ -260,7 +283,42 @@ public class Object3D {
      */
     public void addVertex(Point3D vertex) {
         ArgChecks.nullNotPermitted(vertex, "vertex");
-        this.vertices.add(vertex);
+        addVertex(vertex.x, vertex.y, vertex.z);
+    }
+
+    /**
+     * Returns the vertex with the specified index.  The vertices are stored
+     * internally as primitive arrays, so a new {@code Point3D} instance is
+     * created each time this method is called.
+     * 
+     * @param index  the vertex index (in the range {@code 0} to 
+     *     {@code getVertexCount() - 1}).
+     * 
+     * @return The vertex (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Point3D getVertex(int index) {
+        if (index < 0 || index >= this.vertexCount) {
+            throw new IndexOutOfBoundsException("Index: " + index 
+                    + ", Size: " + this.vertexCount);
+        }
+        return new Point3D(this.xs[index], this.ys[index], this.zs[index]);
+    }
+    
+    /**
+     * Copies the vertices for this object into the supplied arrays, 
+     * starting at the specified offset.
+     * 
+     * @param x  the array for the x-coordinates.
+     * @param y  the array for the y-coordinates.
+     * @param z  the array for the z-coordinates.
+     * @param offset  the offset into the arrays.
+     */
+    void copyVertices(double[] x, double[] y, double[] z, int offset) {
+        System.arraycopy(this.xs, 0, x, offset, this.vertexCount);
+        System.arraycopy(this.ys, 0, y, offset, this.vertexCount);
+        System.arraycopy(this.zs, 0, z, offset, this.vertexCount);
     }
 
     /**
@@ -341,11 +399,12 @@ public class Object3D {
      */
     public Point2D[] calculateProjectedPoints(ViewPoint3D viewPoint, double d) {
         ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
-        Point2D[] result = new Point2D[this.vertices.size()];
-        int vertexCount = this.vertices.size();
-        for (int i = 0; i < vertexCount; i++) {
-            Point3D p = this.vertices.get(i);
-            result[i] = viewPoint.worldToScreen(p, d);
+        Point2D[] result = new Point2D[this.vertexCount];
+        double[] eye = new double[3];
+        for (int i = 0; i < this.vertexCount; i++) {
+            viewPoint.worldToEye(this.xs[i], this.ys[i], this.zs[i], eye);
+            result[i] = new Point2D.Double(-d * eye[0] / eye[2], 
+                    -d * eye[1] / eye[2]);
         }
         return result;
     }
@@ -359,11 +418,11 @@ public class Object3D {
      */
     public Point3D[] calculateEyeCoordinates(ViewPoint3D viewPoint) {
         ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
-        Point3D[] result = new Point3D[this.vertices.size()];
-        int i = 0;
-        for (Point3D vertex : this.vertices) {
-            result[i] = viewPoint.worldToEye(vertex);
-            i++;
+        Point3D[] result = new Point3D[this.vertexCount];
+        double[] eye = new double[3];
+        for (int i = 0; i < this.vertexCount; i++) {
+            viewPoint.worldToEye(this.xs[i], this.ys[i], this.zs[i], eye);
+            result[i] = new Point3D(eye[0], eye[1], eye[2]);
         }
         return result;
     }
@@ -0,0 +1,227 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A face sorter that splits the faces into chunks, calculates the depth keys
+ * and sorts each chunk concurrently (using the threads of an 
+ * {@code ExecutorService}), and then merges the sorted runs.  The result is 
+ * the same as for {@link DepthKeyFaceSorter} (and so for 
+ * {@link StandardFaceSorter}).  Lists with fewer than twice the threshold 
+ * number of faces are sorted on the calling thread, so small charts are not 
+ * slowed down by the overhead of scheduling tasks.
+ * <br><br>
+ * The executor is not owned by the sorter (it is not shut down by this 
+ * class) and it is not serialized, a deserialized instance sorts on the 
+ * calling thread.  An instance holds no state between calls, so it can be
+ * used by several threads at once.
+ * 
+ * @since 1.7
+ */
+@SuppressWarnings("serial")
+public class ParallelFaceSorter implements ProjectionFaceSorter, Serializable {
+    
+    /** The default threshold. */
+    public static final int DEFAULT_THRESHOLD = 5000;
+
+    /** The executor ({@code null} permitted). */
+    private transient ExecutorService executor;
+    
+    /** The minimum number of faces per task. */
+    private int threshold;
+    
+    /** The sorter used when the list is too small to split. */
+    private DepthKeyFaceSorter sequentialSorter;
+    
+    /**
+     * Creates a new sorter using the specified executor and the default 
+     * threshold.
+     * 
+     * @param executor  the executor ({@code null} not permitted).
+     */
+    public ParallelFaceSorter(ExecutorService executor) {
+        this(executor, DEFAULT_THRESHOLD);
+    }
+    
+    /**
+     * Creates a new sorter.
+     * 
+     * @param executor  the executor ({@code null} not permitted).
+     * @param threshold  the minimum number of faces per task (must be 
+     *     positive).
+     */
+    public ParallelFaceSorter(ExecutorService executor, int threshold) {
+        ArgChecks.nullNotPermitted(executor, "executor");
+        ArgChecks.positiveRequired(threshold, "threshold");
+        this.executor = executor;
+        this.threshold = threshold;
+        this.sequentialSorter = new DepthKeyFaceSorter();
+    }
+    
+    /**
+     * Returns the minimum number of faces per task.
+     * 
+     * @return The threshold. 
+     */
+    public int getThreshold() {
+        return this.threshold;
+    }
+
+    @Override
+    public List<Face> sort(List<Face> faces, Point3D[] eyePts) {
+        return sort(faces, ProjectionBuffer.fromEyePoints(eyePts));
+    }
+
+    @Override
+    public List<Face> sort(final List<Face> faces, 
+            final ProjectionBuffer projection) {
+        int n = faces.size();
+        int chunks = ParallelTasks.chunkCount(n, this.threshold);
+        if (this.executor == null || chunks < 2) {
+            return this.sequentialSorter.sort(faces, projection);
+        }
+        
+        // calculate the keys and sort each chunk
+        final int[][] runKeys = new int[chunks][];
+        final int[][] runIndices = new int[chunks][];
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            final int run = c;
+            final int start = ParallelTasks.chunkStart(n, chunks, c);
+            final int end = ParallelTasks.chunkStart(n, chunks, c + 1);
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    int len = end - start;
+                    int[] keys = new int[len];
+                    int[] indices = new int[len];
+                    for (int i = 0; i < len; i++) {
+                        keys[i] = DepthKeyFaceSorter.sortableKey(faces.get(
+                                start + i).calculateAverageZValue(projection));
+                        indices[i] = start + i;
+                    }
+                    DepthKeyFaceSorter.sortIndices(keys, indices, len, 
+                            new int[len], new int[len]);
+                    runKeys[run] = keys;
+                    runIndices[run] = indices;
+                    return null;
+                }
+            });
+        }
+        ParallelTasks.invokeAll(this.executor, tasks);
+        
+        // merge adjacent pairs of runs until one run remains
+        int[][] keys = runKeys;
+        int[][] indices = runIndices;
+        while (keys.length > 1) {
+            final int[][] srcKeys = keys;
+            final int[][] srcIndices = indices;
+            int pairs = srcKeys.length / 2;
+            final int[][] dstKeys = new int[(srcKeys.length + 1) / 2][];
+            final int[][] dstIndices = new int[dstKeys.length][];
+            if (srcKeys.length % 2 == 1) {
+                dstKeys[pairs] = srcKeys[srcKeys.length - 1];
+                dstIndices[pairs] = srcIndices[srcIndices.length - 1];
+            }
+            tasks.clear();
+            for (int p = 0; p < pairs; p++) {
+                final int pair = p;
+                tasks.add(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        int a = 2 * pair;
+                        int b = a + 1;
+                        int len = srcKeys[a].length + srcKeys[b].length;
+                        dstKeys[pair] = new int[len];
+                        dstIndices[pair] = new int[len];
+                        merge(srcKeys[a], srcIndices[a], srcKeys[b], 
+                                srcIndices[b], dstKeys[pair], 
+                                dstIndices[pair]);
+                        return null;
+                    }
+                });
+            }
+            ParallelTasks.invokeAll(this.executor, tasks);
+            keys = dstKeys;
+            indices = dstIndices;
+        }
+        int[] order = indices[0];
+        List<Face> result = new ArrayList<Face>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(faces.get(order[i]));
+        }
+        return result;
+    }
+    
+    /**
+     * Merges two sorted runs.  The items in run {@code a} all have lower 
+     * face indices than the items in run {@code b}, so taking from 
+     * {@code a} when the keys are equal keeps the merge stable.
+     * 
+     * @param aKeys  the keys for run a.
+     * @param aIndices  the indices for run a.
+     * @param bKeys  the keys for run b.
+     * @param bIndices  the indices for run b.
+     * @param keys  the array for the merged keys.
+     * @param indices  the array for the merged indices.
+     */
+    static void merge(int[] aKeys, int[] aIndices, int[] bKeys, 
+            int[] bIndices, int[] keys, int[] indices) {
+        int i = 0, j = 0, k = 0;
+        while (i < aKeys.length && j < bKeys.length) {
+            if (DepthKeyFaceSorter.compareUnsigned(bKeys[j], aKeys[i]) < 0) {
+                keys[k] = bKeys[j];
+                indices[k++] = bIndices[j++];
+            } else {
+                keys[k] = aKeys[i];
+                indices[k++] = aIndices[i++];
+            }
+        }
+        while (i < aKeys.length) {
+            keys[k] = aKeys[i];
+            indices[k++] = aIndices[i++];
+        }
+        while (j < bKeys.length) {
+            keys[k] = bKeys[j];
+            indices[k++] = bIndices[j++];
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Utility methods for splitting work on arrays across the threads of an
+ * {@code ExecutorService}.
+ */
+final class ParallelTasks {
+    
+    private ParallelTasks() {
+        // no need to instantiate this
+    }
+    
+    /**
+     * Returns the number of chunks to split {@code count} items into, so 
+     * that each chunk has at least {@code minChunk} items and there is not
+     * more than one chunk per available processor.
+     * 
+     * @param count  the number of items.
+     * @param minChunk  the minimum chunk size.
+     * 
+     * @return The number of chunks (at least one). 
+     */
+    static int chunkCount(int count, int minChunk) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int chunks = count / Math.max(1, minChunk);
+        return Math.max(1, Math.min(processors, chunks));
+    }
+    
+    /**
+     * Returns the start index for a chunk (the end index for the chunk is
+     * the start index for the next chunk).
+     * 
+     * @param count  the number of items.
+     * @param chunks  the number of chunks.
+     * @param chunk  the chunk index (in the range {@code 0} to 
+     *     {@code chunks}, inclusive).
+     * 
+     * @return The start index.
+     */
+    static int chunkStart(int count, int chunks, int chunk) {
+        return (int) ((long) count * chunk / chunks);
+    }
+    
+    /**
+     * Runs the supplied tasks with the executor and waits for all of them
+     * to complete.  The calling thread also runs any task that has not been
+     * started by the executor, so this does not deadlock when it is called 
+     * from a thread that belongs to the executor (for example, when a chart
+     * that renders with a bounded pool is drawn from a task in that pool), 
+     * it just runs with less parallelism.  An exception thrown by any task 
+     * is rethrown (wrapped in a {@code RuntimeException} if it is a checked
+     * exception).  If the calling thread is interrupted while waiting, the 
+     * interrupt status is restored and a {@code RuntimeException} is thrown.
+     * 
+     * @param executor  the executor.
+     * @param tasks  the tasks.
+     * 
+     * @return The results of the tasks (in the same order as the tasks).
+     */
+    static List<Object> invokeAll(ExecutorService executor, 
+            List<? extends Callable<Object>> tasks) {
+        List<FutureTask<Object>> futures = new ArrayList<FutureTask<Object>>(
+                tasks.size());
+        try {
+            for (Callable<Object> task : tasks) {
+                futures.add(new FutureTask<Object>(task));
+            }
+            // the first task is left for the calling thread
+            for (int i = 1; i < futures.size(); i++) {
+                try {
+                    executor.execute(futures.get(i));
+                } catch (RejectedExecutionException e) {
+                    // the task is run on the calling thread below
+                }
+            }
+            // a task that has already been started by the executor is not
+            // run again
+            for (FutureTask<Object> future : futures) {
+                future.run();
+            }
+            List<Object> results = new ArrayList<Object>(futures.size());
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            for (Future<Object> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+}
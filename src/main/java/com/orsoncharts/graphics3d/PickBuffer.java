@@ -0,0 +1,261 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+/**
+ * An offscreen buffer that records, for each pixel of a drawing area, the 
+ * index of the topmost face at that pixel.  The faces are scan-converted in
+ * painting order, sampling the point at the (integer) pixel coordinates, 
+ * with the same containment rules as 
+ * {@link RenderingInfo#fetchObjectAt(double, double)} so that a lookup gives
+ * the same result as the geometric test.
+ */
+final class PickBuffer {
+    
+    /** The result for a point that is not a pixel in the buffer. */
+    static final int OUTSIDE = -2;
+    
+    /** The buffer width. */
+    private final int width;
+    
+    /** The buffer height. */
+    private final int height;
+    
+    /** The translation from pixel to projected coordinates. */
+    private final double dx, dy;
+    
+    /** The face index plus one for each pixel (zero for no face). */
+    private final int[] ids;
+    
+    /** 
+     * A flag that is {@code false} if the buffer could not be filled 
+     * exactly (when a face has non-finite projected coordinates).
+     */
+    private boolean complete;
+    
+    /** Working storage for the edge crossings on one row. */
+    private double[] crossings;
+    
+    /** Working storage for the direction of each crossing. */
+    private int[] directions;
+    
+    /**
+     * Creates and fills a new buffer.
+     * 
+     * @param info  the rendering info (for the faces in painting order, the
+     *     projected points, the translation from pixel to projected 
+     *     coordinates and the label bounds).
+     * @param width  the width in pixels.
+     * @param height  the height in pixels.
+     */
+    PickBuffer(RenderingInfo info, int width, int height) {
+        List<Face> faces = info.getFaces();
+        Point2D[] pts = info.getProjectedPoints();
+        this.width = width;
+        this.height = height;
+        this.dx = info.getDX();
+        this.dy = info.getDY();
+        this.ids = new int[width * height];
+        this.complete = true;
+        this.crossings = new double[8];
+        this.directions = new int[8];
+        for (int i = 0; i < faces.size(); i++) {
+            Face f = faces.get(i);
+            if (f instanceof LabelFace) {
+                Rectangle2D bounds = info.getLabelBounds(f.getOwner());
+                if (bounds != null) {
+                    fillLabel(bounds, i + 1);
+                }
+            } else if (f.getVertexCount() >= 3) {
+                fillFace(f, pts, i + 1);
+            }
+        }
+    }
+    
+    /**
+     * Returns {@code true} if every face was written to the buffer, and 
+     * {@code false} otherwise (in which case the buffer should not be used).
+     * 
+     * @return A boolean. 
+     */
+    boolean isComplete() {
+        return this.complete;
+    }
+    
+    /**
+     * Returns the index of the topmost face at the pixel {@code (x, y)}, 
+     * {@code -1} if there is no face at the pixel, or {@link #OUTSIDE} if
+     * {@code (x, y)} is not the location of a pixel in the buffer.
+     * 
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * 
+     * @return The face index. 
+     */
+    int findFaceAt(double x, double y) {
+        if (!(x >= 0.0 && y >= 0.0 && x < this.width && y < this.height)
+                || x != Math.floor(x) || y != Math.floor(y)) {
+            return OUTSIDE;
+        }
+        return this.ids[(int) y * this.width + (int) x] - 1;
+    }
+    
+    /**
+     * Returns the first pixel column (or row) {@code p} for which 
+     * {@code p - offset >= c}.
+     */
+    private static int firstAtOrAbove(double c, double offset) {
+        double p = Math.ceil(c + offset);
+        if (p > 1e9) {
+            return Integer.MAX_VALUE / 2;
+        } else if (p < -1e9) {
+            return Integer.MIN_VALUE / 2;
+        }
+        // correct for rounding in the addition
+        while (p - 1.0 - offset >= c) {
+            p = p - 1.0;
+        }
+        while (p - offset < c) {
+            p = p + 1.0;
+        }
+        return (int) p;
+    }
+    
+    /**
+     * Writes the id to each pixel whose sample point is inside the label 
+     * bounds (using the rule in {@code Rectangle2D.contains(x, y)}).
+     */
+    private void fillLabel(Rectangle2D bounds, int id) {
+        double x0 = bounds.getX();
+        double y0 = bounds.getY();
+        double x1 = x0 + bounds.getWidth();
+        double y1 = y0 + bounds.getHeight();
+        int xStart = Math.max(0, firstAtOrAbove(x0, this.dx));
+        int xEnd = Math.min(this.width, firstAtOrAbove(x1, this.dx));
+        int yStart = Math.max(0, firstAtOrAbove(y0, this.dy));
+        int yEnd = Math.min(this.height, firstAtOrAbove(y1, this.dy));
+        for (int y = yStart; y < yEnd; y++) {
+            int row = y * this.width;
+            for (int x = xStart; x < xEnd; x++) {
+                this.ids[row + x] = id;
+            }
+        }
+    }
+    
+    /**
+     * Writes the id to each pixel whose sample point is inside the face, 
+     * using the same single precision coordinates and non-zero winding rule
+     * as {@code Face.createPath(pts).contains(x, y)}.
+     */
+    private void fillFace(Face f, Point2D[] pts, int id) {
+        int n = f.getVertexCount();
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            Point2D pt = pts[f.getVertexIndex(v)];
+            double x = (float) pt.getX();
+            double y = (float) pt.getY();
+            if (Double.isNaN(x) || Double.isNaN(y) || Double.isInfinite(x) 
+                    || Double.isInfinite(y)) {
+                this.complete = false;
+                return;
+            }
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+        }
+        if (this.crossings.length < n) {
+            this.crossings = new double[n];
+            this.directions = new int[n];
+        }
+        int yStart = Math.max(0, firstAtOrAbove(minY, this.dy));
+        int yEnd = Math.min(this.height - 1, firstAtOrAbove(maxY, this.dy));
+        for (int y = yStart; y <= yEnd; y++) {
+            double py = y - this.dy;
+            int count = 0;
+            Point2D last = pts[f.getVertexIndex(n - 1)];
+            double x0 = (float) last.getX();
+            double y0 = (float) last.getY();
+            for (int v = 0; v < n; v++) {
+                Point2D pt = pts[f.getVertexIndex(v)];
+                double x1 = (float) pt.getX();
+                double y1 = (float) pt.getY();
+                if (!(py < y0 && py < y1) && !(py >= y0 && py >= y1)) {
+                    double xi = x0 + (py - y0) * (x1 - x0) / (y1 - y0);
+                    // clamping gives the same result as the shortcuts in the
+                    // point-in-path test
+                    xi = Math.max(Math.min(x0, x1), Math.min(Math.max(x0, 
+                            x1), xi));
+                    int dir = (y0 < y1) ? 1 : -1;
+                    // insertion sort into descending order
+                    int k = count++;
+                    while (k > 0 && this.crossings[k - 1] < xi) {
+                        this.crossings[k] = this.crossings[k - 1];
+                        this.directions[k] = this.directions[k - 1];
+                        k--;
+                    }
+                    this.crossings[k] = xi;
+                    this.directions[k] = dir;
+                }
+                x0 = x1;
+                y0 = y1;
+            }
+            
+            // a sample point x is inside if the directions of the crossings 
+            // with xi > x have a non-zero sum
+            int row = y * this.width;
+            int winding = 0;
+            int end = this.width;
+            for (int k = 0; k < count; k++) {
+                int start = Math.max(0, firstAtOrAbove(this.crossings[k], 
+                        this.dx));
+                if (winding != 0) {
+                    for (int x = start; x < end; x++) {
+                        this.ids[row + x] = id;
+                    }
+                }
+                winding += this.directions[k];
+                end = Math.min(end, start);
+            }
+            if (winding != 0) {
+                for (int x = 0; x < end; x++) {
+                    this.ids[row + x] = id;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A {@link Drawable3D} that can separate the preparation of a frame (building
+ * and projecting the 3D model and sorting the faces) from the painting of
+ * the frame.  This allows the work for the 3D model to be done once for 
+ * output that is painted in several parts (see 
+ * {@link ExportUtils#writeAsPNG(Drawable3D, int, int, java.io.File, 
+ * java.util.concurrent.ExecutorService, int)}).
+ * 
+ * @since 1.7
+ */
+public interface PreparableDrawable3D extends Drawable3D {
+    
+    /**
+     * Prepares a frame for drawing within the specified bounds.
+     * 
+     * @param g2  the graphics target used to measure text during the
+     *     preparation ({@code null} not permitted).
+     * @param bounds  the bounds ({@code null} not permitted).
+     * 
+     * @return The prepared frame (never {@code null}). 
+     */
+    PreparedFrame prepareFrame(Graphics2D g2, Rectangle2D bounds);
+    
+    /**
+     * Prepares a frame for drawing within the specified bounds, with a 
+     * reduced level of detail (see {@link World#getDetail()}).  This is 
+     * used to provide fast draft frames, for example while the user rotates
+     * the view in a {@link com.orsoncharts.graphics3d.swing.Panel3D}.  
+     * Implementations may also reduce the quality of the painting (for 
+     * example, by switching off antialiasing) when {@code detail} is less
+     * than {@code 1.0}.
+     * 
+     * @param g2  the graphics target used to measure text during the
+     *     preparation ({@code null} not permitted).
+     * @param bounds  the bounds ({@code null} not permitted).
+     * @param detail  the level of detail (greater than {@code 0.0} and not
+     *     greater than {@code 1.0}, full detail).
+     * 
+     * @return The prepared frame (never {@code null}). 
+     */
+    PreparedFrame prepareFrame(Graphics2D g2, Rectangle2D bounds, 
+            double detail);
+    
+    /**
+     * Captures the current state of the drawable, at the specified level of
+     * detail, so that frames can be prepared and painted on another thread
+     * (see {@link SceneCapture}).  The work done here should be limited to
+     * copying the state; the projection and sorting are left to 
+     * {@link SceneCapture#prepareFrame(Graphics2D, Rectangle2D)}.  This 
+     * method should be called on the thread that modifies the drawable.
+     * 
+     * @param g2  the graphics target used to measure text during the 
+     *     capture ({@code null} not permitted).
+     * @param detail  the level of detail (greater than {@code 0.0} and not
+     *     greater than {@code 1.0}, full detail).
+     * 
+     * @return The capture (never {@code null}). 
+     */
+    SceneCapture captureScene(Graphics2D g2, double detail);
+    
+}
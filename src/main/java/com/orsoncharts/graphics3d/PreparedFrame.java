@@ -0,0 +1,61 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Graphics2D;
+
+/**
+ * A frame that has been prepared for drawing by a 
+ * {@link PreparableDrawable3D}: the 3D model has been built and projected 
+ * and the faces are in painting order, so all that remains is to paint the
+ * frame.  A frame can be painted any number of times, including 
+ * concurrently from several threads to different {@code Graphics2D} 
+ * targets (for example, to paint the tiles of a large image in parallel).
+ * The source must not be modified while its frame is being painted.
+ * 
+ * @since 1.7
+ */
+public interface PreparedFrame {
+    
+    /**
+     * Draws the frame to the specified output target, within the bounds that
+     * the frame was prepared for.  The target can be clipped (and translated)
+     * to paint just a part of the frame.
+     * 
+     * @param g2  the output target ({@code null} not permitted).
+     * 
+     * @return Information about the items rendered.
+     */
+    RenderingInfo draw(Graphics2D g2);
+    
+}
@@ -0,0 +1,379 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A reusable buffer holding the eye coordinates and the projected (screen) 
+ * coordinates for all the vertices in a {@link World}.  The buffer is 
+ * populated by {@link World#project(ViewPoint3D, double, ProjectionBuffer)},
+ * which transforms each vertex exactly once.  The same buffer can be passed
+ * back in for subsequent frames, in which case the arrays are reused (they 
+ * only grow when the world contains more vertices than the buffer capacity).
+ * <br><br>
+ * The screen points returned by {@link #getScreenPoints()} are created 
+ * afresh by each projection (only the coordinate arrays are reused), so 
+ * they can be retained (for example, in a {@link RenderingInfo}) after the
+ * buffer is used for the next frame.
+ * 
+ * @since 1.7
+ */
+public final class ProjectionBuffer {
+    
+    /** The number of vertices in the buffer. */
+    int vertexCount;
+    
+    /** The eye coordinates. */
+    double[] eyeX, eyeY, eyeZ;
+    
+    /** The screen coordinates. */
+    double[] screenX, screenY;
+    
+    /** 
+     * The screen coordinates as {@code Point2D} instances (a new array for
+     * each projection).
+     */
+    private Point2D.Double[] screenPts;
+    
+    /** 
+     * The eye coordinates as {@code Point3D} instances (created on demand
+     * only, for callers using the older API). 
+     */
+    private Point3D[] eyePts;
+    
+    /** 
+     * The projection distance used for the most recent projection (zero for
+     * a buffer created from eye coordinates only).
+     */
+    private double distance;
+    
+    /**
+     * Creates a new empty buffer.
+     */
+    public ProjectionBuffer() {
+        this.eyeX = new double[0];
+        this.eyeY = new double[0];
+        this.eyeZ = new double[0];
+        this.screenX = new double[0];
+        this.screenY = new double[0];
+        this.screenPts = new Point2D.Double[0];
+    }
+    
+    /**
+     * Creates a buffer containing the supplied eye coordinates (the screen
+     * coordinates are not populated).  This is used to support the older
+     * {@code Point3D[]} based API.
+     * 
+     * @param eyePts  the eye coordinates ({@code null} not permitted).
+     * 
+     * @return A new buffer.
+     */
+    static ProjectionBuffer fromEyePoints(Point3D[] eyePts) {
+        ProjectionBuffer result = new ProjectionBuffer();
+        result.ensureCapacity(eyePts.length);
+        for (int i = 0; i < eyePts.length; i++) {
+            result.eyeX[i] = eyePts[i].x;
+            result.eyeY[i] = eyePts[i].y;
+            result.eyeZ[i] = eyePts[i].z;
+        }
+        result.vertexCount = eyePts.length;
+        result.eyePts = eyePts;
+        result.screenPts = new Point2D.Double[eyePts.length];
+        for (int i = 0; i < eyePts.length; i++) {
+            result.screenPts[i] = new Point2D.Double();
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the number of vertices in the buffer.
+     * 
+     * @return The number of vertices. 
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+    
+    /**
+     * Returns the x-coordinate of a vertex in eye space.
+     * 
+     * @param i  the vertex index.
+     * 
+     * @return The x-coordinate. 
+     */
+    public double getEyeX(int i) {
+        return this.eyeX[i];
+    }
+    
+    /**
+     * Returns the y-coordinate of a vertex in eye space.
+     * 
+     * @param i  the vertex index.
+     * 
+     * @return The y-coordinate. 
+     */
+    public double getEyeY(int i) {
+        return this.eyeY[i];
+    }
+    
+    /**
+     * Returns the z-coordinate of a vertex in eye space.
+     * 
+     * @param i  the vertex index.
+     * 
+     * @return The z-coordinate. 
+     */
+    public double getEyeZ(int i) {
+        return this.eyeZ[i];
+    }
+    
+    /**
+     * Returns the projected x-coordinate of a vertex.
+     * 
+     * @param i  the vertex index.
+     * 
+     * @return The x-coordinate. 
+     */
+    public double getScreenX(int i) {
+        return this.screenX[i];
+    }
+    
+    /**
+     * Returns the projected y-coordinate of a vertex.
+     * 
+     * @param i  the vertex index.
+     * 
+     * @return The y-coordinate. 
+     */
+    public double getScreenY(int i) {
+        return this.screenY[i];
+    }
+    
+    /**
+     * Returns the projected points for all vertices.  The array is created 
+     * by the most recent projection, and it is not modified by later 
+     * projections into this buffer.
+     * 
+     * @return The projected points (never {@code null}).
+     */
+    public Point2D[] getScreenPoints() {
+        return this.screenPts;
+    }
+    
+    /**
+     * Returns the eye coordinates as an array of {@code Point3D} instances.
+     * This exists to support code written against the older 
+     * {@code Point3D[]} based API, the array is created on demand (once per
+     * projection).
+     * 
+     * @return The eye coordinates (never {@code null}). 
+     */
+    public Point3D[] getEyePoints() {
+        if (this.eyePts == null) {
+            Point3D[] result = new Point3D[this.vertexCount];
+            for (int i = 0; i < this.vertexCount; i++) {
+                result[i] = new Point3D(this.eyeX[i], this.eyeY[i], 
+                        this.eyeZ[i]);
+            }
+            this.eyePts = result;
+        }
+        return this.eyePts;
+    }
+    
+    /**
+     * Ensures that the buffer has capacity for {@code count} vertices.
+     * 
+     * @param count  the vertex count.
+     */
+    private void ensureCapacity(int count) {
+        if (this.eyeX.length < count) {
+            this.eyeX = new double[count];
+            this.eyeY = new double[count];
+            this.eyeZ = new double[count];
+            this.screenX = new double[count];
+            this.screenY = new double[count];
+        }
+    }
+    
+    /**
+     * Projects the supplied vertices (in world coordinates) into this buffer, 
+     * overwriting any existing content.  Each vertex is transformed once, 
+     * and the screen coordinates are derived directly from the eye 
+     * coordinates in the same pass.
+     * 
+     * @param xs  the x-coordinates.
+     * @param ys  the y-coordinates.
+     * @param zs  the z-coordinates.
+     * @param count  the number of vertices.
+     * @param vp  the view point.
+     * @param d  the projection distance.
+     */
+    void project(double[] xs, double[] ys, double[] zs, int count, 
+            ViewPoint3D vp, double d) {
+        ensureCapacity(count);
+        this.vertexCount = count;
+        this.distance = d;
+        this.eyePts = null;
+        this.screenPts = new Point2D.Double[count];
+        projectRange(xs, ys, zs, 0, count, vp, d);
+    }
+    
+    /**
+     * Projects the supplied vertices into this buffer as for 
+     * {@link #project(double[], double[], double[], int, ViewPoint3D, double)},
+     * but splits the vertices into contiguous ranges that are projected 
+     * concurrently by the executor.  The results are identical to the 
+     * sequential projection.
+     * 
+     * @param xs  the x-coordinates.
+     * @param ys  the y-coordinates.
+     * @param zs  the z-coordinates.
+     * @param count  the number of vertices.
+     * @param vp  the view point.
+     * @param d  the projection distance.
+     * @param executor  the executor.
+     * @param minChunk  the minimum number of vertices per task.
+     */
+    void project(final double[] xs, final double[] ys, final double[] zs, 
+            int count, final ViewPoint3D vp, final double d, 
+            ExecutorService executor, int minChunk) {
+        int chunks = ParallelTasks.chunkCount(count, minChunk);
+        if (chunks < 2) {
+            project(xs, ys, zs, count, vp, d);
+            return;
+        }
+        ensureCapacity(count);
+        this.vertexCount = count;
+        this.distance = d;
+        this.eyePts = null;
+        this.screenPts = new Point2D.Double[count];
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            final int start = ParallelTasks.chunkStart(count, chunks, c);
+            final int end = ParallelTasks.chunkStart(count, chunks, c + 1);
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    projectRange(xs, ys, zs, start, end, vp, d);
+                    return null;
+                }
+            });
+        }
+        ParallelTasks.invokeAll(executor, tasks);
+    }
+    
+    /**
+     * Appends vertices that lie on the line segments between pairs of 
+     * vertices already in the buffer, and projects them using the same 
+     * projection distance as the existing vertices.  Vertex {@code k} is 
+     * placed at the fraction {@code t[k]} of the way from vertex 
+     * {@code from[k]} to vertex {@code to[k]}, and may refer to vertices 
+     * appended earlier in the same call.  This is used by 
+     * {@link BSPFaceSorter} for the vertices it creates when splitting 
+     * faces (interpolating in eye coordinates gives the same point as 
+     * interpolating in world coordinates, since the transformation between
+     * them is affine).
+     * 
+     * @param from  the indices of the first vertex of each segment.
+     * @param to  the indices of the second vertex of each segment.
+     * @param t  the interpolation fractions.
+     * @param count  the number of vertices to append.
+     */
+    void addInterpolatedVertices(int[] from, int[] to, double[] t, 
+            int count) {
+        int start = this.vertexCount;
+        int end = start + count;
+        if (this.eyeX.length < end) {
+            int capacity = Math.max(end, start + start / 2);
+            this.eyeX = Arrays.copyOf(this.eyeX, capacity);
+            this.eyeY = Arrays.copyOf(this.eyeY, capacity);
+            this.eyeZ = Arrays.copyOf(this.eyeZ, capacity);
+            this.screenX = Arrays.copyOf(this.screenX, capacity);
+            this.screenY = Arrays.copyOf(this.screenY, capacity);
+        }
+        Point2D.Double[] pts = Arrays.copyOf(this.screenPts, end);
+        double d = this.distance;
+        for (int k = 0; k < count; k++) {
+            int a = from[k];
+            int b = to[k];
+            int i = start + k;
+            double ex = this.eyeX[a] + t[k] * (this.eyeX[b] - this.eyeX[a]);
+            double ey = this.eyeY[a] + t[k] * (this.eyeY[b] - this.eyeY[a]);
+            double ez = this.eyeZ[a] + t[k] * (this.eyeZ[b] - this.eyeZ[a]);
+            this.eyeX[i] = ex;
+            this.eyeY[i] = ey;
+            this.eyeZ[i] = ez;
+            double sx = d == 0.0 ? 0.0 : -d * ex / ez;
+            double sy = d == 0.0 ? 0.0 : -d * ey / ez;
+            this.screenX[i] = sx;
+            this.screenY[i] = sy;
+            pts[i] = new Point2D.Double(sx, sy);
+        }
+        this.screenPts = pts;
+        this.vertexCount = end;
+        this.eyePts = null;
+    }
+    
+    /**
+     * Projects a range of vertices into this buffer (the capacity must 
+     * already be sufficient).
+     * 
+     * @param xs  the x-coordinates.
+     * @param ys  the y-coordinates.
+     * @param zs  the z-coordinates.
+     * @param start  the index of the first vertex.
+     * @param end  the index after the last vertex.
+     * @param vp  the view point.
+     * @param d  the projection distance.
+     */
+    private void projectRange(double[] xs, double[] ys, double[] zs, 
+            int start, int end, ViewPoint3D vp, double d) {
+        vp.worldToEye(xs, ys, zs, start, end, this.eyeX, this.eyeY, 
+                this.eyeZ);
+        for (int i = start; i < end; i++) {
+            double ez = this.eyeZ[i];
+            double sx = -d * this.eyeX[i] / ez;
+            double sy = -d * this.eyeY[i] / ez;
+            this.screenX[i] = sx;
+            this.screenY[i] = sy;
+            this.screenPts[i] = new Point2D.Double(sx, sy);
+        }
+    }
+
+}
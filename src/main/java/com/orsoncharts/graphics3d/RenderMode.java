@@ -0,0 +1,58 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+/**
+ * An enumeration of the methods that can be used to render the faces of a 
+ * 3D model.
+ * 
+ * @since 1.7
+ */
+public enum RenderMode {
+    
+    /** 
+     * The faces are sorted into depth order and each face is filled (as a 
+     * shape) via the {@code Graphics2D} API, from back to front.  This works
+     * for all output targets (including vector formats such as SVG and PDF).
+     */
+    PAINTER,
+    
+    /** 
+     * The faces are scan-converted directly into an image using a 
+     * {@link ZBufferRasterizer}, with no sorting.  This is faster for models 
+     * with a large number of faces, but the output is a bitmap (without 
+     * anti-aliasing) even when the target is a vector format.
+     */
+    Z_BUFFER
+    
+}
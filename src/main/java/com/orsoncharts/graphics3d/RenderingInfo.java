@@ -33,11 +33,14 @@
 package com.orsoncharts.graphics3d;
 
 import java.awt.Shape;
-import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+
+import com.orsoncharts.util.ArgChecks;
 
 /**
  * Rendering info returned from the {@link Drawable3D} {@code draw()} 
@@ -69,6 +72,24 @@ public class RenderingInfo {
 
     List<RenderedElement> otherOffsetElements;
     
+    /** 
+     * An index of the faces by projected bounds, built on the first call to
+     * {@link #fetchObjectAt(double, double)}. 
+     */
+    private FaceGridIndex index;
+    
+    /** The width of the pick buffer (zero for no pick buffer). */
+    private int pickWidth;
+    
+    /** The height of the pick buffer. */
+    private int pickHeight;
+    
+    /** The pick buffer (filled on demand). */
+    private PickBuffer pickBuffer;
+    
+    /** The bounds of the labels drawn for label faces, by owner. */
+    private Map<Object3D, Rectangle2D> labelBounds;
+    
     /**
      * Creates a new instance.
      * 
@@ -147,7 +168,84 @@ public class RenderingInfo {
     }
     
     /**
-     * Fetches the object, if any, that is rendered at {@code (x, y)}.
+     * Requests a pick buffer for the pixels from {@code (0, 0)} to 
+     * {@code (width - 1, height - 1)}.  The buffer records the topmost face
+     * at each pixel, so that {@link #fetchObjectAt(double, double)} is a 
+     * single array read for integer coordinates within the buffer.  The 
+     * buffer is filled on the next call to {@code fetchObjectAt()} (not 
+     * here), so it costs nothing if no lookup is performed.  Calling this 
+     * method again with the same size has no effect.
+     * 
+     * @param width  the width in pixels (zero or less for no pick buffer).
+     * @param height  the height in pixels (zero or less for no pick buffer).
+     * 
+     * @since 1.7
+     */
+    public void setPickBufferSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            width = 0;
+            height = 0;
+        }
+        if (width != this.pickWidth || height != this.pickHeight) {
+            this.pickWidth = width;
+            this.pickHeight = height;
+            this.pickBuffer = null;
+        }
+    }
+    
+    /**
+     * Records the bounds of the label drawn for a label face.  The bounds
+     * are held by this instance, rather than by the owner of the face, so 
+     * that the same objects can be drawn by several threads at once.
+     * 
+     * @param owner  the owner of the label face ({@code null} not permitted).
+     * @param bounds  the label bounds, in projected coordinates 
+     *     ({@code null} not permitted).
+     * 
+     * @since 1.7
+     */
+    public void setLabelBounds(Object3D owner, Rectangle2D bounds) {
+        ArgChecks.nullNotPermitted(owner, "owner");
+        ArgChecks.nullNotPermitted(bounds, "bounds");
+        if (this.labelBounds == null) {
+            this.labelBounds = new HashMap<Object3D, Rectangle2D>();
+        }
+        this.labelBounds.put(owner, bounds);
+        this.index = null;
+        this.pickBuffer = null;
+    }
+    
+    /**
+     * Returns the bounds of the label drawn for a label face.  If no bounds
+     * have been recorded by {@link #setLabelBounds(Object3D, Rectangle2D)},
+     * the {@code "labelBounds"} property of the owner is returned.
+     * 
+     * @param owner  the owner of the label face ({@code null} not permitted).
+     * 
+     * @return The label bounds, in projected coordinates (possibly 
+     *     {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Rectangle2D getLabelBounds(Object3D owner) {
+        ArgChecks.nullNotPermitted(owner, "owner");
+        if (this.labelBounds != null) {
+            Rectangle2D result = this.labelBounds.get(owner);
+            if (result != null) {
+                return result;
+            }
+        }
+        return (Rectangle2D) owner.getProperty("labelBounds");
+    }
+    
+    /**
+     * Fetches the object, if any, that is rendered at {@code (x, y)}.  If a
+     * pick buffer has been requested (see 
+     * {@link #setPickBufferSize(int, int)}) it is used for lookups at pixel
+     * locations, otherwise the first call builds a grid index of the 
+     * projected faces, so that subsequent calls (for example, on every 
+     * mouse movement in a panel) only test the faces near to 
+     * {@code (x, y)}.  Both methods give the same result.
      * 
      * @param x  the x-coordinate.
      * @param y  the y-coordinate.
@@ -155,22 +253,23 @@ public class RenderingInfo {
      * @return The object (or {@code null}). 
      */
     public Object3D fetchObjectAt(double x, double y) {
-        for (int i = this.faces.size() - 1; i >= 0; i--) {
-            Face f = this.faces.get(i);
-            if (f instanceof LabelFace) {
-                Rectangle2D bounds 
-                        = (Rectangle2D) f.getOwner().getProperty("labelBounds");
-                if (bounds != null && bounds.contains(x - dx, y - dy)) {
-                    return f.getOwner();
-                }
-            } else {
-                Path2D p = f.createPath(this.projPts);
-                if (p.contains(x - dx, y - dy)) {
-                    return f.getOwner();
+        if (this.pickWidth > 0) {
+            if (this.pickBuffer == null) {
+                this.pickBuffer = new PickBuffer(this, this.pickWidth, 
+                        this.pickHeight);
+            }
+            if (this.pickBuffer.isComplete()) {
+                int i = this.pickBuffer.findFaceAt(x, y);
+                if (i != PickBuffer.OUTSIDE) {
+                    return i >= 0 ? this.faces.get(i).getOwner() : null;
                 }
             }
         }
-        return null;
+        if (this.index == null) {
+            this.index = new FaceGridIndex(this.faces, this.projPts, this);
+        }
+        int i = this.index.findFaceAt(x - dx, y - dy);
+        return i >= 0 ? this.faces.get(i).getOwner() : null;
     }
     
     /**
@@ -0,0 +1,65 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A copy of the state of a {@link PreparableDrawable3D} (the 3D model, the 
+ * view point and everything else that is read when a frame is drawn), 
+ * captured so that frames can be prepared and painted on another thread 
+ * while the drawable is changed (see 
+ * {@link PreparableDrawable3D#captureScene(Graphics2D, double)}).  Frames 
+ * are prepared from the copy only, and the copy is not modified, so a 
+ * capture can be used by any thread.
+ * 
+ * @since 1.7
+ */
+public interface SceneCapture {
+    
+    /**
+     * Prepares a frame from the captured state for drawing within the 
+     * specified bounds (the 3D model is projected and the faces are sorted
+     * here).
+     * 
+     * @param g2  the graphics target used to measure text during the
+     *     preparation ({@code null} not permitted).
+     * @param bounds  the bounds ({@code null} not permitted).
+     * 
+     * @return The prepared frame (never {@code null}). 
+     */
+    PreparedFrame prepareFrame(Graphics2D g2, Rectangle2D bounds);
+    
+}
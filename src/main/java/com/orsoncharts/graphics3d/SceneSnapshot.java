@@ -0,0 +1,62 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A snapshot of a 3D scene that has been composed, projected and sorted 
+ * into painting order.  The snapshot does not change after it is created 
+ * and does not share its 3D model with its source, so it can be drawn at 
+ * any size, any number of times, by any number of threads at once (for 
+ * example, to render the same chart at several sizes on a thread pool).  
+ * Each call to {@link #draw(Graphics2D, Rectangle2D)} uses its own working
+ * storage.
+ * 
+ * @since 1.7
+ */
+public interface SceneSnapshot {
+    
+    /**
+     * Draws the snapshot to the specified output target.
+     * 
+     * @param g2  the output target ({@code null} not permitted).
+     * @param bounds  the bounds ({@code null} not permitted).
+     * 
+     * @return Information about the items rendered.
+     */
+    RenderingInfo draw(Graphics2D g2, Rectangle2D bounds);
+    
+}
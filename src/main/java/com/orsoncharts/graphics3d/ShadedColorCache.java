@@ -0,0 +1,142 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+
+/**
+ * A cache of shaded colors for painting faces, so that repeated frames 
+ * reuse {@code Color} instances rather than creating a new one for every 
+ * face.  The shaded color for a base color is computed in the same way as
+ * for the painting code in earlier releases (each of the red, green and blue
+ * components is multiplied by the shade factor and truncated to an integer,
+ * giving at most 256 levels per color), and the cache is keyed on the 
+ * resulting ARGB value, so the output is unchanged.
+ * <br><br>
+ * The cache has a fixed capacity and is cleared when it becomes too full.
+ * It is not thread-safe, each renderer should use its own instance.
+ * 
+ * @since 1.7
+ */
+public final class ShadedColorCache {
+    
+    /** The default capacity (must be a power of two). */
+    private static final int DEFAULT_CAPACITY = 4096;
+    
+    /** The keys (ARGB values). */
+    private final int[] keys;
+    
+    /** The colors (a {@code null} entry is an empty slot). */
+    private final Color[] colors;
+    
+    /** The number of colors in the cache. */
+    private int size;
+    
+    /**
+     * Creates a new empty cache.
+     */
+    public ShadedColorCache() {
+        this.keys = new int[DEFAULT_CAPACITY];
+        this.colors = new Color[DEFAULT_CAPACITY];
+    }
+    
+    /**
+     * Returns the number of colors in the cache.
+     * 
+     * @return The number of colors. 
+     */
+    public int getSize() {
+        return this.size;
+    }
+    
+    /**
+     * Returns the base color shaded by the specified factor.  The alpha 
+     * component of the base color is retained.
+     * 
+     * @param c  the base color ({@code null} not permitted).
+     * @param shade  the shade factor (in the range 0.0 to 1.0).
+     * 
+     * @return The shaded color (never {@code null}). 
+     */
+    public Color getShadedColor(Color c, double shade) {
+        int r = (int) (c.getRed() * shade);
+        int g = (int) (c.getGreen() * shade);
+        int b = (int) (c.getBlue() * shade);
+        int a = c.getAlpha();
+        if ((r | g | b) < 0 || r > 255 || g > 255 || b > 255) {
+            // let the Color constructor report the invalid shade
+            return new Color(r, g, b, a);
+        }
+        int argb = (a << 24) | (r << 16) | (g << 8) | b;
+        int mask = this.keys.length - 1;
+        int i = mix(argb) & mask;
+        while (this.colors[i] != null) {
+            if (this.keys[i] == argb) {
+                return this.colors[i];
+            }
+            i = (i + 1) & mask;
+        }
+        Color result = new Color(r, g, b, a);
+        if (this.size >= this.keys.length / 2) {
+            clear();
+            i = mix(argb) & mask;
+        }
+        this.keys[i] = argb;
+        this.colors[i] = result;
+        this.size++;
+        return result;
+    }
+    
+    /**
+     * Removes all colors from the cache.
+     */
+    public void clear() {
+        for (int i = 0; i < this.colors.length; i++) {
+            this.colors[i] = null;
+        }
+        this.size = 0;
+    }
+    
+    /**
+     * Spreads the bits of a key for the hash table.
+     * 
+     * @param key  the key.
+     * 
+     * @return The hash. 
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+}
@@ -41,7 +41,7 @@ import java.util.List;
  * 
  * @since 1.3
  */
-public class StandardFaceSorter implements FaceSorter, Serializable {
+public class StandardFaceSorter implements ProjectionFaceSorter, Serializable {
 
     /**
      * Creates a new instance.
@@ -56,4 +56,10 @@ public class StandardFaceSorter implements FaceSorter, Serializable {
         return faces;
     }
     
+    @Override
+    public List<Face> sort(List<Face> faces, ProjectionBuffer projection) {
+        Collections.sort(faces, new ZOrderComparator(projection));
+        return faces;
+    }
+    
 }
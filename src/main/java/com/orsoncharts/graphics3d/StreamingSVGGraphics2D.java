@@ -0,0 +1,1453 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.LinearGradientPaint;
+import java.awt.MultipleGradientPaint;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.RadialGradientPaint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+import com.orsoncharts.Chart3DHints;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A {@code Graphics2D} implementation that writes SVG elements to a 
+ * {@code Writer} as they are drawn, so that the document is never held in 
+ * memory (a chart with a very large number of faces can be exported with a
+ * small, constant amount of memory).  This is used by 
+ * {@link ExportUtils#writeAsSVG(Drawable3D, int, int, Writer)}.
+ * <br><br>
+ * The {@link Chart3DHints} element hints are written as {@code <g>} 
+ * elements with {@code id} and {@code jfreesvg:ref} attributes, in the same
+ * way as the {@code SVGGraphics2D} class in 
+ * <a href="http://www.jfree.org/jfreesvg">JFreeSVG</a>, so the output works
+ * with the Orson Charts JavaScript utilities.  Shapes are written with 
+ * their coordinates in the SVG user space (the current transform is applied
+ * to the coordinates), and a fill that is followed immediately by a draw of
+ * the same shape (as for the outlined faces of a chart) is written as a 
+ * single {@code <path>} element.  Colors, gradient paints, basic strokes, 
+ * alpha composites, clipping, text and images are supported; other paints 
+ * are written as black, and XOR mode and {@code copyArea()} are ignored.
+ * <br><br>
+ * An {@code IOException} from the writer stops the output and is thrown 
+ * by {@link #endDocument()}, which must be called after drawing to 
+ * complete the document.
+ * 
+ * @since 1.7
+ */
+public class StreamingSVGGraphics2D extends Graphics2D {
+    
+    /** The state shared by an instance and the instances it creates. */
+    private final Output out;
+    
+    /** The current transform. */
+    private AffineTransform transform;
+    
+    /** The clip in SVG user space ({@code null} for no clip). */
+    private Shape clip;
+    
+    /** The id of the clip path written for the clip ({@code null} if none
+     *  has been written yet). */
+    private String clipId;
+    
+    /** The current paint. */
+    private Paint paint;
+    
+    /** The id of the gradient written for the paint and transform 
+     *  ({@code null} if none has been written yet). */
+    private String gradientId;
+    
+    /** The current color. */
+    private Color color;
+    
+    /** The background color. */
+    private Color background;
+    
+    /** The current stroke. */
+    private Stroke stroke;
+    
+    /** The current font. */
+    private Font font;
+    
+    /** The current composite. */
+    private Composite composite;
+    
+    /** The rendering hints. */
+    private RenderingHints hints;
+    
+    /**
+     * Creates a new instance that writes an SVG document with the specified
+     * size to {@code writer}.  The SVG header is written immediately.
+     * 
+     * @param writer  the writer ({@code null} not permitted).
+     * @param width  the width of the document.
+     * @param height  the height of the document.
+     */
+    public StreamingSVGGraphics2D(Writer writer, int width, int height) {
+        ArgChecks.nullNotPermitted(writer, "writer");
+        this.out = new Output(writer);
+        this.transform = new AffineTransform();
+        this.paint = Color.BLACK;
+        this.color = Color.BLACK;
+        this.background = Color.BLACK;
+        this.stroke = new BasicStroke(1.0f);
+        this.font = new Font("SansSerif", Font.PLAIN, 12);
+        this.composite = AlphaComposite.SrcOver;
+        this.hints = new RenderingHints(null);
+        StringBuilder sb = this.out.sb;
+        sb.setLength(0);
+        sb.append("<?xml version=\"1.0\"?>\n");
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" ");
+        sb.append("xmlns:xlink=\"http://www.w3.org/1999/xlink\" ");
+        sb.append("xmlns:jfreesvg=\"http://www.jfree.org/jfreesvg/svg\" ");
+        sb.append("width=\"").append(width).append("\" height=\"");
+        sb.append(height).append("\" text-rendering=\"auto\" ");
+        sb.append("shape-rendering=\"auto\">\n");
+        this.out.write(sb);
+    }
+    
+    /**
+     * Creates a new instance with the same state as {@code source}, writing
+     * to the same output.
+     * 
+     * @param source  the source.
+     */
+    private StreamingSVGGraphics2D(StreamingSVGGraphics2D source) {
+        this.out = source.out;
+        this.transform = new AffineTransform(source.transform);
+        this.clip = source.clip;
+        this.clipId = source.clipId;
+        this.paint = source.paint;
+        this.gradientId = source.gradientId;
+        this.color = source.color;
+        this.background = source.background;
+        this.stroke = source.stroke;
+        this.font = source.font;
+        this.composite = source.composite;
+        this.hints = (RenderingHints) source.hints.clone();
+    }
+    
+    /**
+     * Completes the document (by writing the closing tag for the 
+     * {@code <svg>} element) and flushes the writer.  The writer is not 
+     * closed.
+     * 
+     * @throws IOException if there was an I/O problem while writing any 
+     *     part of the document.
+     */
+    public void endDocument() throws IOException {
+        this.out.flushPending();
+        this.out.write("</svg>\n");
+        if (this.out.error == null) {
+            try {
+                this.out.writer.flush();
+            } catch (IOException ex) {
+                this.out.error = ex;
+            }
+        }
+        if (this.out.error != null) {
+            throw this.out.error;
+        }
+    }
+    
+    @Override
+    public Graphics create() {
+        return new StreamingSVGGraphics2D(this);
+    }
+
+    @Override
+    public void dispose() {
+        // nothing to release, the output belongs to the creator
+    }
+    
+    @Override
+    public void draw(Shape s) {
+        if (!(this.stroke instanceof BasicStroke)) {
+            fill(this.stroke.createStrokedShape(s));
+            return;
+        }
+        Output o = this.out;
+        if (o.pendingShape == s && o.pendingOwner == this 
+                && o.pendingTransform.equals(this.transform) 
+                && o.pendingClipId == clipId()) {
+            // the outline of the shape that was just filled
+            o.pendingShape = null;
+            StringBuilder sb = o.sb;
+            sb.setLength(0);
+            String strokePaint = paintRef();
+            sb.append(o.pending, 0, o.pending.length() - 3);
+            appendStroke(sb, strokePaint);
+            sb.append("/>\n");
+            o.write(sb);
+            return;
+        }
+        o.flushPending();
+        String strokePaint = paintRef();
+        StringBuilder sb = o.sb;
+        sb.setLength(0);
+        sb.append("<path fill=\"none\"");
+        appendStroke(sb, strokePaint);
+        appendClip(sb);
+        sb.append(" d=\"");
+        appendPath(sb, s);
+        sb.append("\"/>\n");
+        o.write(sb);
+    }
+
+    @Override
+    public void fill(Shape s) {
+        Output o = this.out;
+        o.flushPending();
+        String fillPaint = paintRef();
+        StringBuilder sb = o.pending;
+        sb.setLength(0);
+        sb.append("<path");
+        appendPaint(sb, "fill", fillPaint);
+        if (s.getPathIterator(null).getWindingRule() 
+                == PathIterator.WIND_EVEN_ODD) {
+            sb.append(" fill-rule=\"evenodd\"");
+        }
+        appendClip(sb);
+        sb.append(" d=\"");
+        appendPath(sb, s);
+        sb.append("\"/>\n");
+        // held back in case the next call draws the same shape
+        o.pendingShape = s;
+        o.pendingOwner = this;
+        o.pendingTransform.setTransform(this.transform);
+        o.pendingClipId = this.clipId;
+    }
+    
+    /**
+     * Appends the path data for a shape (in SVG user space).
+     * 
+     * @param sb  the string builder.
+     * @param s  the shape.
+     */
+    private void appendPath(StringBuilder sb, Shape s) {
+        PathIterator iterator = s.getPathIterator(this.transform);
+        double[] coords = new double[6];
+        while (!iterator.isDone()) {
+            int type = iterator.currentSegment(coords);
+            switch (type) {
+                case PathIterator.SEG_MOVETO:
+                    sb.append('M');
+                    appendCoords(sb, coords, 2);
+                    break;
+                case PathIterator.SEG_LINETO:
+                    sb.append('L');
+                    appendCoords(sb, coords, 2);
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    sb.append('Q');
+                    appendCoords(sb, coords, 4);
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    sb.append('C');
+                    appendCoords(sb, coords, 6);
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    sb.append('Z');
+                    break;
+                default:
+                    break;
+            }
+            iterator.next();
+        }
+    }
+    
+    private static void appendCoords(StringBuilder sb, double[] coords, 
+            int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            appendNumber(sb, coords[i]);
+        }
+    }
+    
+    /**
+     * Appends a number, rounded to two decimal places.
+     * 
+     * @param sb  the string builder.
+     * @param value  the value.
+     */
+    private static void appendNumber(StringBuilder sb, double value) {
+        double rounded = Math.rint(value * 100.0) / 100.0;
+        if (rounded == (long) rounded) {
+            sb.append((long) rounded);
+        } else {
+            sb.append(rounded);
+        }
+    }
+    
+    /**
+     * Appends a paint attribute (and an opacity attribute, if the paint is
+     * not opaque or there is an alpha composite).
+     * 
+     * @param sb  the string builder.
+     * @param name  the attribute name ({@code "fill"} or {@code "stroke"}).
+     * @param ref  the paint reference (from {@link #paintRef()}).
+     */
+    private void appendPaint(StringBuilder sb, String name, String ref) {
+        sb.append(' ').append(name).append("=\"").append(ref).append('"');
+        double opacity = compositeAlpha();
+        if (this.paint instanceof Color) {
+            opacity *= ((Color) this.paint).getAlpha() / 255.0;
+        }
+        if (opacity < 1.0) {
+            sb.append(' ').append(name).append("-opacity=\"");
+            appendNumber(sb, opacity);
+            sb.append('"');
+        }
+    }
+    
+    /**
+     * Appends the stroke attributes.
+     * 
+     * @param sb  the string builder.
+     * @param ref  the paint reference (from {@link #paintRef()}).
+     */
+    private void appendStroke(StringBuilder sb, String ref) {
+        appendPaint(sb, "stroke", ref);
+        BasicStroke bs = (BasicStroke) this.stroke;
+        // the coordinates are transformed, so the width is scaled to match
+        double scale = Math.sqrt(Math.abs(this.transform.getDeterminant()));
+        double width = bs.getLineWidth() * scale;
+        sb.append(" stroke-width=\"");
+        // a zero width stroke is drawn as a thin line, as in Java2D
+        appendNumber(sb, width > 0.0 ? width : 1.0);
+        sb.append('"');
+        if (bs.getEndCap() == BasicStroke.CAP_ROUND) {
+            sb.append(" stroke-linecap=\"round\"");
+        } else if (bs.getEndCap() == BasicStroke.CAP_SQUARE) {
+            sb.append(" stroke-linecap=\"square\"");
+        }
+        if (bs.getLineJoin() == BasicStroke.JOIN_ROUND) {
+            sb.append(" stroke-linejoin=\"round\"");
+        } else if (bs.getLineJoin() == BasicStroke.JOIN_BEVEL) {
+            sb.append(" stroke-linejoin=\"bevel\"");
+        } else if (bs.getMiterLimit() != 4.0f) {
+            sb.append(" stroke-miterlimit=\"");
+            appendNumber(sb, bs.getMiterLimit());
+            sb.append('"');
+        }
+        float[] dashes = bs.getDashArray();
+        if (dashes != null) {
+            sb.append(" stroke-dasharray=\"");
+            for (int i = 0; i < dashes.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendNumber(sb, dashes[i] * scale);
+            }
+            sb.append('"');
+            if (bs.getDashPhase() != 0.0f) {
+                sb.append(" stroke-dashoffset=\"");
+                appendNumber(sb, bs.getDashPhase() * scale);
+                sb.append('"');
+            }
+        }
+    }
+    
+    /**
+     * Appends the clip-path attribute, if there is a clip.
+     * 
+     * @param sb  the string builder.
+     */
+    private void appendClip(StringBuilder sb) {
+        String id = clipId();
+        if (id != null) {
+            sb.append(" clip-path=\"url(#").append(id).append(")\"");
+        }
+    }
+    
+    /**
+     * Returns the id of the clip path for the current clip, writing the 
+     * clip path first if necessary.
+     * 
+     * @return The id ({@code null} if there is no clip).
+     */
+    private String clipId() {
+        if (this.clip == null) {
+            return null;
+        }
+        if (this.clipId == null) {
+            Output o = this.out;
+            this.clipId = "clip-" + o.nextId++;
+            StringBuilder sb = new StringBuilder();
+            sb.append("<clipPath id=\"").append(this.clipId);
+            sb.append("\"><path d=\"");
+            PathIterator iterator = this.clip.getPathIterator(null);
+            AffineTransform saved = this.transform;
+            this.transform = null;
+            appendPath(sb, this.clip);
+            this.transform = saved;
+            if (iterator.getWindingRule() == PathIterator.WIND_EVEN_ODD) {
+                sb.append("\" clip-rule=\"evenodd");
+            }
+            sb.append("\"/></clipPath>\n");
+            // the pending element (if any) comes first
+            o.flushPending();
+            o.write(sb);
+        }
+        return this.clipId;
+    }
+    
+    /**
+     * Returns the alpha value of the current composite.
+     * 
+     * @return The alpha value. 
+     */
+    private double compositeAlpha() {
+        if (this.composite instanceof AlphaComposite) {
+            return ((AlphaComposite) this.composite).getAlpha();
+        }
+        return 1.0;
+    }
+    
+    /**
+     * Returns the value for a fill or stroke attribute for the current 
+     * paint, writing a gradient definition first if necessary.
+     * 
+     * @return The value. 
+     */
+    private String paintRef() {
+        if (this.paint instanceof Color) {
+            Color c = (Color) this.paint;
+            return "rgb(" + c.getRed() + "," + c.getGreen() + "," 
+                    + c.getBlue() + ")";
+        }
+        if (!(this.paint instanceof GradientPaint 
+                || this.paint instanceof LinearGradientPaint 
+                || this.paint instanceof RadialGradientPaint)) {
+            return "rgb(0,0,0)";
+        }
+        if (this.gradientId == null) {
+            Output o = this.out;
+            this.gradientId = "gradient-" + o.nextId++;
+            StringBuilder sb = new StringBuilder();
+            AffineTransform t = new AffineTransform(this.transform);
+            if (this.paint instanceof GradientPaint) {
+                GradientPaint gp = (GradientPaint) this.paint;
+                sb.append("<linearGradient id=\"").append(this.gradientId);
+                sb.append("\" gradientUnits=\"userSpaceOnUse\" x1=\"");
+                appendPoint(sb, gp.getPoint1(), "\" y1=\"");
+                sb.append("\" x2=\"");
+                appendPoint(sb, gp.getPoint2(), "\" y2=\"");
+                sb.append('"');
+                if (gp.isCyclic()) {
+                    sb.append(" spreadMethod=\"reflect\"");
+                }
+                appendMatrix(sb, " gradientTransform", t);
+                sb.append('>');
+                appendStop(sb, 0.0f, gp.getColor1());
+                appendStop(sb, 1.0f, gp.getColor2());
+                sb.append("</linearGradient>\n");
+            } else {
+                MultipleGradientPaint mgp = (MultipleGradientPaint) this.paint;
+                t.concatenate(mgp.getTransform());
+                String element;
+                if (mgp instanceof LinearGradientPaint) {
+                    LinearGradientPaint lgp = (LinearGradientPaint) mgp;
+                    element = "linearGradient";
+                    sb.append("<linearGradient id=\"").append(
+                            this.gradientId);
+                    sb.append("\" gradientUnits=\"userSpaceOnUse\" x1=\"");
+                    appendPoint(sb, lgp.getStartPoint(), "\" y1=\"");
+                    sb.append("\" x2=\"");
+                    appendPoint(sb, lgp.getEndPoint(), "\" y2=\"");
+                } else {
+                    RadialGradientPaint rgp = (RadialGradientPaint) mgp;
+                    element = "radialGradient";
+                    sb.append("<radialGradient id=\"").append(
+                            this.gradientId);
+                    sb.append("\" gradientUnits=\"userSpaceOnUse\" cx=\"");
+                    appendPoint(sb, rgp.getCenterPoint(), "\" cy=\"");
+                    sb.append("\" r=\"");
+                    appendNumber(sb, rgp.getRadius());
+                    sb.append("\" fx=\"");
+                    appendPoint(sb, rgp.getFocusPoint(), "\" fy=\"");
+                }
+                sb.append('"');
+                if (mgp.getCycleMethod() 
+                        == MultipleGradientPaint.CycleMethod.REFLECT) {
+                    sb.append(" spreadMethod=\"reflect\"");
+                } else if (mgp.getCycleMethod() 
+                        == MultipleGradientPaint.CycleMethod.REPEAT) {
+                    sb.append(" spreadMethod=\"repeat\"");
+                }
+                appendMatrix(sb, " gradientTransform", t);
+                sb.append('>');
+                float[] fractions = mgp.getFractions();
+                Color[] colors = mgp.getColors();
+                for (int i = 0; i < fractions.length; i++) {
+                    appendStop(sb, fractions[i], colors[i]);
+                }
+                sb.append("</").append(element).append(">\n");
+            }
+            o.flushPending();
+            o.write(sb);
+        }
+        return "url(#" + this.gradientId + ")";
+    }
+    
+    private static void appendPoint(StringBuilder sb, Point2D pt, 
+            String separator) {
+        appendNumber(sb, pt.getX());
+        sb.append(separator);
+        appendNumber(sb, pt.getY());
+    }
+    
+    private static void appendStop(StringBuilder sb, float offset, Color c) {
+        sb.append("<stop offset=\"");
+        appendNumber(sb, offset);
+        sb.append("\" stop-color=\"rgb(").append(c.getRed()).append(',');
+        sb.append(c.getGreen()).append(',').append(c.getBlue());
+        sb.append(")\"");
+        if (c.getAlpha() < 255) {
+            sb.append(" stop-opacity=\"");
+            appendNumber(sb, c.getAlpha() / 255.0);
+            sb.append('"');
+        }
+        sb.append("/>");
+    }
+    
+    /**
+     * Appends a transform attribute, unless the transform is the identity.
+     * 
+     * @param sb  the string builder.
+     * @param name  the attribute name (with a leading space).
+     * @param t  the transform.
+     */
+    private static void appendMatrix(StringBuilder sb, String name, 
+            AffineTransform t) {
+        if (t.isIdentity()) {
+            return;
+        }
+        sb.append(name).append("=\"matrix(");
+        appendNumber(sb, t.getScaleX());
+        sb.append(',');
+        appendNumber(sb, t.getShearY());
+        sb.append(',');
+        appendNumber(sb, t.getShearX());
+        sb.append(',');
+        appendNumber(sb, t.getScaleY());
+        sb.append(',');
+        appendNumber(sb, t.getTranslateX());
+        sb.append(',');
+        appendNumber(sb, t.getTranslateY());
+        sb.append(")\"");
+    }
+    
+    /**
+     * Appends text to an XML document, escaping the special characters.
+     * 
+     * @param sb  the string builder.
+     * @param text  the text.
+     */
+    private static void appendEscaped(StringBuilder sb, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                case '\'':
+                    sb.append("&apos;");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+    
+    /**
+     * Starts a group for an element that is written with a transform 
+     * attribute, so that the clip (which is in the SVG user space) is not 
+     * transformed.
+     * 
+     * @param sb  the string builder.
+     * @param t  the transform for the element.
+     * 
+     * @return A boolean indicating whether a group was started.
+     */
+    private boolean beginClipGroup(StringBuilder sb, AffineTransform t) {
+        String id = clipId();
+        if (id == null || t.isIdentity()) {
+            return false;
+        }
+        sb.append("<g clip-path=\"url(#").append(id).append(")\">");
+        return true;
+    }
+    
+    @Override
+    public void drawString(String str, int x, int y) {
+        drawString(str, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(String str, float x, float y) {
+        ArgChecks.nullNotPermitted(str, "str");
+        Output o = this.out;
+        o.flushPending();
+        String fillPaint = paintRef();
+        // the clip path must be written before the element is started
+        clipId();
+        StringBuilder sb = o.sb;
+        sb.setLength(0);
+        boolean group = beginClipGroup(sb, this.transform);
+        sb.append("<text x=\"");
+        appendNumber(sb, x);
+        sb.append("\" y=\"");
+        appendNumber(sb, y);
+        sb.append('"');
+        appendMatrix(sb, " transform", this.transform);
+        if (!group) {
+            appendClip(sb);
+        }
+        sb.append(" font-family=\"");
+        appendEscaped(sb, this.font.getFamily());
+        sb.append("\" font-size=\"");
+        appendNumber(sb, this.font.getSize2D());
+        sb.append('"');
+        if (this.font.isBold()) {
+            sb.append(" font-weight=\"bold\"");
+        }
+        if (this.font.isItalic()) {
+            sb.append(" font-style=\"italic\"");
+        }
+        appendPaint(sb, "fill", fillPaint);
+        sb.append(" xml:space=\"preserve\">");
+        appendEscaped(sb, str);
+        sb.append("</text>");
+        if (group) {
+            sb.append("</g>");
+        }
+        sb.append('\n');
+        o.write(sb);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, 
+            int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, 
+            float y) {
+        // the attributes are not supported, only the text is written
+        StringBuilder text = new StringBuilder();
+        for (char c = iterator.first(); c != AttributedCharacterIterator.DONE; 
+                c = iterator.next()) {
+            text.append(c);
+        }
+        drawString(text.toString(), x, y);
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector g, float x, float y) {
+        fill(g.getOutline(x, y));
+    }
+    
+    @Override
+    public boolean drawImage(Image img, AffineTransform xform, 
+            ImageObserver obs) {
+        if (img == null) {
+            return true;
+        }
+        BufferedImage image = toBufferedImage(img, obs);
+        if (image == null) {
+            return false;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", bytes);
+        } catch (IOException ex) {
+            // can't happen for an in-memory stream
+            throw new RuntimeException(ex);
+        }
+        Output o = this.out;
+        o.flushPending();
+        clipId();
+        StringBuilder sb = o.sb;
+        sb.setLength(0);
+        AffineTransform t = new AffineTransform(this.transform);
+        if (xform != null) {
+            t.concatenate(xform);
+        }
+        boolean group = beginClipGroup(sb, t);
+        sb.append("<image width=\"").append(image.getWidth());
+        sb.append("\" height=\"").append(image.getHeight());
+        sb.append("\" preserveAspectRatio=\"none\"");
+        appendMatrix(sb, " transform", t);
+        if (!group) {
+            appendClip(sb);
+        }
+        double opacity = compositeAlpha();
+        if (opacity < 1.0) {
+            sb.append(" opacity=\"");
+            appendNumber(sb, opacity);
+            sb.append('"');
+        }
+        sb.append(" xlink:href=\"data:image/png;base64,");
+        appendBase64(sb, bytes.toByteArray());
+        sb.append("\"/>");
+        if (group) {
+            sb.append("</g>");
+        }
+        sb.append('\n');
+        o.write(sb);
+        return true;
+    }
+    
+    /**
+     * Returns a buffered image with the content of {@code img}.
+     * 
+     * @param img  the image.
+     * @param obs  the image observer.
+     * 
+     * @return The image ({@code null} if the image is not yet loaded).
+     */
+    private static BufferedImage toBufferedImage(Image img, 
+            ImageObserver obs) {
+        if (img instanceof BufferedImage) {
+            return (BufferedImage) img;
+        }
+        int w = img.getWidth(obs);
+        int h = img.getHeight(obs);
+        if (w <= 0 || h <= 0) {
+            return null;
+        }
+        BufferedImage result = new BufferedImage(w, h, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = result.createGraphics();
+        g2.drawImage(img, 0, 0, obs);
+        g2.dispose();
+        return result;
+    }
+    
+    /** The characters for base 64 encoding. */
+    private static final char[] BASE64 = ("ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+            + "abcdefghijklmnopqrstuvwxyz0123456789+/").toCharArray();
+    
+    private static void appendBase64(StringBuilder sb, byte[] data) {
+        int i = 0;
+        for (; i + 2 < data.length; i += 3) {
+            int n = ((data[i] & 0xFF) << 16) | ((data[i + 1] & 0xFF) << 8)
+                    | (data[i + 2] & 0xFF);
+            sb.append(BASE64[n >> 18]).append(BASE64[(n >> 12) & 63]);
+            sb.append(BASE64[(n >> 6) & 63]).append(BASE64[n & 63]);
+        }
+        int remaining = data.length - i;
+        if (remaining == 1) {
+            int n = (data[i] & 0xFF) << 16;
+            sb.append(BASE64[n >> 18]).append(BASE64[(n >> 12) & 63]);
+            sb.append("==");
+        } else if (remaining == 2) {
+            int n = ((data[i] & 0xFF) << 16) | ((data[i + 1] & 0xFF) << 8);
+            sb.append(BASE64[n >> 18]).append(BASE64[(n >> 12) & 63]);
+            sb.append(BASE64[(n >> 6) & 63]).append('=');
+        }
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, BufferedImageOp op, int x, 
+            int y) {
+        BufferedImage image = op != null ? op.filter(img, null) : img;
+        drawImage(image, AffineTransform.getTranslateInstance(x, y), null);
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+        if (img == null) {
+            return;
+        }
+        BufferedImage image;
+        if (img instanceof BufferedImage) {
+            image = (BufferedImage) img;
+        } else {
+            image = new BufferedImage(img.getWidth(), img.getHeight(), 
+                    BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = image.createGraphics();
+            g2.drawRenderedImage(img, new AffineTransform());
+            g2.dispose();
+        }
+        drawImage(image, xform, null);
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage img, 
+            AffineTransform xform) {
+        drawRenderedImage(img.createDefaultRendering(), xform);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, ImageObserver obs) {
+        return drawImage(img, AffineTransform.getTranslateInstance(x, y), 
+                obs);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height,
+            ImageObserver obs) {
+        BufferedImage image = img == null ? null : toBufferedImage(img, obs);
+        if (image == null) {
+            return img == null;
+        }
+        AffineTransform t = AffineTransform.getTranslateInstance(x, y);
+        t.scale((double) width / image.getWidth(), 
+                (double) height / image.getHeight());
+        return drawImage(image, t, obs);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, Color bgcolor, 
+            ImageObserver obs) {
+        if (img == null) {
+            return true;
+        }
+        return drawImage(img, x, y, img.getWidth(obs), img.getHeight(obs), 
+                bgcolor, obs);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height,
+            Color bgcolor, ImageObserver obs) {
+        if (bgcolor != null) {
+            Paint saved = getPaint();
+            setPaint(bgcolor);
+            fillRect(x, y, width, height);
+            setPaint(saved);
+        }
+        return drawImage(img, x, y, width, height, obs);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, 
+            int sx1, int sy1, int sx2, int sy2, ImageObserver obs) {
+        BufferedImage image = img == null ? null : toBufferedImage(img, obs);
+        if (image == null) {
+            return img == null;
+        }
+        int sx = Math.min(sx1, sx2);
+        int sy = Math.min(sy1, sy2);
+        int sw = Math.abs(sx2 - sx1);
+        int sh = Math.abs(sy2 - sy1);
+        if (sw == 0 || sh == 0) {
+            return true;
+        }
+        BufferedImage part = image.getSubimage(sx, sy, sw, sh);
+        AffineTransform t = AffineTransform.getTranslateInstance(dx1, dy1);
+        t.scale((double) (dx2 - dx1) / (sx2 - sx1), 
+                (double) (dy2 - dy1) / (sy2 - sy1));
+        if (sx2 < sx1) {
+            t.translate(-sw, 0);
+        }
+        if (sy2 < sy1) {
+            t.translate(0, -sh);
+        }
+        return drawImage(part, t, obs);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, 
+            int sx1, int sy1, int sx2, int sy2, Color bgcolor, 
+            ImageObserver obs) {
+        if (bgcolor != null) {
+            Paint saved = getPaint();
+            setPaint(bgcolor);
+            fillRect(Math.min(dx1, dx2), Math.min(dy1, dy2), 
+                    Math.abs(dx2 - dx1), Math.abs(dy2 - dy1));
+            setPaint(saved);
+        }
+        return drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, obs);
+    }
+
+    @Override
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        Shape shape = onStroke ? this.stroke.createStrokedShape(s) : s;
+        return this.transform.createTransformedShape(shape).intersects(rect);
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return this.out.measure().getDeviceConfiguration();
+    }
+
+    @Override
+    public void setComposite(Composite comp) {
+        ArgChecks.nullNotPermitted(comp, "comp");
+        this.composite = comp;
+    }
+
+    @Override
+    public Composite getComposite() {
+        return this.composite;
+    }
+
+    @Override
+    public void setPaint(Paint paint) {
+        if (paint == null) {
+            return;
+        }
+        if (paint != this.paint) {
+            this.gradientId = null;
+        }
+        this.paint = paint;
+        if (paint instanceof Color) {
+            this.color = (Color) paint;
+        }
+    }
+
+    @Override
+    public Paint getPaint() {
+        return this.paint;
+    }
+
+    @Override
+    public Color getColor() {
+        return this.color;
+    }
+
+    @Override
+    public void setColor(Color c) {
+        if (c != null) {
+            setPaint(c);
+        }
+    }
+
+    @Override
+    public void setStroke(Stroke s) {
+        ArgChecks.nullNotPermitted(s, "s");
+        this.stroke = s;
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return this.stroke;
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        this.background = color;
+    }
+
+    @Override
+    public Color getBackground() {
+        return this.background;
+    }
+
+    @Override
+    public Font getFont() {
+        return this.font;
+    }
+
+    @Override
+    public void setFont(Font font) {
+        if (font != null) {
+            this.font = font;
+        }
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font f) {
+        Graphics2D measure = this.out.measure();
+        measure.setRenderingHints(this.hints);
+        return measure.getFontMetrics(f);
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        Graphics2D measure = this.out.measure();
+        measure.setRenderingHints(this.hints);
+        return measure.getFontRenderContext();
+    }
+
+    /**
+     * Sets a rendering hint.  The {@link Chart3DHints} element hints are 
+     * not stored, they start and end a group in the output.
+     * 
+     * @param key  the key.
+     * @param value  the value.
+     */
+    @Override
+    public void setRenderingHint(RenderingHints.Key key, Object value) {
+        if (key == Chart3DHints.KEY_BEGIN_ELEMENT) {
+            beginGroup(value);
+        } else if (key == Chart3DHints.KEY_END_ELEMENT) {
+            this.out.flushPending();
+            this.out.write("</g>\n");
+        } else {
+            this.hints.put(key, value);
+        }
+    }
+    
+    /**
+     * Starts a group for an element.
+     * 
+     * @param value  the hint value (an id, or a map with an 'id' and a 
+     *     'ref').
+     */
+    private void beginGroup(Object value) {
+        String id = null;
+        String ref = null;
+        if (value instanceof String) {
+            id = (String) value;
+        } else if (value instanceof Map) {
+            Map<?, ?> m = (Map<?, ?>) value;
+            id = (String) m.get("id");
+            ref = (String) m.get("ref");
+        }
+        Output o = this.out;
+        o.flushPending();
+        StringBuilder sb = o.sb;
+        sb.setLength(0);
+        sb.append("<g");
+        if (id != null) {
+            sb.append(" id=\"");
+            appendEscaped(sb, id);
+            sb.append('"');
+        }
+        if (ref != null) {
+            sb.append(" jfreesvg:ref=\"");
+            appendEscaped(sb, ref);
+            sb.append('"');
+        }
+        sb.append(">\n");
+        o.write(sb);
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key key) {
+        return this.hints.get(key);
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        this.hints.clear();
+        addRenderingHints(hints);
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        for (Map.Entry<?, ?> e : hints.entrySet()) {
+            setRenderingHint((RenderingHints.Key) e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return (RenderingHints) this.hints.clone();
+    }
+
+    @Override
+    public void translate(int x, int y) {
+        translate((double) x, (double) y);
+    }
+
+    @Override
+    public void translate(double tx, double ty) {
+        AffineTransform t = getTransform();
+        t.translate(tx, ty);
+        setTransform(t);
+    }
+
+    @Override
+    public void rotate(double theta) {
+        AffineTransform t = getTransform();
+        t.rotate(theta);
+        setTransform(t);
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        AffineTransform t = getTransform();
+        t.rotate(theta, x, y);
+        setTransform(t);
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        AffineTransform t = getTransform();
+        t.scale(sx, sy);
+        setTransform(t);
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        AffineTransform t = getTransform();
+        t.shear(shx, shy);
+        setTransform(t);
+    }
+
+    @Override
+    public void transform(AffineTransform tx) {
+        AffineTransform t = getTransform();
+        t.concatenate(tx);
+        setTransform(t);
+    }
+
+    @Override
+    public void setTransform(AffineTransform tx) {
+        this.transform = tx == null ? new AffineTransform() 
+                : new AffineTransform(tx);
+        // gradients are written with the transform
+        this.gradientId = null;
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return new AffineTransform(this.transform);
+    }
+
+    @Override
+    public void clip(Shape s) {
+        if (s == null) {
+            return;
+        }
+        Shape ts = this.transform.createTransformedShape(s);
+        if (this.clip == null) {
+            setUserClip(ts);
+        } else if (this.clip instanceof Rectangle2D 
+                && ts instanceof Rectangle2D) {
+            setUserClip(((Rectangle2D) this.clip).createIntersection(
+                    (Rectangle2D) ts));
+        } else {
+            Area a = new Area(this.clip);
+            a.intersect(new Area(ts));
+            setUserClip(a);
+        }
+    }
+
+    @Override
+    public void setClip(Shape clip) {
+        setUserClip(clip == null ? null 
+                : this.transform.createTransformedShape(clip));
+    }
+    
+    /**
+     * Sets the clip (in SVG user space).  Transformed rectangles are kept
+     * as rectangles where possible.
+     * 
+     * @param clip  the clip ({@code null} permitted).
+     */
+    private void setUserClip(Shape clip) {
+        if (clip instanceof Path2D && this.transform.getShearX() == 0.0 
+                && this.transform.getShearY() == 0.0) {
+            Rectangle2D bounds = clip.getBounds2D();
+            if (new Area(clip).equals(new Area(bounds))) {
+                clip = bounds;
+            }
+        }
+        this.clip = clip;
+        this.clipId = null;
+    }
+
+    @Override
+    public Shape getClip() {
+        if (this.clip == null) {
+            return null;
+        }
+        try {
+            AffineTransform inverse = this.transform.createInverse();
+            Shape result = inverse.createTransformedShape(this.clip);
+            if (this.transform.getShearX() == 0.0 
+                    && this.transform.getShearY() == 0.0) {
+                // a rectangle stays a rectangle
+                return this.clip instanceof Rectangle2D 
+                        ? result.getBounds2D() : result;
+            }
+            return result;
+        } catch (NoninvertibleTransformException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        Shape c = getClip();
+        return c == null ? null : c.getBounds();
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        clip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        setClip(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void setPaintMode() {
+        // only the paint mode is supported
+    }
+
+    @Override
+    public void setXORMode(Color c1) {
+        // not supported
+    }
+
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, 
+            int dy) {
+        // not supported, the output can't be read back
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        draw(new Line2D.Double(x1, y1, x2, y2));
+    }
+
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        draw(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        fill(new Rectangle(x, y, width, height));
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        Paint saved = getPaint();
+        Composite savedComposite = getComposite();
+        setComposite(AlphaComposite.Src);
+        setPaint(this.background);
+        fillRect(x, y, width, height);
+        setPaint(saved);
+        setComposite(savedComposite);
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, 
+            int arcWidth, int arcHeight) {
+        draw(new RoundRectangle2D.Double(x, y, width, height, arcWidth, 
+                arcHeight));
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, 
+            int arcWidth, int arcHeight) {
+        fill(new RoundRectangle2D.Double(x, y, width, height, arcWidth, 
+                arcHeight));
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        draw(new Ellipse2D.Double(x, y, width, height));
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        fill(new Ellipse2D.Double(x, y, width, height));
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle,
+            int arcAngle) {
+        draw(new Arc2D.Double(x, y, width, height, startAngle, arcAngle, 
+                Arc2D.OPEN));
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle,
+            int arcAngle) {
+        fill(new Arc2D.Double(x, y, width, height, startAngle, arcAngle, 
+                Arc2D.PIE));
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        if (nPoints < 1) {
+            return;
+        }
+        Path2D path = new Path2D.Double();
+        path.moveTo(xPoints[0], yPoints[0]);
+        for (int i = 1; i < nPoints; i++) {
+            path.lineTo(xPoints[i], yPoints[i]);
+        }
+        draw(path);
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        draw(new Polygon(xPoints, yPoints, nPoints));
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        fill(new Polygon(xPoints, yPoints, nPoints));
+    }
+    
+    /**
+     * The output state shared by an instance and the instances created 
+     * from it.
+     */
+    private static final class Output {
+        
+        /** The writer. */
+        final Writer writer;
+        
+        /** A string builder for the element being written. */
+        final StringBuilder sb;
+        
+        /** The first exception from the writer. */
+        IOException error;
+        
+        /** The number for the next clip path or gradient id. */
+        int nextId;
+        
+        /** A filled path that has not been written yet. */
+        final StringBuilder pending;
+        
+        /** The shape for the pending path ({@code null} if none). */
+        Shape pendingShape;
+        
+        /** The graphics that filled the pending path. */
+        StreamingSVGGraphics2D pendingOwner;
+        
+        /** The transform for the pending path. */
+        final AffineTransform pendingTransform;
+        
+        /** The clip path id for the pending path. */
+        String pendingClipId;
+        
+        /** A graphics target used to measure text. */
+        private Graphics2D measure;
+        
+        Output(Writer writer) {
+            this.writer = writer;
+            this.sb = new StringBuilder(256);
+            this.pending = new StringBuilder(256);
+            this.pendingTransform = new AffineTransform();
+        }
+        
+        /**
+         * Returns a graphics target for measuring text (created on demand).
+         * 
+         * @return The graphics target.
+         */
+        Graphics2D measure() {
+            if (this.measure == null) {
+                BufferedImage image = new BufferedImage(1, 1, 
+                        BufferedImage.TYPE_INT_ARGB);
+                this.measure = image.createGraphics();
+            }
+            return this.measure;
+        }
+        
+        /**
+         * Writes the pending path, if there is one.
+         */
+        void flushPending() {
+            if (this.pendingShape != null) {
+                this.pendingShape = null;
+                this.pendingOwner = null;
+                write(this.pending);
+            }
+        }
+        
+        /**
+         * Writes some text, unless an earlier write failed.
+         * 
+         * @param text  the text.
+         */
+        void write(CharSequence text) {
+            if (this.error != null) {
+                return;
+            }
+            try {
+                this.writer.append(text);
+            } catch (IOException ex) {
+                this.error = ex;
+            }
+        }
+        
+    }
+    
+}
@@ -32,8 +32,6 @@
 
 package com.orsoncharts.graphics3d;
 
-import java.awt.Color;
-import java.awt.Dimension;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Point2D;
 import java.io.Serializable;
@@ -347,13 +345,72 @@ public class ViewPoint3D implements Serializable {
      * @return The point in eye coordinates.
      */
     public Point3D worldToEye(Point3D p) {
-        double x = this.v11 * p.x + this.v21 * p.y;
-        double y = this.v12 * p.x + this.v22 * p.y + this.v32 * p.z;
-        double z = this.v13 * p.x + this.v23 * p.y + this.v33 * p.z + this.v43;
-        double[] rotated = this.rotation.applyRotation(x, y, z, this.workspace);
-        return new Point3D(rotated[0], rotated[1], rotated[2]);
+        double[] eye = worldToEye(p.x, p.y, p.z, this.workspace);
+        return new Point3D(eye[0], eye[1], eye[2]);
     }
 
+    /**
+     * Converts a point in world coordinates to eye coordinates, writing the 
+     * result to the supplied array (if it is not {@code null}).  This 
+     * method does not create any {@code Point3D} instances, so it is 
+     * suitable for transforming large numbers of vertices.
+     * 
+     * @param x  the x-coordinate (world).
+     * @param y  the y-coordinate (world).
+     * @param z  the z-coordinate (world).
+     * @param result  an array of length 3 to store the result 
+     *     ({@code null} permitted, in which case a new array is created).
+     * 
+     * @return The eye coordinates as an array {@code [x, y, z]}.
+     * 
+     * @since 1.7
+     */
+    public double[] worldToEye(double x, double y, double z, double[] result) {
+        double ex = this.v11 * x + this.v21 * y;
+        double ey = this.v12 * x + this.v22 * y + this.v32 * z;
+        double ez = this.v13 * x + this.v23 * y + this.v33 * z + this.v43;
+        return this.rotation.applyRotation(ex, ey, ez, result);
+    }
+    
+    /**
+     * Converts a range of points in world coordinates to eye coordinates,
+     * writing the results to the supplied arrays.  The arithmetic is 
+     * identical to {@link #worldToEye(double, double, double, double[])}
+     * (so the results are the same to the last bit) but the matrix 
+     * elements are read once for the whole range.
+     * 
+     * @param xs  the x-coordinates (world).
+     * @param ys  the y-coordinates (world).
+     * @param zs  the z-coordinates (world).
+     * @param start  the index of the first point.
+     * @param end  the index after the last point.
+     * @param ex  the array for the x-coordinates (eye).
+     * @param ey  the array for the y-coordinates (eye).
+     * @param ez  the array for the z-coordinates (eye).
+     */
+    void worldToEye(double[] xs, double[] ys, double[] zs, int start, 
+            int end, double[] ex, double[] ey, double[] ez) {
+        double m11 = this.v11, m12 = this.v12, m13 = this.v13;
+        double m21 = this.v21, m22 = this.v22, m23 = this.v23;
+        double m32 = this.v32, m33 = this.v33, m43 = this.v43;
+        Rotate3D r = this.rotation;
+        double r11 = r.r11, r12 = r.r12, r13 = r.r13;
+        double r21 = r.r21, r22 = r.r22, r23 = r.r23;
+        double r31 = r.r31, r32 = r.r32, r33 = r.r33;
+        double r41 = r.r41, r42 = r.r42, r43 = r.r43;
+        for (int i = start; i < end; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            double z = zs[i];
+            double vx = m11 * x + m21 * y;
+            double vy = m12 * x + m22 * y + m32 * z;
+            double vz = m13 * x + m23 * y + m33 * z + m43;
+            ex[i] = vx * r11 + vy * r21 + vz * r31 + r41;
+            ey[i] = vx * r12 + vy * r22 + vz * r32 + r42;
+            ez[i] = vx * r13 + vy * r23 + vz * r33 + r43;
+        }
+    }
+    
     /**
      * Calculates and returns the screen coordinates for the specified point
      * in (world) 3D space.  
@@ -364,12 +421,8 @@ public class ViewPoint3D implements Serializable {
      * @return The screen coordinate.
      */
     public Point2D worldToScreen(Point3D p, double d) {
-        double x = this.v11 * p.x + this.v21 * p.y;
-        double y = this.v12 * p.x + this.v22 * p.y + this.v32 * p.z;
-        double z = this.v13 * p.x + this.v23 * p.y + this.v33 * p.z + this.v43;
-        double[] rotated = this.rotation.applyRotation(x, y, z, this.workspace);        
-        return new Point2D.Double(-d * rotated[0] / rotated[2], 
-                -d * rotated[1] / rotated[2]);
+        double[] eye = worldToEye(p.x, p.y, p.z, this.workspace);
+        return new Point2D.Double(-d * eye[0] / eye[2], -d * eye[1] / eye[2]);
     }
 
     /**
@@ -391,21 +444,25 @@ public class ViewPoint3D implements Serializable {
         float near = (float) dim3D.getDiagonalLength();
         float far = (float) near * 40;
         
-        World w = new World();
-        double ww = dim3D.getWidth();
-        double hh = dim3D.getHeight();
-        double dd = dim3D.getDepth();
-        w.add(Object3D.createBox(0, ww, 0, hh, 0, dd, Color.RED));
-               
+        // the corners of a box with the given dimensions, centered on the 
+        // origin (the projected size of the box is determined by these 
+        // alone, so there is no need to build a 3D model for it)
+        double xd = dim3D.getWidth() / 2.0;
+        double yd = dim3D.getHeight() / 2.0;
+        double zd = dim3D.getDepth() / 2.0;
+        double[] xs = {-xd, xd, xd, -xd, -xd, xd, xd, -xd};
+        double[] ys = {-yd, -yd, -yd, -yd, yd, yd, yd, yd};
+        double[] zs = {-zd, -zd, zd, zd, -zd, -zd, zd, zd};
+        double[] eye = new double[3];
+        int[] size = new int[2];
+        
         while (true) {
             vp.setRho(near);
-            Point2D[] nearpts = w.calculateProjectedPoints(vp, projDist);
-            Dimension neardim = Utils2D.findDimension(nearpts);
-            double nearcover = coverage(neardim, target);
+            projectedSize(vp, xs, ys, zs, projDist, eye, size);
+            double nearcover = coverage(size[0], size[1], target);
             vp.setRho(far);
-            Point2D[] farpts = w.calculateProjectedPoints(vp, projDist);
-            Dimension fardim = Utils2D.findDimension(farpts);
-            double farcover = coverage(fardim, target);
+            projectedSize(vp, xs, ys, zs, projDist, eye, size);
+            double farcover = coverage(size[0], size[1], target);
             if (nearcover <= 1.0) {
                 return near;
             }
@@ -415,10 +472,13 @@ public class ViewPoint3D implements Serializable {
             // bisect near and far until we get close enough to the specified 
             // dimension
             float mid = (near + far) / 2.0f;
+            if (mid <= near || mid >= far) {
+                // the interval can't be split any further
+                return far;
+            }
             vp.setRho(mid);
-            Point2D[] midpts = w.calculateProjectedPoints(vp, projDist);
-            Dimension middim = Utils2D.findDimension(midpts);
-            double midcover = coverage(middim, target);
+            projectedSize(vp, xs, ys, zs, projDist, eye, size);
+            double midcover = coverage(size[0], size[1], target);
             if (midcover >= 1.0) {
                 near = mid;
             } else {
@@ -427,9 +487,41 @@ public class ViewPoint3D implements Serializable {
         }  
     }
     
-    private double coverage(Dimension2D d, Dimension2D target) {
-        double wpercent = d.getWidth() / target.getWidth();
-        double hpercent = d.getHeight() / target.getHeight();
+    /**
+     * Projects the specified points and calculates the (integer) width and 
+     * height of their bounds in 2D, in the same way as 
+     * {@link Utils2D#findDimension(Point2D[])}.
+     * 
+     * @param vp  the view point.
+     * @param xs  the x-coordinates.
+     * @param ys  the y-coordinates.
+     * @param zs  the z-coordinates.
+     * @param d  the projection distance.
+     * @param eye  an array to use for the eye coordinates.
+     * @param result  an array to hold the width and height.
+     */
+    private static void projectedSize(ViewPoint3D vp, double[] xs, 
+            double[] ys, double[] zs, double d, double[] eye, int[] result) {
+        double minx = Double.POSITIVE_INFINITY;
+        double maxx = Double.NEGATIVE_INFINITY;
+        double miny = Double.POSITIVE_INFINITY;
+        double maxy = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < xs.length; i++) {
+            vp.worldToEye(xs[i], ys[i], zs[i], eye);
+            double x = -d * eye[0] / eye[2];
+            double y = -d * eye[1] / eye[2];
+            minx = Math.min(minx, x);
+            maxx = Math.max(maxx, x);
+            miny = Math.min(miny, y);
+            maxy = Math.max(maxy, y);
+        }
+        result[0] = (int) (maxx - minx);
+        result[1] = (int) (maxy - miny);
+    }
+    
+    private double coverage(double w, double h, Dimension2D target) {
+        double wpercent = w / target.getWidth();
+        double hpercent = h / target.getHeight();
         if (wpercent <= 1.0 && hpercent <= 1.0) {
             return Math.max(wpercent, hpercent);
         } else {
@@ -35,9 +35,11 @@ package com.orsoncharts.graphics3d;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
 import com.orsoncharts.util.ArgChecks;
 
 /**
@@ -69,6 +71,27 @@ public class World {
      */
     private Map<String, List<Object3D>> objects;
     
+    /** 
+     * The vertices for all objects in the world, packed into one array per 
+     * axis (in the same order as the faces returned by 
+     * {@link #getFaces()}).  These arrays are created on demand and discarded 
+     * whenever objects are added to or cleared from the world.
+     */
+    private double[] xs, ys, zs;
+    
+    /** 
+     * The faces for all objects in the world (an unmodifiable list, created
+     * on demand and discarded whenever objects are added to or cleared from
+     * the world). 
+     */
+    private List<Face> faces;
+    
+    /** 
+     * The level of detail for objects composed in this world (1.0 for full
+     * detail).
+     */
+    private double detail = 1.0;
+    
     /**
      * Creates a new empty world.
      */
@@ -78,6 +101,39 @@ public class World {
         setSunSource(new Point3D(2, -1, 10));
     }
 
+    /**
+     * Returns the level of detail requested for the objects composed in 
+     * this world, in the range {@code 0.0} (exclusive) to {@code 1.0}
+     * (full detail, the default).  Plots and renderers that compose large
+     * numbers of objects can use a lower value to create a reduced model 
+     * (for example, a draft version of a chart that is redrawn repeatedly 
+     * while the user rotates it).
+     * 
+     * @return The level of detail.
+     * 
+     * @since 1.7
+     */
+    public double getDetail() {
+        return this.detail;
+    }
+    
+    /**
+     * Sets the level of detail requested for the objects composed in this
+     * world.  This should be set before the objects are composed, it has no
+     * effect on objects that have already been added.
+     * 
+     * @param detail  the level of detail (greater than {@code 0.0} and not
+     *     greater than {@code 1.0}).
+     * 
+     * @since 1.7
+     */
+    public void setDetail(double detail) {
+        if (!(detail > 0.0 && detail <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 'detail' in the range (0.0, 1.0].");
+        }
+        this.detail = detail;
+    }
   
     /**
      * Returns the x-component of the sunlight vector.
@@ -161,6 +217,8 @@ public class World {
             this.objects.put(partition, list);
         }
         list.add(object);
+        this.xs = null;
+        this.faces = null;
     }
     
     /**
@@ -185,7 +243,9 @@ public class World {
      */
     public void clear(String partitionKey) {
         ArgChecks.nullNotPermitted(partitionKey, "partitionKey");
-        this.objects.put(partitionKey, null);
+        this.objects.put(partitionKey, new ArrayList<Object3D>());
+        this.xs = null;
+        this.faces = null;
     }
     
     /**
@@ -204,6 +264,37 @@ public class World {
         return count;
     }
 
+    /**
+     * Ensures that the packed vertex arrays are up-to-date.  The arrays are
+     * rebuilt if objects have been added or cleared, or if the vertex count
+     * has changed (vertices can be added to an object after it has been 
+     * added to the world).  This is synchronized since a world that is no 
+     * longer modified can be projected by several threads at once.
+     * 
+     * @return The vertex count.
+     */
+    synchronized int updateVertexArrays() {
+        int count = getVertexCount();
+        if (this.xs == null || this.xs.length != count) {
+            double[] x = new double[count];
+            double[] y = new double[count];
+            double[] z = new double[count];
+            int index = 0;
+            for (Entry<String, List<Object3D>> entry 
+                    : this.objects.entrySet()) {
+                List<Object3D> objs = entry.getValue();    
+                for (Object3D object : objs) {
+                    object.copyVertices(x, y, z, index);
+                    index += object.getVertexCount();
+                }
+            }
+            this.xs = x;
+            this.ys = y;
+            this.zs = z;
+        }
+        return count;
+    }
+    
     /**
      * Returns an array containing the vertices for all objects in this
      * world, transformed to eye coordinates.
@@ -213,15 +304,13 @@ public class World {
      * @return The eye coordinates.
      */
     public Point3D[] calculateEyeCoordinates(ViewPoint3D vp) {
-        Point3D[] result = new Point3D[getVertexCount()];
-        int index = 0;
-        for (Entry<String, List<Object3D>> entry : this.objects.entrySet()) {
-            List<Object3D> objs = entry.getValue();    
-            for (Object3D object : objs) {
-                Point3D[] vertices = object.calculateEyeCoordinates(vp);
-                System.arraycopy(vertices, 0, result, index, vertices.length);
-                index = index + vertices.length;
-            }
+        ArgChecks.nullNotPermitted(vp, "vp");
+        int count = updateVertexArrays();
+        Point3D[] result = new Point3D[count];
+        double[] eye = new double[3];
+        for (int i = 0; i < count; i++) {
+            vp.worldToEye(this.xs[i], this.ys[i], this.zs[i], eye);
+            result[i] = new Point3D(eye[0], eye[1], eye[2]);
         }
         return result;
     }
@@ -236,39 +325,135 @@ public class World {
      * @return The projected points.
      */
     public Point2D[] calculateProjectedPoints(ViewPoint3D vp, double d) {
-        Point2D[] result = new Point2D[getVertexCount()];
-        int index = 0;
-        for (Entry<String, List<Object3D>> entry : this.objects.entrySet()) {
-            List<Object3D> objs = entry.getValue();    
-            for (Object3D object : objs) {
-                Point2D[] pts = object.calculateProjectedPoints(vp, d);
-                System.arraycopy(pts, 0, result, index, pts.length);
-                index = index + pts.length;
-            }
+        ArgChecks.nullNotPermitted(vp, "vp");
+        int count = updateVertexArrays();
+        Point2D[] result = new Point2D[count];
+        double[] eye = new double[3];
+        for (int i = 0; i < count; i++) {
+            vp.worldToEye(this.xs[i], this.ys[i], this.zs[i], eye);
+            result[i] = new Point2D.Double(-d * eye[0] / eye[2], 
+                    -d * eye[1] / eye[2]);
         }
         return result;
     }
 
+    /**
+     * Transforms all the vertices in the world to eye coordinates and 
+     * projects them to 2D-space in a single pass, storing the results in 
+     * the supplied buffer.
+     * 
+     * @param vp  the view point ({@code null} not permitted).
+     * @param d  the projection distance.
+     * @param buffer  the buffer to reuse ({@code null} permitted, in which
+     *     case a new buffer is created).
+     * 
+     * @return The buffer containing the results (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public ProjectionBuffer project(ViewPoint3D vp, double d, 
+            ProjectionBuffer buffer) {
+        ArgChecks.nullNotPermitted(vp, "vp");
+        if (buffer == null) {
+            buffer = new ProjectionBuffer();
+        }
+        int count = updateVertexArrays();
+        buffer.project(this.xs, this.ys, this.zs, count, vp, d);
+        return buffer;
+    }
+    
+    /**
+     * Transforms and projects all the vertices in the world as for 
+     * {@link #project(ViewPoint3D, double, ProjectionBuffer)}, splitting the
+     * work across the threads of the supplied executor when the world 
+     * contains at least {@code threshold} vertices.  Smaller worlds (or a 
+     * {@code null} executor) use the sequential path.  The results are 
+     * identical either way.
+     * 
+     * @param vp  the view point ({@code null} not permitted).
+     * @param d  the projection distance.
+     * @param buffer  the buffer to reuse ({@code null} permitted).
+     * @param executor  the executor ({@code null} permitted).
+     * @param threshold  the minimum vertex count for parallel projection 
+     *     (this is also the minimum number of vertices per task).
+     * 
+     * @return The buffer containing the results (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public ProjectionBuffer project(ViewPoint3D vp, double d, 
+            ProjectionBuffer buffer, ExecutorService executor, 
+            int threshold) {
+        ArgChecks.nullNotPermitted(vp, "vp");
+        if (buffer == null) {
+            buffer = new ProjectionBuffer();
+        }
+        int count = updateVertexArrays();
+        if (executor == null || count < threshold) {
+            buffer.project(this.xs, this.ys, this.zs, count, vp, d);
+        } else {
+            buffer.project(this.xs, this.ys, this.zs, count, vp, d, executor,
+                    threshold);
+        }
+        return buffer;
+    }
+    
     /**
      * Fetches the faces for all the objects in this world, updating the
-     * offset to match the current position.
+     * offset to match the current position.  The list is cached and reused 
+     * until objects are added to or cleared from the world (or faces are 
+     * added to an object in the world), so it is returned as an unmodifiable
+     * list.
      *
      * @return A list of faces.
      */
     public List<Face> getFaces() {
-        List<Face> result = new java.util.ArrayList<Face>();
+        if (this.faces == null || checkFaceOffsets() != this.faces.size()) {
+            List<Face> result = new ArrayList<Face>();
+            int offset = 0;
+            for (Entry<String, List<Object3D>> entry 
+                    : this.objects.entrySet()) {
+                List<Object3D> objs = entry.getValue();    
+                for (Object3D object : objs) {
+                    for (Face f : object.getFaces()) {
+                        f.setOffset(offset);
+                    }
+                    offset += object.getVertexCount();
+                    result.addAll(object.getFaces());
+                }
+            }
+            this.faces = Collections.unmodifiableList(result);
+        }
+        return this.faces;
+    }
+    
+    /**
+     * Checks that the offsets for the faces of each object match the 
+     * object's current position in the world (they can be changed if an 
+     * object also belongs to another world), resetting them where necessary,
+     * and returns the total number of faces.  This does not allocate a new
+     * list.
+     * 
+     * @return The number of faces for all the objects in the world.
+     */
+    private int checkFaceOffsets() {
+        int count = 0;
         int offset = 0;
         for (Entry<String, List<Object3D>> entry : this.objects.entrySet()) {
             List<Object3D> objs = entry.getValue();    
             for (Object3D object : objs) {
-                for (Face f : object.getFaces()) {
-                    f.setOffset(offset);
+                List<Face> objFaces = object.getFaces();
+                int n = objFaces.size();
+                if (n > 0 && objFaces.get(0).getOffset() != offset) {
+                    for (int i = 0; i < n; i++) {
+                        objFaces.get(i).setOffset(offset);
+                    }
                 }
+                count += n;
                 offset += object.getVertexCount();
-                result.addAll(object.getFaces());
             }
         }
-        return result;
+        return count;
     }
     
     /**
@@ -0,0 +1,289 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A software rasterizer that scan-converts projected faces directly into the
+ * pixel array of a {@code BufferedImage}, using a z-buffer to resolve 
+ * visibility (so the faces do not need to be sorted).  The depth stored for 
+ * each pixel is {@code -1/z} (in eye coordinates), which varies linearly 
+ * across the projection of a planar face.
+ * <br><br>
+ * Opaque faces are written to both the color and depth buffers.  Translucent
+ * faces are blended over the pixels where they pass the depth test, but do 
+ * not update the depth buffer (so the result depends on the order that 
+ * overlapping translucent faces are filled in).
+ * <br><br>
+ * NOTE: this class is not thread-safe.
+ * 
+ * @since 1.7
+ */
+public final class ZBufferRasterizer {
+
+    /** The image that the faces are rasterized into. */
+    private final BufferedImage image;
+    
+    /** The pixels of the image (ARGB). */
+    private final int[] pixels;
+    
+    /** The depth buffer (0 is infinitely far from the eye). */
+    private final float[] depth;
+    
+    /** The image width. */
+    private final int width;
+    
+    /** The image height. */
+    private final int height;
+    
+    /** Working storage for the pixel coordinates of a face's vertices. */
+    private double[] px, py;
+
+    /** Working storage for the edge crossings on one scan line. */
+    private double[] crossings;
+    
+    /**
+     * Creates a new rasterizer with a transparent image of the specified 
+     * size.
+     * 
+     * @param width  the width in pixels (must be positive).
+     * @param height  the height in pixels (must be positive).
+     */
+    public ZBufferRasterizer(int width, int height) {
+        ArgChecks.positiveRequired(width, "width");
+        ArgChecks.positiveRequired(height, "height");
+        this.width = width;
+        this.height = height;
+        this.image = new BufferedImage(width, height, 
+                BufferedImage.TYPE_INT_ARGB);
+        this.pixels = ((DataBufferInt) this.image.getRaster()
+                .getDataBuffer()).getData();
+        this.depth = new float[width * height];
+        this.px = new double[8];
+        this.py = new double[8];
+        this.crossings = new double[8];
+    }
+    
+    /**
+     * Returns the width of the image.
+     * 
+     * @return The width in pixels.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+    
+    /**
+     * Returns the height of the image.
+     * 
+     * @return The height in pixels.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+    
+    /**
+     * Returns the image that the faces are rasterized into.  This is the 
+     * same instance for the lifetime of the rasterizer, it is overwritten 
+     * after a call to {@link #clear()}.
+     * 
+     * @return The image (never {@code null}). 
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+    
+    /**
+     * Returns the depth value ({@code -1/z}) at the specified pixel, or 
+     * {@code 0} if no opaque face has been rasterized at that pixel.
+     * 
+     * @param x  the x-coordinate of the pixel.
+     * @param y  the y-coordinate of the pixel.
+     * 
+     * @return The depth value.
+     */
+    public float getDepth(int x, int y) {
+        return this.depth[y * this.width + x];
+    }
+    
+    /**
+     * Clears the image (to transparent) and the depth buffer.
+     */
+    public void clear() {
+        Arrays.fill(this.pixels, 0);
+        Arrays.fill(this.depth, 0f);
+    }
+    
+    /**
+     * Fills the specified face with a solid color.  The screen coordinates 
+     * {@code (sx, sy)} from the projection buffer map to the pixel 
+     * coordinates {@code ((sx - originX) * scaleX, (sy - originY) * scaleY)}.
+     * Faces with fewer than three vertices, or with a vertex that is not in
+     * front of the eye, are ignored.
+     * 
+     * @param face  the face ({@code null} not permitted).
+     * @param projection  the projection buffer ({@code null} not permitted).
+     * @param argb  the color (in ARGB format, not premultiplied).
+     * @param originX  the screen x-coordinate for the left edge of the image.
+     * @param originY  the screen y-coordinate for the top edge of the image.
+     * @param scaleX  the number of pixels per unit in the x-direction.
+     * @param scaleY  the number of pixels per unit in the y-direction.
+     */
+    public void fillFace(Face face, ProjectionBuffer projection, int argb, 
+            double originX, double originY, double scaleX, double scaleY) {
+        int n = face.getVertexCount();
+        if (n < 3 || (argb >>> 24) == 0) {
+            return;
+        }
+        if (this.px.length < n) {
+            this.px = new double[n * 2];
+            this.py = new double[n * 2];
+            this.crossings = new double[n * 2];
+        }
+        double[] xs = this.px;
+        double[] ys = this.py;
+        double[] ez = projection.eyeZ;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            int i = face.getVertexIndex(v);
+            if (ez[i] >= 0.0) {
+                return;
+            }
+            xs[v] = (projection.screenX[i] - originX) * scaleX;
+            ys[v] = (projection.screenY[i] - originY) * scaleY;
+            minY = Math.min(minY, ys[v]);
+            maxY = Math.max(maxY, ys[v]);
+        }
+        
+        // the depth -1/z is an affine function of the pixel coordinates, 
+        // solve for it using the vertex 0 and the pair of consecutive 
+        // vertices that span the largest area (for numerical stability)
+        int b = 1;
+        double bestArea = 0.0;
+        for (int v = 1; v < n - 1; v++) {
+            double area = Math.abs((xs[v] - xs[0]) * (ys[v + 1] - ys[0]) 
+                    - (xs[v + 1] - xs[0]) * (ys[v] - ys[0]));
+            if (area > bestArea) {
+                bestArea = area;
+                b = v;
+            }
+        }
+        if (bestArea < 1e-9) {
+            return;  // the face is edge-on to the viewer
+        }
+        int c = b + 1;
+        double w0 = -1.0 / ez[face.getVertexIndex(0)];
+        double w1 = -1.0 / ez[face.getVertexIndex(b)];
+        double w2 = -1.0 / ez[face.getVertexIndex(c)];
+        double x1 = xs[b] - xs[0], y1 = ys[b] - ys[0];
+        double x2 = xs[c] - xs[0], y2 = ys[c] - ys[0];
+        double det = x1 * y2 - x2 * y1;
+        double dwdx = ((w1 - w0) * y2 - (w2 - w0) * y1) / det;
+        double dwdy = ((w2 - w0) * x1 - (w1 - w0) * x2) / det;
+        double wOrigin = w0 - dwdx * xs[0] - dwdy * ys[0];
+        
+        // scan lines pass through pixel centers
+        int yStart = Math.max(0, (int) Math.ceil(minY - 0.5));
+        int yEnd = Math.min(this.height - 1, (int) Math.ceil(maxY - 0.5) - 1);
+        double[] xc = this.crossings;
+        for (int y = yStart; y <= yEnd; y++) {
+            double yc = y + 0.5;
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                int u = (v + 1 == n) ? 0 : v + 1;
+                double ya = ys[v];
+                double yb = ys[u];
+                if ((ya <= yc && yc < yb) || (yb <= yc && yc < ya)) {
+                    double xCross = xs[v] + (yc - ya) * (xs[u] - xs[v]) 
+                            / (yb - ya);
+                    // insertion sort, there are very few crossings
+                    int k = count++;
+                    while (k > 0 && xc[k - 1] > xCross) {
+                        xc[k] = xc[k - 1];
+                        k--;
+                    }
+                    xc[k] = xCross;
+                }
+            }
+            int row = y * this.width;
+            for (int k = 0; k + 1 < count; k += 2) {
+                int xStart = Math.max(0, (int) Math.ceil(xc[k] - 0.5));
+                int xEnd = Math.min(this.width - 1, 
+                        (int) Math.ceil(xc[k + 1] - 0.5) - 1);
+                double w = wOrigin + dwdx * (xStart + 0.5) + dwdy * yc;
+                for (int x = xStart; x <= xEnd; x++) {
+                    int i = row + x;
+                    if (w > this.depth[i]) {
+                        if ((argb >>> 24) == 0xFF) {
+                            this.depth[i] = (float) w;
+                            this.pixels[i] = argb;
+                        } else {
+                            this.pixels[i] = blend(argb, this.pixels[i]);
+                        }
+                    }
+                    w += dwdx;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Composites a (non-premultiplied) source color over a destination 
+     * color.
+     * 
+     * @param src  the source color (ARGB).
+     * @param dst  the destination color (ARGB).
+     * 
+     * @return The resulting color (ARGB).
+     */
+    private static int blend(int src, int dst) {
+        int sa = src >>> 24;
+        int da = dst >>> 24;
+        int a = sa + da * (255 - sa) / 255;
+        if (a == 0) {
+            return 0;
+        }
+        int dw = da * (255 - sa) / 255;
+        int r = (((src >> 16) & 0xFF) * sa + ((dst >> 16) & 0xFF) * dw) / a;
+        int g = (((src >> 8) & 0xFF) * sa + ((dst >> 8) & 0xFF) * dw) / a;
+        int b = ((src & 0xFF) * sa + (dst & 0xFF) * dw) / a;
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+}
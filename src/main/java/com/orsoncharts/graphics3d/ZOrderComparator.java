@@ -33,6 +33,7 @@
 package com.orsoncharts.graphics3d;
 
 import java.util.Comparator;
+import com.orsoncharts.util.ArgChecks;
 
 /**
  * A comparator that orders {@link Face} instances by Z-order.
@@ -41,6 +42,9 @@ public class ZOrderComparator implements Comparator<Face> {
 
     Point3D[] pts;
     
+    /** The projection buffer (used instead of {@code pts} if not null). */
+    ProjectionBuffer projection;
+    
     /**
      * Creates a new comparator.
      * 
@@ -50,13 +54,32 @@ public class ZOrderComparator implements Comparator<Face> {
         this.pts = pts;
     }
     
+    /**
+     * Creates a new comparator that reads the eye coordinates from a 
+     * projection buffer.
+     * 
+     * @param projection  the projection buffer ({@code null} not permitted).
+     * 
+     * @since 1.7
+     */
+    public ZOrderComparator(ProjectionBuffer projection) {
+        ArgChecks.nullNotPermitted(projection, "projection");
+        this.projection = projection;
+    }
+    
     /* (non-Javadoc)
      * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
      */
     @Override
     public int compare(Face f1, Face f2) {
-        double z1 = f1.calculateAverageZValue(this.pts);
-        double z2 = f2.calculateAverageZValue(this.pts);
+        double z1, z2;
+        if (this.projection != null) {
+            z1 = f1.calculateAverageZValue(this.projection);
+            z2 = f2.calculateAverageZValue(this.projection);
+        } else {
+            z1 = f1.calculateAverageZValue(this.pts);
+            z2 = f2.calculateAverageZValue(this.pts);
+        }
         if (z1 > z2) {
             return 1;
         } else if (z2 > z1) {
@@ -234,11 +234,9 @@ public class DisplayPanel3D extends JPanel implements MouseListener {
                         exportSubMenu.add(pdfItem);
                     }
                 } else if (f.equals(ExportFormat.SVG)) {
-                    if (ExportFormats.isJFreeSVGAvailable()) {
-                        JMenuItem svgItem = new JMenuItem(new ExportToSVGAction(
-                                this.content));
-                        exportSubMenu.add(svgItem);
-                    }
+                    JMenuItem svgItem = new JMenuItem(new ExportToSVGAction(
+                            this.content));
+                    exportSubMenu.add(svgItem);
                 }
             }
             if (exportSubMenu.getItemCount() > 0) {
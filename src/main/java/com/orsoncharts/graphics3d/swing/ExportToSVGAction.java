@@ -44,7 +44,7 @@ import com.orsoncharts.util.ArgChecks;
 
 /**
  * An action that handles saving the content of a panel to a Scalable Vector
- * Graphics (SVG) file using JFreeSVG.
+ * Graphics (SVG) file (using the built-in streaming SVG writer).
  * <br><br>
  * NOTE: This class is serializable, but the serialization format is subject 
  * to change in future releases and should not be relied upon for persisting 
@@ -69,7 +69,7 @@ public class ExportToSVGAction extends AbstractAction {
     }
 
     /**
-     * Writes the content of the panel to an SVG file, using JFreeSVG.
+     * Writes the content of the panel to an SVG file.
      * 
      * @param e  the event. 
      */
@@ -32,6 +32,7 @@
 
 package com.orsoncharts.graphics3d.swing;
 
+import java.awt.AlphaComposite;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.Graphics;
@@ -39,6 +40,8 @@ import java.awt.Graphics2D;
 import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.geom.AffineTransform;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
@@ -46,9 +49,18 @@ import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
 import java.awt.geom.Dimension2D;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.ToolTipManager;
 
 import com.orsoncharts.util.ArgChecks;
@@ -57,7 +69,10 @@ import com.orsoncharts.graphics3d.Offset2D;
 import com.orsoncharts.graphics3d.ViewPoint3D;
 import com.orsoncharts.graphics3d.Dimension3D;
 import com.orsoncharts.graphics3d.ExportUtils;
+import com.orsoncharts.graphics3d.PreparableDrawable3D;
+import com.orsoncharts.graphics3d.PreparedFrame;
 import com.orsoncharts.graphics3d.RenderingInfo;
+import com.orsoncharts.graphics3d.SceneCapture;
 
 /**
  * A panel that displays a set of 3D objects from a particular viewing point.
@@ -119,6 +134,78 @@ public class Panel3D extends JPanel implements MouseListener,
     
     private RenderingInfo renderingInfo;
     
+    /** 
+     * A flag that controls whether the content is rendered on a background
+     * thread (see {@link #setAsyncRendering(boolean)}).
+     */
+    private boolean asyncRendering;
+    
+    /** The single thread that renders frames in asynchronous mode. */
+    private transient ExecutorService renderExecutor;
+    
+    /** 
+     * The frame being rendered by the render thread ({@code null} if there
+     * is none).
+     */
+    private transient Future<?> pendingRender;
+    
+    /** 
+     * The generation of the render thread, incremented whenever a frame is
+     * cancelled (because it is superseded, or asynchronous rendering is 
+     * switched off), so that a frame that completes afterwards is not 
+     * displayed.  This is only accessed on the event dispatch thread.
+     */
+    private transient int renderGeneration;
+    
+    /** 
+     * A flag that is set whenever a repaint is requested by anything other
+     * than the completion of a background render, meaning that the last
+     * completed frame may be out of date. 
+     */
+    private transient boolean renderRequired = true;
+    
+    /** Set while a completed frame is being scheduled for display. */
+    private transient boolean blitting;
+    
+    /** The width (in pixels) of the frame last requested. */
+    private transient int requestedWidth;
+    
+    /** The height (in pixels) of the frame last requested. */
+    private transient int requestedHeight;
+    
+    /** The most recently completed frame (front buffer). */
+    private transient BufferedImage frontImage;
+    
+    /** The x-scale of the device transform for the front buffer. */
+    private transient double frontScaleX;
+    
+    /** The y-scale of the device transform for the front buffer. */
+    private transient double frontScaleY;
+    
+    /** An image that can be reused as the back buffer for the next frame. */
+    private transient BufferedImage spareImage;
+    
+    /** 
+     * A flag that controls whether draft frames are rendered while the user
+     * drags or zooms with the mouse.
+     */
+    private boolean draftRendering;
+    
+    /** The level of detail for draft frames. */
+    private double draftDetail;
+    
+    /** 
+     * The delay (in milliseconds) after the last mouse interaction before 
+     * a full detail frame is rendered.
+     */
+    private int refineDelay;
+    
+    /** A flag that is set while the user is interacting with the panel. */
+    private transient boolean interacting;
+    
+    /** The timer that ends the interaction (created on demand). */
+    private transient Timer refineTimer;
+    
     /**
      * Creates a new panel with the specified {@link Drawable3D} to
      * display.
@@ -137,6 +224,8 @@ public class Panel3D extends JPanel implements MouseListener,
         this.panIncrement = Math.PI / 60;
         this.rotateIncrement = Math.PI / 60;
         this.rollIncrement = Math.PI / 60;
+        this.draftDetail = 0.25;
+        this.refineDelay = 250;
         addMouseListener(this);
         addMouseMotionListener(this);
         addMouseWheelListener(this);
@@ -309,6 +398,199 @@ public class Panel3D extends JPanel implements MouseListener,
         return this.renderingInfo;
     }
     
+    /**
+     * Returns the flag that controls whether the content of the panel is 
+     * rendered on a background thread.  The default value is {@code false}.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean getAsyncRendering() {
+        return this.asyncRendering;
+    }
+    
+    /**
+     * Sets the flag that controls whether the content of the panel is 
+     * rendered on a background thread, and repaints the panel.  In 
+     * asynchronous mode the state of a {@link PreparableDrawable3D} is 
+     * captured on the event dispatch thread for each frame (see 
+     * {@link PreparableDrawable3D#captureScene(Graphics2D, double)}), then 
+     * a single worker thread prepares the frame from the capture (the 3D 
+     * model is projected and sorted, and the legend and title are measured)
+     * and paints it into an off-screen image, while the event dispatch 
+     * thread paints the most recently completed image, so that the user 
+     * interface remains responsive while large worlds are rendered.  
+     * Whenever the panel is repainted because the view point or content 
+     * has changed, the frame in progress is cancelled (a frame that has 
+     * already started is not displayed) and a new frame is captured.
+     * <br><br>
+     * The worker thread only reads the capture, never the drawable, so the
+     * drawable can be changed (or drawn elsewhere) on the event dispatch 
+     * thread at any time.  Other drawables are drawn entirely on the worker
+     * thread, and must not be changed while a frame is being drawn.  An 
+     * exception thrown on the worker thread is rethrown on the event 
+     * dispatch thread.  Changes made from other threads are not supported, 
+     * as for other Swing components.
+     * 
+     * @param async  the new flag value.
+     * 
+     * @since 1.7
+     */
+    public void setAsyncRendering(boolean async) {
+        if (this.asyncRendering == async) {
+            return;
+        }
+        this.asyncRendering = async;
+        if (!async) {
+            cancelRender();
+            if (this.renderExecutor != null) {
+                this.renderExecutor.shutdown();
+                this.renderExecutor = null;
+            }
+            this.frontImage = null;
+            this.spareImage = null;
+        }
+        repaint();
+    }
+    
+    /**
+     * Returns the flag that controls whether draft frames are rendered while
+     * the user rotates or zooms the view with the mouse.  The default value 
+     * is {@code false}.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean getDraftRendering() {
+        return this.draftRendering;
+    }
+    
+    /**
+     * Sets the flag that controls whether draft frames are rendered while
+     * the user rotates or zooms the view with the mouse.  Draft frames are
+     * prepared with a reduced level of detail (see 
+     * {@link #getDraftDetail()}), which keeps the interaction responsive for
+     * charts with a large number of objects, and a full detail frame is
+     * rendered when there has been no mouse interaction for a short time
+     * (see {@link #getRefineDelay()}).  This only has an effect when the 
+     * drawable is an instance of {@link PreparableDrawable3D}.
+     * 
+     * @param draft  the new flag value.
+     * 
+     * @since 1.7
+     */
+    public void setDraftRendering(boolean draft) {
+        this.draftRendering = draft;
+        if (!draft && this.interacting) {
+            endInteraction();
+        }
+    }
+    
+    /**
+     * Returns the level of detail for draft frames.  The default value is
+     * {@code 0.25}.
+     * 
+     * @return The level of detail.
+     * 
+     * @since 1.7
+     */
+    public double getDraftDetail() {
+        return this.draftDetail;
+    }
+    
+    /**
+     * Sets the level of detail for draft frames.
+     * 
+     * @param detail  the level of detail (greater than {@code 0.0} and not
+     *     greater than {@code 1.0}).
+     * 
+     * @since 1.7
+     */
+    public void setDraftDetail(double detail) {
+        if (!(detail > 0.0 && detail <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 'detail' in the range (0.0, 1.0].");
+        }
+        this.draftDetail = detail;
+    }
+    
+    /**
+     * Returns the delay (in milliseconds) after the last mouse interaction
+     * before a full detail frame is rendered.  The default value is 
+     * {@code 250}.
+     * 
+     * @return The delay (in milliseconds).
+     * 
+     * @since 1.7
+     */
+    public int getRefineDelay() {
+        return this.refineDelay;
+    }
+    
+    /**
+     * Sets the delay (in milliseconds) after the last mouse interaction 
+     * before a full detail frame is rendered.
+     * 
+     * @param delay  the delay (in milliseconds, must be zero or positive).
+     * 
+     * @since 1.7
+     */
+    public void setRefineDelay(int delay) {
+        ArgChecks.negativeNotPermitted(delay, "delay");
+        this.refineDelay = delay;
+    }
+    
+    /**
+     * Returns {@code true} if the panel is currently rendering draft frames
+     * (because the user is interacting with it), and {@code false} 
+     * otherwise.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean isInteracting() {
+        return this.interacting;
+    }
+    
+    /**
+     * Records a mouse interaction.  If draft rendering is enabled, the panel 
+     * renders draft frames until the refine delay has passed without 
+     * another interaction.
+     */
+    private void startInteraction() {
+        if (!this.draftRendering 
+                || !(this.drawable instanceof PreparableDrawable3D)) {
+            return;
+        }
+        this.interacting = true;
+        if (this.refineTimer == null) {
+            this.refineTimer = new Timer(this.refineDelay, 
+                    new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    endInteraction();
+                }
+            });
+            this.refineTimer.setRepeats(false);
+        }
+        this.refineTimer.setInitialDelay(this.refineDelay);
+        this.refineTimer.restart();
+    }
+    
+    /**
+     * Ends the current interaction and repaints the panel at full detail.
+     */
+    private void endInteraction() {
+        if (this.refineTimer != null) {
+            this.refineTimer.stop();
+        }
+        this.interacting = false;
+        repaint();
+    }
+    
     /**
      * Rotates the view point around from left to right by the specified
      * angle and repaints the 3D scene.  The direction relative to the
@@ -365,9 +647,259 @@ public class Panel3D extends JPanel implements MouseListener,
         Rectangle drawArea = new Rectangle(insets.left, insets.top, 
                 size.width - insets.left - insets.right, 
                 size.height - insets.top - insets.bottom);
-        this.renderingInfo = this.drawable.draw(g2, drawArea);
+        if (this.asyncRendering) {
+            paintAsync(g2, drawArea);
+        } else if (this.interacting) {
+            this.renderingInfo = render(g2, drawArea, this.draftDetail);
+        } else {
+            this.renderingInfo = this.drawable.draw(g2, drawArea);
+        }
         g2.setTransform(saved);
     }
+    
+    /**
+     * Marks the current frame as out of date (in asynchronous mode), and 
+     * cancels the frame that is being rendered (if any), before requesting 
+     * the repaint.
+     * 
+     * @param tm  the maximum time in milliseconds before the update.
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * @param width  the width.
+     * @param height  the height.
+     */
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+        if (!this.blitting) {
+            this.renderRequired = true;
+            // the frame being rendered is superseded (changes are only 
+            // made on the event dispatch thread)
+            if (SwingUtilities.isEventDispatchThread() 
+                    && this.pendingRender != null) {
+                cancelRender();
+            }
+        }
+        super.repaint(tm, x, y, width, height);
+    }
+    
+    /**
+     * Paints the most recently completed frame and, if the content has 
+     * changed since the last frame was requested and no frame is being 
+     * rendered, submits a new frame to the render thread.  A frame that is
+     * being rendered for a different size is cancelled.  The frame is 
+     * rendered at the resolution of the device (so that it is not blurred 
+     * on high resolution displays).
+     * 
+     * @param g2  the graphics target.
+     * @param drawArea  the area for the drawable.
+     */
+    private void paintAsync(Graphics2D g2, Rectangle drawArea) {
+        AffineTransform t = g2.getTransform();
+        double scaleX = 1.0;
+        double scaleY = 1.0;
+        if (t.getShearX() == 0.0 && t.getShearY() == 0.0 
+                && t.getScaleX() > 0.0 && t.getScaleY() > 0.0) {
+            scaleX = t.getScaleX();
+            scaleY = t.getScaleY();
+        }
+        Dimension size = getSize();
+        int w = (int) Math.ceil(size.width * scaleX);
+        int h = (int) Math.ceil(size.height * scaleY);
+        if (this.pendingRender != null && (w != this.requestedWidth 
+                || h != this.requestedHeight)) {
+            cancelRender();
+        }
+        if (w > 0 && h > 0 && this.pendingRender == null 
+                && (this.renderRequired 
+                || w != this.requestedWidth || h != this.requestedHeight)) {
+            submitRender(drawArea, w, h, scaleX, scaleY, 
+                    this.interacting ? this.draftDetail : 1.0);
+        }
+        if (this.frontImage != null) {
+            g2.scale(1.0 / this.frontScaleX, 1.0 / this.frontScaleY);
+            g2.drawImage(this.frontImage, 0, 0, null);
+        }
+    }
+    
+    /**
+     * Captures the state of the drawable for a new frame and submits the 
+     * frame to the render thread, which prepares and paints it.  This 
+     * method is called on the event dispatch thread, so the drawable is 
+     * only updated (and its data only read) on this thread.
+     * 
+     * @param drawArea  the area for the drawable (in user space).
+     * @param w  the image width (in pixels).
+     * @param h  the image height (in pixels).
+     * @param scaleX  the x-scale from user space to pixels.
+     * @param scaleY  the y-scale from user space to pixels.
+     * @param detail  the level of detail.
+     */
+    private void submitRender(Rectangle drawArea, final int w, final int h,
+            final double scaleX, final double scaleY, final double detail) {
+        this.renderRequired = false;
+        this.requestedWidth = w;
+        this.requestedHeight = h;
+        final int generation = this.renderGeneration;
+        final Rectangle area = new Rectangle(drawArea);
+        BufferedImage spare = this.spareImage;
+        this.spareImage = null;
+        if (spare == null || spare.getWidth() != w 
+                || spare.getHeight() != h) {
+            spare = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        }
+        final BufferedImage target = spare;
+        final SceneCapture capture;
+        if (this.drawable instanceof PreparableDrawable3D) {
+            // the tick labels are measured with the transform for the image
+            Graphics2D g2 = target.createGraphics();
+            try {
+                g2.scale(scaleX, scaleY);
+                capture = ((PreparableDrawable3D) this.drawable).captureScene(
+                        g2, detail);
+            } finally {
+                g2.dispose();
+            }
+        } else {
+            capture = null;
+        }
+        if (this.renderExecutor == null) {
+            this.renderExecutor = createRenderExecutor();
+        }
+        this.pendingRender = this.renderExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                RenderingInfo info = null;
+                Throwable failure = null;
+                Graphics2D g2 = target.createGraphics();
+                try {
+                    g2.setComposite(AlphaComposite.Clear);
+                    g2.fillRect(0, 0, w, h);
+                    g2.setComposite(AlphaComposite.SrcOver);
+                    g2.scale(scaleX, scaleY);
+                    if (capture != null) {
+                        PreparedFrame frame = capture.prepareFrame(g2, area);
+                        // skip the painting if the frame has been cancelled
+                        if (!Thread.interrupted()) {
+                            info = frame.draw(g2);
+                        }
+                    } else {
+                        info = drawable.draw(g2, area);
+                    }
+                } catch (RuntimeException e) {
+                    failure = e;
+                } catch (Error e) {
+                    failure = e;
+                } finally {
+                    g2.dispose();
+                }
+                final RenderingInfo result = info;
+                final Throwable error = failure;
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        frameCompleted(generation, target, result, error, 
+                                scaleX, scaleY);
+                    }
+                });
+            }
+        });
+    }
+    
+    /**
+     * Renders the drawable via a prepared frame (when the drawable supports
+     * this) at the specified level of detail.
+     * 
+     * @param g2  the graphics target.
+     * @param area  the drawing area.
+     * @param detail  the level of detail.
+     * 
+     * @return The rendering info. 
+     */
+    private RenderingInfo render(Graphics2D g2, Rectangle area, 
+            double detail) {
+        if (this.drawable instanceof PreparableDrawable3D) {
+            return ((PreparableDrawable3D) this.drawable).prepareFrame(g2, 
+                    area, detail).draw(g2);
+        }
+        return this.drawable.draw(g2, area);
+    }
+
+    /**
+     * Called on the event dispatch thread when a frame has been painted. 
+     * The frame is displayed (and the previous front buffer is kept for 
+     * reuse as the next back buffer), then the panel is repainted, which 
+     * submits the next frame if the content has changed in the meantime.
+     * 
+     * @param generation  the generation of the frame.
+     * @param image  the image.
+     * @param info  the rendering info for the frame.
+     * @param failure  the exception thrown while painting the frame 
+     *     ({@code null} if the frame was painted).
+     * @param scaleX  the x-scale from user space to pixels.
+     * @param scaleY  the y-scale from user space to pixels.
+     */
+    private void frameCompleted(int generation, BufferedImage image, 
+            RenderingInfo info, Throwable failure, double scaleX, 
+            double scaleY) {
+        if (generation != this.renderGeneration || !this.asyncRendering) {
+            this.spareImage = image;
+            return;
+        }
+        this.pendingRender = null;
+        if (failure != null) {
+            this.spareImage = image;
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (RuntimeException) failure;
+        }
+        this.spareImage = this.frontImage;
+        this.frontImage = image;
+        this.frontScaleX = scaleX;
+        this.frontScaleY = scaleY;
+        this.renderingInfo = info;
+        this.blitting = true;
+        try {
+            repaint();
+        } finally {
+            this.blitting = false;
+        }
+    }
+    
+    /**
+     * Cancels the frame that is being rendered (if any).  A frame that has 
+     * already started is not painted if it is still being prepared, and 
+     * will not be displayed.
+     */
+    private void cancelRender() {
+        this.renderGeneration++;
+        if (this.pendingRender != null) {
+            this.pendingRender.cancel(true);
+            this.pendingRender = null;
+        }
+    }
+    
+    /**
+     * Creates the executor for the render thread.  The thread is a daemon
+     * thread, and it terminates when idle so that panels that are no longer
+     * displayed do not keep a thread alive.
+     * 
+     * @return The executor. 
+     */
+    private static ExecutorService createRenderExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1L, 
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), 
+                new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Panel3D-render");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
   
     /**
      * Registers this component with the tool tip manager.
@@ -434,6 +966,7 @@ public class Panel3D extends JPanel implements MouseListener,
      */
     @Override
     public void mouseDragged(MouseEvent e) {
+        startInteraction();
         if (e.isAltDown()) {
             Point currPt = e.getPoint();
             Offset2D offset = this.offsetAtMousePressed;
@@ -468,6 +1001,7 @@ public class Panel3D extends JPanel implements MouseListener,
      */
     @Override
     public void mouseWheelMoved(MouseWheelEvent mwe) {
+        startInteraction();
         float units = mwe.getUnitsToScroll();
         double maxViewingDistance = this.maxViewingDistanceMultiplier 
                 * this.minViewingDistance;
@@ -495,10 +1029,8 @@ public class Panel3D extends JPanel implements MouseListener,
     }
        
     /**
-     * Writes the current content to the specified file in SVG format.  This 
-     * will only work when the JFreeSVG library is found on the classpath.
-     * Reflection is used to ensure there is no compile-time dependency on
-     * JFreeSVG.
+     * Writes the current content to the specified file in SVG format (using
+     * the built-in streaming SVG writer).
      * 
      * @param file  the output file ({@code null} not permitted).
      * @param w  the chart width.
@@ -41,6 +41,8 @@ import javax.swing.event.EventListenerList;
 import com.orsoncharts.data.Dataset3DChangeEvent;
 import com.orsoncharts.data.Dataset3DChangeListener;
 import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.Object3D;
+import com.orsoncharts.graphics3d.World;
 import com.orsoncharts.Chart3D;
 import com.orsoncharts.ChartElementVisitor;
 import com.orsoncharts.data.ItemKey;
@@ -291,6 +293,44 @@ public abstract class AbstractPlot3D implements Plot3D,
         notifyListeners(new Plot3DChangeEvent(event, this, true));
     }
     
+    /**
+     * Returns the key for the world partition that holds the objects for 
+     * a series.  The keys sort in series order (and after the default 
+     * partition) so that the objects in the world are in the same order as
+     * when all series are composed into a single partition.
+     * 
+     * @param seriesIndex  the series index.
+     * 
+     * @return The partition key.
+     * 
+     * @since 1.7
+     */
+    protected static String seriesPartitionKey(int seriesIndex) {
+        StringBuilder sb = new StringBuilder("series-");
+        String index = Integer.toString(seriesIndex);
+        for (int i = index.length(); i < 10; i++) {
+            sb.append('0');
+        }
+        return sb.append(index).toString();
+    }
+    
+    /**
+     * Adds all the objects in {@code source} to the specified partition in 
+     * {@code target}.
+     * 
+     * @param source  the source world ({@code null} not permitted).
+     * @param target  the target world ({@code null} not permitted).
+     * @param partition  the partition key ({@code null} not permitted).
+     * 
+     * @since 1.7
+     */
+    protected static void addToPartition(World source, World target, 
+            String partition) {
+        for (Object3D obj : source.getObjects()) {
+            target.add(partition, obj);
+        }
+    }
+    
     /**
      * Provides serialization support.
      *
@@ -45,6 +45,7 @@ import java.util.List;
 
 import com.orsoncharts.Chart3D;
 import com.orsoncharts.ChartElementVisitor;
+import com.orsoncharts.Range;
 import com.orsoncharts.axis.Axis3DChangeEvent;
 import com.orsoncharts.axis.Axis3DChangeListener;
 import com.orsoncharts.axis.CategoryAxis3D;
@@ -64,6 +65,7 @@ import com.orsoncharts.legend.StandardLegendItemInfo;
 import com.orsoncharts.renderer.Renderer3DChangeEvent;
 import com.orsoncharts.renderer.Renderer3DChangeListener;
 import com.orsoncharts.renderer.category.CategoryRenderer3D;
+import com.orsoncharts.renderer.category.StackedBarRenderer3D;
 import com.orsoncharts.util.ArgChecks;
 import com.orsoncharts.util.ObjectUtils;
 import com.orsoncharts.util.SerialUtils;
@@ -675,14 +677,68 @@ public class CategoryPlot3D extends AbstractPlot3D
     public void compose(World world, double xOffset, double yOffset, 
             double zOffset) {
         for (int series = 0; series < this.dataset.getSeriesCount(); series++) {
-            for (int row = 0; row < this.dataset.getRowCount(); row++) {
-                for (int column = 0; column < this.dataset.getColumnCount(); 
-                        column++) {
-                    this.renderer.composeItem(this.dataset, series, row, column,
-                            world, getDimensions(), xOffset, yOffset, zOffset);
-                }
+            composeSeries(world, series, xOffset, yOffset, zOffset);
+        }
+    }
+    
+    /**
+     * Replaces the objects for one series in the world with objects 
+     * representing the current data for that series.  This is only possible
+     * if the world was composed by this plot, the series exists in the 
+     * dataset and the objects for the series do not depend on the values in
+     * other series (this is not the case for a {@link StackedBarRenderer3D}),
+     * otherwise the method returns {@code false} and the caller should 
+     * compose the whole world again.
+     * 
+     * @param world  the world ({@code null} not permitted).
+     * @param seriesKey  the series key ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * 
+     * @return A boolean indicating whether or not the series was updated.
+     * 
+     * @since 1.7
+     */
+    @SuppressWarnings("unchecked")
+    public boolean composeSeries(World world, Comparable<?> seriesKey, 
+            double xOffset, double yOffset, double zOffset) {
+        ArgChecks.nullNotPermitted(world, "world");
+        ArgChecks.nullNotPermitted(seriesKey, "seriesKey");
+        if (this.renderer instanceof StackedBarRenderer3D) {
+            return false;
+        }
+        int series = this.dataset.getSeriesIndex((Comparable) seriesKey);
+        if (series < 0) {
+            return false;
+        }
+        world.clear(seriesPartitionKey(series));
+        composeSeries(world, series, xOffset, yOffset, zOffset);
+        return true;
+    }
+    
+    /**
+     * Composes the items for one series into the partition for that series.
+     * 
+     * @param world  the world.
+     * @param series  the series index.
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     */
+    private void composeSeries(World world, int series, double xOffset, 
+            double yOffset, double zOffset) {
+        World seriesWorld = new World();
+        seriesWorld.setDetail(world.getDetail());
+        for (int row = 0; row < this.dataset.getRowCount(); row++) {
+            for (int column = 0; column < this.dataset.getColumnCount(); 
+                    column++) {
+                this.renderer.composeItem(this.dataset, series, row, column,
+                        seriesWorld, getDimensions(), xOffset, yOffset, 
+                        zOffset);
             }
         }
+        addToPartition(seriesWorld, world, seriesPartitionKey(series));
     }
     
     @Override
@@ -787,6 +843,8 @@ public class CategoryPlot3D extends AbstractPlot3D
      */
     @Override
     public void datasetChanged(Dataset3DChangeEvent event) {
+        Dimension3D dims = this.dimensions;
+        Range valueRange = this.valueAxis.getRange();
         // update the category axis labels 
         // and the value axis range
         if (this.autoAdjustDimensions) {
@@ -795,7 +853,16 @@ public class CategoryPlot3D extends AbstractPlot3D
         this.columnAxis.configureAsColumnAxis(this);
         this.rowAxis.configureAsRowAxis(this);
         this.valueAxis.configureAsValueAxis(this);
-        super.datasetChanged(event);  // propagates a plot change event
+        if (event.getSeriesKey() != null 
+                && !(this.renderer instanceof StackedBarRenderer3D)
+                && dims.equals(this.dimensions) 
+                && valueRange.equals(this.valueAxis.getRange())) {
+            // only the objects for one series need updating in the world
+            notifyListeners(new Plot3DChangeEvent(event, this, true, 
+                    event.getSeriesKey()));
+        } else {
+            super.datasetChanged(event);  // propagates a plot change event
+        }
     }
     
     /**
@@ -433,6 +433,11 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
             double zOffset) {
         double total = DataUtils.total(this.dataset);
         double r = 0.0;
+        int segmentCount = this.segments;
+        if (world.getDetail() < 1.0) {
+            segmentCount = Math.max(Math.min(segmentCount, 8), 
+                    (int) Math.ceil(segmentCount * world.getDetail()));
+        }
         int count = this.dataset.getItemCount();
         for (int i = 0; i < count; i++) {
             Comparable<?> key = this.dataset.getKey(i);
@@ -443,7 +448,7 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
                         this.dataset.getKey(i));
                 Object3D segment = Object3D.createPieSegment(this.radius, 0.0, 
                         yOffset, this.depth, r, r + angle, 
-                        Math.PI / this.segments, c);
+                        Math.PI / segmentCount, c);
                 segment.setProperty(Object3D.ITEM_KEY, 
                         new KeyedValuesItemKey(key));
                 world.add(segment);
@@ -57,6 +57,12 @@ public class Plot3DChangeEvent extends EventObject {
     
     /** Does the plot change require the world to be updated? */
     private boolean requiresWorldUpdate;
+    
+    /** 
+     * The key for the series that requires updating in the world, or 
+     * {@code null} if the whole world requires updating.
+     */
+    private Comparable<?> seriesKey;
   
     /**
      * Creates a new event.  The {@code source} of the event can be
@@ -70,10 +76,31 @@ public class Plot3DChangeEvent extends EventObject {
      */
     public Plot3DChangeEvent(Object source, Plot3D plot, 
             boolean requiresWorldUpdate) {
+        this(source, plot, requiresWorldUpdate, null);
+    }
+    
+    /**
+     * Creates a new event for a change that requires the objects for one 
+     * series only to be updated in the world (the chart can then recompose
+     * the series in place, rather than discarding the whole world).
+     * 
+     * @param source  the event source ({@code null} not permitted).
+     * @param plot  the plot ({@code null} not permitted).
+     * @param requiresWorldUpdate  a flag that indicates whether or not the 
+     *     world requires updating because of this change.
+     * @param seriesKey  the key for the series that requires updating 
+     *     ({@code null} permitted, meaning the whole world requires 
+     *     updating).
+     * 
+     * @since 1.7
+     */
+    public Plot3DChangeEvent(Object source, Plot3D plot, 
+            boolean requiresWorldUpdate, Comparable<?> seriesKey) {
         super(source);
         ArgChecks.nullNotPermitted(plot, "plot");
         this.plot = plot;
         this.requiresWorldUpdate = requiresWorldUpdate;
+        this.seriesKey = seriesKey;
     }
  
     /**
@@ -97,4 +124,17 @@ public class Plot3DChangeEvent extends EventObject {
         return this.requiresWorldUpdate;
     }
     
+    /**
+     * Returns the key for the series that requires updating in the world,
+     * or {@code null} if the whole world requires updating (when
+     * {@link #requiresWorldUpdate()} returns {@code true}).
+     * 
+     * @return The series key (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Comparable<?> getSeriesKey() {
+        return this.seriesKey;
+    }
+    
 }
@@ -44,6 +44,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.orsoncharts.ChartElementVisitor;
+import com.orsoncharts.Range;
 import com.orsoncharts.axis.Axis3DChangeEvent;
 import com.orsoncharts.axis.Axis3DChangeListener;
 import com.orsoncharts.axis.ValueAxis3D;
@@ -551,7 +552,11 @@ public class XYZPlot extends AbstractPlot3D implements Dataset3DChangeListener,
     /**
      * Adds 3D objects representing the current data for the plot to the 
      * specified world.  After the world has been populated (or constructed) in
-     * this way, it is ready for rendering.
+     * this way, it is ready for rendering.  When the renderer composes items
+     * one at a time, the objects for each series are placed in a separate 
+     * partition of the world, so that a single series can be updated later
+     * by calling {@link #composeSeries(World, Comparable, double, double, 
+     * double)}.
      * 
      * @param world  the world ({@code null} not permitted).
      * @param xOffset  the x-offset.
@@ -570,11 +575,7 @@ public class XYZPlot extends AbstractPlot3D implements Dataset3DChangeListener,
             // subset of the world, and if so add the object
             int seriesCount = this.dataset.getSeriesCount();
             for (int series = 0; series < seriesCount; series++) {
-                int itemCount = this.dataset.getItemCount(series);
-                for (int item = 0; item < itemCount; item++) {
-                    this.renderer.composeItem(this.dataset, series, item, world, 
-                            this.dimensions, xOffset, yOffset, zOffset);
-                }
+                composeSeries(world, series, xOffset, yOffset, zOffset);
             }
         } else {
             // if we get here, someone changed the ComposeType enum
@@ -583,6 +584,62 @@ public class XYZPlot extends AbstractPlot3D implements Dataset3DChangeListener,
         }
     }
 
+    /**
+     * Replaces the objects for one series in the world with objects 
+     * representing the current data for that series.  This is only possible
+     * if the world was composed by this plot, the renderer composes items 
+     * one at a time and the series exists in the dataset, otherwise the 
+     * method returns {@code false} and the caller should compose the whole
+     * world again.
+     * 
+     * @param world  the world ({@code null} not permitted).
+     * @param seriesKey  the series key ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * 
+     * @return A boolean indicating whether or not the series was updated.
+     * 
+     * @since 1.7
+     */
+    @SuppressWarnings("unchecked")
+    public boolean composeSeries(World world, Comparable<?> seriesKey, 
+            double xOffset, double yOffset, double zOffset) {
+        ArgChecks.nullNotPermitted(world, "world");
+        ArgChecks.nullNotPermitted(seriesKey, "seriesKey");
+        if (this.renderer.getComposeType() != ComposeType.PER_ITEM) {
+            return false;
+        }
+        int series = this.dataset.getSeriesIndex((Comparable) seriesKey);
+        if (series < 0) {
+            return false;
+        }
+        world.clear(seriesPartitionKey(series));
+        composeSeries(world, series, xOffset, yOffset, zOffset);
+        return true;
+    }
+    
+    /**
+     * Composes the items for one series into the partition for that series.
+     * 
+     * @param world  the world.
+     * @param series  the series index.
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     */
+    private void composeSeries(World world, int series, double xOffset, 
+            double yOffset, double zOffset) {
+        World seriesWorld = new World();
+        seriesWorld.setDetail(world.getDetail());
+        int itemCount = this.dataset.getItemCount(series);
+        for (int item = 0; item < itemCount; item++) {
+            this.renderer.composeItem(this.dataset, series, item, seriesWorld, 
+                    this.dimensions, xOffset, yOffset, zOffset);
+        }
+        addToPartition(seriesWorld, world, seriesPartitionKey(series));
+    }
+
     @Override
     public String generateToolTipText(ItemKey itemKey) {
         if (!(itemKey instanceof XYZItemKey)) {
@@ -701,16 +758,30 @@ public class XYZPlot extends AbstractPlot3D implements Dataset3DChangeListener,
      * Receives notification that the plot's dataset has changed, and 
      * responds by passing on a {@link Plot3DChangeEvent} to the plot's 
      * registered listeners (with the default set-up, this notifies the 
-     * chart).
+     * chart).  If the change is limited to one series and the axis ranges 
+     * are unchanged, the plot change event carries the series key so that 
+     * the chart can update just that series in the world.
      * 
      * @param event  the event. 
      */
     @Override
     public void datasetChanged(Dataset3DChangeEvent event) {
+        Range xRange = this.xAxis.getRange();
+        Range yRange = this.yAxis.getRange();
+        Range zRange = this.zAxis.getRange();
         this.xAxis.configureAsXAxis(this);
         this.yAxis.configureAsYAxis(this);
         this.zAxis.configureAsZAxis(this);
-        super.datasetChanged(event);
+        if (event.getSeriesKey() != null 
+                && this.renderer.getComposeType() == ComposeType.PER_ITEM
+                && xRange.equals(this.xAxis.getRange()) 
+                && yRange.equals(this.yAxis.getRange())
+                && zRange.equals(this.zAxis.getRange())) {
+            notifyListeners(new Plot3DChangeEvent(event, this, true, 
+                    event.getSeriesKey()));
+        } else {
+            super.datasetChanged(event);
+        }
     }
     
     /**
@@ -153,6 +153,13 @@ public class ScatterXYZRenderer extends AbstractXYZRenderer
         World world, Dimension3D dimensions, double xOffset, double yOffset, 
         double zOffset) {
     
+        // for a reduced level of detail, only every n-th item is composed
+        if (world.getDetail() < 1.0) {
+            int stride = (int) Math.round(1.0 / world.getDetail());
+            if (item % stride != 0) {
+                return;
+            }
+        }
         double x = dataset.getX(series, item);
         double y = dataset.getY(series, item);
         double z = dataset.getZ(series, item);
@@ -252,12 +252,24 @@ public class SurfaceRenderer extends AbstractXYZRenderer implements XYZRenderer,
         double ylen = dim.getHeight();
         double zlen = dim.getDepth();
         Range yRange = new Range(yOffset, -yOffset);
-        for (int xIndex = 0; xIndex < this.xSamples; xIndex++) {
-            double xfrac0 = xIndex / (double) this.xSamples;
-            double xfrac1 = (xIndex + 1) / (double) this.xSamples;
-            for (int zIndex = 0; zIndex < this.zSamples; zIndex++) {
-                double zfrac0 = zIndex / (double) this.zSamples;
-                double zfrac1 = (zIndex + 1) / (double) this.zSamples;
+        
+        // for a reduced level of detail, sample a coarser grid (with 
+        // roughly the requested fraction of the faces)
+        int xCount = this.xSamples;
+        int zCount = this.zSamples;
+        if (world.getDetail() < 1.0) {
+            double f = Math.sqrt(world.getDetail());
+            xCount = Math.max(Math.min(xCount, 2), 
+                    (int) Math.ceil(xCount * f));
+            zCount = Math.max(Math.min(zCount, 2), 
+                    (int) Math.ceil(zCount * f));
+        }
+        for (int xIndex = 0; xIndex < xCount; xIndex++) {
+            double xfrac0 = xIndex / (double) xCount;
+            double xfrac1 = (xIndex + 1) / (double) xCount;
+            for (int zIndex = 0; zIndex < zCount; zIndex++) {
+                double zfrac0 = zIndex / (double) zCount;
+                double zfrac1 = (zIndex + 1) / (double) zCount;
                 
                 double x0 = xAxis.getRange().value(xfrac0);
                 double x1 = xAxis.getRange().value(xfrac1);
@@ -36,7 +36,7 @@ package com.orsoncharts.util;
  * An enumeration of the different export formats supported by Orson Charts.
  * PNG and JPEG export are provided by the Java standard library.  PDF export
  * is enabled when Orson PDF is available on the classpath, and SVG export is
- * enabled when JFreeSVG is available on the classpath.
+ * provided by a built-in streaming writer (JFreeSVG is not required).
  * 
  * @since 1.2
  */
@@ -0,0 +1,188 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import org.junit.Test;
+
+import com.orsoncharts.data.xyz.XYZSeries;
+import com.orsoncharts.data.xyz.XYZSeriesCollection;
+
+/**
+ * Tests for the {@link Chart3DPanel} class.
+ */
+public class Chart3DPanelTest {
+
+    /** 
+     * A timer that only fires when the test calls {@link #fire()}.
+     */
+    @SuppressWarnings("serial")
+    static class ManualTimer extends Timer {
+        
+        boolean running;
+        
+        ManualTimer(ActionListener listener) {
+            super(0, listener);
+        }
+
+        @Override
+        public void start() {
+            this.running = true;
+        }
+
+        @Override
+        public void restart() {
+            this.running = true;
+        }
+
+        @Override
+        public void stop() {
+            this.running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return this.running;
+        }
+        
+        void fire() {
+            this.running = false;
+            fireActionPerformed(new ActionEvent(this, 
+                    ActionEvent.ACTION_PERFORMED, null));
+        }
+    }
+    
+    /** 
+     * A panel that counts the repaint requests, with a manual clock and 
+     * timer. 
+     */
+    @SuppressWarnings("serial")
+    static class TestPanel extends Chart3DPanel {
+        
+        int repaintCount;
+        
+        long time = 1000000000L;
+        
+        ManualTimer timer;
+        
+        TestPanel(Chart3D chart) {
+            super(chart);
+        }
+        
+        @Override
+        public void repaint(long tm, int x, int y, int width, int height) {
+            this.repaintCount++;
+            super.repaint(tm, x, y, width, height);
+        }
+
+        @Override
+        Timer createRefreshTimer(ActionListener listener) {
+            this.timer = new ManualTimer(listener);
+            return this.timer;
+        }
+
+        @Override
+        long nanoTime() {
+            return this.time;
+        }
+    }
+    
+    /**
+     * With a maximum refresh rate, a burst of chart changes leads to one 
+     * immediate repaint and one deferred repaint.
+     */
+    @Test
+    public void testMaxRefreshRate() throws Exception {
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        final XYZSeries<String> series = new XYZSeries<String>("S1");
+        dataset.add(series);
+        Chart3D chart = Chart3DFactory.createScatterChart("title", null, 
+                dataset, "X", "Y", "Z");
+        final TestPanel panel = new TestPanel(chart);
+        panel.setMaxRefreshRate(1);
+        panel.repaintCount = 0;
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 1000; i++) {
+                    series.add(i, i, i);
+                }
+                assertEquals(1, panel.repaintCount);
+                assertTrue(panel.isRefreshPending());
+            }
+        });
+        
+        // changes from another thread are coalesced too
+        for (int i = 0; i < 1000; i++) {
+            series.add(i, -i, i);
+        }
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(1, panel.repaintCount);
+                assertTrue(panel.isRefreshPending());
+                
+                // the deferred refresh includes all the changes
+                panel.time += 1000000000L;
+                panel.timer.fire();
+                assertEquals(2, panel.repaintCount);
+                assertFalse(panel.isRefreshPending());
+                
+                // a change straight after a refresh is deferred
+                series.add(0, 0, 0);
+                assertEquals(2, panel.repaintCount);
+                assertTrue(panel.isRefreshPending());
+                
+                panel.time += 1000000000L;
+                panel.timer.fire();
+                assertEquals(3, panel.repaintCount);
+                
+                // ...and a change after the interval is not
+                panel.time += 2000000000L;
+                series.add(1, 1, 1);
+                assertEquals(4, panel.repaintCount);
+                assertFalse(panel.isRefreshPending());
+            }
+        });
+    }
+
+}
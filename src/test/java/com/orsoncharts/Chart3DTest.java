@@ -32,27 +32,78 @@
 
 package com.orsoncharts;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
 import java.awt.Color;
+import java.awt.Font;
 import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import com.orsoncharts.axis.NumberAxis3D;
 import com.orsoncharts.data.StandardPieDataset3D;
 import com.orsoncharts.data.PieDataset3D;
 import com.orsoncharts.data.category.CategoryDataset3D;
+import com.orsoncharts.data.function.Function3D;
 import com.orsoncharts.data.category.StandardCategoryDataset3D;
 import com.orsoncharts.data.DefaultKeyedValues;
 import com.orsoncharts.data.xyz.XYZDataset;
 import com.orsoncharts.data.xyz.XYZSeries;
 import com.orsoncharts.data.xyz.XYZSeriesCollection;
+import com.orsoncharts.graphics3d.BSPFaceSorter;
+import com.orsoncharts.graphics3d.CoherentFaceSorter;
+import com.orsoncharts.graphics3d.ExportUtils;
+import com.orsoncharts.graphics3d.Face;
+import com.orsoncharts.graphics3d.FaceSorter;
+import com.orsoncharts.graphics3d.Object3D;
+import com.orsoncharts.graphics3d.Offset2D;
+import com.orsoncharts.graphics3d.Point3D;
+import com.orsoncharts.graphics3d.RenderMode;
+import com.orsoncharts.graphics3d.RenderingInfo;
+import com.orsoncharts.graphics3d.SceneCapture;
+import com.orsoncharts.graphics3d.SceneSnapshot;
+import com.orsoncharts.graphics3d.StandardFaceSorter;
+import com.orsoncharts.graphics3d.ViewPoint3D;
 import com.orsoncharts.legend.LegendAnchor;
+import com.orsoncharts.legend.LegendBuilder;
 import com.orsoncharts.legend.StandardLegendBuilder;
+import com.orsoncharts.marker.NumberMarker;
+import com.orsoncharts.plot.CategoryPlot3D;
+import com.orsoncharts.plot.Plot3D;
+import com.orsoncharts.plot.XYZPlot;
+import com.orsoncharts.style.ChartStyle;
 import com.orsoncharts.style.ChartStyles;
+import com.orsoncharts.util.Anchor2D;
 import com.orsoncharts.util.Orientation;
 import com.orsoncharts.table.StandardRectanglePainter;
+import com.orsoncharts.table.TableElement;
 
 /**
  * Tests for the {@link Chart3D} class.
@@ -251,6 +302,569 @@ public class Chart3DTest {
         return dataset; 
     }
     
+    /**
+     * Renders a chart to an image and returns the pixels.
+     */
+    private int[] render(Chart3D chart, RenderingInfo[] info) {
+        BufferedImage image = new BufferedImage(300, 200, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        info[0] = chart.draw(g2, new Rectangle(300, 200));
+        g2.dispose();
+        return image.getRGB(0, 0, 300, 200, null, 0, 300);
+    }
+    
+    /**
+     * Culling faces should reduce the number of faces rendered without 
+     * changing the output.
+     */
+    @Test
+    public void testFaceCulling() {
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle",
+                createCategoryDataset(), "rowAxis", "columnAxis", "valueAxis");
+        chart.setTranslate2D(new Offset2D(120, 0));
+        assertTrue(chart.getFaceCulling());
+        RenderingInfo[] info = new RenderingInfo[1];
+        int[] culled = render(chart, info);
+        int culledCount = info[0].getFaces().size();
+        chart.setFaceCulling(false);
+        int[] all = render(chart, info);
+        assertTrue(culledCount < info[0].getFaces().size());
+        assertArrayEquals(all, culled);
+    }
+    
+    /**
+     * The z-buffer render mode paints the same faces as the default mode,
+     * the output differs only at the (not anti-aliased) edges.
+     */
+    @Test
+    public void testRenderMode() {
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle",
+                createCategoryDataset(), "rowAxis", "columnAxis", "valueAxis");
+        assertEquals(RenderMode.PAINTER, chart.getRenderMode());
+        RenderingInfo[] info = new RenderingInfo[1];
+        int[] painter = render(chart, info);
+        int faceCount = info[0].getFaces().size();
+        chart.setRenderMode(RenderMode.Z_BUFFER);
+        int[] zbuffer = render(chart, info);
+        assertEquals(faceCount, info[0].getFaces().size());
+        int diff = 0;
+        for (int i = 0; i < painter.length; i++) {
+            if (painter[i] != zbuffer[i]) {
+                diff++;
+            }
+        }
+        assertTrue(diff < painter.length / 20);
+    }
+    
+    /**
+     * In z-buffer mode the rendering info should find the same (topmost) 
+     * items as in painter mode, even though the faces are not painted in
+     * depth order.
+     */
+    @Test
+    public void testRenderModeLookup() {
+        Chart3D chart = Chart3DFactory.createBarChart("title", null,
+                createGridDataset(3, 5, 5), "rowAxis", "columnAxis", 
+                "valueAxis");
+        Chart3D chart2 = Chart3DFactory.createBarChart("title", null,
+                createGridDataset(3, 5, 5), "rowAxis", "columnAxis", 
+                "valueAxis");
+        chart2.setRenderMode(RenderMode.Z_BUFFER);
+        // view the bars from behind, so that the faces in the world are 
+        // roughly in front-to-back order
+        chart.getViewPoint().panLeftRight(Math.PI);
+        chart2.getViewPoint().panLeftRight(Math.PI);
+        RenderingInfo[] info = new RenderingInfo[1];
+        RenderingInfo[] info2 = new RenderingInfo[1];
+        render(chart, info);
+        render(chart2, info2);
+        int found = 0;
+        for (int x = 0; x < 300; x += 3) {
+            for (int y = 0; y < 200; y += 3) {
+                Object3D obj = info[0].fetchObjectAt(x, y);
+                Object3D obj2 = info2[0].fetchObjectAt(x, y);
+                if (obj == null) {
+                    assertNull(obj2);
+                } else {
+                    assertEquals(obj.getProperty(Object3D.ITEM_KEY), 
+                            obj2.getProperty(Object3D.ITEM_KEY));
+                    found++;
+                }
+            }
+        }
+        assertTrue(found > 0);
+    }
+    
+    /**
+     * A face sorter that implements only the {@link FaceSorter} interface 
+     * is passed the eye coordinates as points, and gives the same output as
+     * the default sorter.
+     */
+    @Test
+    public void testPointFaceSorter() {
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle",
+                createCategoryDataset(), "rowAxis", "columnAxis", "valueAxis");
+        RenderingInfo[] info = new RenderingInfo[1];
+        int[] expected = render(chart, info);
+        final StandardFaceSorter standard = new StandardFaceSorter();
+        chart.setFaceSorter(new FaceSorter() {
+            @Override
+            public List<Face> sort(List<Face> faces, Point3D[] eyePts) {
+                return standard.sort(faces, eyePts);
+            }
+        });
+        assertArrayEquals(expected, render(chart, info));
+    }
+    
+    /**
+     * While a chart is rotated, a {@link CoherentFaceSorter} should repair 
+     * the order from the previous frame rather than sort from scratch (the
+     * chart box and the culled faces must not change the sorter's input),
+     * and the output should match the default sorter.
+     */
+    @Test
+    public void testCoherentSortWhileRotating() {
+        Function3D f = new Function3D() {
+            @Override
+            public double getValue(double x, double z) {
+                return Math.sin(x) * Math.cos(z);
+            }
+        };
+        Chart3D chart = Chart3DFactory.createSurfaceChart("title", null, f, 
+                "X", "Y", "Z");
+        Chart3D chart2 = Chart3DFactory.createSurfaceChart("title", null, f, 
+                "X", "Y", "Z");
+        CoherentFaceSorter sorter = new CoherentFaceSorter();
+        chart.setFaceSorter(sorter);
+        RenderingInfo[] info = new RenderingInfo[1];
+        for (int frame = 0; frame < 10; frame++) {
+            assertArrayEquals(render(chart2, info), render(chart, info));
+            chart.getViewPoint().panLeftRight(0.01);
+            chart2.getViewPoint().panLeftRight(0.01);
+        }
+        assertEquals(1, sorter.getFullSortCount());
+        chart.setFaceCulling(false);
+        render(chart, info);
+        render(chart, info);
+        assertEquals(1, sorter.getFullSortCount());
+    }
+    
+    /**
+     * A {@link BSPFaceSorter} should build its tree once for the chart's 3D
+     * model and reuse it for every frame, including after the view point 
+     * and the chart box change, until the model is composed again.
+     */
+    @Test
+    public void testBSPTreeReused() {
+        StandardCategoryDataset3D<String, String, String> dataset 
+                = createGridDataset(3, 10, 10);
+        Chart3D chart = Chart3DFactory.createBarChart("title", null, 
+                dataset, "rowAxis", "columnAxis", "valueAxis");
+        BSPFaceSorter sorter = new BSPFaceSorter();
+        chart.setFaceSorter(sorter);
+        RenderingInfo[] info = new RenderingInfo[1];
+        for (int frame = 0; frame < 5; frame++) {
+            render(chart, info);
+            chart.getViewPoint().panLeftRight(0.05);
+        }
+        chart.setChartBoxColor(Color.YELLOW);
+        render(chart, info);
+        assertEquals(1, sorter.getBuildCount());
+        dataset.addValue(1.0, "S0", "R0", "C0");
+        render(chart, info);
+        assertEquals(2, sorter.getBuildCount());
+    }
+    
+    /**
+     * Painting a prepared frame in tiles on several threads should give the
+     * same output as drawing the chart in one pass.
+     */
+    @Test
+    public void testDrawInTiles() {
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle",
+                createCategoryDataset(), "rowAxis", "columnAxis", "valueAxis");
+        RenderingInfo[] info = new RenderingInfo[1];
+        int[] expected = render(chart, info);
+        BufferedImage image = new BufferedImage(300, 200, 
+                BufferedImage.TYPE_INT_ARGB);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            RenderingInfo tiledInfo = ExportUtils.drawInTiles(chart, image, 
+                    executor, 64);
+            assertEquals(info[0].getFaces().size(), 
+                    tiledInfo.getFaces().size());
+        } finally {
+            executor.shutdown();
+        }
+        assertArrayEquals(expected, image.getRGB(0, 0, 300, 200, null, 0, 
+                300));
+    }
+    
+    /**
+     * The rendering info returned by {@code draw()} should not be changed 
+     * when the chart is drawn again (for example, when it is exported at
+     * another size).
+     */
+    @Test
+    public void testRenderingInfoKept() {
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle",
+                createCategoryDataset(), "rowAxis", "columnAxis", "valueAxis");
+        BufferedImage image = new BufferedImage(300, 200, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        RenderingInfo info = chart.draw(g2, new Rectangle(300, 200));
+        Point2D[] pts = info.getProjectedPoints();
+        Point2D[] copy = new Point2D[pts.length];
+        for (int i = 0; i < pts.length; i++) {
+            copy[i] = (Point2D) pts[i].clone();
+        }
+        chart.getViewPoint().panLeftRight(0.5);
+        chart.draw(g2, new Rectangle(600, 400));
+        g2.dispose();
+        assertArrayEquals(copy, info.getProjectedPoints());
+    }
+    
+    /**
+     * Tiles can be drawn into an image of type 
+     * {@code BufferedImage.TYPE_CUSTOM}.
+     */
+    @Test
+    public void testDrawInTilesCustomImage() {
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle",
+                createCategoryDataset(), "rowAxis", "columnAxis", "valueAxis");
+        ColorModel cm = new ComponentColorModel(
+                ColorSpace.getInstance(ColorSpace.CS_sRGB), true, false, 
+                Transparency.TRANSLUCENT, DataBuffer.TYPE_BYTE);
+        BufferedImage expected = new BufferedImage(cm, 
+                cm.createCompatibleWritableRaster(300, 200), false, null);
+        assertEquals(BufferedImage.TYPE_CUSTOM, expected.getType());
+        Graphics2D g2 = expected.createGraphics();
+        chart.draw(g2, new Rectangle(300, 200));
+        g2.dispose();
+        BufferedImage image = new BufferedImage(cm, 
+                cm.createCompatibleWritableRaster(300, 200), false, null);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ExportUtils.drawInTiles(chart, image, executor, 64);
+        } finally {
+            executor.shutdown();
+        }
+        assertArrayEquals(expected.getRGB(0, 0, 300, 200, null, 0, 300), 
+                image.getRGB(0, 0, 300, 200, null, 0, 300));
+    }
+    
+    /**
+     * Renders a chart (or a snapshot, if it is not {@code null}) to an image
+     * with the specified size and returns the pixels.
+     */
+    private int[] render(Chart3D chart, SceneSnapshot snapshot, int w, 
+            int h) {
+        BufferedImage image = new BufferedImage(w, h, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        if (snapshot != null) {
+            snapshot.draw(g2, new Rectangle(w, h));
+        } else {
+            chart.draw(g2, new Rectangle(w, h));
+        }
+        g2.dispose();
+        return image.getRGB(0, 0, w, h, null, 0, w);
+    }
+    
+    /**
+     * A snapshot drawn at several sizes concurrently should give the same 
+     * output as the chart, and should not change when the view point of the
+     * chart changes.
+     */
+    @Test
+    public void testSnapshot() throws Exception {
+        final Chart3D chart = Chart3DFactory.createBarChart("title", 
+                "subtitle", createCategoryDataset(), "rowAxis", "columnAxis", 
+                "valueAxis");
+        final int[][] sizes = { { 300, 200 }, { 400, 300 }, { 180, 240 } };
+        int[][] expected = new int[sizes.length][];
+        for (int i = 0; i < sizes.length; i++) {
+            expected[i] = render(chart, null, sizes[i][0], sizes[i][1]);
+        }
+        final SceneSnapshot snapshot = chart.createSnapshot();
+        chart.getViewPoint().panLeftRight(0.5);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+            for (int i = 0; i < sizes.length * 4; i++) {
+                final int[] size = sizes[i % sizes.length];
+                results.add(executor.submit(new Callable<int[]>() {
+                    @Override
+                    public int[] call() {
+                        return render(chart, snapshot, size[0], size[1]);
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertArrayEquals(expected[i % sizes.length], 
+                        results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Snapshots created from a base snapshot on several threads at once 
+     * should match the snapshots created for the same view points in one 
+     * call, and only a snapshot created by the same chart can be used as the
+     * base.
+     */
+    @Test
+    public void testSnapshotFromBase() throws Exception {
+        final Chart3D chart = Chart3DFactory.createBarChart("title", 
+                "subtitle", createCategoryDataset(), "rowAxis", "columnAxis", 
+                "valueAxis");
+        List<ViewPoint3D> viewPoints = new ArrayList<ViewPoint3D>();
+        ViewPoint3D vp = new ViewPoint3D(chart.getViewPoint());
+        for (int i = 0; i < 8; i++) {
+            viewPoints.add(new ViewPoint3D(vp));
+            vp.panLeftRight(0.4);
+        }
+        List<SceneSnapshot> snapshots = chart.createSnapshots(viewPoints);
+        final SceneSnapshot base = chart.createSnapshot();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+            for (final ViewPoint3D viewPoint : viewPoints) {
+                results.add(executor.submit(new Callable<int[]>() {
+                    @Override
+                    public int[] call() {
+                        return render(chart, chart.createSnapshot(base, 
+                                viewPoint), 300, 200);
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertArrayEquals(render(chart, snapshots.get(i), 300, 200), 
+                        results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        Chart3D other = Chart3DFactory.createBarChart("title", "subtitle", 
+                createCategoryDataset(), "rowAxis", "columnAxis", 
+                "valueAxis");
+        try {
+            other.createSnapshot(base, vp);
+            fail("Expected an IllegalArgumentException.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+    
+    /**
+     * A snapshot should not change when the axes, markers, gridlines, 
+     * title, background or data of the chart change after it is created.
+     */
+    @Test
+    public void testSnapshotUnaffectedByChartChanges() {
+        StandardCategoryDataset3D<String, String, String> dataset 
+                = createGridDataset(2, 2, 3);
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle", 
+                dataset, "rowAxis", "columnAxis", "valueAxis");
+        CategoryPlot3D plot = (CategoryPlot3D) chart.getPlot();
+        NumberAxis3D valueAxis = (NumberAxis3D) plot.getValueAxis();
+        NumberMarker marker = new NumberMarker(5.0);
+        marker.setLabel("marker");
+        valueAxis.setMarker("M1", marker);
+        int[] expected = render(chart, null, 400, 300);
+        SceneSnapshot snapshot = chart.createSnapshot();
+        
+        valueAxis.setLabel("changed");
+        plot.getColumnAxis().setTickLabelFont(
+                new Font(Font.SERIF, Font.BOLD, 16));
+        marker.setLineColor(Color.RED);
+        marker.setLabel("changed");
+        plot.setGridlinePaintForValues(Color.GREEN);
+        chart.setTitle("changed");
+        chart.setBackground(new StandardRectanglePainter(Color.YELLOW));
+        dataset.addValue(20.0, "S2", "R0", "C0");
+        
+        assertFalse(Arrays.equals(expected, render(chart, null, 400, 300)));
+        assertArrayEquals(expected, render(chart, snapshot, 400, 300));
+    }
+    
+    /**
+     * A frame prepared from a scene capture should match the chart at the 
+     * time of the capture, even if the chart changes before the frame is
+     * prepared.
+     */
+    @Test
+    public void testCaptureScene() {
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle", 
+                createGridDataset(2, 2, 3), "rowAxis", "columnAxis", 
+                "valueAxis");
+        int[] expected = render(chart, null, 400, 300);
+        BufferedImage image = new BufferedImage(400, 300, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        SceneCapture capture = chart.captureScene(g2, 1.0);
+        g2.dispose();
+        chart.getViewPoint().panLeftRight(0.5);
+        chart.setTitle("changed");
+        
+        image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB);
+        g2 = image.createGraphics();
+        capture.prepareFrame(g2, new Rectangle(400, 300)).draw(g2);
+        g2.dispose();
+        assertArrayEquals(expected, image.getRGB(0, 0, 400, 300, null, 0, 
+                400));
+    }
+    
+    /**
+     * The legend is built once and reused until the chart changes, and the
+     * output should match a new chart after a change.
+     */
+    @Test
+    public void testLegendCache() {
+        StandardPieDataset3D<String> dataset 
+                = new StandardPieDataset3D<String>();
+        dataset.add("A", 30.0);
+        dataset.add("B", 20.0);
+        Chart3D chart = Chart3DFactory.createPieChart("title", "subtitle", 
+                dataset);
+        final StandardLegendBuilder builder = new StandardLegendBuilder();
+        final int[] count = new int[1];
+        chart.setLegendBuilder(new LegendBuilder() {
+            @Override
+            public TableElement createLegend(Plot3D plot, Anchor2D anchor, 
+                    Orientation orientation, ChartStyle style) {
+                count[0]++;
+                return builder.createLegend(plot, anchor, orientation, style);
+            }
+        });
+        RenderingInfo[] info = new RenderingInfo[1];
+        int[] first = render(chart, info);
+        assertArrayEquals(first, render(chart, info));
+        assertEquals(1, count[0]);
+        
+        dataset.add("C", 10.0);
+        int[] updated = render(chart, info);
+        assertEquals(2, count[0]);
+        Chart3D chart2 = Chart3DFactory.createPieChart("title", "subtitle", 
+                dataset);
+        assertArrayEquals(render(chart2, info), updated);
+    }
+    
+    /**
+     * The tick units are reused between frames, but a change to an axis or
+     * to the view point leads to a new selection (the output should match a
+     * new chart with the same settings).
+     */
+    @Test
+    public void testTickUnitCache() {
+        Chart3D chart = Chart3DFactory.createScatterChart("title", null, 
+                createXYZDataset(), "X", "Y", "Z");
+        RenderingInfo[] info = new RenderingInfo[1];
+        render(chart, info);
+        Chart3D chart2 = Chart3DFactory.createScatterChart("title", null, 
+                createXYZDataset(), "X", "Y", "Z");
+        ((XYZPlot) chart.getPlot()).getYAxis().setRange(0.0, 250.0);
+        ((XYZPlot) chart2.getPlot()).getYAxis().setRange(0.0, 250.0);
+        assertArrayEquals(render(chart2, info), render(chart, info));
+        
+        chart.getViewPoint().panLeftRight(0.4);
+        chart2.getViewPoint().panLeftRight(0.4);
+        assertArrayEquals(render(chart2, info), render(chart, info));
+    }
+    
+    /**
+     * A draft frame is composed from a reduced model, and drawing it does not
+     * change the output at full detail.
+     */
+    @Test
+    public void testDraftFrame() {
+        XYZSeries<String> s1 = new XYZSeries<String>("S1");
+        for (int i = 0; i < 400; i++) {
+            s1.add(i % 20, i / 20, (i * 7) % 20);
+        }
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        dataset.add(s1);
+        Chart3D chart = Chart3DFactory.createScatterChart("title", null, 
+                dataset, "X", "Y", "Z");
+        RenderingInfo[] info = new RenderingInfo[1];
+        int[] expected = render(chart, info);
+        int fullCount = info[0].getFaces().size();
+        
+        BufferedImage image = new BufferedImage(300, 200, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        RenderingInfo draftInfo = chart.prepareFrame(g2, 
+                new Rectangle(300, 200), 0.25).draw(g2);
+        g2.dispose();
+        assertTrue(draftInfo.getFaces().size() < fullCount / 2);
+        assertArrayEquals(expected, render(chart, info));
+        assertEquals(fullCount, info[0].getFaces().size());
+    }
+    
+    /**
+     * When one series changes, the chart updates just that series in its 
+     * 3D model and the output should be the same as for a new chart.
+     */
+    @Test
+    public void testSeriesUpdate() {
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        XYZSeries<String> s1 = new XYZSeries<String>("S1");
+        XYZSeries<String> s2 = new XYZSeries<String>("S2");
+        for (int i = 0; i <= 10; i++) {
+            s1.add(i, i, i);
+            s2.add(i, 10 - i, i);
+        }
+        dataset.add(s1);
+        dataset.add(s2);
+        Chart3D chart = Chart3DFactory.createScatterChart("title", null, 
+                dataset, "X", "Y", "Z");
+        RenderingInfo[] info = new RenderingInfo[1];
+        render(chart, info);
+        s2.add(5.0, 3.0, 7.0);
+        int[] updated = render(chart, info);
+        Chart3D chart2 = Chart3DFactory.createScatterChart("title", null, 
+                dataset, "X", "Y", "Z");
+        assertArrayEquals(render(chart2, info), updated);
+    }
+    
+    /**
+     * With element hinting on, the built-in SVG writer gives the groups
+     * that the JavaScript utilities look for.
+     */
+    @Test
+    public void testWriteAsSVG() throws Exception {
+        Chart3D chart = Chart3DFactory.createBarChart("title", "subtitle",
+                createCategoryDataset(), null, "Quarter", "$million");
+        chart.setID("chart1");
+        chart.setElementHinting(true);
+        StringWriter sw = new StringWriter();
+        ExportUtils.writeAsSVG(chart, 400, 300, sw);
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document doc = factory.newDocumentBuilder().parse(
+                new InputSource(new StringReader(sw.toString())));
+        NodeList groups = doc.getElementsByTagName("g");
+        String ns = "http://www.jfree.org/jfreesvg/svg";
+        Element top = (Element) groups.item(0);
+        assertEquals("chart1", top.getAttribute("id"));
+        assertEquals("ORSON_CHART_TOP_LEVEL", top.getAttributeNS(ns, "ref"));
+        boolean itemFound = false;
+        for (int i = 0; i < groups.getLength(); i++) {
+            String ref = ((Element) groups.item(i)).getAttributeNS(ns, "ref");
+            if (ref.contains("Acme Widgets Ltd") && ref.contains("Q2")) {
+                itemFound = true;
+            }
+        }
+        assertTrue(itemFound);
+        assertTrue(top.getElementsByTagName("path").getLength() > 0);
+    }
+    
     private CategoryDataset3D<String, String, String> createCategoryDataset() {
         StandardCategoryDataset3D<String, String, String> dataset 
                 = new StandardCategoryDataset3D<String, String, String>();
@@ -264,6 +878,25 @@ public class Chart3DTest {
         return dataset;
     }
     
+    /**
+     * Creates a dataset with the specified number of series, rows and 
+     * columns.
+     */
+    private StandardCategoryDataset3D<String, String, String> 
+            createGridDataset(int series, int rows, int columns) {
+        StandardCategoryDataset3D<String, String, String> dataset 
+                = new StandardCategoryDataset3D<String, String, String>();
+        for (int s = 0; s < series; s++) {
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < columns; c++) {
+                    dataset.addValue((s + 1) * (r + c + 1), "S" + s, "R" + r,
+                            "C" + c);
+                }
+            }
+        }
+        return dataset;
+    }
+    
     private XYZDataset<String> createXYZDataset() {
         XYZSeries<String> s1 = new XYZSeries<String>("S1");
         s1.add(1, 2, 3);
@@ -0,0 +1,145 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+import com.orsoncharts.data.DefaultKeyedValues;
+import com.orsoncharts.data.category.StandardCategoryDataset3D;
+import com.orsoncharts.util.Anchor2D;
+
+/**
+ * Tests for the {@link RenderCache} class.
+ */
+public class RenderCacheTest {
+    
+    private Chart3D createChart() {
+        StandardCategoryDataset3D<String, String, String> dataset 
+                = new StandardCategoryDataset3D<String, String, String>();
+        DefaultKeyedValues<String, Number> s1 
+                = new DefaultKeyedValues<String, Number>();
+        s1.put("Q1", 1.0);
+        s1.put("Q2", 7.0);
+        s1.put("Q3", 3.0);
+        s1.put("Q4", 4.0);
+        dataset.addSeriesAsRow("Acme Widgets Ltd", s1);
+        return Chart3DFactory.createBarChart("title", "subtitle", dataset, 
+                "rowAxis", "columnAxis", "valueAxis");
+    }
+    
+    @Test
+    public void testRender() throws Exception {
+        RenderCache cache = new RenderCache(10000000L, 10);
+        Chart3D chart = createChart();
+        RenderCache.Entry e1 = cache.render(chart, 300, 200, "png");
+        assertEquals(1, cache.getMissCount());
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(
+                e1.getBytes()));
+        assertEquals(300, image.getWidth());
+        assertEquals(200, image.getHeight());
+        assertEquals(e1.getByteCount(), cache.getSize());
+        
+        // a chart with the same content is returned from the cache
+        RenderCache.Entry e2 = cache.render(createChart(), 300, 200, "PNG");
+        assertSame(e1, e2);
+        assertSame(e1.getRenderingInfo(), e2.getRenderingInfo());
+        assertEquals(1, cache.getHitCount());
+        
+        // but not for a different size or format
+        assertFalse(e1 == cache.render(chart, 300, 201, "png"));
+        assertFalse(e1 == cache.render(chart, 300, 200, "jpg"));
+        assertEquals(3, cache.getEntryCount());
+        
+        // or after the view point is changed
+        chart.getViewPoint().panLeftRight(0.3);
+        RenderCache.Entry e3 = cache.render(chart, 300, 200, "png");
+        assertFalse(e1 == e3);
+        assertFalse(Arrays.equals(e1.getBytes(), e3.getBytes()));
+    }
+    
+    @Test
+    public void testChartChange() {
+        RenderCache cache = new RenderCache(10000000L, 10);
+        Chart3D chart = createChart();
+        byte[] before = cache.render(chart, 300, 200, "png").getBytes();
+        cache.render(chart, 200, 200, "png");
+        assertEquals(2, cache.getEntryCount());
+        Anchor2D anchor = chart.getTitleAnchor();
+        chart.setTitleAnchor(TitleAnchor.BOTTOM_LEFT);
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getSize());
+        chart.setTitleAnchor(anchor);
+        assertArrayEquals(before, cache.render(chart, 300, 200, 
+                "png").getBytes());
+        assertEquals(3, cache.getMissCount());
+    }
+    
+    @Test
+    public void testEviction() {
+        Chart3D chart = createChart();
+        int size = new RenderCache(10000000L, 10).render(chart, 100, 100, 
+                "png").getByteCount();
+        
+        // room for two images of about the same size
+        RenderCache cache = new RenderCache(size * 5 / 2, 10);
+        RenderCache.Entry e1 = cache.render(chart, 100, 100, "png");
+        cache.render(chart, 101, 100, "png");
+        assertSame(e1, cache.render(chart, 100, 100, "png"));
+        cache.render(chart, 102, 100, "png");
+        assertEquals(2, cache.getEntryCount());
+        assertTrue(cache.getSize() <= cache.getMaxBytes());
+        // the least recently used entry (101 x 100) was evicted
+        assertSame(e1, cache.render(chart, 100, 100, "png"));
+        long misses = cache.getMissCount();
+        cache.render(chart, 101, 100, "png");
+        assertEquals(misses + 1, cache.getMissCount());
+        
+        // the entry count is limited too
+        cache = new RenderCache(10000000L, 1);
+        cache.render(chart, 100, 100, "png");
+        cache.render(chart, 101, 100, "png");
+        assertEquals(1, cache.getEntryCount());
+    }
+    
+}
@@ -0,0 +1,155 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.orsoncharts.data.DefaultKeyedValues;
+import com.orsoncharts.data.category.StandardCategoryDataset3D;
+import com.orsoncharts.graphics3d.ViewPoint3D;
+
+/**
+ * Tests for the {@link TurntableExporter} class.
+ */
+public class TurntableExporterTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private Chart3D createChart() {
+        StandardCategoryDataset3D<String, String, String> dataset 
+                = new StandardCategoryDataset3D<String, String, String>();
+        DefaultKeyedValues<String, Number> s1 
+                = new DefaultKeyedValues<String, Number>();
+        s1.put("Q1", 1.0);
+        s1.put("Q2", 7.0);
+        s1.put("Q3", 3.0);
+        s1.put("Q4", 4.0);
+        dataset.addSeriesAsRow("Acme Widgets Ltd", s1);
+        return Chart3DFactory.createBarChart("title", "subtitle", dataset, 
+                "rowAxis", "columnAxis", "valueAxis");
+    }
+    
+    private int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 
+                0, image.getWidth());
+    }
+    
+    @Test
+    public void testCreateViewPoints() {
+        Chart3D chart = createChart();
+        TurntableExporter exporter = new TurntableExporter(chart);
+        exporter.setFrameCount(4);
+        exporter.setPanStep(0.1);
+        exporter.setTiltStep(0.05);
+        List<ViewPoint3D> viewPoints = exporter.createViewPoints();
+        assertEquals(4, viewPoints.size());
+        assertEquals(chart.getViewPoint(), viewPoints.get(0));
+        ViewPoint3D vp = new ViewPoint3D(chart.getViewPoint());
+        vp.panLeftRight(0.1);
+        vp.moveUpDown(0.05);
+        vp.panLeftRight(0.1);
+        vp.moveUpDown(0.05);
+        assertEquals(vp, viewPoints.get(2));
+    }
+    
+    @Test
+    public void testWriteFrames() throws Exception {
+        Chart3D chart = createChart();
+        BufferedImage expected = new BufferedImage(300, 200, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = expected.createGraphics();
+        chart.draw(g2, new Rectangle(300, 200));
+        g2.dispose();
+        
+        TurntableExporter exporter = new TurntableExporter(chart);
+        exporter.setFrameCount(5);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<File> files = exporter.writeFrames(folder.getRoot(), 
+                    "frame", 300, 200, executor);
+            assertEquals(5, files.size());
+            assertEquals("frame0004.png", files.get(4).getName());
+            int[] frame0 = pixels(ImageIO.read(files.get(0)));
+            assertArrayEquals(pixels(expected), frame0);
+            assertFalse(Arrays.equals(frame0, 
+                    pixels(ImageIO.read(files.get(1)))));
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testWriteAnimatedGIF() throws Exception {
+        TurntableExporter exporter = new TurntableExporter(createChart());
+        exporter.setFrameCount(6);
+        File file = new File(folder.getRoot(), "turntable.gif");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            exporter.writeAnimatedGIF(file, 160, 120, 100, true, executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(file.length() > 0);
+        ImageInputStream in = ImageIO.createImageInputStream(file);
+        try {
+            ImageReader reader = ImageIO.getImageReaders(in).next();
+            reader.setInput(in);
+            assertEquals(6, reader.getNumImages(true));
+            assertEquals(160, reader.getWidth(0));
+            reader.dispose();
+        } finally {
+            in.close();
+        }
+    }
+    
+}
@@ -0,0 +1,256 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link BSPFaceSorter} class.
+ */
+public class BSPFaceSorterTest {
+    
+    /**
+     * Creates a world with boxes arranged so that their extents along each
+     * axis do not overlap, so no face straddles the plane of another face
+     * (the case where the ordering is exact).
+     */
+    private World createWorld() {
+        World world = new World();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                world.add(Object3D.createBox(i, 0.5, i + j, 0.5, 
+                        j * 4.0 + i, 0.5, Color.RED));
+            }
+        }
+        return world;
+    }
+    
+    /**
+     * Returns the signed distances of the vertices of {@code f} from the 
+     * plane of {@code g}, all positive (1), all negative (-1) or 
+     * neither (0).
+     */
+    private int side(Face f, Face g, ProjectionBuffer p) {
+        double[] n = g.calculateNormal(p);
+        int a = g.getVertexIndex(0);
+        double d = -(n[0] * p.getEyeX(a) + n[1] * p.getEyeY(a) 
+                + n[2] * p.getEyeZ(a));
+        boolean pos = false, neg = false;
+        for (int v = 0; v < f.getVertexCount(); v++) {
+            int i = f.getVertexIndex(v);
+            double dist = n[0] * p.getEyeX(i) + n[1] * p.getEyeY(i) 
+                    + n[2] * p.getEyeZ(i) + d;
+            if (dist > 1e-9) {
+                pos = true;
+            } else if (dist < -1e-9) {
+                neg = true;
+            }
+        }
+        return pos == neg ? 0 : (pos ? 1 : -1);
+    }
+    
+    /**
+     * Returns {@code true} if the projections of the two faces overlap (by
+     * more than a negligible area) on screen.
+     */
+    private boolean overlaps(Face f, Face g, ProjectionBuffer p) {
+        Area a = new Area(f.createPath(p.getScreenPoints()));
+        a.intersect(new Area(g.createPath(p.getScreenPoints())));
+        Rectangle2D bounds = a.getBounds2D();
+        return bounds.getWidth() > 1e-6 && bounds.getHeight() > 1e-6;
+    }
+    
+    /**
+     * Checks that no face is painted before a face that it overlaps on 
+     * screen and is entirely in front of (on the same side of the other 
+     * face's plane as the eye, with the other face entirely on the far side
+     * of its own plane).
+     */
+    private void assertPaintOrder(List<Face> faces, ProjectionBuffer pb) {
+        for (int i = 0; i < faces.size(); i++) {
+            Face fi = faces.get(i);
+            for (int j = i + 1; j < faces.size(); j++) {
+                Face fj = faces.get(j);
+                // eye side of fj's plane 
+                int a = fj.getVertexIndex(0);
+                double[] n = fj.calculateNormal(pb);
+                double eyeSide = -(n[0] * pb.getEyeX(a) 
+                        + n[1] * pb.getEyeY(a) + n[2] * pb.getEyeZ(a));
+                int s = side(fi, fj, pb);
+                boolean fiInFront = s != 0 && Math.signum(eyeSide) == s;
+                int t = side(fj, fi, pb);
+                int b = fi.getVertexIndex(0);
+                double[] m = fi.calculateNormal(pb);
+                double eyeSideI = -(m[0] * pb.getEyeX(b) 
+                        + m[1] * pb.getEyeY(b) + m[2] * pb.getEyeZ(b));
+                boolean fjBehind = t != 0 && Math.signum(eyeSideI) == -t;
+                if (fiInFront && fjBehind) {
+                    // only a problem if the faces overlap on screen
+                    assertFalse(overlaps(fi, fj, pb));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testOrder() {
+        World world = createWorld();
+        BSPFaceSorter sorter = new BSPFaceSorter();
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(40.0);
+        ProjectionBuffer pb = null;
+        for (int frame = 0; frame < 12; frame++) {
+            vp.panLeftRight(Math.PI / 6);
+            pb = world.project(vp, 1500.0, pb);
+            List<Face> faces = sorter.sort(
+                    new ArrayList<Face>(world.getFaces()), pb);
+            assertEquals(world.getFaces().size(), faces.size());
+            assertEquals(new HashSet<Face>(world.getFaces()), 
+                    new HashSet<Face>(faces));
+            assertPaintOrder(faces, pb);
+        }
+        assertEquals(1, sorter.getBuildCount());
+    }
+    
+    /**
+     * Faces that straddle each other's planes (here, boxes that pass 
+     * through each other) are split, and the fragments are painted in the
+     * correct order.
+     */
+    @Test
+    public void testOrderWithIntersectingFaces() {
+        World world = new World();
+        world.add(Object3D.createBox(0.0, 4.0, 0.0, 1.0, 0.0, 1.0, 
+                Color.RED));
+        world.add(Object3D.createBox(0.0, 1.0, 0.0, 4.0, 0.0, 1.0, 
+                Color.GREEN));
+        world.add(Object3D.createBox(0.0, 1.0, 0.0, 1.0, 0.0, 4.0, 
+                Color.BLUE));
+        BSPFaceSorter sorter = new BSPFaceSorter();
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(10.0);
+        ProjectionBuffer pb = null;
+        for (int frame = 0; frame < 12; frame++) {
+            vp.panLeftRight(Math.PI / 6);
+            pb = world.project(vp, 1500.0, pb);
+            int vertexCount = pb.getVertexCount();
+            List<Face> faces = sorter.sort(
+                    new ArrayList<Face>(world.getFaces()), pb);
+            assertTrue(faces.size() > world.getFaces().size());
+            assertTrue(pb.getVertexCount() > vertexCount);
+            assertEquals(pb.getVertexCount(), pb.getScreenPoints().length);
+            for (Face f : faces) {
+                assertTrue(f.getVertexCount() >= 3);
+                for (int v = 0; v < f.getVertexCount(); v++) {
+                    assertTrue(f.getVertexIndex(v) < pb.getVertexCount());
+                }
+            }
+            assertPaintOrder(faces, pb);
+        }
+        assertEquals(1, sorter.getBuildCount());
+        
+        // the older Point3D[] API returns each face once
+        List<Face> faces = sorter.sort(new ArrayList<Face>(world.getFaces()), 
+                world.calculateEyeCoordinates(vp));
+        assertEquals(world.getFaces().size(), faces.size());
+        assertEquals(new HashSet<Face>(world.getFaces()), 
+                new HashSet<Face>(faces));
+    }
+    
+    /**
+     * A fragment keeps the tag of the face it was split from, so it is 
+     * drawn in the same color.
+     */
+    @Test
+    public void testFragmentsKeepTag() {
+        World world = new World();
+        Object3D obj = new Object3D(Color.RED);
+        obj.setProperty(Object3D.COLOR_PREFIX + "A", Color.BLUE);
+        obj.addVertex(-1.0, 0.0, -1.0);
+        obj.addVertex(1.0, 0.0, -1.0);
+        obj.addVertex(1.0, 0.0, 1.0);
+        obj.addVertex(-1.0, 0.0, 1.0);
+        obj.addFace(new int[] {0, 1, 2, 3}, "A");
+        obj.addVertex(0.0, -1.0, -1.0);
+        obj.addVertex(0.0, 1.0, -1.0);
+        obj.addVertex(0.0, 1.0, 1.0);
+        obj.addVertex(0.0, -1.0, 1.0);
+        obj.addDoubleSidedFace(new int[] {4, 5, 6, 7});
+        world.add(obj);
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(10.0);
+        ProjectionBuffer pb = world.project(vp, 1500.0, null);
+        List<Face> faces = new BSPFaceSorter().sort(
+                new ArrayList<Face>(world.getFaces()), pb);
+        assertEquals(3, faces.size());
+        int tagged = 0;
+        for (Face f : faces) {
+            assertSame(obj, f.getOwner());
+            if (f instanceof TaggedFace) {
+                assertEquals("A", f.getTag());
+                assertEquals(Color.BLUE, f.getColor());
+                tagged++;
+            } else {
+                assertTrue(f instanceof DoubleSidedFace);
+            }
+        }
+        assertTrue(tagged == 1 || tagged == 2);
+    }
+    
+    @Test
+    public void testRebuild() {
+        World world = createWorld();
+        BSPFaceSorter sorter = new BSPFaceSorter();
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(40.0);
+        ProjectionBuffer pb = world.project(vp, 1500.0, null);
+        sorter.sort(new ArrayList<Face>(world.getFaces()), pb);
+        world.add(Object3D.createCube(1.0, 20.0, 0.0, 20.0, Color.BLUE));
+        pb = world.project(vp, 1500.0, pb);
+        List<Face> faces = sorter.sort(new ArrayList<Face>(world.getFaces()), 
+                pb);
+        assertEquals(world.getFaces().size(), faces.size());
+        assertEquals(2, sorter.getBuildCount());
+        
+        // the older Point3D[] API works too
+        faces = sorter.sort(new ArrayList<Face>(world.getFaces()), 
+                world.calculateEyeCoordinates(vp));
+        assertEquals(world.getFaces().size(), faces.size());
+    }
+}
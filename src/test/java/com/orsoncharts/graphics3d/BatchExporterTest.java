@@ -0,0 +1,196 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.imageio.ImageIO;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link BatchExporter} class.
+ */
+public class BatchExporterTest {
+    
+    private Drawable3D createDrawable() {
+        World world = new World();
+        world.add(Object3D.createBox(0, 2, 0, 1, 0, 3, Color.RED));
+        world.add(Object3D.createCube(1.0, 2.0, 1.0, 0.0, Color.BLUE));
+        return new DefaultDrawable3D(world);
+    }
+    
+    private int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 
+                0, image.getWidth());
+    }
+    
+    /**
+     * Images of different sizes exported by one worker (which reuses its 
+     * image) should match images drawn directly.
+     */
+    @Test
+    public void testExport() throws Exception {
+        BatchExporter exporter = new BatchExporter(1, 4);
+        int[][] sizes = { { 200, 150 }, { 100, 80 }, { 120, 160 }, 
+                { 200, 150 } };
+        ByteArrayOutputStream[] outs = new ByteArrayOutputStream[4];
+        @SuppressWarnings("unchecked")
+        Future<BatchExporter.Result>[] results = new Future[4];
+        for (int i = 0; i < sizes.length; i++) {
+            outs[i] = new ByteArrayOutputStream();
+            results[i] = exporter.submit(createDrawable(), sizes[i][0], 
+                    sizes[i][1], "PNG", outs[i]);
+        }
+        for (int i = 0; i < sizes.length; i++) {
+            BatchExporter.Result result = results[i].get();
+            assertTrue(result.getDrawTime() > 0);
+            assertEquals(12, result.getRenderingInfo().getFaces().size());
+            BufferedImage expected = new BufferedImage(sizes[i][0], 
+                    sizes[i][1], BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = expected.createGraphics();
+            createDrawable().draw(g2, new Rectangle(sizes[i][0], 
+                    sizes[i][1]));
+            g2.dispose();
+            BufferedImage actual = ImageIO.read(new ByteArrayInputStream(
+                    outs[i].toByteArray()));
+            assertEquals(sizes[i][0], actual.getWidth());
+            assertEquals(sizes[i][1], actual.getHeight());
+            assertArrayEquals(pixels(expected), pixels(actual));
+        }
+        exporter.shutdown();
+        assertTrue(exporter.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, exporter.getPendingCount());
+    }
+    
+    /**
+     * When the queue is full, {@code submit()} should block until a job 
+     * completes.
+     */
+    @Test
+    public void testBackpressure() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Drawable3D blocked = new DefaultDrawable3D(new World()) {
+            @Override
+            public RenderingInfo draw(Graphics2D g2, Rectangle2D bounds) {
+                try {
+                    latch.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.draw(g2, bounds);
+            }
+        };
+        final BatchExporter exporter = new BatchExporter(1, 1);
+        exporter.submit(blocked, 10, 10, "png", new ByteArrayOutputStream());
+        exporter.submit(createDrawable(), 10, 10, "png", 
+                new ByteArrayOutputStream());
+        assertEquals(2, exporter.getPendingCount());
+        final AtomicBoolean submitted = new AtomicBoolean();
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    exporter.submit(createDrawable(), 10, 10, "png", 
+                            new ByteArrayOutputStream());
+                    submitted.set(true);
+                } catch (InterruptedException ex) {
+                    // the test fails below
+                }
+            }
+        };
+        producer.start();
+        producer.join(300);
+        assertFalse(submitted.get());
+        latch.countDown();
+        producer.join(5000);
+        assertTrue(submitted.get());
+        exporter.shutdown();
+        assertTrue(exporter.awaitTermination(5, TimeUnit.SECONDS));
+    }
+    
+    /**
+     * Cancelling jobs that are waiting in the queue should make room for 
+     * other jobs straight away.
+     */
+    @Test(timeout = 20000)
+    public void testCancelQueuedJobs() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Drawable3D blocked = new DefaultDrawable3D(new World()) {
+            @Override
+            public RenderingInfo draw(Graphics2D g2, Rectangle2D bounds) {
+                try {
+                    latch.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.draw(g2, bounds);
+            }
+        };
+        BatchExporter exporter = new BatchExporter(1, 2);
+        Future<BatchExporter.Result> first = exporter.submit(blocked, 10, 10, 
+                "png", new ByteArrayOutputStream());
+        for (int round = 0; round < 3; round++) {
+            Future<BatchExporter.Result> a = exporter.submit(createDrawable(), 
+                    10, 10, "png", new ByteArrayOutputStream());
+            Future<BatchExporter.Result> b = exporter.submit(createDrawable(), 
+                    10, 10, "png", new ByteArrayOutputStream());
+            assertEquals(3, exporter.getPendingCount());
+            assertTrue(a.cancel(false));
+            assertTrue(b.cancel(false));
+            assertEquals(1, exporter.getPendingCount());
+        }
+        Future<BatchExporter.Result> last = exporter.submit(createDrawable(), 
+                10, 10, "png", new ByteArrayOutputStream());
+        latch.countDown();
+        first.get();
+        assertEquals(12, last.get().getRenderingInfo().getFaces().size());
+        exporter.shutdown();
+        assertTrue(exporter.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, exporter.getPendingCount());
+    }
+    
+}
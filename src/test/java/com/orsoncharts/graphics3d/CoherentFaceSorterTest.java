@@ -0,0 +1,107 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link CoherentFaceSorter} class.
+ */
+public class CoherentFaceSorterTest {
+    
+    private World createWorld() {
+        World world = new World();
+        for (int x = 0; x < 10; x++) {
+            for (int z = 0; z < 10; z++) {
+                world.add(Object3D.createCube(0.5, x, 0.0, z, Color.RED));
+            }
+        }
+        return world;
+    }
+    
+    /**
+     * Small rotations should repair the previous order, and the result 
+     * should always match the standard sorter.
+     */
+    @Test
+    public void testRotation() {
+        World world = createWorld();
+        CoherentFaceSorter sorter = new CoherentFaceSorter();
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(40.0);
+        ProjectionBuffer pb = null;
+        for (int i = 0; i < 20; i++) {
+            vp.panLeftRight(Math.PI / 60);
+            pb = world.project(vp, 1500.0, pb);
+            List<Face> expected = new StandardFaceSorter().sort(
+                    new ArrayList<Face>(world.getFaces()), pb);
+            List<Face> actual = sorter.sort(
+                    new ArrayList<Face>(world.getFaces()), pb);
+            assertEquals(expected, actual);
+        }
+        assertEquals(1, sorter.getFullSortCount());
+    }
+    
+    /**
+     * A change to the world requires a full sort.
+     */
+    @Test
+    public void testWorldChange() {
+        World world = createWorld();
+        CoherentFaceSorter sorter = new CoherentFaceSorter();
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(40.0);
+        ProjectionBuffer pb = world.project(vp, 1500.0, null);
+        sorter.sort(new ArrayList<Face>(world.getFaces()), pb);
+        world.add(Object3D.createCube(0.5, 3.5, 1.0, 3.5, Color.BLUE));
+        pb = world.project(vp, 1500.0, pb);
+        List<Face> expected = new StandardFaceSorter().sort(
+                new ArrayList<Face>(world.getFaces()), pb);
+        List<Face> actual = sorter.sort(
+                new ArrayList<Face>(world.getFaces()), pb);
+        assertEquals(expected, actual);
+        assertEquals(2, sorter.getFullSortCount());
+        
+        // a large change in the view point exhausts the repair budget
+        vp.panLeftRight(Math.PI);
+        vp.moveUpDown(Math.PI / 2);
+        pb = world.project(vp, 1500.0, pb);
+        expected = new StandardFaceSorter().sort(
+                new ArrayList<Face>(world.getFaces()), pb);
+        actual = sorter.sort(new ArrayList<Face>(world.getFaces()), pb);
+        assertEquals(expected, actual);
+    }
+
+}
@@ -0,0 +1,149 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link DepthKeyFaceSorter} class.
+ */
+public class DepthKeyFaceSorterTest {
+    
+    /**
+     * Creates a world containing {@code n} random triangles, with some 
+     * duplicate depths to check that the sort is stable.
+     */
+    private World createWorld(int n, long seed) {
+        Random random = new Random(seed);
+        World world = new World();
+        for (int i = 0; i < n; i++) {
+            Object3D obj = new Object3D(Color.RED);
+            double z = (random.nextInt(10) == 0) ? 0.0 
+                    : random.nextDouble() * 20 - 10;
+            for (int v = 0; v < 3; v++) {
+                obj.addVertex(random.nextDouble(), random.nextDouble(), z);
+            }
+            obj.addFace(new int[] {0, 1, 2});
+            world.add(obj);
+        }
+        return world;
+    }
+    
+    private void checkSameOrder(int n) {
+        World world = createWorld(n, n);
+        ViewPoint3D vp = new ViewPoint3D(0.5, 1.0, 40.0, 0.0);
+        ProjectionBuffer pb = world.project(vp, 1500.0, null);
+        List<Face> expected = new StandardFaceSorter().sort(
+                new ArrayList<Face>(world.getFaces()), pb);
+        List<Face> actual = new DepthKeyFaceSorter().sort(
+                new ArrayList<Face>(world.getFaces()), pb);
+        assertEquals(expected, actual);
+        actual = new DepthKeyFaceSorter().sort(
+                new ArrayList<Face>(world.getFaces()), 
+                world.calculateEyeCoordinates(vp));
+        assertEquals(expected, actual);
+    }
+    
+    /**
+     * The sorter should give exactly the same order as the 
+     * {@link StandardFaceSorter}, for both the insertion sort and the radix 
+     * sort code paths.
+     */
+    @Test
+    public void testSameOrderAsStandardSorter() {
+        checkSameOrder(0);
+        checkSameOrder(1);
+        checkSameOrder(20);
+        checkSameOrder(1000);
+    }
+    
+    /**
+     * One instance can be used by several threads at once.
+     */
+    @Test
+    public void testConcurrentSorts() throws Exception {
+        final DepthKeyFaceSorter sorter = new DepthKeyFaceSorter();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 8; t++) {
+                final World world = createWorld(500 + t * 300, t);
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        ViewPoint3D vp = new ViewPoint3D(0.5, 1.0, 40.0, 0.0);
+                        ProjectionBuffer pb = world.project(vp, 1500.0, null);
+                        List<Face> expected = new StandardFaceSorter().sort(
+                                new ArrayList<Face>(world.getFaces()), pb);
+                        for (int i = 0; i < 20; i++) {
+                            if (!expected.equals(sorter.sort(
+                                    world.getFaces(), pb))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testSortableKey() {
+        float[] values = new float[] {Float.NEGATIVE_INFINITY, -100.0f, -1.5f,
+                -Float.MIN_VALUE, 0.0f, Float.MIN_VALUE, 2.0f, 1000.0f, 
+                Float.POSITIVE_INFINITY};
+        for (int i = 1; i < values.length; i++) {
+            assertTrue(DepthKeyFaceSorter.compareUnsigned(
+                    DepthKeyFaceSorter.sortableKey(values[i - 1]),
+                    DepthKeyFaceSorter.sortableKey(values[i])) < 0);
+        }
+        assertEquals(DepthKeyFaceSorter.sortableKey(0.0f), 
+                DepthKeyFaceSorter.sortableKey(-0.0f));
+    }
+}
@@ -0,0 +1,172 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link ParallelFaceSorter} class (and parallel 
+ * projection in {@link World}).
+ */
+public class ParallelFaceSorterTest {
+    
+    private ExecutorService executor;
+    
+    @Before
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @After
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+    
+    /**
+     * Creates a world containing {@code n} random triangles, with some 
+     * duplicate depths to check that the sort is stable.
+     */
+    private World createWorld(int n) {
+        Random random = new Random(n);
+        World world = new World();
+        for (int i = 0; i < n; i++) {
+            Object3D obj = new Object3D(Color.RED);
+            double z = (random.nextInt(10) == 0) ? 0.0 
+                    : random.nextDouble() * 20 - 10;
+            for (int v = 0; v < 3; v++) {
+                obj.addVertex(random.nextDouble(), random.nextDouble(), z);
+            }
+            obj.addFace(new int[] {0, 1, 2});
+            world.add(obj);
+        }
+        return world;
+    }
+    
+    /**
+     * The sorter should give exactly the same order as the 
+     * {@link StandardFaceSorter}.
+     */
+    @Test
+    public void testSameOrderAsStandardSorter() {
+        for (int n : new int[] {0, 10, 1000, 5001}) {
+            World world = createWorld(n);
+            ViewPoint3D vp = new ViewPoint3D(0.5, 1.0, 40.0, 0.0);
+            ProjectionBuffer pb = world.project(vp, 1500.0, null);
+            List<Face> expected = new StandardFaceSorter().sort(
+                    new ArrayList<Face>(world.getFaces()), pb);
+            ParallelFaceSorter sorter = new ParallelFaceSorter(this.executor, 
+                    100);
+            assertEquals(expected, sorter.sort(
+                    new ArrayList<Face>(world.getFaces()), pb));
+            assertEquals(expected, sorter.sort(
+                    new ArrayList<Face>(world.getFaces()), 
+                    world.calculateEyeCoordinates(vp)));
+        }
+    }
+    
+    /**
+     * Sorting from a task that runs in the sorter's own executor should not
+     * deadlock, even when every thread in the pool is busy.
+     */
+    @Test(timeout = 20000)
+    public void testSortFromPoolThread() throws Exception {
+        final World world = createWorld(2000);
+        final ViewPoint3D vp = new ViewPoint3D(0.5, 1.0, 40.0, 0.0);
+        final ProjectionBuffer pb = world.project(vp, 1500.0, null);
+        List<Face> expected = new StandardFaceSorter().sort(
+                new ArrayList<Face>(world.getFaces()), pb);
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            final ParallelFaceSorter sorter = new ParallelFaceSorter(pool, 
+                    100);
+            List<Future<List<Face>>> results 
+                    = new ArrayList<Future<List<Face>>>();
+            for (int i = 0; i < 2; i++) {
+                results.add(pool.submit(new Callable<List<Face>>() {
+                    @Override
+                    public List<Face> call() {
+                        world.project(vp, 1500.0, null, pool, 100);
+                        return sorter.sort(world.getFaces(), pb);
+                    }
+                }));
+            }
+            for (Future<List<Face>> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testMerge() {
+        int[] keys = new int[5];
+        int[] indices = new int[5];
+        ParallelFaceSorter.merge(new int[] {1, 3, 3}, new int[] {0, 1, 2}, 
+                new int[] {2, 3}, new int[] {3, 4}, keys, indices);
+        assertArrayEquals(new int[] {1, 2, 3, 3, 3}, keys);
+        assertArrayEquals(new int[] {0, 3, 1, 2, 4}, indices);
+    }
+    
+    /**
+     * Parallel projection should give exactly the same results as 
+     * sequential projection.
+     */
+    @Test
+    public void testParallelProjection() {
+        World world = createWorld(2000);
+        ViewPoint3D vp = new ViewPoint3D(0.5, 1.0, 40.0, 0.3);
+        ProjectionBuffer expected = world.project(vp, 1500.0, null);
+        ProjectionBuffer actual = world.project(vp, 1500.0, null, 
+                this.executor, 100);
+        assertEquals(expected.getVertexCount(), actual.getVertexCount());
+        for (int i = 0; i < expected.getVertexCount(); i++) {
+            assertEquals(expected.getEyeZ(i), actual.getEyeZ(i), 0.0);
+            assertEquals(expected.getScreenX(i), actual.getScreenX(i), 0.0);
+            assertEquals(expected.getScreenY(i), actual.getScreenY(i), 0.0);
+        }
+    }
+
+}
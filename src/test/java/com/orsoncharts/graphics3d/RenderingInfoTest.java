@@ -0,0 +1,172 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link RenderingInfo} class.
+ */
+public class RenderingInfoTest {
+    
+    /**
+     * Finds the object at {@code (x, y)} by testing every face from front to
+     * back (the approach used before the faces were indexed).
+     */
+    private Object3D bruteForce(List<Face> faces, Point2D[] pts, double x, 
+            double y) {
+        for (int i = faces.size() - 1; i >= 0; i--) {
+            Face f = faces.get(i);
+            if (f instanceof LabelFace) {
+                Rectangle2D bounds = (Rectangle2D) f.getOwner().getProperty(
+                        "labelBounds");
+                if (bounds != null && bounds.contains(x, y)) {
+                    return f.getOwner();
+                }
+            } else {
+                Path2D p = f.createPath(pts);
+                if (p.contains(x, y)) {
+                    return f.getOwner();
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Creates a label object whose bounds extend beyond its face.
+     */
+    private Object3D createLabel() {
+        Object3D labelObj = new Object3D(Color.BLACK);
+        labelObj.addVertex(0.0, 0.0, 0.0);
+        labelObj.addVertex(0.1, 0.0, 0.0);
+        labelObj.addVertex(0.1, 0.1, 0.0);
+        labelObj.addFace(new LabelFace(labelObj, new int[] {0, 1, 2}, "ABC", 
+                new Font("Dialog", Font.PLAIN, 10), Color.BLACK, Color.WHITE));
+        labelObj.setProperty("labelBounds", 
+                new Rectangle2D.Double(-30, -10, 60, 20));
+        return labelObj;
+    }
+    
+    private World createWorld(Object3D label) {
+        World world = new World();
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                world.add(Object3D.createCube(0.8, i - 2.0, j % 3, j - 2.0, 
+                        Color.RED));
+            }
+        }
+        world.add(label);
+        return world;
+    }
+    
+    @Test
+    public void testFetchObjectAt() {
+        Object3D labelObj = createLabel();
+        World world = createWorld(labelObj);
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(20.0);
+        ProjectionBuffer pb = world.project(vp, 1500.0, null);
+        List<Face> faces = new DepthKeyFaceSorter().sort(
+                world.getFaces(), pb);
+        Point2D[] pts = pb.getScreenPoints();
+        RenderingInfo info = new RenderingInfo(faces, pts, 200.0, 150.0);
+        Random random = new Random(7);
+        int hits = 0;
+        for (int k = 0; k < 20000; k++) {
+            double x = random.nextDouble() * 400.0;
+            double y = random.nextDouble() * 300.0;
+            Object3D expected = bruteForce(faces, pts, x - 200.0, y - 150.0);
+            assertSame(expected, info.fetchObjectAt(x, y));
+            if (expected != null) {
+                hits++;
+            }
+        }
+        assertEquals(labelObj, info.fetchObjectAt(200.0 + 25.0, 150.0));
+        assertNull(info.fetchObjectAt(Double.NaN, 0.0));
+        assertTrue(hits > 1000);
+    }
+    
+    /**
+     * Lookups with a pick buffer give the same results as the geometric 
+     * lookup, at every pixel.
+     */
+    @Test
+    public void testPickBuffer() {
+        World world = createWorld(createLabel());
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(20.0);
+        ProjectionBuffer pb = null;
+        for (int frame = 0; frame < 2; frame++) {
+            vp.panLeftRight(Math.PI / 3);
+            pb = world.project(vp, 1500.0, pb);
+            List<Face> faces = new DepthKeyFaceSorter().sort(
+                    world.getFaces(), pb);
+            Point2D[] pts = pb.getScreenPoints();
+            double dx = 200.25;
+            double dy = 150.5;
+            RenderingInfo info = new RenderingInfo(faces, pts, dx, dy);
+            info.setPickBufferSize(400, 300);
+            // the geometric lookup is checked in testFetchObjectAt()
+            RenderingInfo geometric = new RenderingInfo(faces, pts, dx, dy);
+            int hits = 0;
+            for (int y = 0; y < 300; y++) {
+                for (int x = 0; x < 400; x++) {
+                    Object3D expected = geometric.fetchObjectAt(x, y);
+                    assertSame(expected, info.fetchObjectAt(x, y));
+                    if (expected != null) {
+                        hits++;
+                    }
+                }
+            }
+            assertTrue(hits > 1000);
+            
+            // locations that are not pixels in the buffer use the index
+            assertSame(bruteForce(faces, pts, 0.5, 0.25), 
+                    info.fetchObjectAt(dx + 0.5, dy + 0.25));
+            assertNull(info.fetchObjectAt(-1000.0, 0.0));
+            assertSame(bruteForce(faces, pts, 25.0 - 0.25, 0.0), 
+                    info.fetchObjectAt(dx + 24.75, dy));
+        }
+    }
+    
+}
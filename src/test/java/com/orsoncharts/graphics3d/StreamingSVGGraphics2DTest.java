@@ -0,0 +1,239 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.orsoncharts.Chart3DHints;
+
+/**
+ * Some tests for the {@link StreamingSVGGraphics2D} class.
+ */
+public class StreamingSVGGraphics2DTest {
+    
+    private static final String JFREESVG_NS 
+            = "http://www.jfree.org/jfreesvg/svg";
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    /**
+     * Parses an SVG document (this fails if the document is not 
+     * well-formed).
+     */
+    private Document parse(String svg) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new ByteArrayInputStream(
+                svg.getBytes("UTF-8")));
+    }
+    
+    /**
+     * A fill followed by a draw of the same shape is written as one path.
+     */
+    @Test
+    public void testFillAndDraw() throws Exception {
+        StringWriter sw = new StringWriter();
+        StreamingSVGGraphics2D g2 = new StreamingSVGGraphics2D(sw, 100, 50);
+        Rectangle r = new Rectangle(10, 10, 20, 20);
+        g2.setPaint(Color.RED);
+        g2.fill(r);
+        g2.draw(r);
+        g2.fill(new Rectangle(40, 10, 20, 20));
+        g2.draw(new Rectangle(40, 10, 20, 20));
+        g2.endDocument();
+        Document doc = parse(sw.toString());
+        NodeList paths = doc.getElementsByTagName("path");
+        assertEquals(3, paths.getLength());
+        Element p0 = (Element) paths.item(0);
+        assertEquals("rgb(255,0,0)", p0.getAttribute("fill"));
+        assertEquals("rgb(255,0,0)", p0.getAttribute("stroke"));
+        assertEquals("M10 10L30 10L30 30L10 30L10 10Z", 
+                p0.getAttribute("d"));
+        assertEquals("", ((Element) paths.item(1)).getAttribute("stroke"));
+        assertEquals("none", ((Element) paths.item(2)).getAttribute("fill"));
+    }
+    
+    /**
+     * The element hints are written as groups with the same attributes as
+     * JFreeSVG.
+     */
+    @Test
+    public void testElementHints() throws Exception {
+        StringWriter sw = new StringWriter();
+        StreamingSVGGraphics2D g2 = new StreamingSVGGraphics2D(sw, 100, 50);
+        Map<String, String> m = new HashMap<String, String>();
+        m.put("id", "chart");
+        m.put("ref", "{\"type\": \"<&>\"}");
+        g2.setRenderingHint(Chart3DHints.KEY_BEGIN_ELEMENT, m);
+        g2.fill(new Rectangle(10, 10, 20, 20));
+        g2.setRenderingHint(Chart3DHints.KEY_END_ELEMENT, Boolean.TRUE);
+        g2.endDocument();
+        Document doc = parse(sw.toString());
+        Element g = (Element) doc.getElementsByTagName("g").item(0);
+        assertEquals("chart", g.getAttribute("id"));
+        assertEquals("{\"type\": \"<&>\"}", 
+                g.getAttributeNS(JFREESVG_NS, "ref"));
+        assertEquals(1, g.getElementsByTagName("path").getLength());
+        assertEquals(null, g2.getRenderingHint(
+                Chart3DHints.KEY_BEGIN_ELEMENT));
+    }
+    
+    /**
+     * Text, images, gradients and clipping give a well-formed document.
+     */
+    @Test
+    public void testOtherContent() throws Exception {
+        StringWriter sw = new StringWriter();
+        StreamingSVGGraphics2D g2 = new StreamingSVGGraphics2D(sw, 100, 50);
+        g2.clip(new Rectangle(5, 5, 90, 40));
+        g2.setPaint(new GradientPaint(0f, 0f, Color.RED, 100f, 0f, 
+                Color.BLUE));
+        g2.fillRect(0, 0, 100, 50);
+        g2.translate(10, 10);
+        assertEquals(new Rectangle(-5, -5, 90, 40), g2.getClipBounds());
+        g2.setPaint(Color.BLACK);
+        g2.drawString("A < B & C", 0f, 20f);
+        g2.drawImage(new BufferedImage(4, 3, BufferedImage.TYPE_INT_ARGB), 
+                0, 0, null);
+        g2.endDocument();
+        Document doc = parse(sw.toString());
+        assertEquals(1, doc.getElementsByTagName("clipPath").getLength());
+        assertEquals(1, doc.getElementsByTagName(
+                "linearGradient").getLength());
+        assertEquals("A < B & C", doc.getElementsByTagName(
+                "text").item(0).getTextContent());
+        Element image = (Element) doc.getElementsByTagName("image").item(0);
+        assertTrue(image.getAttributeNS("http://www.w3.org/1999/xlink", 
+                "href").startsWith("data:image/png;base64,"));
+    }
+    
+    /**
+     * A drawable is exported via ExportUtils.
+     */
+    @Test
+    public void testWriteDrawable() throws Exception {
+        World world = new World();
+        world.add(Object3D.createCube(1.0, 0.0, 0.0, 0.0, Color.RED));
+        DefaultDrawable3D drawable = new DefaultDrawable3D(world);
+        StringWriter sw = new StringWriter();
+        RenderingInfo info = ExportUtils.writeAsSVG(drawable, 200, 100, sw);
+        assertEquals(6, info.getFaces().size());
+        Document doc = parse(sw.toString());
+        assertEquals("200", doc.getDocumentElement().getAttribute("width"));
+        // the background, plus a path for each front facing side
+        assertTrue(doc.getElementsByTagName("path").getLength() > 1);
+    }
+    
+    /**
+     * Writing to a file streams the same document as writing to a writer.
+     */
+    @Test
+    public void testWriteDrawableToFile() throws Exception {
+        World world = new World();
+        world.add(Object3D.createCube(1.0, 0.0, 0.0, 0.0, Color.RED));
+        DefaultDrawable3D drawable = new DefaultDrawable3D(world);
+        StringWriter sw = new StringWriter();
+        ExportUtils.writeAsSVG(drawable, 200, 100, sw);
+        File file = this.folder.newFile("drawable.svg");
+        RenderingInfo info = ExportUtils.writeAsSVG(drawable, 200, 100, file);
+        assertEquals(6, info.getFaces().size());
+        StringBuilder sb = new StringBuilder();
+        Reader reader = new InputStreamReader(new FileInputStream(file), 
+                "UTF-8");
+        try {
+            char[] buffer = new char[4096];
+            int n;
+            while ((n = reader.read(buffer)) >= 0) {
+                sb.append(buffer, 0, n);
+            }
+        } finally {
+            reader.close();
+        }
+        assertEquals(sw.toString(), sb.toString());
+    }
+    
+    /**
+     * An exception from the writer is thrown by endDocument().
+     */
+    @Test
+    public void testWriterError() {
+        Writer writer = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) 
+                    throws IOException {
+                throw new IOException("Failed.");
+            }
+            @Override
+            public void flush() {
+            }
+            @Override
+            public void close() {
+            }
+        };
+        StreamingSVGGraphics2D g2 = new StreamingSVGGraphics2D(writer, 10, 10);
+        g2.fill(new Rectangle2D.Double(0, 0, 10, 10));
+        try {
+            g2.endDocument();
+            fail("Expected an IOException.");
+        } catch (IOException ex) {
+            assertEquals("Failed.", ex.getMessage());
+        }
+    }
+    
+}
@@ -32,6 +32,10 @@
 
 package com.orsoncharts.graphics3d;
 
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.geom.Dimension2D;
+import java.awt.geom.Point2D;
 import com.orsoncharts.TestUtils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -139,4 +143,79 @@ public class ViewPoint3DTest {
         assertEquals(25, v1.getZ(), EPSILON);
         assertEquals(0, v1.getTheta(), EPSILON); 
     }
+    
+    /**
+     * The optimal distance found by projecting a box in a world (the 
+     * original implementation, for reference).
+     */
+    private float referenceOptimalDistance(ViewPoint3D v, Dimension2D target,
+            Dimension3D dim3D, double projDist) {
+        ViewPoint3D vp = new ViewPoint3D(v.getTheta(), v.getPhi(), 
+                v.getRho(), v.calcRollAngle());
+        float near = (float) dim3D.getDiagonalLength();
+        float far = near * 40;
+        World w = new World();
+        w.add(Object3D.createBox(0, dim3D.getWidth(), 0, dim3D.getHeight(), 
+                0, dim3D.getDepth(), Color.RED));
+        while (true) {
+            vp.setRho(near);
+            double nearcover = coverage(w.calculateProjectedPoints(vp, 
+                    projDist), target);
+            vp.setRho(far);
+            double farcover = coverage(w.calculateProjectedPoints(vp, 
+                    projDist), target);
+            if (nearcover <= 1.0) {
+                return near;
+            }
+            if (farcover >= 1.0) {
+                return far;
+            }
+            float mid = (near + far) / 2.0f;
+            vp.setRho(mid);
+            double midcover = coverage(w.calculateProjectedPoints(vp, 
+                    projDist), target);
+            if (midcover >= 1.0) {
+                near = mid;
+            } else {
+                far = mid;
+            }
+        }
+    }
+    
+    private double coverage(Point2D[] pts, Dimension2D target) {
+        Dimension d = Utils2D.findDimension(pts);
+        double wpercent = d.getWidth() / target.getWidth();
+        double hpercent = d.getHeight() / target.getHeight();
+        if (wpercent >= 1.0 && hpercent < 1.0) {
+            return wpercent;
+        }
+        if (wpercent < 1.0 && hpercent >= 1.0) {
+            return hpercent;
+        }
+        return Math.max(wpercent, hpercent);
+    }
+    
+    /**
+     * The optimal distance is computed from the box corners directly, and
+     * should match the result from projecting a box in a world.
+     */
+    @Test
+    public void testOptimalDistance() {
+        Dimension3D[] dims = new Dimension3D[] {new Dimension3D(1, 1, 1), 
+            new Dimension3D(10, 3, 6), new Dimension3D(2.5, 40, 0.5)};
+        Dimension[] targets = new Dimension[] {new Dimension(300, 200), 
+            new Dimension(640, 480), new Dimension(100, 900)};
+        for (int i = 0; i < 12; i++) {
+            ViewPoint3D vp = new ViewPoint3D(i * 0.55, 0.1 + i * 0.25, 25.0,
+                    i * 0.3);
+            for (Dimension3D dim : dims) {
+                for (Dimension target : targets) {
+                    assertEquals(referenceOptimalDistance(vp, target, dim, 
+                            1500.0), vp.optimalDistance(target, dim, 1500.0), 
+                            0.0f);
+                }
+            }
+        }
+    }
+
 }
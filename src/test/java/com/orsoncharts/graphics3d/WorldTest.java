@@ -0,0 +1,174 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.geom.Point2D;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link World} class.
+ */
+public class WorldTest {
+    
+    private static final double EPSILON = 0.000001;
+    
+    @Test
+    public void testVertexStorage() {
+        Object3D obj = new Object3D(Color.RED);
+        for (int i = 0; i < 100; i++) {
+            obj.addVertex(i, 2 * i, 3 * i);
+        }
+        obj.addVertex(new Point3D(1.0, 2.0, 3.0));
+        assertEquals(101, obj.getVertexCount());
+        assertEquals(new Point3D(50.0, 100.0, 150.0), obj.getVertex(50));
+        assertEquals(new Point3D(1.0, 2.0, 3.0), obj.getVertex(100));
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetVertexOutOfRange() {
+        Object3D obj = new Object3D(Color.RED);
+        obj.addVertex(1.0, 2.0, 3.0);
+        obj.getVertex(1);
+    }
+    
+    /**
+     * The projected points for the world should match the points computed
+     * one at a time by the view point.
+     */
+    @Test
+    public void testCalculateProjectedPoints() {
+        World world = new World();
+        world.add(Object3D.createBox(0, 2, 0, 3, 0, 4, Color.RED));
+        world.add("other", Object3D.createCube(1.0, 5, 5, 5, Color.BLUE));
+        ViewPoint3D vp = new ViewPoint3D(1.0, 2.0, 30.0, 0.5);
+        Point2D[] pts = world.calculateProjectedPoints(vp, 1500.0);
+        Point3D[] eyePts = world.calculateEyeCoordinates(vp);
+        assertEquals(16, pts.length);
+        assertEquals(16, eyePts.length);
+        int i = 0;
+        for (Object3D obj : world.getObjects()) {
+            for (int v = 0; v < obj.getVertexCount(); v++) {
+                Point2D expected = vp.worldToScreen(obj.getVertex(v), 1500.0);
+                assertEquals(expected.getX(), pts[i].getX(), EPSILON);
+                assertEquals(expected.getY(), pts[i].getY(), EPSILON);
+                Point3D eye = vp.worldToEye(obj.getVertex(v));
+                assertEquals(eye.getZ(), eyePts[i].getZ(), EPSILON);
+                i++;
+            }
+        }
+        
+        // adding an object must refresh the vertices
+        world.add(Object3D.createCube(1.0, -5, -5, -5, Color.GREEN));
+        assertEquals(24, world.calculateProjectedPoints(vp, 1500.0).length);
+    }
+
+    /**
+     * The single-pass projection should give the same results as the 
+     * separate eye coordinate and projected point calculations.
+     */
+    @Test
+    public void testProject() {
+        World world = new World();
+        world.add(Object3D.createBox(0, 2, 0, 3, 0, 4, Color.RED));
+        ViewPoint3D vp = new ViewPoint3D(1.0, 2.0, 30.0, 0.5);
+        vp.roll(0.3);
+        Point3D[] eyePts = world.calculateEyeCoordinates(vp);
+        Point2D[] pts = world.calculateProjectedPoints(vp, 1500.0);
+        ProjectionBuffer pb = world.project(vp, 1500.0, null);
+        assertEquals(8, pb.getVertexCount());
+        for (int i = 0; i < 8; i++) {
+            assertEquals(eyePts[i].getX(), pb.getEyeX(i), EPSILON);
+            assertEquals(eyePts[i].getY(), pb.getEyeY(i), EPSILON);
+            assertEquals(eyePts[i].getZ(), pb.getEyeZ(i), EPSILON);
+            assertEquals(pts[i].getX(), pb.getScreenX(i), EPSILON);
+            assertEquals(pts[i].getY(), pb.getScreenY(i), EPSILON);
+            assertEquals(pts[i].getX(), pb.getScreenPoints()[i].getX(), 
+                    EPSILON);
+        }
+        
+        // the buffer is reused for the next projection
+        world.add(Object3D.createCube(1.0, 5, 5, 5, Color.BLUE));
+        assertSame(pb, world.project(vp, 1500.0, pb));
+        assertEquals(16, pb.getVertexCount());
+        assertEquals(16, pb.getScreenPoints().length);
+        
+        // the screen points from the earlier projection are not modified
+        Point2D[] first = pb.getScreenPoints();
+        Point2D p0 = (Point2D) first[0].clone();
+        vp.panLeftRight(0.5);
+        world.project(vp, 1500.0, pb);
+        assertEquals(p0, first[0]);
+        assertFalse(p0.equals(pb.getScreenPoints()[0]));
+    }
+    
+    /**
+     * The face list is cached until the world changes, and the offsets are 
+     * kept correct for objects that also belong to another world.
+     */
+    @Test
+    public void testGetFaces() {
+        World world = new World();
+        Object3D cube1 = Object3D.createCube(1.0, 0.0, 0.0, 0.0, Color.RED);
+        world.add(cube1);
+        List<Face> faces = world.getFaces();
+        assertEquals(6, faces.size());
+        assertSame(faces, world.getFaces());
+        
+        Object3D cube2 = Object3D.createCube(1.0, 2.0, 0.0, 0.0, Color.RED);
+        world.add(cube2);
+        faces = world.getFaces();
+        assertEquals(12, faces.size());
+        assertEquals(8, faces.get(6).getOffset());
+        
+        // the second cube is also the first object in another world
+        World other = new World();
+        other.add(cube2);
+        other.getFaces();
+        assertEquals(0, cube2.getFaces().get(0).getOffset());
+        assertSame(faces, world.getFaces());
+        assertEquals(8, cube2.getFaces().get(0).getOffset());
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetFacesUnmodifiable() {
+        World world = new World();
+        world.add(Object3D.createCube(1.0, 0.0, 0.0, 0.0, Color.RED));
+        world.getFaces().clear();
+    }
+
+}
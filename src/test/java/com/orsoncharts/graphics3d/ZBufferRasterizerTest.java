@@ -0,0 +1,177 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link ZBufferRasterizer} class.
+ */
+public class ZBufferRasterizerTest {
+    
+    private static final int W = 200;
+    
+    private static final int H = 150;
+    
+    /**
+     * Creates a world with overlapping cubes in two colors.
+     */
+    private World createWorld() {
+        World world = new World();
+        for (int i = 0; i < 4; i++) {
+            world.add(Object3D.createCube(2.0, i * 0.8, i * 0.7, i * 0.6, 
+                    i % 2 == 0 ? Color.RED : Color.BLUE));
+        }
+        return world;
+    }
+    
+    private List<Face> frontFaces(World world, ProjectionBuffer pb) {
+        List<Face> result = new ArrayList<Face>();
+        for (Face f : world.getFaces()) {
+            if (f.isFrontFacing(pb)) {
+                result.add(f);
+            }
+        }
+        return result;
+    }
+
+    private int[] rasterize(ZBufferRasterizer r, List<Face> faces, 
+            ProjectionBuffer pb) {
+        r.clear();
+        for (Face f : faces) {
+            r.fillFace(f, pb, f.getColor().getRGB(), -W / 2.0, -H / 2.0, 
+                    1.0, 1.0);
+        }
+        return r.getImage().getRGB(0, 0, W, H, null, 0, W);
+    }
+    
+    /**
+     * The output does not depend on the order that opaque faces are filled.
+     */
+    @Test
+    public void testOrderIndependence() {
+        World world = createWorld();
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(15.0);
+        ZBufferRasterizer r = new ZBufferRasterizer(W, H);
+        ProjectionBuffer pb = null;
+        for (int frame = 0; frame < 6; frame++) {
+            vp.panLeftRight(Math.PI / 3);
+            pb = world.project(vp, 200.0, pb);
+            List<Face> faces = frontFaces(world, pb);
+            int[] forward = rasterize(r, faces, pb);
+            Collections.reverse(faces);
+            int[] reverse = rasterize(r, faces, pb);
+            assertArrayEquals(forward, reverse);
+            boolean red = false, blue = false;
+            for (int argb : forward) {
+                red = red || (argb == Color.RED.getRGB());
+                blue = blue || (argb == Color.BLUE.getRGB());
+            }
+            assertTrue(red && blue);
+        }
+    }
+    
+    /**
+     * The pixels covered by a face should match (closely) those filled by
+     * {@code Graphics2D} without anti-aliasing.
+     */
+    @Test
+    public void testCoverage() {
+        World world = new World();
+        world.add(Object3D.createCube(3.0, 0.0, 0.0, 0.0, Color.RED));
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(15.0);
+        ProjectionBuffer pb = world.project(vp, 200.0, null);
+        ZBufferRasterizer r = new ZBufferRasterizer(W, H);
+        int[] zb = rasterize(r, frontFaces(world, pb), pb);
+        
+        BufferedImage image = new BufferedImage(W, H, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, 
+                RenderingHints.VALUE_STROKE_PURE);
+        g2.translate(W / 2.0, H / 2.0);
+        g2.setPaint(Color.RED);
+        for (Face f : frontFaces(world, pb)) {
+            Path2D p = f.createPath(pb.getScreenPoints());
+            g2.fill(p);
+        }
+        g2.dispose();
+        int[] expected = image.getRGB(0, 0, W, H, null, 0, W);
+        int covered = 0;
+        int diff = 0;
+        for (int i = 0; i < zb.length; i++) {
+            if (expected[i] != 0) {
+                covered++;
+            }
+            if ((expected[i] != 0) != (zb[i] != 0)) {
+                diff++;
+            }
+        }
+        assertTrue(covered > 1000);
+        assertTrue(diff < covered / 100);
+    }
+    
+    /**
+     * Translucent faces are blended but do not write to the depth buffer.
+     */
+    @Test
+    public void testTranslucent() {
+        World world = new World();
+        world.add(Object3D.createCube(3.0, 0.0, 0.0, 0.0, Color.RED));
+        ViewPoint3D vp = ViewPoint3D.createAboveViewPoint(15.0);
+        ProjectionBuffer pb = world.project(vp, 200.0, null);
+        ZBufferRasterizer r = new ZBufferRasterizer(W, H);
+        for (Face f : frontFaces(world, pb)) {
+            r.fillFace(f, pb, 0x800000FF, -W / 2.0, -H / 2.0, 1.0, 1.0);
+        }
+        int argb = r.getImage().getRGB(W / 2, H / 2);
+        assertEquals(0x80, argb >>> 24);
+        assertEquals(0xFF, argb & 0xFF);
+        assertEquals(0f, r.getDepth(W / 2, H / 2), 0f);
+        
+        r.clear();
+        assertEquals(0, r.getImage().getRGB(W / 2, H / 2));
+    }
+    
+}
@@ -0,0 +1,339 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d.swing;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import org.junit.Test;
+
+import com.orsoncharts.Chart3D;
+import com.orsoncharts.Chart3DFactory;
+import com.orsoncharts.data.PieDataset3D;
+import com.orsoncharts.data.category.StandardCategoryDataset3D;
+import com.orsoncharts.data.StandardPieDataset3D;
+import com.orsoncharts.graphics3d.RenderingInfo;
+import com.orsoncharts.label.PieLabelGenerator;
+import com.orsoncharts.plot.PiePlot3D;
+import com.orsoncharts.table.RectanglePainter;
+
+/**
+ * Tests for the {@link Panel3D} class.
+ */
+public class Panel3DTest {
+
+    private Chart3D createChart() {
+        StandardPieDataset3D<String> dataset 
+                = new StandardPieDataset3D<String>();
+        dataset.add("A", 5.0);
+        dataset.add("B", 3.0);
+        dataset.add("C", 1.5);
+        return Chart3DFactory.createPieChart("title", "subtitle", dataset);
+    }
+    
+    /**
+     * Paints the panel to an image on the event dispatch thread and returns
+     * the pixels.
+     */
+    private int[] paint(final Panel3D panel) throws Exception {
+        final BufferedImage image = new BufferedImage(300, 200, 
+                BufferedImage.TYPE_INT_ARGB);
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                Graphics2D g2 = image.createGraphics();
+                panel.paint(g2);
+                g2.dispose();
+            }
+        });
+        return image.getRGB(0, 0, 300, 200, null, 0, 300);
+    }
+    
+    /**
+     * Returns the rendering info for the panel, read on the event dispatch
+     * thread (after any pending frame has been displayed).
+     */
+    private RenderingInfo fetchInfo(final Panel3D panel) throws Exception {
+        final RenderingInfo[] result = new RenderingInfo[1];
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = panel.getRenderingInfo();
+            }
+        });
+        return result[0];
+    }
+    
+    /**
+     * Waits until the panel displays a frame other than the one with the 
+     * {@code previous} rendering info.
+     */
+    private void waitForFrame(Panel3D panel, RenderingInfo previous) 
+            throws Exception {
+        long end = System.currentTimeMillis() + 20000L;
+        RenderingInfo info = fetchInfo(panel);
+        while (info == null || info == previous) {
+            assertTrue(System.currentTimeMillis() < end);
+            Thread.sleep(10L);
+            info = fetchInfo(panel);
+        }
+    }
+    
+    /**
+     * In asynchronous mode the panel paints the frame rendered on the 
+     * background thread, which should match the frame painted directly, and
+     * a change to the view point leads to a new frame.
+     */
+    @Test
+    public void testAsyncRendering() throws Exception {
+        Panel3D expectedPanel = new Panel3D(createChart());
+        expectedPanel.setSize(300, 200);
+        int[] expected = paint(expectedPanel);
+        
+        final Panel3D panel = new Panel3D(createChart());
+        panel.setSize(300, 200);
+        panel.setAsyncRendering(true);
+        paint(panel);  // requests the first frame
+        waitForFrame(panel, null);
+        assertArrayEquals(expected, paint(panel));
+        
+        // changing the view point marks the frame as stale
+        RenderingInfo first = fetchInfo(panel);
+        expectedPanel.panLeftRight(0.5);
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                panel.panLeftRight(0.5);
+            }
+        });
+        int[] stale = paint(panel);  // old frame, requests a new one
+        expected = paint(expectedPanel);
+        assertFalse(Arrays.equals(expected, stale));
+        waitForFrame(panel, first);
+        assertArrayEquals(expected, paint(panel));
+    }
+    
+    /**
+     * With draft rendering enabled, zooming with the mouse wheel renders 
+     * draft frames until the refine delay has passed.
+     */
+    @Test
+    public void testDraftRendering() throws Exception {
+        final Panel3D panel = new Panel3D(createChart());
+        panel.setSize(300, 200);
+        panel.setDraftRendering(true);
+        panel.setRefineDelay(20);
+        final boolean[] interacting = new boolean[1];
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                panel.mouseWheelMoved(new MouseWheelEvent(panel, 
+                        MouseEvent.MOUSE_WHEEL, 0L, 0, 10, 10, 0, false, 
+                        MouseWheelEvent.WHEEL_UNIT_SCROLL, 1, 1));
+                interacting[0] = panel.isInteracting();
+            }
+        });
+        assertTrue(interacting[0]);
+        paint(panel);  // a draft frame
+        long end = System.currentTimeMillis() + 20000L;
+        while (interacting[0]) {
+            assertTrue(System.currentTimeMillis() < end);
+            Thread.sleep(10L);
+            SwingUtilities.invokeAndWait(new Runnable() {
+                @Override
+                public void run() {
+                    interacting[0] = panel.isInteracting();
+                }
+            });
+        }
+        Panel3D expectedPanel = new Panel3D(createChart());
+        expectedPanel.setSize(300, 200);
+        expectedPanel.getViewPoint().setRho(panel.getViewPoint().getRho());
+        assertArrayEquals(paint(expectedPanel), paint(panel));
+    }
+    
+    /**
+     * Installs a background painter that blocks the render thread in the 
+     * first frame that it paints: {@code painting} is counted down when the
+     * frame starts, and the frame continues when {@code release} is counted
+     * down.
+     */
+    private void blockFirstFrame(Chart3D chart, final CountDownLatch painting,
+            final CountDownLatch release) {
+        final RectanglePainter background = chart.getBackground();
+        chart.setBackground(new RectanglePainter() {
+            @Override
+            public void fill(Graphics2D g2, Rectangle2D bounds) {
+                if (painting.getCount() > 0) {
+                    painting.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                background.fill(g2, bounds);
+            }
+        });
+    }
+    
+    /**
+     * The dataset can be changed while the render thread paints a frame: 
+     * the render thread does not read the dataset (here, to generate the 
+     * section labels), the frame that is superseded by the change is not 
+     * displayed, and the next frame shows the change.
+     */
+    @Test
+    public void testDatasetChangeWhileRendering() throws Exception {
+        final StandardPieDataset3D<String> dataset 
+                = new StandardPieDataset3D<String>();
+        dataset.add("A", 5.0);
+        dataset.add("B", 3.0);
+        dataset.add("C", 1.5);
+        Chart3D chart = Chart3DFactory.createPieChart("title", "subtitle", 
+                dataset);
+        PiePlot3D plot = (PiePlot3D) chart.getPlot();
+        final PieLabelGenerator generator = plot.getSectionLabelGenerator();
+        final AtomicBoolean readByRenderThread = new AtomicBoolean();
+        plot.setSectionLabelGenerator(new PieLabelGenerator() {
+            @Override
+            public String generateLabel(PieDataset3D dataset, 
+                    Comparable<?> key) {
+                if (Thread.currentThread().getName().equals(
+                        "Panel3D-render")) {
+                    readByRenderThread.set(true);
+                }
+                return generator.generateLabel(dataset, key);
+            }
+        });
+        CountDownLatch painting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockFirstFrame(chart, painting, release);
+        final Panel3D panel = new Panel3D(chart);
+        panel.setSize(300, 200);
+        panel.setAsyncRendering(true);
+        paint(panel);  // requests the first frame
+        assertTrue(painting.await(20L, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                dataset.add("D", 4.0);
+                panel.repaint();
+            }
+        });
+        paint(panel);  // requests the frame for the change
+        release.countDown();
+        waitForFrame(panel, null);
+        
+        StandardPieDataset3D<String> expectedDataset 
+                = new StandardPieDataset3D<String>();
+        expectedDataset.add("A", 5.0);
+        expectedDataset.add("B", 3.0);
+        expectedDataset.add("C", 1.5);
+        expectedDataset.add("D", 4.0);
+        Panel3D expectedPanel = new Panel3D(Chart3DFactory.createPieChart(
+                "title", "subtitle", expectedDataset));
+        expectedPanel.setSize(300, 200);
+        assertArrayEquals(paint(expectedPanel), paint(panel));
+        assertFalse(readByRenderThread.get());
+    }
+    
+    /**
+     * A change to the view point while the render thread paints a frame
+     * cancels that frame, and the chart can be drawn on the event dispatch
+     * thread meanwhile, without affecting the frame that is displayed next.
+     */
+    @Test
+    public void testViewPointChangeWhileRendering() throws Exception {
+        final Chart3D chart = createBarChart();
+        CountDownLatch painting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blockFirstFrame(chart, painting, release);
+        final Panel3D panel = new Panel3D(chart);
+        panel.setSize(300, 200);
+        panel.setAsyncRendering(true);
+        paint(panel);  // requests the first frame
+        assertTrue(painting.await(20L, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                panel.panLeftRight(0.5);
+            }
+        });
+        paint(panel);  // requests the frame for the new view point
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                BufferedImage image = new BufferedImage(200, 150, 
+                        BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g2 = image.createGraphics();
+                chart.getViewPoint().moveUpDown(0.3);
+                chart.draw(g2, new Rectangle(200, 150));
+                chart.getViewPoint().moveUpDown(-0.3);
+                g2.dispose();
+            }
+        });
+        release.countDown();
+        waitForFrame(panel, null);
+        
+        Panel3D expectedPanel = new Panel3D(createBarChart());
+        expectedPanel.setSize(300, 200);
+        expectedPanel.panLeftRight(0.5);
+        assertArrayEquals(paint(expectedPanel), paint(panel));
+    }
+    
+    private Chart3D createBarChart() {
+        StandardCategoryDataset3D<String, String, String> dataset 
+                = new StandardCategoryDataset3D<String, String, String>();
+        dataset.addValue(1.0, "S1", "R1", "C1");
+        dataset.addValue(4.0, "S1", "R1", "C2");
+        dataset.addValue(2.5, "S1", "R2", "C1");
+        dataset.addValue(3.0, "S1", "R2", "C2");
+        return Chart3DFactory.createBarChart("title", "subtitle", dataset, 
+                "rows", "columns", "values");
+    }
+
+}
@@ -36,7 +36,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -44,13 +46,17 @@ import org.junit.Test;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.GradientPaint;
+import java.util.List;
 import com.orsoncharts.axis.NumberAxis3D;
 import com.orsoncharts.Range;
 import com.orsoncharts.TestUtils;
 import com.orsoncharts.axis.ValueAxis3D;
 import com.orsoncharts.data.xyz.XYZDataset;
+import com.orsoncharts.data.xyz.XYZSeries;
 import com.orsoncharts.data.xyz.XYZSeriesCollection;
 import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.Object3D;
+import com.orsoncharts.graphics3d.World;
 import com.orsoncharts.label.StandardXYZLabelGenerator;
 import com.orsoncharts.renderer.xyz.ScatterXYZRenderer;
 import com.orsoncharts.renderer.xyz.XYZRenderer;
@@ -170,6 +176,68 @@ public class XYZPlotTest implements Plot3DChangeListener {
         assertTrue(p1.equals(p2));
     }
     
+    /**
+     * A change to one series that doesn't change the axis ranges should be
+     * passed on with the series key, so that the chart can recompose that 
+     * series only.
+     */
+    @Test
+    public void checkSeriesChangeEvent() {
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        XYZSeries<String> s1 = new XYZSeries<String>("S1");
+        XYZSeries<String> s2 = new XYZSeries<String>("S2");
+        for (int i = 1; i <= 9; i += 4) {
+            s1.add(i, i, i);
+            s2.add(i, 10 - i, i);
+        }
+        dataset.add(s1);
+        dataset.add(s2);
+        XYZPlot plot = new XYZPlot(dataset, new ScatterXYZRenderer(), 
+                new NumberAxis3D("X"), new NumberAxis3D("Y"), 
+                new NumberAxis3D("Z"));
+        plot.addChangeListener(this);
+        
+        s2.add(5.0, 4.0, 5.0);
+        assertTrue(this.lastEvent.requiresWorldUpdate());
+        assertEquals("S2", this.lastEvent.getSeriesKey());
+        
+        // a change to the axis ranges affects all series
+        s2.add(50.0, 4.0, 5.0);
+        assertTrue(this.lastEvent.requiresWorldUpdate());
+        assertNull(this.lastEvent.getSeriesKey());
+        this.lastEvent = null;
+    }
+    
+    @Test
+    public void testComposeSeries() {
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        XYZSeries<String> s1 = new XYZSeries<String>("S1");
+        s1.add(1.0, 2.0, 3.0);
+        s1.add(4.0, 5.0, 6.0);
+        XYZSeries<String> s2 = new XYZSeries<String>("S2");
+        s2.add(7.0, 8.0, 9.0);
+        dataset.add(s1);
+        dataset.add(s2);
+        XYZPlot plot = new XYZPlot(dataset, new ScatterXYZRenderer(), 
+                new NumberAxis3D("X"), new NumberAxis3D("Y"), 
+                new NumberAxis3D("Z"));
+        World world = new World();
+        plot.compose(world, 0.0, 0.0, 0.0);
+        List<Object3D> before = world.getObjects();
+        assertEquals(3, before.size());
+        
+        s2.add(2.0, 2.0, 2.0);
+        assertTrue(plot.composeSeries(world, "S2", 0.0, 0.0, 0.0));
+        List<Object3D> after = world.getObjects();
+        assertEquals(4, after.size());
+        assertSame(before.get(0), after.get(0));
+        assertSame(before.get(1), after.get(1));
+        assertNotSame(before.get(2), after.get(2));
+        assertFalse(plot.composeSeries(world, "S3", 0.0, 0.0, 0.0));
+    }
+    
     /**
      * Returns a new dataset.
      * 